@@ -31,8 +31,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import springfox.documentation.annotations.ApiIgnore;
 
 import static org.apache.dolphinscheduler.api.enums.Status.*;
@@ -80,6 +83,100 @@ public class LoggerController extends BaseController {
     }
 
 
+    /**
+     * follow task log, lines are sent as server-sent events while the task writes them
+     *
+     * @param loginUser      login user
+     * @param taskInstanceId task instance id
+     * @param skipNum        lines already read
+     * @return log event stream
+     */
+    @ApiOperation(value = "followLog", notes = "FOLLOW_TASK_INSTANCE_LOG_NOTES")
+    @ApiImplicitParams({
+            @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", dataType = "Int", example = "100"),
+            @ApiImplicitParam(name = "skipLineNum", value = "SKIP_LINE_NUM", dataType = "Int", example = "100")
+    })
+    @GetMapping(value = "/follow", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiException(QUERY_TASK_INSTANCE_LOG_ERROR)
+    public SseEmitter followLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                @RequestParam(value = "taskInstanceId") int taskInstanceId,
+                                @RequestParam(value = "skipLineNum", required = false, defaultValue = "0") int skipNum) {
+        logger.info("login user {}, follow {} task instance log ,skipLineNum {}", loginUser.getUserName(), taskInstanceId, skipNum);
+        return loggerService.followLog(taskInstanceId, skipNum);
+    }
+
+
+    /**
+     * search task log
+     *
+     * @param loginUser      login user
+     * @param taskInstanceId task instance id
+     * @param keyword        literal text or regular expression
+     * @param regex          whether the keyword is a regular expression
+     * @param skipNum        skip number
+     * @param contextLines   lines returned before and after each match
+     * @param maxMatches     max matches
+     * @return matching lines
+     */
+    @ApiOperation(value = "searchLog", notes = "SEARCH_TASK_INSTANCE_LOG_NOTES")
+    @ApiImplicitParams({
+            @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", dataType = "Int", example = "100"),
+            @ApiImplicitParam(name = "keyword", value = "LOG_SEARCH_KEYWORD", type = "String"),
+            @ApiImplicitParam(name = "regex", value = "LOG_SEARCH_REGEX", type = "Boolean"),
+            @ApiImplicitParam(name = "skipLineNum", value = "SKIP_LINE_NUM", dataType = "Int", example = "100"),
+            @ApiImplicitParam(name = "contextLines", value = "LOG_SEARCH_CONTEXT_LINES", dataType = "Int", example = "2"),
+            @ApiImplicitParam(name = "maxMatches", value = "LOG_SEARCH_MAX_MATCHES", dataType = "Int", example = "100")
+    })
+    @GetMapping(value = "/search")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(SEARCH_TASK_INSTANCE_LOG_ERROR)
+    public Result searchLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                            @RequestParam(value = "taskInstanceId") int taskInstanceId,
+                            @RequestParam(value = "keyword") String keyword,
+                            @RequestParam(value = "regex", required = false, defaultValue = "false") boolean regex,
+                            @RequestParam(value = "skipLineNum", required = false, defaultValue = "0") int skipNum,
+                            @RequestParam(value = "contextLines", required = false, defaultValue = "2") int contextLines,
+                            @RequestParam(value = "maxMatches", required = false, defaultValue = "100") int maxMatches) {
+        logger.info("login user {}, search {} task instance log, keyword {}, regex {}",
+                loginUser.getUserName(), taskInstanceId, keyword, regex);
+        return loggerService.searchLog(taskInstanceId, keyword, regex, skipNum, contextLines, maxMatches);
+    }
+
+
+    /**
+     * search the task logs of a process instance
+     *
+     * @param loginUser         login user
+     * @param processInstanceId process instance id
+     * @param keyword           literal text or regular expression
+     * @param regex             whether the keyword is a regular expression
+     * @param contextLines      lines returned before and after each match
+     * @param maxMatches        max matches
+     * @return matching lines
+     */
+    @ApiOperation(value = "searchProcessInstanceLog", notes = "SEARCH_PROCESS_INSTANCE_LOG_NOTES")
+    @ApiImplicitParams({
+            @ApiImplicitParam(name = "processInstanceId", value = "PROCESS_INSTANCE_ID", dataType = "Int", example = "100"),
+            @ApiImplicitParam(name = "keyword", value = "LOG_SEARCH_KEYWORD", type = "String"),
+            @ApiImplicitParam(name = "regex", value = "LOG_SEARCH_REGEX", type = "Boolean"),
+            @ApiImplicitParam(name = "contextLines", value = "LOG_SEARCH_CONTEXT_LINES", dataType = "Int", example = "2"),
+            @ApiImplicitParam(name = "maxMatches", value = "LOG_SEARCH_MAX_MATCHES", dataType = "Int", example = "100")
+    })
+    @GetMapping(value = "/search-process-instance")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(SEARCH_TASK_INSTANCE_LOG_ERROR)
+    public Result searchProcessInstanceLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                           @RequestParam(value = "processInstanceId") int processInstanceId,
+                                           @RequestParam(value = "keyword") String keyword,
+                                           @RequestParam(value = "regex", required = false, defaultValue = "false") boolean regex,
+                                           @RequestParam(value = "contextLines", required = false, defaultValue = "2") int contextLines,
+                                           @RequestParam(value = "maxMatches", required = false, defaultValue = "100") int maxMatches) {
+        logger.info("login user {}, search task logs of process instance {}, keyword {}, regex {}",
+                loginUser.getUserName(), processInstanceId, keyword, regex);
+        return loggerService.searchProcessInstanceLog(processInstanceId, keyword, regex, contextLines, maxMatches);
+    }
+
+
     /**
      * download log file
      *
@@ -94,13 +191,14 @@ public class LoggerController extends BaseController {
     @GetMapping(value = "/download-log")
     @ResponseBody
     @ApiException(DOWNLOAD_TASK_INSTANCE_LOG_FILE_ERROR)
-    public ResponseEntity downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
-                                          @RequestParam(value = "taskInstanceId") int taskInstanceId) {
-        byte[] logBytes = loggerService.getLogBytes(taskInstanceId);
+    public ResponseEntity<StreamingResponseBody> downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                                                 @RequestParam(value = "taskInstanceId") int taskInstanceId) {
+        StreamingResponseBody logContent = loggerService.downloadLog(taskInstanceId);
         return ResponseEntity
                 .ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + System.currentTimeMillis() + ".log" + "\"")
-                .body(logBytes);
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(logContent);
     }
 
 }
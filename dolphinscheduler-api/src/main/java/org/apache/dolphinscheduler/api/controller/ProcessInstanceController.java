@@ -70,6 +70,7 @@ public class ProcessInstanceController extends BaseController {
      * @param host                host
      * @param startTime           start time
      * @param endTime             end time
+     * @param includeArchived     include archived process instances without start time
      * @return process instance list
      */
     @ApiOperation(value = "queryProcessInstanceList", notes = "QUERY_PROCESS_INSTANCE_LIST_NOTES")
@@ -81,6 +82,7 @@ public class ProcessInstanceController extends BaseController {
             @ApiImplicitParam(name = "host", value = "HOST", type = "String"),
             @ApiImplicitParam(name = "startDate", value = "START_DATE", type = "String"),
             @ApiImplicitParam(name = "endDate", value = "END_DATE", type = "String"),
+            @ApiImplicitParam(name = "includeArchived", value = "INCLUDE_ARCHIVED", dataType = "Boolean", example = "false"),
             @ApiImplicitParam(name = "pageNo", value = "PAGE_NO", dataType = "Int", example = "100"),
             @ApiImplicitParam(name = "pageSize", value = "PAGE_SIZE", dataType = "Int", example = "100")
     })
@@ -96,6 +98,7 @@ public class ProcessInstanceController extends BaseController {
                                            @RequestParam(value = "host", required = false) String host,
                                            @RequestParam(value = "startDate", required = false) String startTime,
                                            @RequestParam(value = "endDate", required = false) String endTime,
+                                           @RequestParam(value = "includeArchived", required = false, defaultValue = "false") boolean includeArchived,
                                            @RequestParam("pageNo") Integer pageNo,
                                            @RequestParam("pageSize") Integer pageSize) {
         logger.info("query all process instance list, login user:{},project name:{}, define id:{}," +
@@ -104,7 +107,7 @@ public class ProcessInstanceController extends BaseController {
                 startTime, endTime, pageNo, pageSize);
         searchVal = ParameterUtils.handleEscapes(searchVal);
         Map<String, Object> result = processInstanceService.queryProcessInstanceList(
-                loginUser, projectName, processDefinitionId, startTime, endTime, searchVal, executorName, stateType, host, pageNo, pageSize);
+                loginUser, projectName, processDefinitionId, startTime, endTime, searchVal, executorName, stateType, host, includeArchived, pageNo, pageSize);
         return returnDataListPaging(result);
     }
 
@@ -103,7 +103,8 @@ public class DataAnalysisService extends BaseService{
         }
 
         Integer[] projectIds = getProjectIdsArrays(loginUser, projectId);
-        List<ExecuteStatusCount> taskInstanceStateCounts =
+        List<ExecuteStatusCount> taskInstanceStateCounts = processService.reachArchive(start, false) ?
+                taskInstanceMapper.countTaskInstanceStateByUserWithArchive(start, end, projectIds) :
                 taskInstanceMapper.countTaskInstanceStateByUser(start, end, projectIds);
 
         if (taskInstanceStateCounts != null) {
@@ -147,9 +148,9 @@ public class DataAnalysisService extends BaseService{
             return result;
         }
         Integer[] projectIdArray = getProjectIdsArrays(loginUser, projectId);
-        List<ExecuteStatusCount> processInstanceStateCounts =
-                processInstanceMapper.countInstanceStateByUser(start, end,
-                        projectIdArray);
+        List<ExecuteStatusCount> processInstanceStateCounts = processService.reachArchive(start, false) ?
+                processInstanceMapper.countInstanceStateByUserWithArchive(start, end, projectIdArray) :
+                processInstanceMapper.countInstanceStateByUser(start, end, projectIdArray);
 
         if (processInstanceStateCounts != null) {
             TaskCountDto taskCountResult = new TaskCountDto(processInstanceStateCounts);
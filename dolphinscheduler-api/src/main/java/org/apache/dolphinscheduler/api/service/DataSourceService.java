@@ -34,6 +34,8 @@ import org.apache.dolphinscheduler.dao.entity.Resource;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.DataSourceMapper;
 import org.apache.dolphinscheduler.dao.mapper.DataSourceUserMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.slf4j.Logger;
@@ -76,6 +78,9 @@ public class DataSourceService extends BaseService{
     @Autowired
     private DataSourceUserMapper datasourceUserMapper;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
     /**
      * create data source
      *
@@ -184,6 +189,7 @@ public class DataSourceService extends BaseService{
         dataSource.setConnectionParams(connectionParams);
         dataSource.setUpdateTime(now);
         dataSourceMapper.updateById(dataSource);
+        entityCacheManager.invalidate(CacheType.DATASOURCE);
         putMsg(result, Status.SUCCESS);
         return result;
     }
@@ -617,6 +623,7 @@ public class DataSourceService extends BaseService{
             }
             dataSourceMapper.deleteById(datasourceId);
             datasourceUserMapper.deleteByDatasourceId(datasourceId);
+            entityCacheManager.invalidate(CacheType.DATASOURCE);
             putMsg(result, Status.SUCCESS);
         } catch (Exception e) {
             logger.error("delete datasource error",e);
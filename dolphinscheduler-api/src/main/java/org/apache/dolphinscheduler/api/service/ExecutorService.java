@@ -30,6 +30,8 @@ import org.apache.dolphinscheduler.dao.entity.*;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.quartz.cron.CronUtils;
 import org.slf4j.Logger;
@@ -70,6 +72,9 @@ public class ExecutorService extends BaseService{
     @Autowired
     private ProcessService processService;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
     /**
      * execute process instance
      *
@@ -143,6 +148,7 @@ public class ExecutorService extends BaseService{
             processDefinition.setReceivers(receivers);
             processDefinition.setReceiversCc(receiversCc);
             processDefinitionMapper.updateById(processDefinition);
+            entityCacheManager.invalidate(CacheType.PROCESS_DEFINITION);
             putMsg(result, Status.SUCCESS);
         } else {
             putMsg(result, Status.START_PROCESS_INSTANCE_ERROR);
@@ -19,17 +19,37 @@ package org.apache.dolphinscheduler.api.service;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.remote.command.log.LogMatch;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogResponseCommand;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.service.log.LogClientService;
+import org.apache.dolphinscheduler.service.log.LogFollowListener;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * log service
@@ -42,14 +62,39 @@ public class LoggerService {
   @Autowired
   private ProcessService processService;
 
+  /**
+   * log follows are ended after this time
+   */
+  private static final long FOLLOW_TIMEOUT_MILLIS = 60 * 60 * 1000L;
+
+  /**
+   * interval of checking whether the tasks of followed logs finished
+   */
+  private static final long FOLLOW_CHECK_INTERVAL_MILLIS = 3000L;
+
   private final LogClientService logClient;
 
+  /**
+   * follow id -> task instance id of followed logs
+   */
+  private final Map<Long, Integer> follows = new ConcurrentHashMap<>();
+
+  /**
+   * follow check executor, started with the first follow
+   */
+  private ScheduledExecutorService followCheckExecutor;
+
   public LoggerService(){
     logClient = new LogClientService();
   }
 
   @PreDestroy
   public void close(){
+    synchronized (this) {
+      if (followCheckExecutor != null) {
+        followCheckExecutor.shutdownNow();
+      }
+    }
     logClient.close();
   }
 
@@ -63,7 +108,7 @@ public class LoggerService {
    */
   public Result queryLog(int taskInstId, int skipLineNum, int limit) {
 
-    TaskInstance taskInstance = processService.findTaskInstanceById(taskInstId);
+    TaskInstance taskInstance = processService.findTaskInstanceWithArchiveById(taskInstId);
 
     if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())){
       return new Result(Status.TASK_INSTANCE_NOT_FOUND.getCode(), Status.TASK_INSTANCE_NOT_FOUND.getMsg());
@@ -83,6 +128,170 @@ public class LoggerService {
 
 
 
+  /**
+   * search the log of a task instance
+   *
+   * @param taskInstId task instance id
+   * @param keyword literal text or regular expression
+   * @param regex whether the keyword is a regular expression
+   * @param skipLineNum skip line number
+   * @param contextLines lines returned before and after each match
+   * @param maxMatches max matches
+   * @return matches
+   */
+  public Result searchLog(int taskInstId, String keyword, boolean regex, int skipLineNum, int contextLines, int maxMatches) {
+    TaskInstance taskInstance = processService.findTaskInstanceWithArchiveById(taskInstId);
+
+    if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())){
+      return new Result(Status.TASK_INSTANCE_NOT_FOUND.getCode(), Status.TASK_INSTANCE_NOT_FOUND.getMsg());
+    }
+    return searchLogs(Collections.singletonList(taskInstance), keyword, regex, skipLineNum, contextLines, maxMatches);
+  }
+
+  /**
+   * search the logs of all tasks of a process instance, the logs of one host are searched in one request
+   *
+   * @param processInstanceId process instance id
+   * @param keyword literal text or regular expression
+   * @param regex whether the keyword is a regular expression
+   * @param contextLines lines returned before and after each match
+   * @param maxMatches max matches
+   * @return matches
+   */
+  public Result searchProcessInstanceLog(int processInstanceId, String keyword, boolean regex, int contextLines, int maxMatches) {
+    List<TaskInstance> taskInstances = processService.findValidTaskListWithArchiveByProcessId(processInstanceId);
+    return searchLogs(taskInstances, keyword, regex, 0, contextLines, maxMatches);
+  }
+
+  private Result searchLogs(List<TaskInstance> taskInstances, String keyword, boolean regex,
+                            int skipLineNum, int contextLines, int maxMatches) {
+    if (StringUtils.isEmpty(keyword)){
+      return new Result(Status.REQUEST_PARAMS_NOT_VALID_ERROR.getCode(),
+              MessageFormat.format(Status.REQUEST_PARAMS_NOT_VALID_ERROR.getMsg(), "keyword"));
+    }
+    // host -> log path -> task instance
+    Map<String, Map<String, TaskInstance>> hostLogs = new LinkedHashMap<>();
+    for (TaskInstance taskInstance : taskInstances) {
+      if (StringUtils.isBlank(taskInstance.getHost()) || StringUtils.isBlank(taskInstance.getLogPath())) {
+        continue;
+      }
+      hostLogs.computeIfAbsent(getHost(taskInstance.getHost()), k -> new LinkedHashMap<>())
+              .put(taskInstance.getLogPath(), taskInstance);
+    }
+
+    List<Map<String, Object>> matches = new ArrayList<>();
+    boolean truncated = false;
+    for (Map.Entry<String, Map<String, TaskInstance>> hostLog : hostLogs.entrySet()) {
+      if (matches.size() >= maxMatches) {
+        truncated = true;
+        break;
+      }
+      Map<String, TaskInstance> logs = hostLog.getValue();
+      SearchLogRequestCommand request = new SearchLogRequestCommand(new ArrayList<>(logs.keySet()),
+              keyword, regex, skipLineNum, contextLines, maxMatches - matches.size());
+      SearchLogResponseCommand response = logClient.searchLog(hostLog.getKey(), Constants.RPC_PORT, request);
+      if (response == null) {
+        continue;
+      }
+      if (response.getError() != null) {
+        return new Result(Status.SEARCH_TASK_INSTANCE_LOG_ERROR.getCode(),
+                MessageFormat.format(Status.SEARCH_TASK_INSTANCE_LOG_ERROR.getMsg(), response.getError()));
+      }
+      for (LogMatch logMatch : response.getMatches()) {
+        TaskInstance taskInstance = logs.get(logMatch.getPath());
+        Map<String, Object> match = new LinkedHashMap<>();
+        match.put("taskInstanceId", taskInstance.getId());
+        match.put("taskName", taskInstance.getName());
+        match.put("lineNum", logMatch.getLineNum());
+        match.put("line", logMatch.getLine());
+        match.put("before", logMatch.getBefore());
+        match.put("after", logMatch.getAfter());
+        matches.add(match);
+      }
+      truncated |= response.isTruncated();
+    }
+
+    Map<String, Object> data = new HashMap<>();
+    data.put("matches", matches);
+    data.put("truncated", truncated);
+    Result result = new Result(Status.SUCCESS.getCode(), Status.SUCCESS.getMsg());
+    result.setData(data);
+    return result;
+  }
+
+  /**
+   * follow log, lines after skipLineNum are sent as server-sent events while the task writes them.
+   * the stream completes after the task finished and its remaining lines were sent
+   *
+   * @param taskInstId task instance id
+   * @param skipLineNum skip line number
+   * @return emitter of log events
+   */
+  public SseEmitter followLog(int taskInstId, int skipLineNum) {
+    TaskInstance taskInstance = processService.findTaskInstanceWithArchiveById(taskInstId);
+    if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())){
+      throw new RuntimeException("task instance is null or host is null");
+    }
+    String host = getHost(taskInstance.getHost());
+    SseEmitter emitter = new SseEmitter(FOLLOW_TIMEOUT_MILLIS);
+    long followId;
+    try {
+      followId = logClient.followLog(host, Constants.RPC_PORT, taskInstance.getLogPath(), skipLineNum, new LogFollowListener() {
+        @Override
+        public void onLog(String lines) {
+          try {
+            emitter.send(lines, MediaType.TEXT_PLAIN);
+          } catch (IOException | IllegalStateException e) {
+            // the browser went away
+            emitter.completeWithError(e);
+          }
+        }
+
+        @Override
+        public void onEnd() {
+          emitter.complete();
+        }
+      });
+    } catch (RemotingException e) {
+      throw new RuntimeException("follow log of task instance " + taskInstId + " failed", e);
+    }
+    follows.put(followId, taskInstId);
+    emitter.onCompletion(() -> stopFollow(followId, false));
+    emitter.onTimeout(() -> stopFollow(followId, false));
+    startFollowCheck();
+    return emitter;
+  }
+
+  private void stopFollow(long followId, boolean drain) {
+    if (drain ? follows.containsKey(followId) : follows.remove(followId) != null) {
+      logClient.stopFollow(followId, drain);
+    }
+  }
+
+  /**
+   * drain the follows of finished tasks, called by the follow check executor
+   */
+  void checkFollows() {
+    try {
+      for (Map.Entry<Long, Integer> follow : follows.entrySet()) {
+        TaskInstance taskInstance = processService.findTaskInstanceWithArchiveById(follow.getValue());
+        if (taskInstance == null || taskInstance.getState() == null || taskInstance.getState().typeIsFinished()) {
+          stopFollow(follow.getKey(), true);
+        }
+      }
+    } catch (Exception e) {
+      logger.error("check log follows failed", e);
+    }
+  }
+
+  private synchronized void startFollowCheck() {
+    if (followCheckExecutor == null) {
+      followCheckExecutor = ThreadUtils.newDaemonThreadScheduledExecutor("Log-Follow-Checker", 1);
+      followCheckExecutor.scheduleWithFixedDelay(this::checkFollows,
+              FOLLOW_CHECK_INTERVAL_MILLIS, FOLLOW_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+  }
+
   /**
    * get log size
    *
@@ -90,7 +299,7 @@ public class LoggerService {
    * @return log byte array
    */
   public byte[] getLogBytes(int taskInstId) {
-    TaskInstance taskInstance = processService.findTaskInstanceById(taskInstId);
+    TaskInstance taskInstance = processService.findTaskInstanceWithArchiveById(taskInstId);
     if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())){
       throw new RuntimeException("task instance is null or host is null");
     }
@@ -100,6 +309,23 @@ public class LoggerService {
   }
 
 
+  /**
+   * download log, the log is fetched in chunks while it is written to the response
+   *
+   * @param taskInstId task instance id
+   * @return streaming log content
+   */
+  public StreamingResponseBody downloadLog(int taskInstId) {
+    TaskInstance taskInstance = processService.findTaskInstanceWithArchiveById(taskInstId);
+    if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())){
+      throw new RuntimeException("task instance is null or host is null");
+    }
+    String host = getHost(taskInstance.getHost());
+    String logPath = taskInstance.getLogPath();
+    return out -> logClient.downloadLog(host, Constants.RPC_PORT, logPath, out);
+  }
+
+
   /**
    * get host
    * @param address address
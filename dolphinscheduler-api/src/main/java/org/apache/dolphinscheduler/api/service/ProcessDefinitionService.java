@@ -44,6 +44,8 @@ import org.apache.dolphinscheduler.common.utils.*;
 import org.apache.dolphinscheduler.dao.entity.*;
 import org.apache.dolphinscheduler.dao.mapper.*;
 import org.apache.dolphinscheduler.dao.utils.DagHelper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
 import org.apache.dolphinscheduler.service.permission.PermissionCheck;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.slf4j.Logger;
@@ -101,6 +103,9 @@ public class ProcessDefinitionService extends BaseDAGService {
     @Autowired
     private ProcessService processService;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
     /**
      * create process definition
      *
@@ -357,7 +362,7 @@ public class ProcessDefinitionService extends BaseDAGService {
         if ((checkProcessJson.get(Constants.STATUS) != Status.SUCCESS)) {
             return checkProcessJson;
         }
-        ProcessDefinition processDefine = processService.findProcessDefineById(id);
+        ProcessDefinition processDefine = processDefineMapper.selectById(id);
         if (processDefine == null) {
             // check process definition exists
             putMsg(result, Status.PROCESS_DEFINE_NOT_EXIST, id);
@@ -395,6 +400,7 @@ public class ProcessDefinitionService extends BaseDAGService {
         processDefine.setUpdateTime(now);
         processDefine.setFlag(Flag.YES);
         if (processDefineMapper.updateById(processDefine) > 0) {
+            entityCacheManager.invalidate(CacheType.PROCESS_DEFINITION);
             putMsg(result, Status.SUCCESS);
 
         } else {
@@ -488,6 +494,7 @@ public class ProcessDefinitionService extends BaseDAGService {
         int delete = processDefineMapper.deleteById(processDefinitionId);
 
         if (delete > 0) {
+            entityCacheManager.invalidate(CacheType.PROCESS_DEFINITION);
             putMsg(result, Status.SUCCESS);
         } else {
             putMsg(result, Status.DELETE_PROCESS_DEFINE_BY_ID_ERROR);
@@ -543,10 +550,12 @@ public class ProcessDefinitionService extends BaseDAGService {
 
                 processDefinition.setReleaseState(state);
                 processDefineMapper.updateById(processDefinition);
+                entityCacheManager.invalidate(CacheType.PROCESS_DEFINITION);
                 break;
             case OFFLINE:
                 processDefinition.setReleaseState(state);
                 processDefineMapper.updateById(processDefinition);
+                entityCacheManager.invalidate(CacheType.PROCESS_DEFINITION);
                 List<Schedule> scheduleList = scheduleMapper.selectAllByProcessDefineArray(
                         new int[]{processDefinition.getId()}
                 );
@@ -39,6 +39,8 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -98,6 +100,9 @@ public class ProcessInstanceService extends BaseDAGService {
     @Autowired
     UsersService usersService;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
     /**
      * query process instance by id
      *
@@ -115,7 +120,11 @@ public class ProcessInstanceService extends BaseDAGService {
         if (resultEnum != Status.SUCCESS) {
             return checkResult;
         }
-        ProcessInstance processInstance = processService.findProcessInstanceDetailById(processId);
+        ProcessInstance processInstance = processService.findProcessInstanceDetailWithArchiveById(processId);
+        if (processInstance == null) {
+            putMsg(result, Status.PROCESS_INSTANCE_NOT_EXIST, processId);
+            return result;
+        }
 
         ProcessDefinition processDefinition = processService.findProcessDefineById(processInstance.getProcessDefinitionId());
         processInstance.setReceivers(processDefinition.getReceivers());
@@ -139,12 +148,13 @@ public class ProcessInstanceService extends BaseDAGService {
      * @param host host
      * @param startDate start time
      * @param endDate end time
+     * @param includeArchived whether to include archived process instances without start time
      * @return process instance list
      */
     public Map<String, Object> queryProcessInstanceList(User loginUser, String projectName, Integer processDefineId,
                                                         String startDate, String endDate,
                                                         String searchVal, String executorName,ExecutionStatus stateType, String host,
-                                                        Integer pageNo, Integer pageSize) {
+                                                        boolean includeArchived, Integer pageNo, Integer pageSize) {
 
         Map<String, Object> result = new HashMap<>(5);
         Project project = projectMapper.queryByName(projectName);
@@ -179,9 +189,19 @@ public class ProcessInstanceService extends BaseDAGService {
         PageInfo pageInfo = new PageInfo<ProcessInstance>(pageNo, pageSize);
         int executorId = usersService.getUserIdByName(executorName);
 
-        IPage<ProcessInstance> processInstanceList =
-                processInstanceMapper.queryProcessInstanceListPaging(page,
-                project.getId(), processDefineId, searchVal, executorId,statusArray, host, start, end);
+        IPage<ProcessInstance> processInstanceList;
+        if (processService.reachArchive(start, includeArchived)) {
+            // the union is limited per table, so it is counted separately
+            page.setSearchCount(false);
+            processInstanceList = processInstanceMapper.queryProcessInstanceListPagingWithArchive(page,
+                    project.getId(), processDefineId, searchVal, executorId,statusArray, host, start, end,
+                    page.offset() + page.getSize());
+            processInstanceList.setTotal(processInstanceMapper.countProcessInstanceListPagingWithArchive(
+                    project.getId(), processDefineId, searchVal, executorId,statusArray, host, start, end));
+        } else {
+            processInstanceList = processInstanceMapper.queryProcessInstanceListPaging(page,
+                    project.getId(), processDefineId, searchVal, executorId,statusArray, host, start, end);
+        }
 
         List<ProcessInstance> processInstances = processInstanceList.getRecords();
 
@@ -221,7 +241,18 @@ public class ProcessInstanceService extends BaseDAGService {
             return checkResult;
         }
         ProcessInstance processInstance = processService.findProcessInstanceDetailById(processId);
-        List<TaskInstance> taskInstanceList = processService.findValidTaskListByProcessId(processId);
+        List<TaskInstance> taskInstanceList;
+        if (processInstance != null) {
+            taskInstanceList = processService.findValidTaskListByProcessId(processId);
+        } else {
+            // finished instances are moved to the archive tables by the master
+            processInstance = processService.findArchivedProcessInstanceById(processId);
+            if (processInstance == null) {
+                putMsg(result, Status.PROCESS_INSTANCE_NOT_EXIST, processId);
+                return result;
+            }
+            taskInstanceList = processService.findArchivedTaskListByProcessId(processId);
+        }
         addDependResultForTaskList(taskInstanceList);
         Map<String, Object> resultMap = new HashMap<>();
         resultMap.put(PROCESS_INSTANCE_STATE, processInstance.getState().toString());
@@ -297,7 +328,7 @@ public class ProcessInstanceService extends BaseDAGService {
             return checkResult;
         }
 
-        TaskInstance taskInstance = processService.findTaskInstanceById(taskId);
+        TaskInstance taskInstance = processService.findTaskInstanceWithArchiveById(taskId);
         if (taskInstance == null) {
             putMsg(result, Status.TASK_INSTANCE_NOT_EXISTS, taskId);
             return result;
@@ -307,7 +338,7 @@ public class ProcessInstanceService extends BaseDAGService {
             return result;
         }
 
-        ProcessInstance subWorkflowInstance = processService.findSubProcessInstance(
+        ProcessInstance subWorkflowInstance = processService.findSubProcessInstanceWithArchive(
                 taskInstance.getProcessInstanceId(), taskInstance.getId());
         if (subWorkflowInstance == null) {
             putMsg(result, Status.SUB_PROCESS_INSTANCE_NOT_EXIST, taskId);
@@ -350,6 +381,11 @@ public class ProcessInstanceService extends BaseDAGService {
 
         //check process instance exists
         ProcessInstance processInstance = processService.findProcessInstanceDetailById(processInstanceId);
+        boolean archived = false;
+        if (processInstance == null) {
+            processInstance = processService.findArchivedProcessInstanceById(processInstanceId);
+            archived = processInstance != null;
+        }
         if (processInstance == null) {
             putMsg(result, Status.PROCESS_INSTANCE_NOT_EXIST, processInstanceId);
             return result;
@@ -373,7 +409,7 @@ public class ProcessInstanceService extends BaseDAGService {
         String globalParams = null;
         String originDefParams = null;
         int timeout = processInstance.getTimeout();
-        ProcessDefinition processDefinition = processService.findProcessDefineById(processInstance.getProcessDefinitionId());
+        ProcessDefinition processDefinition = processDefineMapper.selectById(processInstance.getProcessDefinitionId());
         if (StringUtils.isNotEmpty(processInstanceJson)) {
             ProcessData processData = JSONUtils.parseObject(processInstanceJson, ProcessData.class);
             //check workflow json is valid
@@ -398,7 +434,8 @@ public class ProcessInstanceService extends BaseDAGService {
             processInstance.setGlobalParams(globalParams);
         }
 
-        int update = processService.updateProcessInstance(processInstance);
+        int update = archived ? processService.updateArchivedProcessInstance(processInstance)
+                : processService.updateProcessInstance(processInstance);
         int updateDefine = 1;
         if (Boolean.TRUE.equals(syncDefine) && StringUtils.isNotEmpty(processInstanceJson)) {
             processDefinition.setProcessDefinitionJson(processInstanceJson);
@@ -407,6 +444,7 @@ public class ProcessInstanceService extends BaseDAGService {
             processDefinition.setConnects(connects);
             processDefinition.setTimeout(timeout);
             updateDefine = processDefineMapper.updateById(processDefinition);
+            entityCacheManager.invalidate(CacheType.PROCESS_DEFINITION);
         }
         if (update > 0 && updateDefine > 0) {
             putMsg(result, Status.SUCCESS);
@@ -437,7 +475,7 @@ public class ProcessInstanceService extends BaseDAGService {
             return checkResult;
         }
 
-        ProcessInstance subInstance = processService.findProcessInstanceDetailById(subId);
+        ProcessInstance subInstance = processService.findProcessInstanceDetailWithArchiveById(subId);
         if (subInstance == null) {
             putMsg(result, Status.PROCESS_INSTANCE_NOT_EXIST, subId);
             return result;
@@ -447,7 +485,7 @@ public class ProcessInstanceService extends BaseDAGService {
             return result;
         }
 
-        ProcessInstance parentWorkflowInstance = processService.findParentProcessInstance(subId);
+        ProcessInstance parentWorkflowInstance = processService.findParentProcessInstanceWithArchive(subId);
         if (parentWorkflowInstance == null) {
             putMsg(result, Status.SUB_PROCESS_INSTANCE_NOT_EXIST);
             return result;
@@ -477,7 +515,7 @@ public class ProcessInstanceService extends BaseDAGService {
         if (resultEnum != Status.SUCCESS) {
             return checkResult;
         }
-        ProcessInstance processInstance = processService.findProcessInstanceDetailById(processInstanceId);
+        ProcessInstance processInstance = processService.findProcessInstanceDetailWithArchiveById(processInstanceId);
         if (null == processInstance) {
             putMsg(result, Status.PROCESS_INSTANCE_NOT_EXIST, processInstanceId);
             return result;
@@ -512,6 +550,9 @@ public class ProcessInstanceService extends BaseDAGService {
         Map<String, Object> result = new HashMap<>(5);
 
         ProcessInstance processInstance = processInstanceMapper.queryDetailById(processInstanceId);
+        if (processInstance == null) {
+            processInstance = processInstanceMapper.queryArchivedDetailById(processInstanceId);
+        }
 
         if (processInstance == null) {
             throw new RuntimeException("workflow instance is null");
@@ -587,6 +628,11 @@ public class ProcessInstanceService extends BaseDAGService {
         Map<String, Object> result = new HashMap<>();
 
         ProcessInstance processInstance = processInstanceMapper.queryDetailById(processInstanceId);
+        boolean archived = false;
+        if (processInstance == null) {
+            processInstance = processInstanceMapper.queryArchivedDetailById(processInstanceId);
+            archived = processInstance != null;
+        }
 
         if (processInstance == null) {
             throw new RuntimeException("workflow instance is null");
@@ -602,7 +648,9 @@ public class ProcessInstanceService extends BaseDAGService {
 
         List<Task> taskList = new ArrayList<>();
         for (String node : nodeList) {
-            TaskInstance taskInstance = taskInstanceMapper.queryByInstanceIdAndName(processInstanceId, node);
+            TaskInstance taskInstance = archived
+                    ? taskInstanceMapper.queryArchivedByInstanceIdAndName(processInstanceId, node)
+                    : taskInstanceMapper.queryByInstanceIdAndName(processInstanceId, node);
             if (taskInstance == null) {
                 continue;
             }
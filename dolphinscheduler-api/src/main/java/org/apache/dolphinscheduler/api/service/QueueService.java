@@ -28,6 +28,8 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.commons.lang.StringUtils;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,6 +54,9 @@ public class QueueService extends BaseService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
     /**
      * query queue list
      *
@@ -213,6 +218,8 @@ public class QueueService extends BaseService {
         queueObj.setUpdateTime(now);
 
         queueMapper.updateById(queueObj);
+        // users carry the queue name and tenants are read with their queue joined
+        entityCacheManager.invalidate(CacheType.USER, CacheType.TENANT);
 
         putMsg(result, Status.SUCCESS);
 
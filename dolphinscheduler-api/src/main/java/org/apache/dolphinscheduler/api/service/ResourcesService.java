@@ -34,6 +34,8 @@ import org.apache.dolphinscheduler.common.utils.*;
 import org.apache.dolphinscheduler.dao.entity.*;
 import org.apache.dolphinscheduler.dao.mapper.*;
 import org.apache.dolphinscheduler.dao.utils.ResourceProcessDefinitionUtils;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -75,6 +77,9 @@ public class ResourcesService extends BaseService {
     @Autowired
     private ProcessDefinitionMapper processDefinitionMapper;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
     /**
      * create directory
      *
@@ -399,6 +404,7 @@ public class ResourcesService extends BaseService {
                 }).collect(Collectors.toList());
                 resourcesMapper.batchUpdateResource(childResourceList);
             }
+            entityCacheManager.invalidate(CacheType.RESOURCE);
 
             putMsg(result, Status.SUCCESS);
             Map<Object, Object> dataMap = new BeanMap(resource);
@@ -660,6 +666,7 @@ public class ResourcesService extends BaseService {
         //delete data in database
         resourcesMapper.deleteIds(needDeleteResourceIdArray);
         resourceUserMapper.deleteResourceUserArray(0, needDeleteResourceIdArray);
+        entityCacheManager.invalidate(CacheType.RESOURCE);
 
         //delete file on hdfs
         HadoopUtils.getInstance().delete(hdfsFilename, true);
@@ -925,6 +932,7 @@ public class ResourcesService extends BaseService {
         resource.setSize(content.getBytes().length);
         resource.setUpdateTime(new Date());
         resourcesMapper.updateById(resource);
+        entityCacheManager.invalidate(CacheType.RESOURCE);
 
 
         result = uploadContentToHdfs(resource.getFullName(), tenantCode, content);
@@ -34,6 +34,8 @@ import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.dolphinscheduler.service.process.ProcessService;
@@ -80,6 +82,9 @@ public class SchedulerService extends BaseService {
     @Autowired
     private ProcessDefinitionMapper processDefinitionMapper;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
     /**
      * save schedule
      *
@@ -120,7 +125,7 @@ public class SchedulerService extends BaseService {
         }
 
         // check work flow define release state
-        ProcessDefinition processDefinition = processService.findProcessDefineById(processDefineId);
+        ProcessDefinition processDefinition = processDefinitionMapper.selectById(processDefineId);
         result = executorService.checkProcessDefinitionValid(processDefinition, processDefineId);
         if (result.get(Constants.STATUS) != Status.SUCCESS) {
             return result;
@@ -166,6 +171,7 @@ public class SchedulerService extends BaseService {
         processDefinition.setReceivers(receivers);
         processDefinition.setReceiversCc(receiversCc);
         processDefinitionMapper.updateById(processDefinition);
+        entityCacheManager.invalidate(CacheType.PROCESS_DEFINITION);
 
         // return scheduler object with ID
         result.put(Constants.DATA_LIST, scheduleMapper.selectById(scheduleObj.getId()));
@@ -225,7 +231,7 @@ public class SchedulerService extends BaseService {
             return result;
         }
 
-        ProcessDefinition processDefinition = processService.findProcessDefineById(schedule.getProcessDefinitionId());
+        ProcessDefinition processDefinition = processDefinitionMapper.selectById(schedule.getProcessDefinitionId());
         if (processDefinition == null) {
             putMsg(result, Status.PROCESS_DEFINE_NOT_EXIST, schedule.getProcessDefinitionId());
             return result;
@@ -281,6 +287,7 @@ public class SchedulerService extends BaseService {
         processDefinition.setReceivers(receivers);
         processDefinition.setReceiversCc(receiversCc);
         processDefinitionMapper.updateById(processDefinition);
+        entityCacheManager.invalidate(CacheType.PROCESS_DEFINITION);
 
         putMsg(result, Status.SUCCESS);
         return result;
@@ -75,6 +75,7 @@ public class TaskInstanceService extends BaseService {
      * @param host host
      * @param startDate start time
      * @param endDate end time
+     * @param includeArchived whether to include archived task instances without start time
      * @param pageNo page number
      * @param pageSize page size
      * @return task list page
@@ -82,7 +83,7 @@ public class TaskInstanceService extends BaseService {
     public Map<String,Object> queryTaskListPaging(User loginUser, String projectName,
                                                   Integer processInstanceId, String taskName, String executorName, String startDate,
                                                   String endDate, String searchVal, ExecutionStatus stateType,String host,
-                                                  Integer pageNo, Integer pageSize) {
+                                                  boolean includeArchived, Integer pageNo, Integer pageSize) {
         Map<String, Object> result = new HashMap<>(5);
         Project project = projectMapper.queryByName(projectName);
 
@@ -116,9 +117,19 @@ public class TaskInstanceService extends BaseService {
         PageInfo pageInfo = new PageInfo<TaskInstance>(pageNo, pageSize);
         int executorId = usersService.getUserIdByName(executorName);
 
-        IPage<TaskInstance> taskInstanceIPage = taskInstanceMapper.queryTaskInstanceListPaging(
-                page, project.getId(), processInstanceId, searchVal, taskName, executorId, statusArray, host, start, end
-        );
+        IPage<TaskInstance> taskInstanceIPage;
+        if (processService.reachArchive(start, includeArchived)) {
+            // the union is limited per table, so it is counted separately
+            page.setSearchCount(false);
+            taskInstanceIPage = taskInstanceMapper.queryTaskInstanceListPagingWithArchive(
+                    page, project.getId(), processInstanceId, searchVal, taskName, executorId, statusArray, host, start, end,
+                    page.offset() + page.getSize());
+            taskInstanceIPage.setTotal(taskInstanceMapper.countTaskInstanceListPagingWithArchive(
+                    project.getId(), processInstanceId, searchVal, taskName, executorId, statusArray, host, start, end));
+        } else {
+            taskInstanceIPage = taskInstanceMapper.queryTaskInstanceListPaging(
+                    page, project.getId(), processInstanceId, searchVal, taskName, executorId, statusArray, host, start, end);
+        }
         Set<String> exclusionSet = new HashSet<>();
         exclusionSet.add(Constants.CLASS);
         exclusionSet.add("taskJson");
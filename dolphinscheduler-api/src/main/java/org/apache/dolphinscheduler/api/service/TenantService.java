@@ -34,6 +34,8 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -65,6 +67,9 @@ public class TenantService extends BaseService{
   @Autowired
   private UserMapper userMapper;
 
+  @Autowired
+  private EntityCacheManager entityCacheManager;
+
 
 
   /**
@@ -219,6 +224,7 @@ public class TenantService extends BaseService{
     tenant.setDescription(desc);
     tenant.setUpdateTime(now);
     tenantMapper.updateById(tenant);
+    entityCacheManager.invalidate(CacheType.TENANT);
 
     result.put(Constants.STATUS, Status.SUCCESS);
     result.put(Constants.MSG, Status.SUCCESS.getMsg());
@@ -276,6 +282,7 @@ public class TenantService extends BaseService{
 
     tenantMapper.deleteById(id);
     processInstanceMapper.updateProcessInstanceByTenantId(id, -1);
+    entityCacheManager.invalidate(CacheType.TENANT);
     putMsg(result, Status.SUCCESS);
     return result;
   }
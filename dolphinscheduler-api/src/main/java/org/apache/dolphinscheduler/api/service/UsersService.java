@@ -32,6 +32,8 @@ import org.apache.dolphinscheduler.common.utils.*;
 import org.apache.dolphinscheduler.dao.entity.*;
 import org.apache.dolphinscheduler.dao.mapper.*;
 import org.apache.dolphinscheduler.dao.utils.ResourceProcessDefinitionUtils;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -77,6 +79,9 @@ public class UsersService extends BaseService {
     @Autowired
     private ProcessDefinitionMapper processDefinitionMapper;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
 
     /**
      * create user, only system admin have permission
@@ -379,6 +384,7 @@ public class UsersService extends BaseService {
 
         // updateProcessInstance user
         userMapper.updateById(user);
+        entityCacheManager.invalidate(CacheType.USER);
         putMsg(result, Status.SUCCESS);
         return result;
     }
@@ -417,6 +423,7 @@ public class UsersService extends BaseService {
         }
 
         userMapper.deleteById(id);
+        entityCacheManager.invalidate(CacheType.USER);
         putMsg(result, Status.SUCCESS);
 
         return result;
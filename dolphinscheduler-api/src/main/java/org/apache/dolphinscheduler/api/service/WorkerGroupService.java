@@ -21,8 +21,8 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.HeartBeat;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
-import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.dao.entity.AccessToken;
 import org.apache.dolphinscheduler.dao.entity.User;
@@ -149,8 +149,11 @@ public class WorkerGroupService extends BaseService {
                 if (isPaging){
                     wg.setIpList(childrenNodes);
                     String registeredIpValue = zookeeperCachedOperator.get(workerGroupPath + "/" + childrenNodes.get(0));
-                    wg.setCreateTime(DateUtils.stringToDate(registeredIpValue.split(",")[3]));
-                    wg.setUpdateTime(DateUtils.stringToDate(registeredIpValue.split(",")[4]));
+                    HeartBeat heartBeat = HeartBeat.decode(registeredIpValue);
+                    if (heartBeat != null) {
+                        wg.setCreateTime(new Date(heartBeat.getStartTime()));
+                        wg.setUpdateTime(new Date(heartBeat.getReportTime()));
+                    }
                 }
                 workerGroups.add(wg);
             }
@@ -25,6 +25,7 @@ import org.apache.dolphinscheduler.common.enums.UserType;
 import org.apache.dolphinscheduler.dao.entity.DataSource;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.DataSourceMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -51,6 +52,9 @@ public class DataSourceServiceTest {
     @Mock
     private DataSourceMapper dataSourceMapper;
 
+    @Mock
+    private EntityCacheManager entityCacheManager;
+
     @Test
     public void queryDataSourceListTest(){
 
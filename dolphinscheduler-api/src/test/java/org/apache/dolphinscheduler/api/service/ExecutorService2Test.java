@@ -26,6 +26,7 @@ import org.apache.dolphinscheduler.common.model.Server;
 import org.apache.dolphinscheduler.dao.entity.*;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.junit.Assert;
 import org.junit.Before;
@@ -67,6 +68,9 @@ public class ExecutorService2Test {
     @Mock
     private MonitorService monitorService;
 
+    @Mock
+    private EntityCacheManager entityCacheManager;
+
     private int processDefinitionId = 1;
 
     private int tenantId = 1;
@@ -47,7 +47,7 @@ public class LoggerServiceTest {
     public void testQueryDataSourceList(){
 
         TaskInstance taskInstance = new TaskInstance();
-        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+        Mockito.when(processService.findTaskInstanceWithArchiveById(1)).thenReturn(taskInstance);
         Result result = loggerService.queryLog(2,1,1);
         //TASK_INSTANCE_NOT_FOUND
         Assert.assertEquals(Status.TASK_INSTANCE_NOT_FOUND.getCode(),result.getCode().intValue());
@@ -64,7 +64,7 @@ public class LoggerServiceTest {
         //SUCCESS
         taskInstance.setHost("127.0.0.1:8080");
         taskInstance.setLogPath("/temp/log");
-        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+        Mockito.when(processService.findTaskInstanceWithArchiveById(1)).thenReturn(taskInstance);
         result = loggerService.queryLog(1,1,1);
         Assert.assertEquals(Status.SUCCESS.getCode(),result.getCode().intValue());
     }
@@ -73,7 +73,7 @@ public class LoggerServiceTest {
     public void testGetLogBytes(){
 
         TaskInstance taskInstance = new TaskInstance();
-        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+        Mockito.when(processService.findTaskInstanceWithArchiveById(1)).thenReturn(taskInstance);
 
         //task instance is null
         try{
@@ -100,4 +100,41 @@ public class LoggerServiceTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testDownloadLog(){
+
+        TaskInstance taskInstance = new TaskInstance();
+        Mockito.when(processService.findTaskInstanceWithArchiveById(1)).thenReturn(taskInstance);
+
+        //task instance host is null
+        try{
+            loggerService.downloadLog(1);
+            Assert.fail();
+        }catch (RuntimeException e){
+            logger.error("testDownloadLog error: {}","task instance host is null");
+        }
+
+        //success, the log is fetched when the body is written
+        taskInstance.setHost("127.0.0.1:8080");
+        taskInstance.setLogPath("/temp/log");
+        Assert.assertNotNull(loggerService.downloadLog(1));
+    }
+
+    @Test
+    public void testSearchLog(){
+
+        TaskInstance taskInstance = new TaskInstance();
+        Mockito.when(processService.findTaskInstanceWithArchiveById(1)).thenReturn(taskInstance);
+
+        //TASK_INSTANCE_NOT_FOUND
+        Result result = loggerService.searchLog(2, "error", false, 0, 2, 100);
+        Assert.assertEquals(Status.TASK_INSTANCE_NOT_FOUND.getCode(), result.getCode().intValue());
+
+        //keyword is empty
+        taskInstance.setHost("127.0.0.1:8080");
+        taskInstance.setLogPath("/temp/log");
+        result = loggerService.searchLog(1, "", false, 0, 2, 100);
+        Assert.assertEquals(Status.REQUEST_PARAMS_NOT_VALID_ERROR.getCode(), result.getCode().intValue());
+    }
+
+}
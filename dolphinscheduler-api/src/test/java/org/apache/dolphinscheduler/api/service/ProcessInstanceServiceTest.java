@@ -19,12 +19,14 @@ package org.apache.dolphinscheduler.api.service;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.dolphinscheduler.api.ApiApplicationServer;
 import org.apache.dolphinscheduler.api.enums.Status;
+import org.apache.dolphinscheduler.api.utils.PageInfo;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.*;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.dao.entity.*;
 import org.apache.dolphinscheduler.dao.mapper.*;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.junit.Assert;
 import org.junit.Test;
@@ -85,6 +87,9 @@ public class ProcessInstanceServiceTest {
     @Mock
     UsersService usersService;
 
+    @Mock
+    EntityCacheManager entityCacheManager;
+
     private String shellJson = "{\"globalParams\":[],\"tasks\":[{\"type\":\"SHELL\",\"id\":\"tasks-9527\",\"name\":\"shell-1\"," +
             "\"params\":{\"resourceList\":[],\"localParams\":[],\"rawScript\":\"#!/bin/bash\\necho \\\"shell-1\\\"\"}," +
             "\"description\":\"\",\"runFlag\":\"NORMAL\",\"dependence\":{},\"maxRetryTimes\":\"0\",\"retryInterval\":\"1\"," +
@@ -104,7 +109,7 @@ public class ProcessInstanceServiceTest {
         when(projectService.checkProjectAndAuth(loginUser, null, projectName)).thenReturn(result);
         Map<String, Object> proejctAuthFailRes = processInstanceService.queryProcessInstanceList(loginUser, projectName, 46, "2020-01-01 00:00:00",
                 "2020-01-02 00:00:00", "", "test_user", ExecutionStatus.SUBMITTED_SUCCESS,
-                "192.168.xx.xx", 1, 10);
+                "192.168.xx.xx", false, 1, 10);
         Assert.assertEquals(Status.PROJECT_NOT_FOUNT, proejctAuthFailRes.get(Constants.STATUS));
 
         //project auth success
@@ -126,7 +131,7 @@ public class ProcessInstanceServiceTest {
         when(usersService.queryUser(processInstance.getExecutorId())).thenReturn(loginUser);
         Map<String, Object> successRes = processInstanceService.queryProcessInstanceList(loginUser, projectName, 1, "2020-01-01 00:00:00",
                 "2020-01-02 00:00:00", "", loginUser.getUserName(), ExecutionStatus.SUBMITTED_SUCCESS,
-                "192.168.xx.xx", 1, 10);
+                "192.168.xx.xx", false, 1, 10);
         Assert.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
 
         //executor null
@@ -134,7 +139,7 @@ public class ProcessInstanceServiceTest {
         when(usersService.getUserIdByName(loginUser.getUserName())).thenReturn(-1);
         Map<String, Object> executorExistRes = processInstanceService.queryProcessInstanceList(loginUser, projectName, 1, "2020-01-01 00:00:00",
                 "2020-01-02 00:00:00", "", "admin", ExecutionStatus.SUBMITTED_SUCCESS,
-                "192.168.xx.xx", 1, 10);
+                "192.168.xx.xx", false, 1, 10);
         Assert.assertEquals(Status.SUCCESS, executorExistRes.get(Constants.STATUS));
 
         //executor name empty
@@ -142,9 +147,20 @@ public class ProcessInstanceServiceTest {
                 eq("192.168.xx.xx"), eq(start), eq(end))).thenReturn(pageReturn);
         Map<String, Object> executorEmptyRes = processInstanceService.queryProcessInstanceList(loginUser, projectName, 1, "2020-01-01 00:00:00",
                 "2020-01-02 00:00:00", "", "", ExecutionStatus.SUBMITTED_SUCCESS,
-                "192.168.xx.xx", 1, 10);
+                "192.168.xx.xx", false, 1, 10);
         Assert.assertEquals(Status.SUCCESS, executorEmptyRes.get(Constants.STATUS));
 
+        //archived, limited per table and counted separately
+        when(processService.reachArchive(start, false)).thenReturn(true);
+        when(processInstanceMapper.queryProcessInstanceListPagingWithArchive(Mockito.any(Page.class), eq(project.getId()), eq(1), eq(""), eq(0), Mockito.any(),
+                eq("192.168.xx.xx"), eq(start), eq(end), eq(20L))).thenReturn(pageReturn);
+        when(processInstanceMapper.countProcessInstanceListPagingWithArchive(eq(project.getId()), eq(1), eq(""), eq(0), Mockito.any(),
+                eq("192.168.xx.xx"), eq(start), eq(end))).thenReturn(25L);
+        Map<String, Object> archivedRes = processInstanceService.queryProcessInstanceList(loginUser, projectName, 1, "2020-01-01 00:00:00",
+                "2020-01-02 00:00:00", "", "", ExecutionStatus.SUBMITTED_SUCCESS,
+                "192.168.xx.xx", false, 2, 10);
+        Assert.assertEquals(Status.SUCCESS, archivedRes.get(Constants.STATUS));
+        Assert.assertEquals(25, ((PageInfo) archivedRes.get(Constants.DATA_LIST)).getTotalCount().intValue());
     }
 
     @Test
@@ -170,7 +186,7 @@ public class ProcessInstanceServiceTest {
         ProcessDefinition processDefinition = getProcessDefinition();
         when(projectMapper.queryByName(projectName)).thenReturn(project);
         when(projectService.checkProjectAndAuth(loginUser, project, projectName)).thenReturn(result);
-        when(processService.findProcessInstanceDetailById(processInstance.getId())).thenReturn(processInstance);
+        when(processService.findProcessInstanceDetailWithArchiveById(processInstance.getId())).thenReturn(processInstance);
         when(processService.findProcessDefineById(processInstance.getProcessDefinitionId())).thenReturn(processDefinition);
         Map<String, Object> successRes = processInstanceService.queryProcessInstanceById(loginUser, projectName, 1);
         Assert.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
@@ -217,6 +233,18 @@ public class ProcessInstanceServiceTest {
         when(loggerService.queryLog(taskInstance.getId(), 0, 4098)).thenReturn(res);
         Map<String, Object> successRes = processInstanceService.queryTaskListByProcessId(loginUser, projectName, 1);
         Assert.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
+
+        //process instance archived
+        when(processService.findProcessInstanceDetailById(processInstance.getId())).thenReturn(null);
+        when(processService.findArchivedProcessInstanceById(processInstance.getId())).thenReturn(processInstance);
+        when(processService.findArchivedTaskListByProcessId(processInstance.getId())).thenReturn(taskInstanceList);
+        Map<String, Object> archivedRes = processInstanceService.queryTaskListByProcessId(loginUser, projectName, 1);
+        Assert.assertEquals(Status.SUCCESS, archivedRes.get(Constants.STATUS));
+
+        //process instance not exist
+        when(processService.findArchivedProcessInstanceById(processInstance.getId())).thenReturn(null);
+        Map<String, Object> notExistRes = processInstanceService.queryTaskListByProcessId(loginUser, projectName, 1);
+        Assert.assertEquals(Status.PROCESS_INSTANCE_NOT_EXIST, notExistRes.get(Constants.STATUS));
     }
 
 
@@ -252,7 +280,7 @@ public class ProcessInstanceServiceTest {
         putMsg(result, Status.SUCCESS, projectName);
         when(projectMapper.queryByName(projectName)).thenReturn(project);
         when(projectService.checkProjectAndAuth(loginUser, project, projectName)).thenReturn(result);
-        when(processService.findTaskInstanceById(1)).thenReturn(null);
+        when(processService.findTaskInstanceWithArchiveById(1)).thenReturn(null);
         Map<String, Object> taskNullRes = processInstanceService.querySubProcessInstanceByTaskId(loginUser, projectName, 1);
         Assert.assertEquals(Status.TASK_INSTANCE_NOT_EXISTS, taskNullRes.get(Constants.STATUS));
 
@@ -260,7 +288,7 @@ public class ProcessInstanceServiceTest {
         TaskInstance taskInstance = getTaskInstance();
         taskInstance.setTaskType(TaskType.HTTP.toString());
         taskInstance.setProcessInstanceId(1);
-        when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+        when(processService.findTaskInstanceWithArchiveById(1)).thenReturn(taskInstance);
         Map<String, Object> notSubprocessRes = processInstanceService.querySubProcessInstanceByTaskId(loginUser, projectName, 1);
         Assert.assertEquals(Status.TASK_INSTANCE_NOT_SUB_WORKFLOW_INSTANCE, notSubprocessRes.get(Constants.STATUS));
 
@@ -268,14 +296,14 @@ public class ProcessInstanceServiceTest {
         TaskInstance subTask = getTaskInstance();
         subTask.setTaskType(TaskType.SUB_PROCESS.toString());
         subTask.setProcessInstanceId(1);
-        when(processService.findTaskInstanceById(subTask.getId())).thenReturn(subTask);
-        when(processService.findSubProcessInstance(subTask.getProcessInstanceId(), subTask.getId())).thenReturn(null);
+        when(processService.findTaskInstanceWithArchiveById(subTask.getId())).thenReturn(subTask);
+        when(processService.findSubProcessInstanceWithArchive(subTask.getProcessInstanceId(), subTask.getId())).thenReturn(null);
         Map<String, Object> subprocessNotExistRes = processInstanceService.querySubProcessInstanceByTaskId(loginUser, projectName, 1);
         Assert.assertEquals(Status.SUB_PROCESS_INSTANCE_NOT_EXIST, subprocessNotExistRes.get(Constants.STATUS));
 
         //sub process exist
         ProcessInstance processInstance = getProcessInstance();
-        when(processService.findSubProcessInstance(taskInstance.getProcessInstanceId(), taskInstance.getId())).thenReturn(processInstance);
+        when(processService.findSubProcessInstanceWithArchive(taskInstance.getProcessInstanceId(), taskInstance.getId())).thenReturn(processInstance);
         Map<String, Object> subprocessExistRes = processInstanceService.querySubProcessInstanceByTaskId(loginUser, projectName, 1);
         Assert.assertEquals(Status.SUCCESS, subprocessExistRes.get(Constants.STATUS));
     }
@@ -321,7 +349,7 @@ public class ProcessInstanceServiceTest {
         Tenant tenant = new Tenant();
         tenant.setId(1);
         tenant.setTenantCode("test_tenant");
-        when(processService.findProcessDefineById(processInstance.getProcessDefinitionId())).thenReturn(processDefinition);
+        when(processDefineMapper.selectById(processInstance.getProcessDefinitionId())).thenReturn(processDefinition);
         when(processService.getTenantForProcess(Mockito.anyInt(), Mockito.anyInt())).thenReturn(tenant);
         when(processService.updateProcessInstance(processInstance)).thenReturn(1);
         when(processDefinitionService.checkProcessNodeList(Mockito.any(), eq(shellJson))).thenReturn(result);
@@ -334,6 +362,14 @@ public class ProcessInstanceServiceTest {
         Map<String, Object> successRes = processInstanceService.updateProcessInstance(loginUser, projectName, 1,
                 shellJson, "2020-02-21 00:00:00", true, Flag.YES, "", "");
         Assert.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
+
+        //archived process instance
+        when(processService.findProcessInstanceDetailById(1)).thenReturn(null);
+        when(processService.findArchivedProcessInstanceById(1)).thenReturn(processInstance);
+        when(processService.updateArchivedProcessInstance(processInstance)).thenReturn(1);
+        Map<String, Object> archivedRes = processInstanceService.updateProcessInstance(loginUser, projectName, 1,
+                shellJson, "2020-02-21 00:00:00", true, Flag.YES, "", "");
+        Assert.assertEquals(Status.SUCCESS, archivedRes.get(Constants.STATUS));
     }
 
     @Test
@@ -354,25 +390,25 @@ public class ProcessInstanceServiceTest {
         putMsg(result, Status.SUCCESS, projectName);
         when(projectMapper.queryByName(projectName)).thenReturn(project);
         when(projectService.checkProjectAndAuth(loginUser, project, projectName)).thenReturn(result);
-        when(processService.findProcessInstanceDetailById(1)).thenReturn(null);
+        when(processService.findProcessInstanceDetailWithArchiveById(1)).thenReturn(null);
         Map<String, Object> processInstanceNullRes = processInstanceService.queryParentInstanceBySubId(loginUser, projectName, 1);
         Assert.assertEquals(Status.PROCESS_INSTANCE_NOT_EXIST, processInstanceNullRes.get(Constants.STATUS));
 
         //not sub process
         ProcessInstance processInstance = getProcessInstance();
         processInstance.setIsSubProcess(Flag.NO);
-        when(processService.findProcessInstanceDetailById(1)).thenReturn(processInstance);
+        when(processService.findProcessInstanceDetailWithArchiveById(1)).thenReturn(processInstance);
         Map<String, Object> notSubProcessRes = processInstanceService.queryParentInstanceBySubId(loginUser, projectName, 1);
         Assert.assertEquals(Status.PROCESS_INSTANCE_NOT_SUB_PROCESS_INSTANCE, notSubProcessRes.get(Constants.STATUS));
 
         //sub process
         processInstance.setIsSubProcess(Flag.YES);
-        when(processService.findParentProcessInstance(1)).thenReturn(null);
+        when(processService.findParentProcessInstanceWithArchive(1)).thenReturn(null);
         Map<String, Object> subProcessNullRes = processInstanceService.queryParentInstanceBySubId(loginUser, projectName, 1);
         Assert.assertEquals(Status.SUB_PROCESS_INSTANCE_NOT_EXIST, subProcessNullRes.get(Constants.STATUS));
 
         //success
-        when(processService.findParentProcessInstance(1)).thenReturn(processInstance);
+        when(processService.findParentProcessInstanceWithArchive(1)).thenReturn(processInstance);
         Map<String, Object> successRes = processInstanceService.queryParentInstanceBySubId(loginUser, projectName, 1);
         Assert.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
     }
@@ -393,7 +429,7 @@ public class ProcessInstanceServiceTest {
         putMsg(result, Status.SUCCESS, projectName);
         when(projectMapper.queryByName(projectName)).thenReturn(project);
         when(projectService.checkProjectAndAuth(loginUser, project, projectName)).thenReturn(result);
-        when(processService.findProcessInstanceDetailById(1)).thenReturn(null);
+        when(processService.findProcessInstanceDetailWithArchiveById(1)).thenReturn(null);
     }
 
     @Test
@@ -420,6 +456,14 @@ public class ProcessInstanceServiceTest {
         when(taskInstanceMapper.queryByInstanceIdAndName(Mockito.anyInt(), Mockito.any())).thenReturn(taskInstance);
         Map<String, Object> successRes = processInstanceService.viewGantt(1);
         Assert.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
+
+        //process instance archived
+        when(processInstanceMapper.queryDetailById(1)).thenReturn(null);
+        when(processInstanceMapper.queryArchivedDetailById(1)).thenReturn(processInstance);
+        when(taskInstanceMapper.queryArchivedByInstanceIdAndName(Mockito.anyInt(), Mockito.any())).thenReturn(taskInstance);
+        Map<String, Object> archivedRes = processInstanceService.viewGantt(1);
+        Assert.assertEquals(Status.SUCCESS, archivedRes.get(Constants.STATUS));
+        Mockito.verify(taskInstanceMapper).queryArchivedByInstanceIdAndName(1, "shell-1");
     }
 
     /**
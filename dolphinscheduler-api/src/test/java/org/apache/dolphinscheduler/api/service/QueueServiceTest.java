@@ -28,6 +28,7 @@ import org.apache.dolphinscheduler.dao.entity.Queue;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.QueueMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -55,6 +56,9 @@ public class QueueServiceTest {
     private QueueMapper queueMapper;
     @Mock
     private UserMapper userMapper;
+
+    @Mock
+    private EntityCacheManager entityCacheManager;
     private String queueName = "QueueServiceTest";
 
     @Before
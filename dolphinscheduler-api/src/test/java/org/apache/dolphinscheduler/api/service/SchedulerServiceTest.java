@@ -28,6 +28,7 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectUserMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.quartz.QuartzExecutors;
 import org.junit.Assert;
@@ -86,6 +87,9 @@ public class SchedulerServiceTest {
     @Mock
     private Scheduler scheduler;
 
+    @Mock
+    private EntityCacheManager entityCacheManager;
+
 
     @Before
     public void setUp() {
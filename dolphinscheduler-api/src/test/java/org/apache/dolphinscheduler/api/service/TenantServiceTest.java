@@ -32,6 +32,7 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -61,6 +62,9 @@ public class TenantServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private EntityCacheManager entityCacheManager;
+
     private String tenantCode ="TenantServiceTest";
     private String tenantName ="TenantServiceTest";
 
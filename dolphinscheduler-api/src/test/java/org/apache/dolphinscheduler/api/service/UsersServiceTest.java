@@ -30,6 +30,7 @@ import org.apache.dolphinscheduler.dao.entity.Resource;
 import org.apache.dolphinscheduler.dao.entity.Tenant;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.*;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -73,6 +74,9 @@ public class UsersServiceTest {
     @Mock
     private ResourceMapper resourceMapper;
 
+    @Mock
+    private EntityCacheManager entityCacheManager;
+
     private String queueName ="UsersServiceTestQueue";
 
 
@@ -204,6 +204,16 @@ public final class Constants {
      */
     public static final String ZOOKEEPER_DOLPHINSCHEDULER_LOCK_FAILOVER_STARTUP_MASTERS = "/lock/failover/startup-masters";
 
+    /**
+     * MasterServer archive lock directory registered in zookeeper
+     */
+    public static final String ZOOKEEPER_DOLPHINSCHEDULER_LOCK_ARCHIVE = "/lock/archive";
+
+    /**
+     * entity cache version directory registered in zookeeper
+     */
+    public static final String ZOOKEEPER_DOLPHINSCHEDULER_ENTITY_CACHE = "/cache/entity";
+
 
     /**
      * comma ,
@@ -365,6 +375,46 @@ public final class Constants {
      */
     public static final double DEFAULT_WORKER_RESERVED_MEMORY = OSUtils.totalMemorySize() / 10;
 
+    /**
+     * system metrics sample interval, unit: ms
+     */
+    public static final String SYSTEM_METRICS_SAMPLE_INTERVAL = "system.metrics.sample.interval";
+
+    /**
+     * default system metrics sample interval, unit: ms
+     */
+    public static final long DEFAULT_SYSTEM_METRICS_SAMPLE_INTERVAL = 1000;
+
+    /**
+     * entity cache expire time after write, unit: second
+     */
+    public static final String ENTITY_CACHE_EXPIRE_SECONDS = "entity.cache.expire.seconds";
+
+    /**
+     * default entity cache expire time after write, unit: second
+     */
+    public static final int DEFAULT_ENTITY_CACHE_EXPIRE_SECONDS = 60;
+
+    /**
+     * max entries of each entity cache, 0 disables the cache
+     */
+    public static final String ENTITY_CACHE_MAX_SIZE = "entity.cache.max.size";
+
+    /**
+     * default max entries of each entity cache
+     */
+    public static final int DEFAULT_ENTITY_CACHE_MAX_SIZE = 1000;
+
+    /**
+     * entity cache statistics log interval, unit: second
+     */
+    public static final String ENTITY_CACHE_STATS_INTERVAL = "entity.cache.stats.interval";
+
+    /**
+     * default entity cache statistics log interval, unit: second
+     */
+    public static final int DEFAULT_ENTITY_CACHE_STATS_INTERVAL = 300;
+
 
 
     /**
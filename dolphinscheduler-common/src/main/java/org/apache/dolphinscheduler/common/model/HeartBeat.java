@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.common.model;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.common.utils.StringUtils;
+
+import java.util.Date;
+
+/**
+ *  heartbeat of a master or worker, stored as the data of its zookeeper node
+ *
+ *  version 2 is compact: version,cpuUsage,memoryUsage,loadAverage,availablePhysicalMemorySize,
+ *  startTime,reportTime,status,processId with both times in epoch seconds.
+ *  the legacy 10 field format is parsed and written until every server of the cluster reads version 2.
+ */
+public class HeartBeat {
+
+    /**
+     * current encoding version
+     */
+    public static final int VERSION = 2;
+
+    private static final int VERSION_FIELDS = 9;
+
+    /**
+     * parsed heartbeats by their encoded value, heartbeats only change when a node reports new values
+     */
+    private static final Cache<String, HeartBeat> PARSE_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .build();
+
+    private final double cpuUsage;
+
+    private final double memoryUsage;
+
+    private final double loadAverage;
+
+    private final double availablePhysicalMemorySize;
+
+    /**
+     * start time, epoch millis truncated to seconds
+     */
+    private final long startTime;
+
+    /**
+     * report time, epoch millis truncated to seconds
+     */
+    private final long reportTime;
+
+    private final int status;
+
+    private final int processId;
+
+    public HeartBeat(double cpuUsage, double memoryUsage, double loadAverage, double availablePhysicalMemorySize,
+                     long startTime, long reportTime, int status, int processId) {
+        this.cpuUsage = cpuUsage;
+        this.memoryUsage = memoryUsage;
+        this.loadAverage = loadAverage;
+        this.availablePhysicalMemorySize = availablePhysicalMemorySize;
+        this.startTime = startTime / 1000 * 1000;
+        this.reportTime = reportTime / 1000 * 1000;
+        this.status = status;
+        this.processId = processId;
+    }
+
+    public double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    public double getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public double getLoadAverage() {
+        return loadAverage;
+    }
+
+    public double getAvailablePhysicalMemorySize() {
+        return availablePhysicalMemorySize;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getReportTime() {
+        return reportTime;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public int getProcessId() {
+        return processId;
+    }
+
+    /**
+     * whether the node reports a different status or any metric moved beyond the threshold,
+     * ratios move by the threshold itself, larger values by the threshold relative to the last value
+     * @param last last written heartbeat
+     * @param threshold change threshold
+     * @return true if it should be written
+     */
+    public boolean isChanged(HeartBeat last, double threshold) {
+        return status != last.status
+                || processId != last.processId
+                || startTime != last.startTime
+                || isChanged(cpuUsage, last.cpuUsage, threshold)
+                || isChanged(memoryUsage, last.memoryUsage, threshold)
+                || isChanged(loadAverage, last.loadAverage, threshold)
+                || isChanged(availablePhysicalMemorySize, last.availablePhysicalMemorySize, threshold);
+    }
+
+    private static boolean isChanged(double value, double last, double threshold) {
+        return Math.abs(value - last) > threshold * Math.max(1, Math.abs(last));
+    }
+
+    /**
+     * encode in the current version
+     * @return encoded heartbeat
+     */
+    public String encode() {
+        StringBuilder builder = new StringBuilder(64);
+        builder.append(VERSION).append(Constants.COMMA);
+        builder.append(cpuUsage).append(Constants.COMMA);
+        builder.append(memoryUsage).append(Constants.COMMA);
+        builder.append(loadAverage).append(Constants.COMMA);
+        builder.append(availablePhysicalMemorySize).append(Constants.COMMA);
+        builder.append(startTime / 1000).append(Constants.COMMA);
+        builder.append(reportTime / 1000).append(Constants.COMMA);
+        builder.append(status).append(Constants.COMMA);
+        builder.append(processId);
+        return builder.toString();
+    }
+
+    /**
+     * encode in the legacy 10 field format read by servers before version 2:
+     * cpuUsage,memoryUsage,loadAverage,availablePhysicalMemorySize,maxCpuloadAvg,reservedMemory,
+     * startTime,reportTime,status,processId with both times as date strings
+     * @param maxCpuloadAvg max cpu load average of the node
+     * @param reservedMemory reserved memory of the node
+     * @return encoded heartbeat
+     */
+    public String encodeLegacy(double maxCpuloadAvg, double reservedMemory) {
+        StringBuilder builder = new StringBuilder(100);
+        builder.append(cpuUsage).append(Constants.COMMA);
+        builder.append(memoryUsage).append(Constants.COMMA);
+        builder.append(loadAverage).append(Constants.COMMA);
+        builder.append(availablePhysicalMemorySize).append(Constants.COMMA);
+        builder.append(maxCpuloadAvg).append(Constants.COMMA);
+        builder.append(reservedMemory).append(Constants.COMMA);
+        builder.append(DateUtils.dateToString(new Date(startTime))).append(Constants.COMMA);
+        builder.append(DateUtils.dateToString(new Date(reportTime))).append(Constants.COMMA);
+        builder.append(status).append(Constants.COMMA);
+        builder.append(processId);
+        return builder.toString();
+    }
+
+    /**
+     * decode a heartbeat of the current or the legacy format, parsed values are cached
+     * @param heartBeatInfo encoded heartbeat
+     * @return heartbeat, null if empty or invalid
+     */
+    public static HeartBeat decode(String heartBeatInfo) {
+        if (StringUtils.isEmpty(heartBeatInfo)) {
+            return null;
+        }
+        HeartBeat heartBeat = PARSE_CACHE.getIfPresent(heartBeatInfo);
+        if (heartBeat == null) {
+            heartBeat = parse(heartBeatInfo);
+            if (heartBeat != null) {
+                PARSE_CACHE.put(heartBeatInfo, heartBeat);
+            }
+        }
+        return heartBeat;
+    }
+
+    private static HeartBeat parse(String heartBeatInfo) {
+        String[] parts = heartBeatInfo.split(Constants.COMMA);
+        try {
+            if (parts.length == VERSION_FIELDS && Integer.parseInt(parts[0]) == VERSION) {
+                return new HeartBeat(Double.parseDouble(parts[1]),
+                        Double.parseDouble(parts[2]),
+                        Double.parseDouble(parts[3]),
+                        Double.parseDouble(parts[4]),
+                        Long.parseLong(parts[5]) * 1000,
+                        Long.parseLong(parts[6]) * 1000,
+                        Integer.parseInt(parts[7]),
+                        Integer.parseInt(parts[8]));
+            }
+            if (parts.length == Constants.HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH) {
+                Date startTime = DateUtils.stringToDate(parts[6]);
+                Date reportTime = DateUtils.stringToDate(parts[7]);
+                return new HeartBeat(Double.parseDouble(parts[0]),
+                        Double.parseDouble(parts[1]),
+                        Double.parseDouble(parts[2]),
+                        Double.parseDouble(parts[3]),
+                        startTime == null ? 0 : startTime.getTime(),
+                        reportTime == null ? 0 : reportTime.getTime(),
+                        Integer.parseInt(parts[8]),
+                        Integer.parseInt(parts[9]));
+            }
+        } catch (NumberFormatException ignore) {
+            // invalid heartbeat
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -89,6 +89,17 @@ public class SqlParameters extends AbstractParameters {
      */
     private String receiversCc;
 
+    /**
+     * result file format, CSV or JSON, query results are streamed to a file in the execute path if set,
+     * otherwise the first rows are kept in memory and sent by alert
+     */
+    private String resultFormat;
+
+    /**
+     * whether to upload the result file to resource storage
+     */
+    private boolean uploadResult;
+
     public String getType() {
         return type;
     }
@@ -184,9 +195,33 @@ public class SqlParameters extends AbstractParameters {
         this.postStatements = postStatements;
     }
 
+    public String getResultFormat() {
+        return resultFormat;
+    }
+
+    public void setResultFormat(String resultFormat) {
+        this.resultFormat = resultFormat;
+    }
+
+    public boolean isUploadResult() {
+        return uploadResult;
+    }
+
+    public void setUploadResult(boolean uploadResult) {
+        this.uploadResult = uploadResult;
+    }
+
     @Override
     public boolean checkParameters() {
-        return datasource != 0 && StringUtils.isNotEmpty(type) && StringUtils.isNotEmpty(sql);
+        if (datasource == 0 || StringUtils.isEmpty(type) || StringUtils.isEmpty(sql)) {
+            return false;
+        }
+        try {
+            SqlResultFormat.of(resultFormat);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 
     @Override
@@ -209,6 +244,8 @@ public class SqlParameters extends AbstractParameters {
                 ", receiversCc='" + receiversCc + '\'' +
                 ", preStatements=" + preStatements +
                 ", postStatements=" + postStatements +
+                ", resultFormat='" + resultFormat + '\'' +
+                ", uploadResult=" + uploadResult +
                 '}';
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.common.task.sql;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.Arrays;
+
+public enum SqlResultFormat {
+    /**
+     * sql query result file format
+     * CSV  comma separated values with a header line
+     * JSON one json object per line
+     */
+    CSV("csv"), JSON("json");
+
+    SqlResultFormat(String extension) {
+        this.extension = extension;
+    }
+
+    private final String extension;
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * parse a result format, ignoring case
+     * @param format format, empty if the result is not written to a file
+     * @return result format, null if empty
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static SqlResultFormat of(String format) {
+        if (StringUtils.isBlank(format)) {
+            return null;
+        }
+        for (SqlResultFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format.trim())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException(String.format("unknown sql result format : %s, it must be empty or one of %s",
+                format, Arrays.toString(values())));
+    }
+}
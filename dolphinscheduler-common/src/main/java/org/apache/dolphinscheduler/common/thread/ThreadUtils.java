@@ -118,6 +118,29 @@ public class ThreadUtils {
                 .build();
         return Executors.newFixedThreadPool(threadsNum, threadFactory);
     }
+
+    /**
+     * Create a fixed thread pool whose waiting tasks are ordered by priority.
+     * tasks must implement Comparable and be submitted with execute, not submit.
+     * execute throws RejectedExecutionException when queueSize tasks are waiting already.
+     * @param threadName threadName
+     * @param threadsNum threadsNum
+     * @param queueSize max number of waiting tasks
+     * @return ThreadPoolExecutor
+     */
+    public static ThreadPoolExecutor newDaemonFixedPriorityThreadPool(String threadName, int threadsNum, int queueSize){
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(threadName)
+                .build();
+        return new ThreadPoolExecutor(threadsNum,
+                threadsNum,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new BoundedPriorityBlockingQueue<Runnable>(queueSize),
+                threadFactory);
+    }
+
     /**
      * Wrapper over ScheduledThreadPoolExecutor
      * @param threadName threadName
@@ -180,6 +180,13 @@ public class HadoopUtils implements Closeable {
         return configuration;
     }
 
+    /**
+     * @return FileSystem
+     */
+    public FileSystem getFileSystem() {
+        return fs;
+    }
+
     /**
      * get application url
      *
@@ -187,6 +194,28 @@ public class HadoopUtils implements Closeable {
      * @return url of application
      */
     public String getApplicationUrl(String applicationId) throws Exception {
+        return String.format(getApplicationStatusAddress(), applicationId);
+    }
+
+    /**
+     * get the url of the resourcemanager applications rest api, such as http://ds1:8088/ws/v1/cluster/apps
+     *
+     * @return applications url, null if the application status address has no application id placeholder
+     * @throws Exception if the application status address is blank
+     */
+    public String getApplicationsUrl() throws Exception {
+        String appUrl = getApplicationStatusAddress();
+        int index = appUrl.indexOf("/%s");
+        return index > 0 ? appUrl.substring(0, index) : null;
+    }
+
+    /**
+     * get application status address, the application id placeholder is not yet replaced
+     *
+     * @return application status address
+     * @throws Exception if the address is blank
+     */
+    private String getApplicationStatusAddress() throws Exception {
         /**
          * if rmHaIds contains xx, it signs not use resourcemanager
          * otherwise:
@@ -209,7 +238,7 @@ public class HadoopUtils implements Closeable {
         if(StringUtils.isBlank(appUrl)){
             throw new Exception("application url is blank");
         }
-        return String.format(appUrl, applicationId);
+        return appUrl;
     }
 
     public String getJobHistoryUrl(String applicationId) {
@@ -433,7 +462,17 @@ public class HadoopUtils implements Closeable {
             result = jsonObject.path("job").path("state").asText();
         }
 
-        switch (result) {
+        return getExecutionStatus(result);
+    }
+
+    /**
+     * convert a yarn application final status or job state to execution status
+     *
+     * @param yarnStatus yarn status
+     * @return execution status
+     */
+    public static ExecutionStatus getExecutionStatus(String yarnStatus) {
+        switch (yarnStatus) {
             case Constants.ACCEPTED:
                 return ExecutionStatus.SUBMITTED_SUCCESS;
             case Constants.SUCCEEDED:
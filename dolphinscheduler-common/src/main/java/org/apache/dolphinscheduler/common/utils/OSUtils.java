@@ -39,7 +39,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import oshi.SystemInfo;
-import oshi.hardware.CentralProcessor;
 import oshi.hardware.GlobalMemory;
 import oshi.hardware.HardwareAbstractionLayer;
 
@@ -74,34 +73,23 @@ public class OSUtils {
 
 
   /**
-   * get memory usage
+   * get memory usage, from the last sample of {@link SystemMetricsSampler}
    * Keep 2 decimal
    * @return  percent %
    */
   public static double memoryUsage() {
-    GlobalMemory memory = hal.getMemory();
-    double memoryUsage = (memory.getTotal() - memory.getAvailable() - memory.getSwapUsed()) * 0.1 / memory.getTotal() * 10;
-
-    DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-    df.setRoundingMode(RoundingMode.HALF_UP);
-    return Double.parseDouble(df.format(memoryUsage));
+    return SystemMetricsSampler.getMetrics().getMemoryUsage();
   }
 
 
   /**
-   * get available physical memory size
+   * get available physical memory size, from the last sample of {@link SystemMetricsSampler}
    *
    * Keep 2 decimal
    * @return  available Physical Memory Size, unit: G
    */
   public static double availablePhysicalMemorySize() {
-    GlobalMemory memory = hal.getMemory();
-    double  availablePhysicalMemorySize = (memory.getAvailable() + memory.getSwapUsed()) /1024.0/1024/1024;
-
-    DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-    df.setRoundingMode(RoundingMode.HALF_UP);
-    return Double.parseDouble(df.format(availablePhysicalMemorySize));
-
+    return SystemMetricsSampler.getMetrics().getAvailablePhysicalMemorySize();
   }
 
   /**
@@ -121,36 +109,21 @@ public class OSUtils {
 
 
   /**
-   * load average
+   * load average, from the last sample of {@link SystemMetricsSampler}
    *
    * @return load average
    */
   public static double loadAverage() {
-    double loadAverage =  hal.getProcessor().getSystemLoadAverage();
-    if (Double.isNaN(loadAverage)) {
-      return NEGATIVE_ONE;
-    }
-
-    DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-    df.setRoundingMode(RoundingMode.HALF_UP);
-    return Double.parseDouble(df.format(loadAverage));
+    return SystemMetricsSampler.getMetrics().getLoadAverage();
   }
 
   /**
-   * get cpu usage
+   * get cpu usage, from the last sample of {@link SystemMetricsSampler}
    *
    * @return cpu usage
    */
   public static double cpuUsage() {
-    CentralProcessor processor = hal.getProcessor();
-    double cpuUsage = processor.getSystemCpuLoad();
-    if (Double.isNaN(cpuUsage)) {
-      return NEGATIVE_ONE;
-    }
-
-    DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-    df.setRoundingMode(RoundingMode.HALF_UP);
-    return Double.parseDouble(df.format(cpuUsage));
+    return SystemMetricsSampler.getMetrics().getCpuUsage();
   }
 
   public static List<String> getUserList() {
@@ -439,10 +412,11 @@ public class OSUtils {
    * @return check memory and cpu usage
    */
   public static Boolean checkResource(double systemCpuLoad, double systemReservedMemory){
+    SystemMetrics metrics = SystemMetricsSampler.getMetrics();
     // system load average
-    double loadAverage = OSUtils.loadAverage();
+    double loadAverage = metrics.getLoadAverage();
     // system available physical memory
-    double availablePhysicalMemorySize = OSUtils.availablePhysicalMemorySize();
+    double availablePhysicalMemorySize = metrics.getAvailablePhysicalMemorySize();
 
     if(loadAverage > systemCpuLoad || availablePhysicalMemorySize < systemReservedMemory){
       logger.warn("load is too high or availablePhysicalMemorySize(G) is too low, it's availablePhysicalMemorySize(G):{},loadAvg:{}", availablePhysicalMemorySize , loadAverage);
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.common.utils;
+
+/**
+ *  snapshot of the host metrics, values keep 2 decimals
+ */
+public class SystemMetrics {
+
+    /**
+     * cpu usage, -1 if unknown
+     */
+    private final double cpuUsage;
+
+    /**
+     * memory usage percent
+     */
+    private final double memoryUsage;
+
+    /**
+     * load average, -1 if unknown
+     */
+    private final double loadAverage;
+
+    /**
+     * available physical memory size, unit: G
+     */
+    private final double availablePhysicalMemorySize;
+
+    /**
+     * sample time, epoch millis
+     */
+    private final long sampleTime;
+
+    /**
+     * time taken by the sample, nanoseconds
+     */
+    private final long sampleCost;
+
+    public SystemMetrics(double cpuUsage, double memoryUsage, double loadAverage, double availablePhysicalMemorySize,
+                         long sampleTime, long sampleCost) {
+        this.cpuUsage = cpuUsage;
+        this.memoryUsage = memoryUsage;
+        this.loadAverage = loadAverage;
+        this.availablePhysicalMemorySize = availablePhysicalMemorySize;
+        this.sampleTime = sampleTime;
+        this.sampleCost = sampleCost;
+    }
+
+    public double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    public double getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public double getLoadAverage() {
+        return loadAverage;
+    }
+
+    public double getAvailablePhysicalMemorySize() {
+        return availablePhysicalMemorySize;
+    }
+
+    public long getSampleTime() {
+        return sampleTime;
+    }
+
+    public long getSampleCost() {
+        return sampleCost;
+    }
+
+    @Override
+    public String toString() {
+        return "SystemMetrics{" +
+                "cpuUsage=" + cpuUsage +
+                ", memoryUsage=" + memoryUsage +
+                ", loadAverage=" + loadAverage +
+                ", availablePhysicalMemorySize=" + availablePhysicalMemorySize +
+                ", sampleTime=" + sampleTime +
+                ", sampleCost=" + sampleCost +
+                '}';
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.common.utils;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import oshi.SystemInfo;
+import oshi.hardware.GlobalMemory;
+import oshi.hardware.HardwareAbstractionLayer;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  samples cpu, memory and load of the host at a fixed rate in the background,
+ *  readers get the last published snapshot without any system call.
+ *  the sampler starts on the first read, which samples synchronously.
+ */
+public class SystemMetricsSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemMetricsSampler.class);
+
+    private static final HardwareAbstractionLayer HAL = new SystemInfo().getHardware();
+
+    private SystemMetricsSampler() {}
+
+    /**
+     * get the last sampled metrics
+     * @return system metrics
+     */
+    public static SystemMetrics getMetrics() {
+        return Holder.metrics;
+    }
+
+    /**
+     * sample the metrics now, also used by the background sampler
+     * @return system metrics
+     */
+    public static SystemMetrics sample() {
+        long start = System.nanoTime();
+        GlobalMemory memory = HAL.getMemory();
+        long total = memory.getTotal();
+        long available = memory.getAvailable();
+        long swapUsed = memory.getSwapUsed();
+        double cpuUsage = HAL.getProcessor().getSystemCpuLoad();
+        double loadAverage = HAL.getProcessor().getSystemLoadAverage();
+
+        double memoryUsage = (total - available - swapUsed) * 0.1 / total * 10;
+        double availablePhysicalMemorySize = (available + swapUsed) / 1024.0 / 1024 / 1024;
+        return new SystemMetrics(Double.isNaN(cpuUsage) ? OSUtils.NEGATIVE_ONE : round(cpuUsage),
+                round(memoryUsage),
+                Double.isNaN(loadAverage) ? OSUtils.NEGATIVE_ONE : round(loadAverage),
+                round(availablePhysicalMemorySize),
+                System.currentTimeMillis(),
+                System.nanoTime() - start);
+    }
+
+    /**
+     * keep 2 decimals
+     */
+    static double round(double value) {
+        DecimalFormat df = new DecimalFormat(OSUtils.TWO_DECIMAL);
+        df.setRoundingMode(RoundingMode.HALF_UP);
+        return Double.parseDouble(df.format(value));
+    }
+
+    /**
+     * started on first use, so processes never reading the metrics run no sampler
+     */
+    private static class Holder {
+
+        private static final long INTERVAL = PropertyUtils.getLong(Constants.SYSTEM_METRICS_SAMPLE_INTERVAL,
+                Constants.DEFAULT_SYSTEM_METRICS_SAMPLE_INTERVAL);
+
+        private static volatile SystemMetrics metrics = sample();
+
+        private static final ScheduledExecutorService EXECUTOR = start();
+
+        private static ScheduledExecutorService start() {
+            ScheduledExecutorService executor = ThreadUtils.newDaemonThreadScheduledExecutor("System-Metrics-Sampler", 1);
+            executor.scheduleAtFixedRate(Holder::refresh, INTERVAL, INTERVAL, TimeUnit.MILLISECONDS);
+            return executor;
+        }
+
+        private static void refresh() {
+            try {
+                SystemMetrics sampled = sample();
+                metrics = sampled;
+                long cost = TimeUnit.NANOSECONDS.toMillis(sampled.getSampleCost());
+                if (cost * 2 > INTERVAL) {
+                    logger.warn("sampling system metrics took {} ms, sample interval is {} ms", cost, INTERVAL);
+                } else {
+                    logger.debug("sampled system metrics : {}", sampled);
+                }
+            } catch (Throwable t) {
+                logger.error("sample system metrics failed", t);
+            }
+        }
+    }
+}
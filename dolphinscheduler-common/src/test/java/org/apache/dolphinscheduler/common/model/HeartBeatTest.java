@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.common.model;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeartBeatTest {
+
+    @Test
+    public void testEncodeAndDecode() {
+        long startTime = DateUtils.stringToDate("2020-05-08 11:24:14").getTime();
+        long reportTime = DateUtils.stringToDate("2020-05-08 14:22:24").getTime();
+        HeartBeat heartBeat = new HeartBeat(0.02, 0.23, 0.03, 3.5, startTime + 123, reportTime, Constants.NORAML_NODE_STATUS, 1234);
+
+        String encoded = heartBeat.encode();
+        Assert.assertEquals("2,0.02,0.23,0.03,3.5," + startTime / 1000 + "," + reportTime / 1000 + ",0,1234", encoded);
+
+        HeartBeat decoded = HeartBeat.decode(encoded);
+        Assert.assertNotNull(decoded);
+        Assert.assertEquals(0.02, decoded.getCpuUsage(), 0);
+        Assert.assertEquals(0.23, decoded.getMemoryUsage(), 0);
+        Assert.assertEquals(0.03, decoded.getLoadAverage(), 0);
+        Assert.assertEquals(3.5, decoded.getAvailablePhysicalMemorySize(), 0);
+        Assert.assertEquals(startTime, decoded.getStartTime());
+        Assert.assertEquals(reportTime, decoded.getReportTime());
+        Assert.assertEquals(Constants.NORAML_NODE_STATUS, decoded.getStatus());
+        Assert.assertEquals(1234, decoded.getProcessId());
+
+        // parsed once per encoded value
+        Assert.assertSame(decoded, HeartBeat.decode(encoded));
+    }
+
+    @Test
+    public void testDecodeLegacy() {
+        HeartBeat heartBeat = HeartBeat.decode("0.02,0.23,0.03,3.5,4.0,0.3,2020-05-08 11:24:14,2020-05-08 14:22:24,1,1234");
+        Assert.assertNotNull(heartBeat);
+        Assert.assertEquals(0.02, heartBeat.getCpuUsage(), 0);
+        Assert.assertEquals(0.03, heartBeat.getLoadAverage(), 0);
+        Assert.assertEquals(3.5, heartBeat.getAvailablePhysicalMemorySize(), 0);
+        Assert.assertEquals(DateUtils.stringToDate("2020-05-08 11:24:14").getTime(), heartBeat.getStartTime());
+        Assert.assertEquals(DateUtils.stringToDate("2020-05-08 14:22:24").getTime(), heartBeat.getReportTime());
+        Assert.assertEquals(Constants.ABNORMAL_NODE_STATUS, heartBeat.getStatus());
+        Assert.assertEquals(1234, heartBeat.getProcessId());
+    }
+
+    @Test
+    public void testEncodeLegacy() {
+        long startTime = DateUtils.stringToDate("2020-05-08 11:24:14").getTime();
+        long reportTime = DateUtils.stringToDate("2020-05-08 14:22:24").getTime();
+        HeartBeat heartBeat = new HeartBeat(0.02, 0.23, 0.03, 3.5, startTime, reportTime, Constants.ABNORMAL_NODE_STATUS, 1234);
+
+        String encoded = heartBeat.encodeLegacy(4.0, 0.3);
+        Assert.assertEquals("0.02,0.23,0.03,3.5,4.0,0.3,2020-05-08 11:24:14,2020-05-08 14:22:24,1,1234", encoded);
+
+        HeartBeat decoded = HeartBeat.decode(encoded);
+        Assert.assertNotNull(decoded);
+        Assert.assertEquals(startTime, decoded.getStartTime());
+        Assert.assertEquals(reportTime, decoded.getReportTime());
+        Assert.assertEquals(Constants.ABNORMAL_NODE_STATUS, decoded.getStatus());
+        Assert.assertEquals(1234, decoded.getProcessId());
+    }
+
+    @Test
+    public void testDecodeInvalid() {
+        Assert.assertNull(HeartBeat.decode(null));
+        Assert.assertNull(HeartBeat.decode(""));
+        Assert.assertNull(HeartBeat.decode("0.02,0.23,0.03"));
+        Assert.assertNull(HeartBeat.decode("3,0.02,0.23,0.03,3.5,1588908254,1588918944,0,1234"));
+        Assert.assertNull(HeartBeat.decode("2,a,0.23,0.03,3.5,1588908254,1588918944,0,1234"));
+    }
+
+    @Test
+    public void testIsChanged() {
+        HeartBeat last = new HeartBeat(0.20, 0.50, 4.0, 8.0, 0, 0, Constants.NORAML_NODE_STATUS, 1234);
+
+        Assert.assertFalse(new HeartBeat(0.25, 0.55, 4.3, 7.5, 0, 10000, Constants.NORAML_NODE_STATUS, 1234).isChanged(last, 0.1));
+        // ratios move by the threshold
+        Assert.assertTrue(new HeartBeat(0.35, 0.50, 4.0, 8.0, 0, 0, Constants.NORAML_NODE_STATUS, 1234).isChanged(last, 0.1));
+        // load and memory move relative to the last value
+        Assert.assertTrue(new HeartBeat(0.20, 0.50, 4.5, 8.0, 0, 0, Constants.NORAML_NODE_STATUS, 1234).isChanged(last, 0.1));
+        Assert.assertTrue(new HeartBeat(0.20, 0.50, 4.0, 7.0, 0, 0, Constants.NORAML_NODE_STATUS, 1234).isChanged(last, 0.1));
+        // status is always written
+        Assert.assertTrue(new HeartBeat(0.20, 0.50, 4.0, 8.0, 0, 0, Constants.ABNORMAL_NODE_STATUS, 1234).isChanged(last, 0.1));
+        // a zero threshold writes every change
+        Assert.assertTrue(new HeartBeat(0.21, 0.50, 4.0, 8.0, 0, 0, Constants.NORAML_NODE_STATUS, 1234).isChanged(last, 0));
+        Assert.assertFalse(new HeartBeat(0.20, 0.50, 4.0, 8.0, 0, 0, Constants.NORAML_NODE_STATUS, 1234).isChanged(last, 0));
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.common.task;
+
+import org.apache.dolphinscheduler.common.task.sql.SqlParameters;
+import org.apache.dolphinscheduler.common.task.sql.SqlResultFormat;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * sql parameter
+ */
+public class SqlParametersTest {
+
+    @Test
+    public void testCheckResultFormat() {
+        String paramData = "{\"type\":\"MYSQL\",\"datasource\":1,\"sql\":\"select 1\",\"sqlType\":0,\"resultFormat\":\"%s\"}";
+
+        Assert.assertTrue(JSONUtils.parseObject(String.format(paramData, ""), SqlParameters.class).checkParameters());
+        Assert.assertTrue(JSONUtils.parseObject(String.format(paramData, "csv"), SqlParameters.class).checkParameters());
+        Assert.assertTrue(JSONUtils.parseObject(String.format(paramData, " JSON "), SqlParameters.class).checkParameters());
+        Assert.assertFalse(JSONUtils.parseObject(String.format(paramData, "xlsx"), SqlParameters.class).checkParameters());
+    }
+
+    @Test
+    public void testParseResultFormat() {
+        Assert.assertNull(SqlResultFormat.of(null));
+        Assert.assertNull(SqlResultFormat.of(" "));
+        Assert.assertEquals(SqlResultFormat.CSV, SqlResultFormat.of("Csv"));
+        try {
+            SqlResultFormat.of("xlsx");
+            Assert.fail("unknown format should be rejected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("unknown sql result format : xlsx, it must be empty or one of [CSV, JSON]", e.getMessage());
+        }
+    }
+}
@@ -23,7 +23,11 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.*;
 
 import static org.junit.Assert.*;
@@ -185,6 +189,55 @@ public class ThreadUtilsTest {
         assertTrue(threadPoolExecutor.isShutdown());
     }
 
+    /**
+     * test waiting tasks run by priority and tasks beyond the queue size are rejected
+     */
+    @Test
+    public void testNewDaemonFixedPriorityThreadPool() throws InterruptedException {
+        ThreadPoolExecutor threadPoolExecutor = ThreadUtils.newDaemonFixedPriorityThreadPool("priority-thread", 1, 3);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        threadPoolExecutor.execute(new PriorityTask(0, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        for (int priority : new int[]{3, 1, 2}) {
+            threadPoolExecutor.execute(new PriorityTask(priority, () -> order.add(priority)));
+        }
+        try {
+            threadPoolExecutor.execute(new PriorityTask(4, () -> order.add(4)));
+            fail("the queue is full");
+        } catch (RejectedExecutionException e) {
+            assertEquals(3, threadPoolExecutor.getQueue().size());
+        }
+        release.countDown();
+        threadPoolExecutor.shutdown();
+        assertTrue(threadPoolExecutor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1, 2, 3), order);
+    }
 
+    private static class PriorityTask implements Runnable, Comparable<PriorityTask> {
 
+        private final int priority;
+
+        private final Runnable runnable;
+
+        PriorityTask(int priority, Runnable runnable) {
+            this.priority = priority;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        @Override
+        public int compareTo(PriorityTask other) {
+            return Integer.compare(priority, other.priority);
+        }
+    }
 }
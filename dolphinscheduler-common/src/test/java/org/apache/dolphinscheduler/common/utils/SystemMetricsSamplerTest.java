@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.common.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SystemMetricsSamplerTest {
+
+    @Test
+    public void testGetMetrics() {
+        SystemMetrics metrics = SystemMetricsSampler.getMetrics();
+        Assert.assertNotNull(metrics);
+        // readers share the published snapshot until the next sample
+        Assert.assertSame(metrics, SystemMetricsSampler.getMetrics());
+        Assert.assertTrue(metrics.getSampleTime() > 0);
+        Assert.assertTrue(metrics.getSampleCost() >= 0);
+        if (!OSUtils.isWindows()) {
+            Assert.assertTrue(metrics.getAvailablePhysicalMemorySize() >= 0.0d);
+            Assert.assertTrue(metrics.getMemoryUsage() >= 0.0d);
+            Assert.assertTrue(metrics.getCpuUsage() >= 0.0d || metrics.getCpuUsage() == OSUtils.NEGATIVE_ONE);
+        }
+    }
+
+    @Test
+    public void testSample() {
+        long before = System.currentTimeMillis();
+        SystemMetrics metrics = SystemMetricsSampler.sample();
+        Assert.assertTrue(metrics.getSampleTime() >= before);
+        Assert.assertTrue(metrics.getSampleCost() >= 0);
+    }
+
+    @Test
+    public void testRound() {
+        Assert.assertEquals(0.13, SystemMetricsSampler.round(0.125), 0);
+        Assert.assertEquals(1.5, SystemMetricsSampler.round(1.5), 0);
+        Assert.assertEquals(2.0, SystemMetricsSampler.round(1.999), 0);
+    }
+}
@@ -211,6 +211,26 @@ public class TaskInstance implements Serializable {
     @TableField(exist = false)
     private String executorName;
 
+    /**
+     * peak cpu usage of the task process tree, 100 is one core
+     */
+    private Double peakCpuUsage;
+
+    /**
+     * average cpu usage of the task process tree, 100 is one core
+     */
+    private Double avgCpuUsage;
+
+    /**
+     * peak resident memory of the task process tree, unit: MB
+     */
+    private Double peakMemory;
+
+    /**
+     * average resident memory of the task process tree, unit: MB
+     */
+    private Double avgMemory;
+
 
     @TableField(exist = false)
     private List<String> resources;
@@ -447,6 +467,38 @@ public class TaskInstance implements Serializable {
         this.executorName = executorName;
     }
 
+    public Double getPeakCpuUsage() {
+        return peakCpuUsage;
+    }
+
+    public void setPeakCpuUsage(Double peakCpuUsage) {
+        this.peakCpuUsage = peakCpuUsage;
+    }
+
+    public Double getAvgCpuUsage() {
+        return avgCpuUsage;
+    }
+
+    public void setAvgCpuUsage(Double avgCpuUsage) {
+        this.avgCpuUsage = avgCpuUsage;
+    }
+
+    public Double getPeakMemory() {
+        return peakMemory;
+    }
+
+    public void setPeakMemory(Double peakMemory) {
+        this.peakMemory = peakMemory;
+    }
+
+    public Double getAvgMemory() {
+        return avgMemory;
+    }
+
+    public void setAvgMemory(Double avgMemory) {
+        this.avgMemory = avgMemory;
+    }
+
     public boolean isTaskComplete() {
 
         return this.getState().typeIsPause()
@@ -561,6 +613,10 @@ public class TaskInstance implements Serializable {
                 ", workerGroup='" + workerGroup + '\'' +
                 ", executorId=" + executorId +
                 ", executorName='" + executorName + '\'' +
+                ", peakCpuUsage=" + peakCpuUsage +
+                ", avgCpuUsage=" + avgCpuUsage +
+                ", peakMemory=" + peakMemory +
+                ", avgMemory=" + avgMemory +
                 '}';
     }
 }
@@ -102,6 +102,54 @@ public interface ProcessInstanceMapper extends BaseMapper<ProcessInstance> {
                                                           @Param("startTime") Date startTime,
                                                           @Param("endTime") Date endTime);
 
+    /**
+     * process instance page, including the archived process instances.
+     * each table only returns its first limit rows by start time, so the page must not count itself,
+     * use countProcessInstanceListPagingWithArchive for the total
+     * @param page page, without search count
+     * @param projectId projectId
+     * @param processDefinitionId processDefinitionId
+     * @param searchVal searchVal
+     * @param executorId executorId
+     * @param statusArray statusArray
+     * @param host host
+     * @param startTime startTime
+     * @param endTime endTime
+     * @param limit offset plus page size
+     * @return process instance page
+     */
+    IPage<ProcessInstance> queryProcessInstanceListPagingWithArchive(Page<ProcessInstance> page,
+                                                                     @Param("projectId") int projectId,
+                                                                     @Param("processDefinitionId") Integer processDefinitionId,
+                                                                     @Param("searchVal") String searchVal,
+                                                                     @Param("executorId") Integer executorId,
+                                                                     @Param("states") int[] statusArray,
+                                                                     @Param("host") String host,
+                                                                     @Param("startTime") Date startTime,
+                                                                     @Param("endTime") Date endTime,
+                                                                     @Param("limit") long limit);
+
+    /**
+     * count process instances of the paging query, including the archived process instances
+     * @param projectId projectId
+     * @param processDefinitionId processDefinitionId
+     * @param searchVal searchVal
+     * @param executorId executorId
+     * @param statusArray statusArray
+     * @param host host
+     * @param startTime startTime
+     * @param endTime endTime
+     * @return process instance count
+     */
+    Long countProcessInstanceListPagingWithArchive(@Param("projectId") int projectId,
+                                                   @Param("processDefinitionId") Integer processDefinitionId,
+                                                   @Param("searchVal") String searchVal,
+                                                   @Param("executorId") Integer executorId,
+                                                   @Param("states") int[] statusArray,
+                                                   @Param("host") String host,
+                                                   @Param("startTime") Date startTime,
+                                                   @Param("endTime") Date endTime);
+
     /**
      * set failover by host and state array
      * @param host host
@@ -149,6 +197,18 @@ public interface ProcessInstanceMapper extends BaseMapper<ProcessInstance> {
             @Param("endTime") Date endTime,
             @Param("projectIds") Integer[] projectIds);
 
+    /**
+     * count process instance state by user, including the archived process instances
+     * @param startTime startTime
+     * @param endTime endTime
+     * @param projectIds projectIds
+     * @return ExecuteStatusCount list
+     */
+    List<ExecuteStatusCount> countInstanceStateByUserWithArchive(
+            @Param("startTime") Date startTime,
+            @Param("endTime") Date endTime,
+            @Param("projectIds") Integer[] projectIds);
+
     /**
      * query process instance by processDefinitionId
      * @param processDefinitionId processDefinitionId
@@ -170,6 +230,17 @@ public interface ProcessInstanceMapper extends BaseMapper<ProcessInstance> {
                                               @Param("startTime") Date startTime,
                                               @Param("endTime") Date endTime);
 
+    /**
+     * query last archived scheduler process instance
+     * @param definitionId processDefinitionId
+     * @param startTime startTime
+     * @param endTime endTime
+     * @return process instance
+     */
+    ProcessInstance queryLastArchivedSchedulerProcess(@Param("processDefinitionId") int definitionId,
+                                                      @Param("startTime") Date startTime,
+                                                      @Param("endTime") Date endTime);
+
     /**
      * query last running process instance
      * @param definitionId definitionId
@@ -193,4 +264,72 @@ public interface ProcessInstanceMapper extends BaseMapper<ProcessInstance> {
     ProcessInstance queryLastManualProcess(@Param("processDefinitionId") int definitionId,
                                            @Param("startTime") Date startTime,
                                            @Param("endTime") Date endTime);
+
+    /**
+     * query last archived manual process instance
+     * @param definitionId definitionId
+     * @param startTime startTime
+     * @param endTime endTime
+     * @return process instance
+     */
+    ProcessInstance queryLastArchivedManualProcess(@Param("processDefinitionId") int definitionId,
+                                                   @Param("startTime") Date startTime,
+                                                   @Param("endTime") Date endTime);
+
+    /**
+     * query the ids of process instances which can be archived, in ascending order.
+     * a sub process is kept as long as its parent process is not archivable
+     * @param endTime process instances ended before this time
+     * @param stateArray archivable states
+     * @param lastId ids greater than this
+     * @param limit max ids
+     * @return process instance ids
+     */
+    List<Integer> queryArchivableIds(@Param("endTime") Date endTime,
+                                     @Param("states") int[] stateArray,
+                                     @Param("lastId") int lastId,
+                                     @Param("limit") int limit);
+
+    /**
+     * lock the process instances which are still archivable
+     * @param ids process instance ids
+     * @param stateArray archivable states
+     * @return locked process instance ids
+     */
+    List<Integer> lockArchivableByIds(@Param("ids") List<Integer> ids,
+                                      @Param("states") int[] stateArray);
+
+    /**
+     * copy process instances to the archive table
+     * @param ids process instance ids
+     * @return insert result
+     */
+    int archiveByIds(@Param("ids") List<Integer> ids);
+
+    /**
+     * query archived process instance detail info by id
+     * @param processId processId
+     * @return process instance
+     */
+    ProcessInstance queryArchivedDetailById(@Param("processId") int processId);
+
+    /**
+     * query the latest end time of the archived process instances
+     * @return end time, null if nothing is archived
+     */
+    Date queryArchivedMaxEndTime();
+
+    /**
+     * update the editable fields of an archived process instance
+     * @param processInstance process instance
+     * @return update result
+     */
+    int updateArchivedById(@Param("processInstance") ProcessInstance processInstance);
+
+    /**
+     * delete an archived process instance
+     * @param processId processId
+     * @return delete result
+     */
+    int deleteArchivedById(@Param("processId") int processId);
 }
@@ -58,6 +58,10 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
                                                           @Param("endTime") Date endTime,
                                                           @Param("projectIds") Integer[] projectIds);
 
+    List<ExecuteStatusCount> countTaskInstanceStateByUserWithArchive(@Param("startTime") Date startTime,
+                                                                     @Param("endTime") Date endTime,
+                                                                     @Param("projectIds") Integer[] projectIds);
+
     IPage<TaskInstance> queryTaskInstanceListPaging(IPage<TaskInstance> page,
                                                     @Param("projectId") int projectId,
                                                     @Param("processInstanceId") Integer processInstanceId,
@@ -69,4 +73,40 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
                                                     @Param("startTime") Date startTime,
                                                     @Param("endTime") Date endTime
     );
+
+    IPage<TaskInstance> queryTaskInstanceListPagingWithArchive(IPage<TaskInstance> page,
+                                                               @Param("projectId") int projectId,
+                                                               @Param("processInstanceId") Integer processInstanceId,
+                                                               @Param("searchVal") String searchVal,
+                                                               @Param("taskName") String taskName,
+                                                               @Param("executorId") int executorId,
+                                                               @Param("states") int[] statusArray,
+                                                               @Param("host") String host,
+                                                               @Param("startTime") Date startTime,
+                                                               @Param("endTime") Date endTime,
+                                                               @Param("limit") long limit);
+
+    Long countTaskInstanceListPagingWithArchive(@Param("projectId") int projectId,
+                                                @Param("processInstanceId") Integer processInstanceId,
+                                                @Param("searchVal") String searchVal,
+                                                @Param("taskName") String taskName,
+                                                @Param("executorId") int executorId,
+                                                @Param("states") int[] statusArray,
+                                                @Param("host") String host,
+                                                @Param("startTime") Date startTime,
+                                                @Param("endTime") Date endTime);
+
+    int archiveByProcessInstanceIds(@Param("processInstanceIds") List<Integer> processInstanceIds);
+
+    int deleteByProcessInstanceIds(@Param("processInstanceIds") List<Integer> processInstanceIds);
+
+    List<TaskInstance> findArchivedTaskListByProcessId(@Param("processInstanceId") Integer processInstanceId,
+                                                       @Param("flag") Flag flag);
+
+    TaskInstance queryArchivedById(@Param("taskId") int taskId);
+
+    TaskInstance queryArchivedByInstanceIdAndName(@Param("processInstanceId") int processInstanceId,
+                                                  @Param("name") String name);
+
+    int deleteArchivedByProcessInstanceId(@Param("processInstanceId") int processInstanceId);
 }
@@ -32,6 +32,7 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -51,6 +52,18 @@ public class ProcessInstanceMapperTest {
     @Autowired
     ProjectMapper projectMapper;
 
+    @Autowired
+    ProcessInstanceMapMapper processInstanceMapMapper;
+
+    @Autowired
+    TaskInstanceMapper taskInstanceMapper;
+
+    private final int[] archivableStates = new int[]{
+            ExecutionStatus.SUCCESS.ordinal(),
+            ExecutionStatus.FAILURE.ordinal(),
+            ExecutionStatus.KILL.ordinal(),
+            ExecutionStatus.STOP.ordinal()};
+
 
     /**
      * insert
@@ -329,4 +342,180 @@ public class ProcessInstanceMapperTest {
         processInstanceMapper.deleteById(processInstance.getId());
 
     }
-}
\ No newline at end of file
+
+    /**
+     * insert a finished process instance
+     * @param definitionId process definition id
+     * @return ProcessInstance
+     */
+    private ProcessInstance insertFinished(int definitionId){
+        ProcessInstance processInstance = insertOne();
+        processInstance.setProcessDefinitionId(definitionId);
+        processInstance.setState(ExecutionStatus.SUCCESS);
+        processInstance.setIsSubProcess(Flag.NO);
+        processInstanceMapper.updateById(processInstance);
+        return processInstance;
+    }
+
+    /**
+     * move a process instance to the archive table
+     * @param processInstance process instance
+     */
+    private void archive(ProcessInstance processInstance){
+        List<Integer> ids = Collections.singletonList(processInstance.getId());
+        Assert.assertEquals(ids, processInstanceMapper.lockArchivableByIds(ids, archivableStates));
+        Assert.assertEquals(1, processInstanceMapper.archiveByIds(ids));
+        Assert.assertEquals(1, processInstanceMapper.deleteBatchIds(ids));
+    }
+
+    /**
+     * test query last archived scheduler and manual process instances
+     */
+    @Test
+    public void testQueryLastArchivedProcess() {
+        ProcessInstance scheduled = insertFinished(1212);
+        scheduled.setScheduleTime(new Date());
+        processInstanceMapper.updateById(scheduled);
+        ProcessInstance manual = insertFinished(1212);
+        archive(scheduled);
+        archive(manual);
+
+        Assert.assertNull(processInstanceMapper.queryLastSchedulerProcess(1212, null, null));
+        Assert.assertEquals(scheduled.getId(), processInstanceMapper.queryLastArchivedSchedulerProcess(1212, null, null).getId());
+        Assert.assertNull(processInstanceMapper.queryLastManualProcess(1212, null, null));
+        Assert.assertEquals(manual.getId(), processInstanceMapper.queryLastArchivedManualProcess(1212, null, null).getId());
+    }
+
+    /**
+     * test archive a process instance
+     */
+    @Test
+    public void testArchive() {
+        ProcessInstance processInstance = insertFinished(0);
+        archive(processInstance);
+
+        Assert.assertNull(processInstanceMapper.queryDetailById(processInstance.getId()));
+        ProcessInstance archived = processInstanceMapper.queryArchivedDetailById(processInstance.getId());
+        Assert.assertNotNull(archived);
+        Assert.assertEquals(ExecutionStatus.SUCCESS, archived.getState());
+        Assert.assertFalse(processInstanceMapper.queryArchivedMaxEndTime().before(processInstance.getEndTime()));
+
+        archived.setGlobalParams("[]");
+        Assert.assertEquals(1, processInstanceMapper.updateArchivedById(archived));
+        Assert.assertEquals("[]", processInstanceMapper.queryArchivedDetailById(processInstance.getId()).getGlobalParams());
+
+        Assert.assertEquals(1, processInstanceMapper.deleteArchivedById(processInstance.getId()));
+        Assert.assertNull(processInstanceMapper.queryArchivedDetailById(processInstance.getId()));
+    }
+
+    /**
+     * test query archivable process instance ids
+     */
+    @Test
+    public void testQueryArchivableIds() {
+        Date endTime = new Date(2019-1900, 1-1, 2, 0, 0, 0);
+        ProcessInstance finished = insertFinished(0);
+        ProcessInstance running = insertOne();
+        running.setState(ExecutionStatus.RUNNING_EXEUTION);
+        processInstanceMapper.updateById(running);
+
+        List<Integer> ids = processInstanceMapper.queryArchivableIds(endTime, archivableStates, finished.getId() - 1, 10);
+        Assert.assertTrue(ids.contains(finished.getId()));
+        Assert.assertFalse(ids.contains(running.getId()));
+
+        // ended after the end time
+        ids = processInstanceMapper.queryArchivableIds(finished.getEndTime(), archivableStates, finished.getId() - 1, 10);
+        Assert.assertFalse(ids.contains(finished.getId()));
+
+        // ids after the cursor only
+        ids = processInstanceMapper.queryArchivableIds(endTime, archivableStates, finished.getId(), 10);
+        Assert.assertFalse(ids.contains(finished.getId()));
+
+        // running instances are not locked for archiving
+        Assert.assertTrue(processInstanceMapper.lockArchivableByIds(
+                Collections.singletonList(running.getId()), archivableStates).isEmpty());
+    }
+
+    /**
+     * test a finished sub process is only archivable after its parent finished
+     */
+    @Test
+    public void testQueryArchivableIdsWithParent() {
+        Date endTime = new Date(2019-1900, 1-1, 2, 0, 0, 0);
+        ProcessInstance parent = insertOne();
+        parent.setState(ExecutionStatus.RUNNING_EXEUTION);
+        processInstanceMapper.updateById(parent);
+        ProcessInstance sub = insertFinished(0);
+        sub.setIsSubProcess(Flag.YES);
+        processInstanceMapper.updateById(sub);
+
+        ProcessInstanceMap relation = new ProcessInstanceMap();
+        relation.setParentProcessInstanceId(parent.getId());
+        relation.setParentTaskInstanceId(1);
+        relation.setProcessInstanceId(sub.getId());
+        processInstanceMapMapper.insert(relation);
+
+        List<Integer> ids = processInstanceMapper.queryArchivableIds(endTime, archivableStates, parent.getId() - 1, 10);
+        Assert.assertFalse(ids.contains(sub.getId()));
+
+        parent.setState(ExecutionStatus.FAILURE);
+        processInstanceMapper.updateById(parent);
+        ids = processInstanceMapper.queryArchivableIds(endTime, archivableStates, parent.getId() - 1, 10);
+        Assert.assertTrue(ids.contains(parent.getId()));
+        Assert.assertTrue(ids.contains(sub.getId()));
+    }
+
+    /**
+     * test query process instance page with archived process instances
+     */
+    @Test
+    public void testQueryProcessInstanceListPagingWithArchive() {
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setProjectId(1010);
+        processDefinition.setReleaseState(ReleaseState.ONLINE);
+        processDefinitionMapper.insert(processDefinition);
+
+        ProcessInstance hot = insertFinished(processDefinition.getId());
+        ProcessInstance archived = insertFinished(processDefinition.getId());
+        archive(archived);
+
+        Page<ProcessInstance> page = new Page(1, 10, false);
+        IPage<ProcessInstance> processInstanceIPage = processInstanceMapper.queryProcessInstanceListPagingWithArchive(
+                page, processDefinition.getProjectId(), processDefinition.getId(), null, 0, null, null, null, null, 10);
+        Assert.assertEquals(2, processInstanceIPage.getRecords().size());
+        Assert.assertEquals(2, processInstanceMapper.countProcessInstanceListPagingWithArchive(
+                processDefinition.getProjectId(), processDefinition.getId(), null, 0, null, null, null, null).longValue());
+
+        // each table only returns its first limit rows
+        processInstanceIPage = processInstanceMapper.queryProcessInstanceListPagingWithArchive(
+                new Page(1, 1, false), processDefinition.getProjectId(), processDefinition.getId(), null, 0, null, null, null, null, 1);
+        Assert.assertEquals(1, processInstanceIPage.getRecords().size());
+
+        processInstanceIPage = processInstanceMapper.queryProcessInstanceListPaging(
+                new Page(1, 10), processDefinition.getProjectId(), processDefinition.getId(), null, 0, null, null, null, null);
+        Assert.assertEquals(1, processInstanceIPage.getTotal());
+        Assert.assertEquals(hot.getId(), processInstanceIPage.getRecords().get(0).getId());
+    }
+
+    /**
+     * test count process instance state by user with archived process instances
+     */
+    @Test
+    public void testCountInstanceStateByUserWithArchive() {
+        Project project = new Project();
+        project.setName("testArchiveProject");
+        projectMapper.insert(project);
+
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setProjectId(project.getId());
+        processDefinitionMapper.insert(processDefinition);
+
+        insertFinished(processDefinition.getId());
+        archive(insertFinished(processDefinition.getId()));
+
+        Integer[] projectIds = new Integer[]{processDefinition.getProjectId()};
+        List<ExecuteStatusCount> executeStatusCounts = processInstanceMapper.countInstanceStateByUserWithArchive(null, null, projectIds);
+        Assert.assertEquals(1, executeStatusCounts.size());
+        Assert.assertEquals(2, executeStatusCounts.get(0).getCount());
+    }
+}
@@ -36,6 +36,7 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -297,4 +298,89 @@ public class TaskInstanceMapperTest {
         Assert.assertNotEquals(taskInstanceIPage.getTotal(), 0);
 
     }
-}
\ No newline at end of file
+
+    /**
+     * insert a finished process instance with one task instance
+     * @param definition process definition
+     * @return task instance
+     */
+    private TaskInstance insertFinishedProcess(ProcessDefinition definition){
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setProcessDefinitionId(definition.getId());
+        processInstance.setState(ExecutionStatus.SUCCESS);
+        processInstance.setName("ut process");
+        processInstance.setStartTime(new Date());
+        processInstance.setEndTime(new Date());
+        processInstance.setCommandType(CommandType.START_PROCESS);
+        processInstanceMapper.insert(processInstance);
+
+        TaskInstance task = insertOne();
+        task.setState(ExecutionStatus.SUCCESS);
+        task.setProcessDefinitionId(definition.getId());
+        task.setProcessInstanceId(processInstance.getId());
+        taskInstanceMapper.updateById(task);
+        return task;
+    }
+
+    /**
+     * move the task instances of a process instance to the archive table
+     * @param task task instance
+     */
+    private void archive(TaskInstance task){
+        List<Integer> processInstanceIds = Collections.singletonList(task.getProcessInstanceId());
+        Assert.assertEquals(1, taskInstanceMapper.archiveByProcessInstanceIds(processInstanceIds));
+        Assert.assertEquals(1, taskInstanceMapper.deleteByProcessInstanceIds(processInstanceIds));
+        Assert.assertEquals(1, processInstanceMapper.archiveByIds(processInstanceIds));
+        Assert.assertEquals(1, processInstanceMapper.deleteBatchIds(processInstanceIds));
+    }
+
+    /**
+     * test archive task instances
+     */
+    @Test
+    public void testArchive() {
+        ProcessDefinition definition = new ProcessDefinition();
+        definition.setProjectId(1111);
+        processDefinitionMapper.insert(definition);
+        TaskInstance task = insertFinishedProcess(definition);
+        archive(task);
+
+        Assert.assertNull(taskInstanceMapper.selectById(task.getId()));
+        Assert.assertNotNull(taskInstanceMapper.queryArchivedById(task.getId()));
+        Assert.assertEquals(task.getId(), taskInstanceMapper.queryArchivedByInstanceIdAndName(
+                task.getProcessInstanceId(), task.getName()).getId());
+        List<TaskInstance> taskInstances = taskInstanceMapper.findArchivedTaskListByProcessId(task.getProcessInstanceId(), Flag.YES);
+        Assert.assertEquals(1, taskInstances.size());
+
+        Assert.assertEquals(1, taskInstanceMapper.deleteArchivedByProcessInstanceId(task.getProcessInstanceId()));
+        Assert.assertNull(taskInstanceMapper.queryArchivedById(task.getId()));
+    }
+
+    /**
+     * test page and count with archived task instances
+     */
+    @Test
+    public void testQueryTaskInstanceListPagingWithArchive() {
+        ProcessDefinition definition = new ProcessDefinition();
+        definition.setProjectId(1112);
+        processDefinitionMapper.insert(definition);
+        TaskInstance hot = insertFinishedProcess(definition);
+        archive(insertFinishedProcess(definition));
+
+        IPage<TaskInstance> taskInstanceIPage = taskInstanceMapper.queryTaskInstanceListPagingWithArchive(
+                new Page(1, 10, false), definition.getProjectId(), 0, "", "", 0, new int[0], "", null, null, 10);
+        Assert.assertEquals(2, taskInstanceIPage.getRecords().size());
+        Assert.assertEquals(2, taskInstanceMapper.countTaskInstanceListPagingWithArchive(
+                definition.getProjectId(), 0, "", "", 0, new int[0], "", null, null).longValue());
+
+        taskInstanceIPage = taskInstanceMapper.queryTaskInstanceListPaging(
+                new Page(1, 10), definition.getProjectId(), 0, "", "", 0, new int[0], "", null, null);
+        Assert.assertEquals(1, taskInstanceIPage.getTotal());
+        Assert.assertEquals(hot.getId(), taskInstanceIPage.getRecords().get(0).getId());
+
+        List<ExecuteStatusCount> counts = taskInstanceMapper.countTaskInstanceStateByUserWithArchive(
+                null, null, new Integer[]{definition.getProjectId()});
+        Assert.assertEquals(1, counts.size());
+        Assert.assertEquals(2, counts.get(0).getCount());
+    }
+}
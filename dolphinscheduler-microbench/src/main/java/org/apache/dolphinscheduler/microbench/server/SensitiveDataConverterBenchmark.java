@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.microbench.server;
+
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.server.log.SensitiveDataConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ *  masking of log messages by SensitiveDataConverter, compared with running the password regex on every message
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+public class SensitiveDataConverterBenchmark extends AbstractBaseBenchmark {
+
+    private static final String PLAIN = "[INFO] 2020-05-20 10:00:00.000  - [taskAppId=TASK-1-1-1]:[127] - task instance 1 is running";
+
+    private static final String LONG_PLAIN = repeat("[INFO] shell output line without any secret ", 100);
+
+    private static final String KEYWORD = "[INFO] password of user view is not set, use the default connection";
+
+    private static final String DATASOURCE = "{\"address\":\"jdbc:mysql://192.168.xx.xx:3306\",\"database\":\"carbond\","
+            + "\"jdbcUrl\":\"jdbc:mysql://192.168.xx.xx:3306/ods\",\"user\":\"view\",\"password\":\"view1\"}";
+
+    private static final String LONG_DATASOURCE = repeat("[INFO] shell output line without any secret ", 100) + DATASOURCE;
+
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile(Constants.DATASOURCE_PASSWORD_REGEX);
+
+    /**
+     * typical messages without a password, a message mentioning passwords, and worst cases with a datasource password
+     */
+    @Param({"plain", "longPlain", "keyword", "datasource", "longDatasource"})
+    private String message;
+
+    private SensitiveDataConverter converter;
+
+    private LoggingEvent event;
+
+    @Setup
+    public void setup() {
+        converter = new SensitiveDataConverter();
+        event = new LoggingEvent();
+        switch (message) {
+            case "plain":
+                event.setMessage(PLAIN);
+                break;
+            case "longPlain":
+                event.setMessage(LONG_PLAIN);
+                break;
+            case "keyword":
+                event.setMessage(KEYWORD);
+                break;
+            case "datasource":
+                event.setMessage(DATASOURCE);
+                break;
+            default:
+                event.setMessage(LONG_DATASOURCE);
+                break;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String convert() {
+        return converter.convert(event);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String regexOnly() {
+        String logMsg = event.getFormattedMessage();
+        Matcher matcher = PASSWORD_PATTERN.matcher(logMsg);
+        StringBuffer sb = new StringBuffer(logMsg.length());
+        while (matcher.find()) {
+            matcher.appendReplacement(sb, Constants.PASSWORD_DEFAULT);
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder(value.length() * times);
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
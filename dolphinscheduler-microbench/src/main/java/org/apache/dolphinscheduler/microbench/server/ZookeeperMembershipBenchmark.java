@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.microbench.server;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.service.zk.ZKServer;
+import org.apache.dolphinscheduler.service.zk.ZookeeperMembershipCache;
+import org.apache.zookeeper.CreateMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  worker group lookups and heartbeats against an in-process zookeeper server,
+ *  with the former tree cache over all nodes compared with the child watch only membership cache
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+public class ZookeeperMembershipBenchmark extends AbstractBaseBenchmark {
+
+    private static final int ZK_PORT = 2191;
+
+    private static final String NODES = "/dolphinscheduler-benchmark/nodes";
+
+    private static final String MASTER_PATH = NODES + "/master";
+
+    private static final String WORKER_PATH = NODES + "/worker";
+
+    private static final String[] WORKER_GROUPS = {"default", "etl", "report", "ml"};
+
+    private static final byte[] HEARTBEAT = "0.02,0.23,0.03,2020-05-08 11:24:14,2020-05-08 14:22:24"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"10", "100"})
+    private int workers;
+
+    @Param({"tree", "membership"})
+    private String cache;
+
+    private CuratorFramework client;
+
+    private TreeCache treeCache;
+
+    private ZookeeperMembershipCache membershipCache;
+
+    private String heartbeatPath;
+
+    /**
+     * events seen by the cache listener, heartbeats should not produce any with the membership cache
+     */
+    private final AtomicLong cacheEvents = new AtomicLong();
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class CacheEvents {
+
+        public long cacheEvents;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cacheEvents = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        if (!ZKServer.isStarted()) {
+            Thread server = new Thread(() -> ZKServer.startLocalZkServer(ZK_PORT), "Benchmark-ZK-Server");
+            server.setDaemon(true);
+            server.start();
+        }
+        client = CuratorFrameworkFactory.newClient("127.0.0.1:" + ZK_PORT, new ExponentialBackoffRetry(100, 10));
+        client.start();
+        if (!client.blockUntilConnected(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("zookeeper server is not reachable");
+        }
+        if (client.checkExists().forPath(NODES) != null) {
+            client.delete().deletingChildrenIfNeeded().forPath(NODES);
+        }
+        client.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL)
+                .forPath(MASTER_PATH + "/192.168.0.1:5678", HEARTBEAT);
+        for (int i = 0; i < workers; i++) {
+            String path = WORKER_PATH + "/" + WORKER_GROUPS[i % WORKER_GROUPS.length] + "/192.168.1." + i + ":1234";
+            client.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL).forPath(path, HEARTBEAT);
+        }
+        heartbeatPath = WORKER_PATH + "/default/192.168.1.0:1234";
+
+        if ("tree".equals(cache)) {
+            treeCache = new TreeCache(client, NODES);
+            treeCache.getListenable().addListener((c, event) -> cacheEvents.incrementAndGet());
+            treeCache.start();
+        } else {
+            membershipCache = new ZookeeperMembershipCache(client, MASTER_PATH, WORKER_PATH);
+            membershipCache.addListener(event -> cacheEvents.incrementAndGet());
+            membershipCache.start();
+        }
+        // let the tree cache finish its initial load
+        Thread.sleep(1000);
+        cacheEvents.set(0);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (treeCache != null) {
+            treeCache.close();
+        }
+        if (membershipCache != null) {
+            membershipCache.close();
+        }
+        client.delete().deletingChildrenIfNeeded().forPath(NODES);
+        client.close();
+        ZKServer.stop();
+    }
+
+    /**
+     * listing the worker group from zookeeper, as the node manager did on every membership change
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<String> directLookup() throws Exception {
+        return new HashSet<>(client.getChildren().forPath(WORKER_PATH + "/default"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<String> cachedLookup() {
+        if (treeCache != null) {
+            Map<String, ChildData> children = treeCache.getCurrentChildren(WORKER_PATH + "/default");
+            return children == null ? Collections.emptySet() : new HashSet<>(children.keySet());
+        }
+        return membershipCache.getWorkerGroupNodes("default");
+    }
+
+    /**
+     * a heartbeat update of one worker, the tree cache re-reads the node data for each of them
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void heartbeat(CacheEvents counters) throws Exception {
+        client.setData().forPath(heartbeatPath, HEARTBEAT);
+        counters.cacheEvents += cacheEvents.getAndSet(0);
+    }
+}
@@ -21,6 +21,7 @@ import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
 
 /**
  *  netty encoder
@@ -41,12 +42,24 @@ public class NettyEncoder extends MessageToByteEncoder<Command> {
         if(msg == null){
             throw new Exception("encode msg is null");
         }
-        out.writeByte(Command.MAGIC);
-        out.writeByte(msg.getType().ordinal());
-        out.writeLong(msg.getOpaque());
-        out.writeInt(msg.getBody().length);
+        writeHeader(out, msg.getType(), msg.getOpaque(), msg.getBody().length);
         out.writeBytes(msg.getBody());
     }
 
+    /**
+     * write the header of a command, a body of bodyLength bytes must follow
+     *
+     * @param out byte buffer
+     * @param type command type
+     * @param opaque opaque
+     * @param bodyLength body length
+     */
+    public static void writeHeader(ByteBuf out, CommandType type, long opaque, int bodyLength) {
+        out.writeByte(Command.MAGIC);
+        out.writeByte(type.ordinal());
+        out.writeLong(opaque);
+        out.writeInt(bodyLength);
+    }
+
 }
 
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command;
+
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  task execute acks and responses of one worker sent to a master in one frame,
+ *  the acks are processed before the responses
+ */
+public class TaskCallbackBatchCommand implements Serializable {
+
+    /**
+     *  task execute acks
+     */
+    private List<TaskExecuteAckCommand> acks = new ArrayList<>();
+
+    /**
+     *  task execute responses
+     */
+    private List<TaskExecuteResponseCommand> responses = new ArrayList<>();
+
+    public List<TaskExecuteAckCommand> getAcks() {
+        return acks;
+    }
+
+    public void setAcks(List<TaskExecuteAckCommand> acks) {
+        this.acks = acks;
+    }
+
+    public List<TaskExecuteResponseCommand> getResponses() {
+        return responses;
+    }
+
+    public void setResponses(List<TaskExecuteResponseCommand> responses) {
+        this.responses = responses;
+    }
+
+    /**
+     *  package batch command
+     *
+     * @return command
+     */
+    public Command convert2Command(){
+        Command command = new Command();
+        command.setType(CommandType.TASK_CALLBACK_BATCH);
+        byte[] body = JsonSerializer.serialize(this);
+        command.setBody(body);
+        return command;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskCallbackBatchCommand{" +
+                "acks=" + acks.size() +
+                ", responses=" + responses.size() +
+                '}';
+    }
+}
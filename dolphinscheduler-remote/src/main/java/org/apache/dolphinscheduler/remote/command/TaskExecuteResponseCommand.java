@@ -17,6 +17,7 @@
 package org.apache.dolphinscheduler.remote.command;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
 
 import java.io.Serializable;
@@ -63,6 +64,31 @@ public class TaskExecuteResponseCommand implements Serializable {
      */
     private String appIds;
 
+    /**
+     * peak cpu usage of the task process tree, 100 is one core, null if not sampled.
+     * the resource usage is left out of the json when not sampled, so masters without these fields can read it
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double peakCpuUsage;
+
+    /**
+     * average cpu usage of the task process tree, 100 is one core, null if not sampled
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double avgCpuUsage;
+
+    /**
+     * peak resident memory of the task process tree in MB, null if not sampled
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double peakMemory;
+
+    /**
+     * average resident memory of the task process tree in MB, null if not sampled
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double avgMemory;
+
 
     public int getTaskInstanceId() {
         return taskInstanceId;
@@ -104,6 +130,38 @@ public class TaskExecuteResponseCommand implements Serializable {
         this.appIds = appIds;
     }
 
+    public Double getPeakCpuUsage() {
+        return peakCpuUsage;
+    }
+
+    public void setPeakCpuUsage(Double peakCpuUsage) {
+        this.peakCpuUsage = peakCpuUsage;
+    }
+
+    public Double getAvgCpuUsage() {
+        return avgCpuUsage;
+    }
+
+    public void setAvgCpuUsage(Double avgCpuUsage) {
+        this.avgCpuUsage = avgCpuUsage;
+    }
+
+    public Double getPeakMemory() {
+        return peakMemory;
+    }
+
+    public void setPeakMemory(Double peakMemory) {
+        this.peakMemory = peakMemory;
+    }
+
+    public Double getAvgMemory() {
+        return avgMemory;
+    }
+
+    public void setAvgMemory(Double avgMemory) {
+        this.avgMemory = avgMemory;
+    }
+
     /**
      * package response command
      * @return command
@@ -124,6 +182,10 @@ public class TaskExecuteResponseCommand implements Serializable {
                 ", endTime=" + endTime +
                 ", processId=" + processId +
                 ", appIds='" + appIds + '\'' +
+                ", peakCpuUsage=" + peakCpuUsage +
+                ", avgCpuUsage=" + avgCpuUsage +
+                ", peakMemory=" + peakMemory +
+                ", avgMemory=" + avgMemory +
                 '}';
     }
 }
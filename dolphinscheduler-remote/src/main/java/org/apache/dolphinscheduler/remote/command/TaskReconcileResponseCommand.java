@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command;
+
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  task reconcile response command
+ */
+public class TaskReconcileResponseCommand implements Serializable {
+
+    /**
+     *  requested task instance ids which the worker is still running or has an undelivered result of,
+     *  the worker reports their results itself
+     */
+    private List<Integer> recoveredTaskInstanceIds = new ArrayList<>();
+
+    public TaskReconcileResponseCommand() {
+    }
+
+    public TaskReconcileResponseCommand(List<Integer> recoveredTaskInstanceIds) {
+        this.recoveredTaskInstanceIds = recoveredTaskInstanceIds;
+    }
+
+    public List<Integer> getRecoveredTaskInstanceIds() {
+        return recoveredTaskInstanceIds;
+    }
+
+    public void setRecoveredTaskInstanceIds(List<Integer> recoveredTaskInstanceIds) {
+        this.recoveredTaskInstanceIds = recoveredTaskInstanceIds;
+    }
+
+    /**
+     * package response command
+     *
+     * @param opaque request unique identification
+     * @return command
+     */
+    public Command convert2Command(long opaque){
+        Command command = new Command(opaque);
+        command.setType(CommandType.TASK_RECONCILE_RESPONSE);
+        byte[] body = JsonSerializer.serialize(this);
+        command.setBody(body);
+        return command;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskReconcileResponseCommand{" +
+                "recoveredTaskInstanceIds=" + recoveredTaskInstanceIds +
+                '}';
+    }
+}
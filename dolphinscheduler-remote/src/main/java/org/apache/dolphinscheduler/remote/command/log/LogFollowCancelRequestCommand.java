@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
+
+import java.io.Serializable;
+
+/**
+ *  log follow cancel request command
+ */
+public class LogFollowCancelRequestCommand implements Serializable {
+
+    /**
+     *  opaque of the follow request
+     */
+    private long followOpaque;
+
+    /**
+     *  push the remaining lines and an end push before the follow is removed
+     */
+    private boolean drain;
+
+    public LogFollowCancelRequestCommand() {
+    }
+
+    public LogFollowCancelRequestCommand(long followOpaque, boolean drain) {
+        this.followOpaque = followOpaque;
+        this.drain = drain;
+    }
+
+    public long getFollowOpaque() {
+        return followOpaque;
+    }
+
+    public void setFollowOpaque(long followOpaque) {
+        this.followOpaque = followOpaque;
+    }
+
+    public boolean isDrain() {
+        return drain;
+    }
+
+    public void setDrain(boolean drain) {
+        this.drain = drain;
+    }
+
+    /**
+     * package request command
+     *
+     * @return command
+     */
+    public Command convert2Command(){
+        Command command = new Command();
+        command.setType(CommandType.LOG_FOLLOW_CANCEL_REQUEST);
+        byte[] body = JsonSerializer.serialize(this);
+        command.setBody(body);
+        return command;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command.log;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  a log line matching a search, with the lines around it
+ */
+public class LogMatch implements Serializable {
+
+    /**
+     *  log path
+     */
+    private String path;
+
+    /**
+     *  line number, starts with 0
+     */
+    private int lineNum;
+
+    /**
+     *  matching line
+     */
+    private String line;
+
+    /**
+     *  lines before the matching line
+     */
+    private List<String> before = new ArrayList<>();
+
+    /**
+     *  lines after the matching line
+     */
+    private List<String> after = new ArrayList<>();
+
+    public LogMatch() {
+    }
+
+    public LogMatch(String path, int lineNum, String line) {
+        this.path = path;
+        this.lineNum = lineNum;
+        this.line = line;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getLineNum() {
+        return lineNum;
+    }
+
+    public void setLineNum(int lineNum) {
+        this.lineNum = lineNum;
+    }
+
+    public String getLine() {
+        return line;
+    }
+
+    public void setLine(String line) {
+        this.line = line;
+    }
+
+    public List<String> getBefore() {
+        return before;
+    }
+
+    public void setBefore(List<String> before) {
+        this.before = before;
+    }
+
+    public List<String> getAfter() {
+        return after;
+    }
+
+    public void setAfter(List<String> after) {
+        this.after = after;
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.dolphinscheduler.remote.command.log;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
@@ -43,6 +44,13 @@ public class RollViewLogRequestCommand implements Serializable {
      */
     private int limit;
 
+    /**
+     *  read the last limit lines instead of skipping skipLineNum lines,
+     *  left out of the json when false so that older workers can read the request
+     */
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean tail;
+
     public RollViewLogRequestCommand() {
     }
 
@@ -76,6 +84,14 @@ public class RollViewLogRequestCommand implements Serializable {
         this.limit = limit;
     }
 
+    public boolean isTail() {
+        return tail;
+    }
+
+    public void setTail(boolean tail) {
+        this.tail = tail;
+    }
+
     /**
      * package request command
      *
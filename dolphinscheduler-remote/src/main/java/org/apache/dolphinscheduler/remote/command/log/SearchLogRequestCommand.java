@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  search logs request command, the logs are scanned line by line on the logger server
+ */
+public class SearchLogRequestCommand implements Serializable {
+
+    /**
+     *  log paths, searched in this order
+     */
+    private List<String> paths = new ArrayList<>();
+
+    /**
+     *  literal text or regular expression
+     */
+    private String keyword;
+
+    /**
+     *  whether the keyword is a regular expression
+     */
+    private boolean regex;
+
+    /**
+     *  lines skipped in each log
+     */
+    private int skipLineNum;
+
+    /**
+     *  lines returned before and after each match
+     */
+    private int contextLines;
+
+    /**
+     *  max matches of all logs
+     */
+    private int maxMatches;
+
+    public SearchLogRequestCommand() {
+    }
+
+    public SearchLogRequestCommand(List<String> paths, String keyword, boolean regex, int skipLineNum, int contextLines, int maxMatches) {
+        this.paths = paths;
+        this.keyword = keyword;
+        this.regex = regex;
+        this.skipLineNum = skipLineNum;
+        this.contextLines = contextLines;
+        this.maxMatches = maxMatches;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(List<String> paths) {
+        this.paths = paths;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public boolean isRegex() {
+        return regex;
+    }
+
+    public void setRegex(boolean regex) {
+        this.regex = regex;
+    }
+
+    public int getSkipLineNum() {
+        return skipLineNum;
+    }
+
+    public void setSkipLineNum(int skipLineNum) {
+        this.skipLineNum = skipLineNum;
+    }
+
+    public int getContextLines() {
+        return contextLines;
+    }
+
+    public void setContextLines(int contextLines) {
+        this.contextLines = contextLines;
+    }
+
+    public int getMaxMatches() {
+        return maxMatches;
+    }
+
+    public void setMaxMatches(int maxMatches) {
+        this.maxMatches = maxMatches;
+    }
+
+    /**
+     * package request command
+     *
+     * @return command
+     */
+    public Command convert2Command(){
+        Command command = new Command();
+        command.setType(CommandType.SEARCH_LOG_REQUEST);
+        byte[] body = JsonSerializer.serialize(this);
+        command.setBody(body);
+        return command;
+    }
+}
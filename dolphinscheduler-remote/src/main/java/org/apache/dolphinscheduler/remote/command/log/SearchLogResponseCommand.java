@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  search logs response command
+ */
+public class SearchLogResponseCommand implements Serializable {
+
+    /**
+     *  matches in the order of the logs and lines
+     */
+    private List<LogMatch> matches = new ArrayList<>();
+
+    /**
+     *  whether the search stopped at the max matches or at its time limit
+     */
+    private boolean truncated;
+
+    /**
+     *  error of an invalid search, the logs are not searched
+     */
+    private String error;
+
+    public SearchLogResponseCommand() {
+    }
+
+    public SearchLogResponseCommand(List<LogMatch> matches, boolean truncated) {
+        this.matches = matches;
+        this.truncated = truncated;
+    }
+
+    public List<LogMatch> getMatches() {
+        return matches;
+    }
+
+    public void setMatches(List<LogMatch> matches) {
+        this.matches = matches;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * package response command
+     *
+     * @param opaque request unique identification
+     * @return command
+     */
+    public Command convert2Command(long opaque){
+        Command command = new Command(opaque);
+        command.setType(CommandType.SEARCH_LOG_RESPONSE);
+        byte[] body = JsonSerializer.serialize(this);
+        command.setBody(body);
+        return command;
+    }
+}
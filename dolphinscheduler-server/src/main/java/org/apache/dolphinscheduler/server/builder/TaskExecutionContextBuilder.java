@@ -48,6 +48,9 @@ public class TaskExecutionContextBuilder {
         taskExecutionContext.setWorkerGroup(taskInstance.getWorkerGroup());
         taskExecutionContext.setHost(taskInstance.getHost());
         taskExecutionContext.setResources(taskInstance.getResources());
+        if(taskInstance.getTaskInstancePriority() != null){
+            taskExecutionContext.setTaskInstancePriority(taskInstance.getTaskInstancePriority().getCode());
+        }
         return this;
     }
 
@@ -66,6 +69,9 @@ public class TaskExecutionContextBuilder {
         taskExecutionContext.setCmdTypeIfComplement(processInstance.getCmdTypeIfComplement().getCode());
         taskExecutionContext.setTenantCode(processInstance.getTenantCode());
         taskExecutionContext.setQueue(processInstance.getQueue());
+        if(processInstance.getProcessInstancePriority() != null){
+            taskExecutionContext.setProcessInstancePriority(processInstance.getProcessInstancePriority().getCode());
+        }
         return this;
     }
 
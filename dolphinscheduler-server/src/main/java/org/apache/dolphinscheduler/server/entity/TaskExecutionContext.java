@@ -170,6 +170,16 @@ public class TaskExecutionContext implements Serializable{
      */
     private String workerGroup;
 
+    /**
+     * process instance priority
+     */
+    private int processInstancePriority;
+
+    /**
+     * task instance priority
+     */
+    private int taskInstancePriority;
+
     /**
      * resources full name
      */
@@ -408,6 +418,22 @@ public class TaskExecutionContext implements Serializable{
         this.workerGroup = workerGroup;
     }
 
+    public int getProcessInstancePriority() {
+        return processInstancePriority;
+    }
+
+    public void setProcessInstancePriority(int processInstancePriority) {
+        this.processInstancePriority = processInstancePriority;
+    }
+
+    public int getTaskInstancePriority() {
+        return taskInstancePriority;
+    }
+
+    public void setTaskInstancePriority(int taskInstancePriority) {
+        this.taskInstancePriority = taskInstancePriority;
+    }
+
     public SQLTaskExecutionContext getSqlTaskExecutionContext() {
         return sqlTaskExecutionContext;
     }
@@ -491,6 +517,8 @@ public class TaskExecutionContext implements Serializable{
                 ", taskTimeoutStrategy=" + taskTimeoutStrategy +
                 ", taskTimeout=" + taskTimeout +
                 ", workerGroup='" + workerGroup + '\'' +
+                ", processInstancePriority=" + processInstancePriority +
+                ", taskInstancePriority=" + taskInstancePriority +
                 ", resources=" + resources +
                 ", sqlTaskExecutionContext=" + sqlTaskExecutionContext +
                 ", dataxTaskExecutionContext=" + dataxTaskExecutionContext +
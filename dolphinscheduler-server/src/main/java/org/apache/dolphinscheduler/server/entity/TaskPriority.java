@@ -22,7 +22,7 @@ import static org.apache.dolphinscheduler.common.Constants.*;
 /**
  *  task priority info
  */
-public class TaskPriority {
+public class TaskPriority implements Comparable<TaskPriority> {
 
     /**
      * processInstancePriority
@@ -124,6 +124,30 @@ public class TaskPriority {
         this.taskPriorityInfo = taskPriorityInfo;
     }
 
+    /**
+     * compare by process instance priority, process instance id, task instance priority and task id,
+     * a smaller value has a higher priority
+     *
+     * @param other other task priority
+     * @return compare result
+     */
+    @Override
+    public int compareTo(TaskPriority other) {
+        int result = Integer.compare(this.processInstancePriority, other.processInstancePriority);
+        if (result != 0) {
+            return result;
+        }
+        result = Integer.compare(this.processInstanceId, other.processInstanceId);
+        if (result != 0) {
+            return result;
+        }
+        result = Integer.compare(this.taskInstancePriority, other.taskInstancePriority);
+        if (result != 0) {
+            return result;
+        }
+        return Integer.compare(this.taskId, other.taskId);
+    }
+
     /**
      * taskPriorityInfo convert taskPriority
      *
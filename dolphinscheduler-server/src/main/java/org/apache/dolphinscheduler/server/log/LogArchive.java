@@ -0,0 +1,466 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.log;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ *  compressed archive of a finished task log.
+ *
+ *  the log is stored in {@code <path>.gz} as a sequence of gzip members, each holding whole lines of
+ *  about {@link #BLOCK_SIZE} bytes, so the file is still readable by gunzip. the block index in
+ *  {@code <path>.gz.idx} keeps the compressed offset, the uncompressed offset and the first line of
+ *  every block, a read decompresses from the nearest block instead of from the start of the file.
+ *  an archived log has no plain file, the plain file is only deleted after the archive is complete.
+ */
+public class LogArchive {
+
+    /**
+     * suffix of the compressed log
+     */
+    public static final String ARCHIVE_SUFFIX = ".gz";
+
+    /**
+     * suffix of the block index, next to the compressed log
+     */
+    public static final String INDEX_SUFFIX = ARCHIVE_SUFFIX + ".idx";
+
+    /**
+     * uncompressed bytes of a block, a block is only cut at the end of a line
+     */
+    static final int BLOCK_SIZE = 256 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int INDEX_MAGIC = 0x44534c41;
+
+    private static final int INDEX_VERSION = 1;
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path archivePath;
+
+    private final long size;
+
+    private final int lineCount;
+
+    private final long[] compressedOffsets;
+
+    private final long[] uncompressedOffsets;
+
+    private final int[] firstLines;
+
+    private LogArchive(Path archivePath, long size, int lineCount,
+                       long[] compressedOffsets, long[] uncompressedOffsets, int[] firstLines) {
+        this.archivePath = archivePath;
+        this.size = size;
+        this.lineCount = lineCount;
+        this.compressedOffsets = compressedOffsets;
+        this.uncompressedOffsets = uncompressedOffsets;
+        this.firstLines = firstLines;
+    }
+
+    /**
+     * whether the log is archived
+     *
+     * @param path log path
+     * @return true if only the compressed log exists
+     */
+    public static boolean isArchived(String path) {
+        return !new File(path).exists()
+                && new File(path + ARCHIVE_SUFFIX).exists()
+                && new File(path + INDEX_SUFFIX).exists();
+    }
+
+    /**
+     * compress a log which is not written any more and delete the plain file
+     *
+     * @param path log path
+     * @return false if the log does not exist or was written while it was compressed
+     * @throws IOException if the archive can not be written
+     */
+    public static boolean archive(String path) throws IOException {
+        File log = new File(path);
+        if (!log.isFile()) {
+            return false;
+        }
+        long length = log.length();
+        long lastModified = log.lastModified();
+        File archiveTmp = new File(path + ARCHIVE_SUFFIX + TMP_SUFFIX);
+        File indexTmp = new File(path + INDEX_SUFFIX + TMP_SUFFIX);
+        try {
+            BlockWriter writer = new BlockWriter(archiveTmp);
+            try (InputStream in = new FileInputStream(log)) {
+                writer.write(in);
+            } finally {
+                writer.close();
+            }
+            if (log.length() != length || log.lastModified() != lastModified) {
+                return false;
+            }
+            writer.writeIndex(indexTmp);
+            Files.move(archiveTmp.toPath(), Paths.get(path + ARCHIVE_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(indexTmp.toPath(), Paths.get(path + INDEX_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            // readers switch to the archive once the plain file is gone
+            return log.delete();
+        } finally {
+            Files.deleteIfExists(archiveTmp.toPath());
+            Files.deleteIfExists(indexTmp.toPath());
+        }
+    }
+
+    /**
+     * delete the compressed log and its index
+     *
+     * @param path log path
+     * @return true if nothing of the archive is left
+     */
+    public static boolean delete(String path) {
+        File archive = new File(path + ARCHIVE_SUFFIX);
+        File index = new File(path + INDEX_SUFFIX);
+        boolean deleted = !archive.exists() || archive.delete();
+        return (!index.exists() || index.delete()) && deleted;
+    }
+
+    /**
+     * open the archive of a log
+     *
+     * @param path log path
+     * @return archive
+     * @throws IOException if the index can not be read
+     */
+    static LogArchive open(Path path) throws IOException {
+        Path indexPath = Paths.get(path + INDEX_SUFFIX);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(indexPath))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+                throw new IOException("invalid log archive index " + indexPath);
+            }
+            long size = in.readLong();
+            int lineCount = in.readInt();
+            int blockCount = in.readInt();
+            long[] compressedOffsets = new long[blockCount];
+            long[] uncompressedOffsets = new long[blockCount];
+            int[] firstLines = new int[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                compressedOffsets[i] = in.readLong();
+                uncompressedOffsets[i] = in.readLong();
+                firstLines[i] = in.readInt();
+            }
+            return new LogArchive(Paths.get(path + ARCHIVE_SUFFIX), size, lineCount,
+                    compressedOffsets, uncompressedOffsets, firstLines);
+        }
+    }
+
+    /**
+     * read lines of the log
+     *
+     * @param skipLine lines to skip
+     * @param limit max lines
+     * @return lines
+     * @throws IOException if the archive can not be read
+     */
+    List<String> readLines(int skipLine, int limit) throws IOException {
+        if (skipLine < 0 || limit <= 0 || skipLine >= lineCount) {
+            return Collections.emptyList();
+        }
+        try (BufferedReader reader = openLines(skipLine)) {
+            List<String> lines = new ArrayList<>(Math.min(limit, lineCount - skipLine));
+            String line;
+            while (lines.size() < limit && (line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * open the log at a line, decompressing from the block holding the line
+     *
+     * @param skipLine lines to skip
+     * @return reader of the lines after the skipped ones, at the end of the log if there are less lines
+     * @throws IOException if the archive can not be read
+     */
+    BufferedReader openLines(int skipLine) throws IOException {
+        int block = floor(firstLines, Math.max(0, skipLine));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(openBlocks(block), StandardCharsets.UTF_8));
+        try {
+            int first = firstLines.length == 0 ? 0 : firstLines[block];
+            for (int i = skipLine - first; i > 0; i--) {
+                if (reader.readLine() == null) {
+                    break;
+                }
+            }
+            return reader;
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * read the last lines of the log
+     *
+     * @param limit max lines
+     * @return lines
+     * @throws IOException if the archive can not be read
+     */
+    List<String> readLastLines(int limit) throws IOException {
+        return readLines(Math.max(0, lineCount - limit), limit);
+    }
+
+    /**
+     * read bytes of the log
+     *
+     * @param offset offset in the uncompressed log
+     * @param length max length
+     * @return bytes, shorter than length at the end of the log
+     * @throws IOException if the archive can not be read
+     */
+    byte[] read(long offset, int length) throws IOException {
+        if (offset < 0 || length <= 0 || offset >= size) {
+            return new byte[0];
+        }
+        int block = floor(uncompressedOffsets, offset);
+        byte[] bytes = new byte[(int) Math.min(length, size - offset)];
+        try (InputStream in = openBlocks(block)) {
+            long skip = offset - uncompressedOffsets[block];
+            while (skip > 0) {
+                long skipped = in.skip(skip);
+                if (skipped <= 0) {
+                    return new byte[0];
+                }
+                skip -= skipped;
+            }
+            int read = 0;
+            int n;
+            while (read < bytes.length && (n = in.read(bytes, read, bytes.length - read)) > 0) {
+                read += n;
+            }
+            return read == bytes.length ? bytes : Arrays.copyOf(bytes, read);
+        }
+    }
+
+    /**
+     * open the uncompressed log
+     *
+     * @return stream of the whole log
+     * @throws IOException if the archive can not be read
+     */
+    InputStream newInputStream() throws IOException {
+        return openBlocks(0);
+    }
+
+    /**
+     * lines of the log, including an incomplete last line
+     *
+     * @return line count
+     */
+    int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * uncompressed size of the log
+     *
+     * @return size
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * decompress from the start of a block to the end of the log, gzip members are read one after another
+     */
+    private InputStream openBlocks(int block) throws IOException {
+        if (compressedOffsets.length == 0) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        FileInputStream in = new FileInputStream(archivePath.toFile());
+        try {
+            in.getChannel().position(compressedOffsets[block]);
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * index of the last value not greater than the key, values are sorted and start with 0
+     */
+    private static int floor(long[] values, long key) {
+        int low = 0;
+        int high = values.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (values[mid] <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static int floor(int[] values, int key) {
+        int low = 0;
+        int high = values.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (values[mid] <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * writes the blocks of an archive and collects their index
+     */
+    private static class BlockWriter {
+
+        private final FileOutputStream out;
+
+        /**
+         * compressed offset, uncompressed offset and first line of each block
+         */
+        private final List<long[]> blocks = new ArrayList<>();
+
+        private GZIPOutputStream block;
+
+        private long blockBytes;
+
+        private long size;
+
+        private int lines;
+
+        private byte lastByte;
+
+        BlockWriter(File file) throws IOException {
+            this.out = new FileOutputStream(file);
+        }
+
+        void write(InputStream in) throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                int start = 0;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n' && blockBytes + i + 1 - start >= BLOCK_SIZE) {
+                        append(buffer, start, i + 1 - start);
+                        finishBlock();
+                        start = i + 1;
+                    }
+                }
+                if (start < read) {
+                    append(buffer, start, read - start);
+                }
+            }
+        }
+
+        private void append(byte[] bytes, int offset, int length) throws IOException {
+            if (block == null) {
+                blocks.add(new long[]{out.getChannel().position(), size, lines});
+                block = new GZIPOutputStream(new UnclosableOutputStream(out), BUFFER_SIZE);
+            }
+            block.write(bytes, offset, length);
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+            lastByte = bytes[offset + length - 1];
+            blockBytes += length;
+            size += length;
+        }
+
+        private void finishBlock() throws IOException {
+            if (block != null) {
+                // writes the gzip trailer and releases the deflater, the file stays open
+                block.close();
+                block = null;
+                blockBytes = 0;
+            }
+        }
+
+        void writeIndex(File file) throws IOException {
+            int lineCount = size > 0 && lastByte != '\n' ? lines + 1 : lines;
+            try (DataOutputStream index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+                index.writeInt(INDEX_MAGIC);
+                index.writeInt(INDEX_VERSION);
+                index.writeLong(size);
+                index.writeInt(lineCount);
+                index.writeInt(blocks.size());
+                for (long[] entry : blocks) {
+                    index.writeLong(entry[0]);
+                    index.writeLong(entry[1]);
+                    index.writeInt((int) entry[2]);
+                }
+            }
+        }
+
+        void close() throws IOException {
+            try {
+                finishBlock();
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private static class UnclosableOutputStream extends FilterOutputStream {
+
+        UnclosableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
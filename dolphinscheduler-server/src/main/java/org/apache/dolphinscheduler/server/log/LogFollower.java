@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.log;
+
+import io.netty.channel.Channel;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.remote.command.log.LogFollowPushCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ *  pushes new lines of followed logs to the clients.
+ *
+ *  every follow keeps the line cursor of its client. the followed logs are checked every
+ *  {@link #PUSH_INTERVAL_MILLIS}, a client whose channel is not writable is skipped until it
+ *  drained its outbound buffer, and one push carries at most {@link #MAX_PUSH_LINES} lines.
+ */
+class LogFollower {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogFollower.class);
+
+    static final long PUSH_INTERVAL_MILLIS = 500;
+
+    static final int MAX_PUSH_LINES = 1000;
+
+    private final Function<String, LogLineIndex> lineIndexes;
+
+    /**
+     * (channel, opaque of the follow request) -> follow
+     */
+    private final Map<FollowKey, Follow> follows = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService pushExecutor;
+
+    LogFollower(Function<String, LogLineIndex> lineIndexes) {
+        this.lineIndexes = lineIndexes;
+        this.pushExecutor = ThreadUtils.newDaemonThreadScheduledExecutor("Logger-Follow-Pusher", 1);
+        this.pushExecutor.scheduleWithFixedDelay(this::push, PUSH_INTERVAL_MILLIS, PUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * start following a log
+     *
+     * @param channel client channel
+     * @param opaque opaque of the follow request
+     * @param path log path
+     * @param skipLineNum lines already read by the client
+     */
+    void follow(Channel channel, long opaque, String path, int skipLineNum) {
+        follows.put(new FollowKey(channel, opaque), new Follow(path, Math.max(0, skipLineNum)));
+        pushExecutor.execute(this::push);
+    }
+
+    /**
+     * cancel a follow
+     *
+     * @param channel client channel
+     * @param opaque opaque of the follow request
+     * @param drain whether the remaining lines and an end push are sent first
+     */
+    void cancel(Channel channel, long opaque, boolean drain) {
+        FollowKey key = new FollowKey(channel, opaque);
+        if (!drain) {
+            follows.remove(key);
+            return;
+        }
+        Follow follow = follows.get(key);
+        if (follow == null) {
+            // the follow was lost with an earlier channel, end it for the client
+            channel.writeAndFlush(new LogFollowPushCommand(0, "", true).convert2Command(opaque));
+            return;
+        }
+        follow.draining = true;
+        pushExecutor.execute(this::push);
+    }
+
+    int getFollowCount() {
+        return follows.size();
+    }
+
+    /**
+     * push new lines of every follow, called by the push executor
+     */
+    void push() {
+        for (Map.Entry<FollowKey, Follow> entry : follows.entrySet()) {
+            Channel channel = entry.getKey().channel;
+            if (!channel.isActive()) {
+                follows.remove(entry.getKey());
+                continue;
+            }
+            try {
+                push(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                logger.warn("push log {} to {} failed", entry.getValue().path, channel.remoteAddress(), e);
+                follows.remove(entry.getKey());
+                channel.writeAndFlush(new LogFollowPushCommand(entry.getValue().nextLine, "", true)
+                        .convert2Command(entry.getKey().opaque));
+            }
+        }
+    }
+
+    private void push(FollowKey key, Follow follow) throws IOException {
+        Channel channel = key.channel;
+        boolean draining = follow.draining;
+        while (channel.isWritable()) {
+            List<String> lines = readLines(follow.path, follow.nextLine, draining);
+            if (lines.isEmpty() && !draining) {
+                return;
+            }
+            StringBuilder builder = new StringBuilder();
+            for (String line : lines) {
+                builder.append(line).append("\r\n");
+            }
+            boolean end = draining && lines.size() < MAX_PUSH_LINES;
+            channel.writeAndFlush(new LogFollowPushCommand(follow.nextLine, builder.toString(), end).convert2Command(key.opaque));
+            follow.nextLine += lines.size();
+            if (end) {
+                follows.remove(key);
+                return;
+            }
+        }
+    }
+
+    /**
+     * read complete lines, the incomplete last line is only sent when the follow is drained
+     */
+    private List<String> readLines(String path, int skipLine, boolean draining) throws IOException {
+        LogLineIndex index = lineIndexes.apply(path);
+        try {
+            return draining ? index.readLines(skipLine, MAX_PUSH_LINES) : index.readCompleteLines(skipLine, MAX_PUSH_LINES);
+        } catch (NoSuchFileException e) {
+            // the task has not written its log yet
+            return Collections.emptyList();
+        }
+    }
+
+    void close() {
+        pushExecutor.shutdownNow();
+        follows.clear();
+    }
+
+    private static class Follow {
+
+        private final String path;
+
+        /**
+         * cursor of the client, next line to push
+         */
+        private int nextLine;
+
+        private volatile boolean draining;
+
+        Follow(String path, int nextLine) {
+            this.path = path;
+            this.nextLine = nextLine;
+        }
+    }
+
+    private static class FollowKey {
+
+        private final Channel channel;
+
+        private final long opaque;
+
+        FollowKey(Channel channel, long opaque) {
+            this.channel = channel;
+            this.opaque = opaque;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FollowKey followKey = (FollowKey) o;
+            return opaque == followKey.opaque && channel.equals(followKey.channel);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(channel, opaque);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ *  sparse line offset index of a log file, remembers the byte offset of every {@link #INTERVAL}th line.
+ *
+ *  a read seeks to the nearest indexed line and skips less than {@link #INTERVAL} lines.
+ *  the index is extended from the last indexed byte on every read, so a growing task log is only
+ *  scanned once, and it is rebuilt when the file was truncated or replaced. lines end with '\n'.
+ *  once the log is archived the reads are served by the block index of the {@link LogArchive}.
+ */
+class LogLineIndex {
+
+    /**
+     * lines between two indexed offsets
+     */
+    static final int INTERVAL = 1000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+
+    /**
+     * identity of the indexed file, null if the file system has none
+     */
+    private Object fileKey;
+
+    /**
+     * offsets[i] is the byte offset of line i * INTERVAL
+     */
+    private long[] offsets = new long[]{0};
+
+    private int offsetCount = 1;
+
+    /**
+     * bytes of complete lines which are indexed
+     */
+    private long indexedBytes;
+
+    /**
+     * complete lines which are indexed
+     */
+    private int indexedLines;
+
+    /**
+     * size of the file at the last refresh, larger than indexedBytes if the last line is not complete
+     */
+    private long fileSize;
+
+    /**
+     * archive of the log, null while the plain file exists
+     */
+    private LogArchive archive;
+
+    LogLineIndex(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * read lines of the file
+     *
+     * @param skipLine lines to skip
+     * @param limit max lines
+     * @return lines
+     * @throws IOException if the file can not be read
+     */
+    synchronized List<String> readLines(int skipLine, int limit) throws IOException {
+        refresh();
+        if (archive != null) {
+            return archive.readLines(skipLine, limit);
+        }
+        if (skipLine < 0 || limit <= 0 || skipLine >= lineCount()) {
+            return Collections.emptyList();
+        }
+        try (BufferedReader reader = openLines(skipLine)) {
+            List<String> lines = new ArrayList<>(Math.min(limit, INTERVAL));
+            String line;
+            while (lines.size() < limit && (line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * open the file at a line, seeking to the nearest indexed line
+     *
+     * @param skipLine lines to skip
+     * @return reader of the lines after the skipped ones, at the end of the file if there are less lines
+     * @throws IOException if the file can not be read
+     */
+    synchronized BufferedReader openLines(int skipLine) throws IOException {
+        refresh();
+        if (archive != null) {
+            return archive.openLines(skipLine);
+        }
+        int offsetIndex = Math.min(Math.max(0, skipLine) / INTERVAL, offsetCount - 1);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            channel.position(offsets[offsetIndex]);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            for (int i = skipLine - offsetIndex * INTERVAL; i > 0; i--) {
+                if (reader.readLine() == null) {
+                    break;
+                }
+            }
+            return reader;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * read complete lines of the file, an incomplete last line is left for a later read
+     *
+     * @param skipLine lines to skip
+     * @param limit max lines
+     * @return lines
+     * @throws IOException if the file can not be read
+     */
+    synchronized List<String> readCompleteLines(int skipLine, int limit) throws IOException {
+        refresh();
+        if (archive != null) {
+            // an archived log is complete
+            return archive.readLines(skipLine, limit);
+        }
+        return readLines(skipLine, Math.min(limit, indexedLines - skipLine));
+    }
+
+    /**
+     * read the last lines of the file
+     *
+     * @param limit max lines
+     * @return lines
+     * @throws IOException if the file can not be read
+     */
+    synchronized List<String> readLastLines(int limit) throws IOException {
+        refresh();
+        return readLines(Math.max(0, lineCount() - limit), limit);
+    }
+
+    /**
+     * lines of the file, including an incomplete last line
+     *
+     * @return line count
+     * @throws IOException if the file can not be read
+     */
+    synchronized int getLineCount() throws IOException {
+        refresh();
+        return lineCount();
+    }
+
+    /**
+     * archive of the log
+     *
+     * @return archive, null if the log is not archived
+     * @throws IOException if the log can not be read
+     */
+    synchronized LogArchive getArchive() throws IOException {
+        refresh();
+        return archive;
+    }
+
+    private int lineCount() {
+        if (archive != null) {
+            return archive.getLineCount();
+        }
+        return fileSize > indexedBytes ? indexedLines + 1 : indexedLines;
+    }
+
+    /**
+     * index the lines written since the last refresh
+     */
+    private void refresh() throws IOException {
+        if (archive != null) {
+            // an archive is not written any more
+            return;
+        }
+        if (LogArchive.isArchived(path.toString())) {
+            archive = LogArchive.open(path);
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if (!Objects.equals(fileKey, attributes.fileKey()) || attributes.size() < indexedBytes) {
+            fileKey = attributes.fileKey();
+            offsets = new long[]{0};
+            offsetCount = 1;
+            indexedBytes = 0;
+            indexedLines = 0;
+        }
+        fileSize = attributes.size();
+        if (fileSize == indexedBytes) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long position = indexedBytes;
+            int read;
+            while ((read = channel.read(buffer, position)) > 0) {
+                byte[] bytes = buffer.array();
+                for (int i = 0; i < read; i++) {
+                    if (bytes[i] == '\n') {
+                        indexedLines++;
+                        indexedBytes = position + i + 1;
+                        if (indexedLines % INTERVAL == 0) {
+                            addOffset(indexedBytes);
+                        }
+                    }
+                }
+                position += read;
+                buffer.clear();
+            }
+            fileSize = Math.max(fileSize, position);
+        }
+    }
+
+    private void addOffset(long offset) {
+        if (offsetCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsetCount * 2);
+        }
+        offsets[offsetCount++] = offset;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.log;
+
+import com.google.common.cache.LoadingCache;
+import org.apache.dolphinscheduler.remote.command.log.LogMatch;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogResponseCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ *  searches logs line by line. only the lines around the pending matches are held in memory,
+ *  a search skipping lines seeks with the line index, and a log without a cached index is
+ *  read from its start without building one. a search stops with the matches found so far when
+ *  it runs out of time, so a costly regex can not hold a logger thread.
+ */
+class LogSearcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSearcher.class);
+
+    /**
+     * max matches of one search
+     */
+    static final int MAX_MATCHES = 500;
+
+    /**
+     * max lines before and after a match
+     */
+    static final int MAX_CONTEXT_LINES = 10;
+
+    /**
+     * returned lines are cut at this length
+     */
+    static final int MAX_LINE_LENGTH = 1000;
+
+    /**
+     * max time of one search
+     */
+    static final long MAX_SEARCH_MILLIS = 10 * 1000L;
+
+    private final LoadingCache<String, LogLineIndex> lineIndexes;
+
+    private final long maxSearchMillis;
+
+    LogSearcher(LoadingCache<String, LogLineIndex> lineIndexes) {
+        this(lineIndexes, MAX_SEARCH_MILLIS);
+    }
+
+    LogSearcher(LoadingCache<String, LogLineIndex> lineIndexes, long maxSearchMillis) {
+        this.lineIndexes = lineIndexes;
+        this.maxSearchMillis = maxSearchMillis;
+    }
+
+    /**
+     * search logs
+     *
+     * @param request search request
+     * @return matches
+     */
+    SearchLogResponseCommand search(SearchLogRequestCommand request) {
+        Deadline deadline = new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxSearchMillis));
+        Predicate<String> matcher;
+        try {
+            matcher = matcher(request.getKeyword(), request.isRegex(), deadline);
+        } catch (PatternSyntaxException e) {
+            SearchLogResponseCommand response = new SearchLogResponseCommand();
+            response.setError(e.getMessage());
+            return response;
+        }
+        int maxMatches = Math.min(Math.max(1, request.getMaxMatches()), MAX_MATCHES);
+        int contextLines = Math.min(Math.max(0, request.getContextLines()), MAX_CONTEXT_LINES);
+        int skipLine = Math.max(0, request.getSkipLineNum());
+
+        List<LogMatch> matches = new ArrayList<>();
+        boolean truncated = false;
+        for (String path : request.getPaths()) {
+            // a full result still looks for one more match, the max may be reached exactly at the end of a log
+            try {
+                truncated = search(path, skipLine, matcher, deadline, contextLines, maxMatches, matches);
+            } catch (SearchTimeoutException e) {
+                logger.warn("search log {} timed out after {} ms with {} matches", path, maxSearchMillis, matches.size());
+                truncated = true;
+            } catch (FileNotFoundException | NoSuchFileException e) {
+                logger.warn("search log {} failed, the log does not exist", path);
+            } catch (Exception e) {
+                logger.error("search log {} error", path, e);
+            }
+            if (truncated) {
+                break;
+            }
+        }
+        return new SearchLogResponseCommand(matches, truncated);
+    }
+
+    /**
+     * search one log
+     *
+     * @return true if the log has more matches than the max matches
+     * @throws SearchTimeoutException if the deadline passed, the matches found so far are kept
+     */
+    private boolean search(String path, int skipLine, Predicate<String> matcher, Deadline deadline, int contextLines,
+                           int maxMatches, List<LogMatch> matches) throws IOException {
+        Deque<String> before = new ArrayDeque<>(contextLines + 1);
+        // matches still collecting the lines after them
+        Deque<LogMatch> pending = new ArrayDeque<>();
+        boolean truncated = false;
+        try (BufferedReader reader = open(path, skipLine)) {
+            int lineNum = skipLine;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                deadline.check();
+                String cut = cut(line);
+                Iterator<LogMatch> iterator = pending.iterator();
+                while (iterator.hasNext()) {
+                    LogMatch match = iterator.next();
+                    match.getAfter().add(cut);
+                    if (match.getAfter().size() >= contextLines) {
+                        iterator.remove();
+                    }
+                }
+                if (truncated) {
+                    if (pending.isEmpty()) {
+                        break;
+                    }
+                } else if (matcher.test(line)) {
+                    if (matches.size() >= maxMatches) {
+                        truncated = true;
+                        if (pending.isEmpty()) {
+                            break;
+                        }
+                    } else {
+                        LogMatch match = new LogMatch(path, lineNum, cut);
+                        match.getBefore().addAll(before);
+                        matches.add(match);
+                        if (contextLines > 0) {
+                            pending.add(match);
+                        }
+                    }
+                }
+                if (contextLines > 0) {
+                    if (before.size() == contextLines) {
+                        before.removeFirst();
+                    }
+                    before.addLast(cut);
+                }
+                lineNum++;
+            }
+        }
+        return truncated;
+    }
+
+    private BufferedReader open(String path, int skipLine) throws IOException {
+        LogLineIndex index = skipLine > 0 || LogArchive.isArchived(path)
+                ? lineIndexes.getUnchecked(path) : lineIndexes.getIfPresent(path);
+        if (index != null) {
+            return index.openLines(skipLine);
+        }
+        return new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    private static Predicate<String> matcher(String keyword, boolean regex, Deadline deadline) {
+        if (keyword == null || keyword.isEmpty()) {
+            throw new PatternSyntaxException("empty keyword", String.valueOf(keyword), 0);
+        }
+        if (regex) {
+            Pattern pattern = Pattern.compile(keyword);
+            // the regex engine reads the line through the deadline, a backtracking pattern stops in the middle of a line
+            return line -> pattern.matcher(new DeadlineCharSequence(line, deadline)).find();
+        }
+        return line -> line.contains(keyword);
+    }
+
+    private static String cut(String line) {
+        return line.length() > MAX_LINE_LENGTH ? line.substring(0, MAX_LINE_LENGTH) : line;
+    }
+
+    /**
+     * end of a search, checked by time every CHECK_INTERVAL calls
+     */
+    private static class Deadline {
+
+        private static final int CHECK_INTERVAL = 1024;
+
+        private final long deadlineNanos;
+
+        private int calls;
+
+        Deadline(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        void check() {
+            if (++calls % CHECK_INTERVAL == 0 && System.nanoTime() - deadlineNanos > 0) {
+                throw new SearchTimeoutException();
+            }
+        }
+    }
+
+    /**
+     * line which checks the deadline on every char read
+     */
+    private static class DeadlineCharSequence implements CharSequence {
+
+        private final CharSequence chars;
+
+        private final Deadline deadline;
+
+        DeadlineCharSequence(CharSequence chars, Deadline deadline) {
+            this.chars = chars;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int length() {
+            return chars.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            deadline.check();
+            return chars.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(chars.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return chars.toString();
+        }
+    }
+
+    /**
+     * the search ran out of time
+     */
+    private static class SearchTimeoutException extends RuntimeException {
+
+        SearchTimeoutException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -16,8 +16,14 @@
  */
 package org.apache.dolphinscheduler.server.log;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.DefaultFileRegion;
 import org.apache.dolphinscheduler.common.utils.IOUtils;
+import org.apache.dolphinscheduler.remote.codec.NettyEncoder;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.*;
@@ -27,16 +33,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  *  logger request process logic
@@ -45,10 +52,56 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
 
     private final Logger logger = LoggerFactory.getLogger(LoggerRequestProcessor.class);
 
+    /**
+     * max length of a log chunk
+     */
+    private static final int MAX_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * magic, type, opaque and body length
+     */
+    private static final int COMMAND_HEADER_LENGTH = 1 + 1 + 8 + 4;
+
+    /**
+     * max number of cached log line indexes
+     */
+    private static final int LINE_INDEX_CACHE_SIZE = 256;
+
+    /**
+     * line indexes of logs which are not read for this time are dropped
+     */
+    private static final long LINE_INDEX_EXPIRE_MINUTES = 30;
+
     private final ThreadPoolExecutor executor;
 
+    /**
+     * log path -> line index of recently read logs
+     */
+    private final LoadingCache<String, LogLineIndex> lineIndexes;
+
+    /**
+     * pushes new lines of followed logs
+     */
+    private final LogFollower logFollower;
+
+    /**
+     * searches logs
+     */
+    private final LogSearcher logSearcher;
+
     public LoggerRequestProcessor(){
         this.executor = new ThreadPoolExecutor(4, 4, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(100));
+        this.lineIndexes = CacheBuilder.newBuilder()
+                .maximumSize(LINE_INDEX_CACHE_SIZE)
+                .expireAfterAccess(LINE_INDEX_EXPIRE_MINUTES, TimeUnit.MINUTES)
+                .build(new CacheLoader<String, LogLineIndex>() {
+                    @Override
+                    public LogLineIndex load(String path) {
+                        return new LogLineIndex(Paths.get(path));
+                    }
+                });
+        this.logFollower = new LogFollower(lineIndexes::getUnchecked);
+        this.logSearcher = new LogSearcher(lineIndexes);
     }
 
     @Override
@@ -67,6 +120,12 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 GetLogBytesResponseCommand getLogResponse = new GetLogBytesResponseCommand(bytes);
                 channel.writeAndFlush(getLogResponse.convert2Command(command.getOpaque()));
                 break;
+            case GET_LOG_CHUNK_REQUEST:
+                GetLogChunkRequestCommand getLogChunkRequest = JsonSerializer.deserialize(
+                        command.getBody(), GetLogChunkRequestCommand.class);
+                sendFileChunk(channel, command.getOpaque(), getLogChunkRequest.getPath(),
+                        getLogChunkRequest.getOffset(), getLogChunkRequest.getLength());
+                break;
             case VIEW_WHOLE_LOG_REQUEST:
                 ViewLogRequestCommand viewLogRequest = JsonSerializer.deserialize(
                         command.getBody(), ViewLogRequestCommand.class);
@@ -77,7 +136,9 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
             case ROLL_VIEW_LOG_REQUEST:
                 RollViewLogRequestCommand rollViewLogRequest = JsonSerializer.deserialize(
                         command.getBody(), RollViewLogRequestCommand.class);
-                List<String> lines = readPartFileContent(rollViewLogRequest.getPath(),
+                List<String> lines = rollViewLogRequest.isTail()
+                        ? readLastLines(rollViewLogRequest.getPath(), rollViewLogRequest.getLimit())
+                        : readPartFileContent(rollViewLogRequest.getPath(),
                         rollViewLogRequest.getSkipLineNum(), rollViewLogRequest.getLimit());
                 StringBuilder builder = new StringBuilder();
                 for (String line : lines){
@@ -86,34 +147,77 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 RollViewLogResponseCommand rollViewLogRequestResponse = new RollViewLogResponseCommand(builder.toString());
                 channel.writeAndFlush(rollViewLogRequestResponse.convert2Command(command.getOpaque()));
                 break;
+            case LOG_FOLLOW_REQUEST:
+                LogFollowRequestCommand followRequest = JsonSerializer.deserialize(
+                        command.getBody(), LogFollowRequestCommand.class);
+                logFollower.follow(channel, command.getOpaque(), followRequest.getPath(), followRequest.getSkipLineNum());
+                break;
+            case LOG_FOLLOW_CANCEL_REQUEST:
+                LogFollowCancelRequestCommand cancelRequest = JsonSerializer.deserialize(
+                        command.getBody(), LogFollowCancelRequestCommand.class);
+                logFollower.cancel(channel, cancelRequest.getFollowOpaque(), cancelRequest.isDrain());
+                break;
+            case SEARCH_LOG_REQUEST:
+                SearchLogRequestCommand searchLogRequest = JsonSerializer.deserialize(
+                        command.getBody(), SearchLogRequestCommand.class);
+                SearchLogResponseCommand searchLogResponse = logSearcher.search(searchLogRequest);
+                channel.writeAndFlush(searchLogResponse.convert2Command(command.getOpaque()));
+                break;
             case REMOVE_TAK_LOG_REQUEST:
                 RemoveTaskLogRequestCommand removeTaskLogRequest = JsonSerializer.deserialize(
                         command.getBody(), RemoveTaskLogRequestCommand.class);
 
-                String taskLogPath = removeTaskLogRequest.getPath();
-
-                File taskLogFile = new File(taskLogPath);
-                Boolean status = true;
-                try {
-                    if (taskLogFile.exists()){
-                        status = taskLogFile.delete();
-                    }
-                }catch (Exception e){
-                    status = false;
-                }
-
+                Boolean status = removeTaskLog(removeTaskLogRequest.getPath());
                 RemoveTaskLogResponseCommand removeTaskLogResponse = new RemoveTaskLogResponseCommand(status);
                 channel.writeAndFlush(removeTaskLogResponse.convert2Command(command.getOpaque()));
                 break;
+            case REMOVE_TASK_LOGS_REQUEST:
+                RemoveTaskLogsRequestCommand removeTaskLogsRequest = JsonSerializer.deserialize(
+                        command.getBody(), RemoveTaskLogsRequestCommand.class);
+                List<Boolean> statuses = new ArrayList<>(removeTaskLogsRequest.getPaths().size());
+                for (String path : removeTaskLogsRequest.getPaths()) {
+                    statuses.add(removeTaskLog(path));
+                }
+                RemoveTaskLogsResponseCommand removeTaskLogsResponse = new RemoveTaskLogsResponseCommand(statuses);
+                channel.writeAndFlush(removeTaskLogsResponse.convert2Command(command.getOpaque()));
+                break;
             default:
                 throw new IllegalArgumentException("unknown commandType");
         }
     }
 
+    /**
+     * remove task log
+     * @param taskLogPath log path
+     * @return true if the log is removed or does not exist
+     */
+    Boolean removeTaskLog(String taskLogPath) {
+        lineIndexes.invalidate(taskLogPath);
+        File taskLogFile = new File(taskLogPath);
+        Boolean status = true;
+        try {
+            if (taskLogFile.exists()){
+                status = taskLogFile.delete();
+            }
+            status = LogArchive.delete(taskLogPath) && status;
+        }catch (Exception e){
+            status = false;
+        }
+        return status;
+    }
+
     public ExecutorService getExecutor(){
         return this.executor;
     }
 
+    /**
+     * stop pushing followed logs
+     */
+    public void close(){
+        this.logFollower.close();
+        this.executor.shutdown();
+    }
+
     /**
      * get files content bytes，for down load file
      *
@@ -125,7 +229,7 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
         InputStream in = null;
         ByteArrayOutputStream bos = null;
         try {
-            in = new FileInputStream(filePath);
+            in = openFile(filePath);
             bos  = new ByteArrayOutputStream();
             byte[] buf = new byte[1024];
             int len;
@@ -143,18 +247,151 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
     }
 
     /**
-     * read part file content，can skip any line and read some lines
+     * send a chunk of a file as the raw body of a response, the file content is transferred
+     * from the page cache to the socket without being copied into the heap.
+     * a GET_LOG_CHUNK_ERROR response is sent if the file can not be read.
+     *
+     * @param channel channel
+     * @param opaque request opaque
+     * @param filePath file path
+     * @param offset chunk offset
+     * @param length max chunk length
+     */
+    private void sendFileChunk(Channel channel, long opaque, String filePath, long offset, int length){
+        LogArchive archive = getArchive(filePath);
+        if (archive != null) {
+            sendArchiveChunk(channel, opaque, filePath, archive, offset, length);
+            return;
+        }
+        FileChannel fileChannel = null;
+        long size;
+        try {
+            fileChannel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            size = fileChannel.size();
+        } catch (IOException e) {
+            logger.error("get file chunk error",e);
+            IOUtils.closeQuietly(fileChannel);
+            sendChunkError(channel, opaque, filePath, e);
+            return;
+        }
+        FileChannel file = fileChannel;
+        long count = Math.max(0, Math.min(Math.min(length, MAX_CHUNK_SIZE), size - offset));
+        // header and region are written by one event loop task, so no other response
+        // on the shared channel can be written between them
+        channel.eventLoop().execute(() -> {
+            ByteBuf header = channel.alloc().buffer(COMMAND_HEADER_LENGTH);
+            NettyEncoder.writeHeader(header, CommandType.GET_LOG_CHUNK_RESPONSE, opaque, (int) count);
+            channel.write(header);
+            if (count > 0) {
+                // the region closes the file channel after the transfer
+                channel.write(new DefaultFileRegion(file, offset, count));
+            } else {
+                IOUtils.closeQuietly(file);
+            }
+            channel.flush();
+        });
+    }
+
+    /**
+     * send a chunk of an archived file, only the blocks holding the chunk are decompressed
+     *
+     * @param channel channel
+     * @param opaque request opaque
+     * @param filePath file path
+     * @param archive archive
+     * @param offset chunk offset
+     * @param length max chunk length
+     */
+    private void sendArchiveChunk(Channel channel, long opaque, String filePath, LogArchive archive, long offset, int length){
+        byte[] chunk;
+        try {
+            chunk = archive.read(offset, Math.min(length, MAX_CHUNK_SIZE));
+        } catch (IOException e) {
+            logger.error("get archived file chunk error",e);
+            sendChunkError(channel, opaque, filePath, e);
+            return;
+        }
+        Command response = new Command(opaque);
+        response.setType(CommandType.GET_LOG_CHUNK_RESPONSE);
+        response.setBody(chunk);
+        channel.writeAndFlush(response);
+    }
+
+    /**
+     * answer a chunk request whose file can not be read
+     *
+     * @param channel channel
+     * @param opaque request opaque
+     * @param filePath file path
+     * @param e read error
+     */
+    private void sendChunkError(Channel channel, long opaque, String filePath, IOException e){
+        Command response = new Command(opaque);
+        response.setType(CommandType.GET_LOG_CHUNK_ERROR);
+        response.setBody(String.format("read %s failed : %s", filePath, e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        channel.writeAndFlush(response);
+    }
+
+    /**
+     * open a file for reading, an archived file is decompressed while it is read
+     *
+     * @param filePath file path
+     * @return file content
+     * @throws IOException if the file can not be opened
+     */
+    private InputStream openFile(String filePath) throws IOException {
+        LogArchive archive = getArchive(filePath);
+        return archive != null ? archive.newInputStream() : new FileInputStream(filePath);
+    }
+
+    /**
+     * archive of a file
+     *
+     * @param filePath file path
+     * @return archive, null if the file is not archived
+     */
+    private LogArchive getArchive(String filePath){
+        if (!LogArchive.isArchived(filePath)) {
+            return null;
+        }
+        try {
+            return lineIndexes.getUnchecked(filePath).getArchive();
+        } catch (IOException e) {
+            logger.error("open archived file error",e);
+            return null;
+        }
+    }
+
+    /**
+     * read part file content，can skip any line and read some lines.
+     * seeks to the nearest indexed line instead of scanning the file from the start
      *
      * @param filePath file path
      * @param skipLine skip line
      * @param limit read lines limit
      * @return part file content
      */
-    private List<String> readPartFileContent(String filePath,
-                                            int skipLine,
-                                            int limit){
-        try (Stream<String> stream = Files.lines(Paths.get(filePath))) {
-            return stream.skip(skipLine).limit(limit).collect(Collectors.toList());
+    List<String> readPartFileContent(String filePath,
+                                     int skipLine,
+                                     int limit){
+        try {
+            return lineIndexes.getUnchecked(filePath).readLines(skipLine, limit);
+        } catch (IOException e) {
+            logger.error("read file error",e);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * read the last lines of a file
+     *
+     * @param filePath file path
+     * @param limit read lines limit
+     * @return last lines
+     */
+    List<String> readLastLines(String filePath, int limit){
+        try {
+            return lineIndexes.getUnchecked(filePath).readLastLines(limit);
         } catch (IOException e) {
             logger.error("read file error",e);
         }
@@ -172,7 +409,7 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
         String line;
         StringBuilder sb = new StringBuilder();
         try {
-            br = new BufferedReader(new InputStreamReader(new FileInputStream(filePath)));
+            br = new BufferedReader(new InputStreamReader(openFile(filePath)));
             while ((line = br.readLine()) != null){
                 sb.append(line + "\r\n");
             }
@@ -34,7 +34,12 @@ public class SensitiveDataConverter extends MessageConverter {
     /**
      * password pattern
      */
-    private final Pattern pwdPattern = Pattern.compile(Constants.DATASOURCE_PASSWORD_REGEX);
+    private static final Pattern pwdPattern = Pattern.compile(Constants.DATASOURCE_PASSWORD_REGEX);
+
+    /**
+     * literal preceding every password matched by the password pattern
+     */
+    private static final String PASSWORD_KEY = "\"password\":\"";
 
 
     @Override
@@ -63,24 +68,32 @@ public class SensitiveDataConverter extends MessageConverter {
     }
 
     /**
-     * password regex
+     * password regex, messages without a password are returned as they are without running the regex
      *
      * @param logMsg original log
      */
     private String passwordHandler(Pattern pwdPattern, String logMsg) {
 
+        int keyIndex = logMsg.indexOf(PASSWORD_KEY);
+        if (keyIndex < 0) {
+            return logMsg;
+        }
+
         Matcher matcher = pwdPattern.matcher(logMsg);
+        if (!matcher.find(keyIndex)) {
+            return logMsg;
+        }
 
         StringBuffer sb = new StringBuffer(logMsg.length());
 
-        while (matcher.find()) {
+        do {
 
             String password = matcher.group();
 
             String maskPassword = SensitiveLogUtils.maskDataSourcePwd(password);
 
             matcher.appendReplacement(sb, maskPassword);
-        }
+        } while (matcher.find());
         matcher.appendTail(sb);
 
         return sb.toString();
@@ -27,6 +27,7 @@ import org.apache.dolphinscheduler.server.master.processor.TaskKillResponseProce
 import org.apache.dolphinscheduler.server.master.processor.TaskResponseProcessor;
 import org.apache.dolphinscheduler.server.master.registry.MasterRegistry;
 import org.apache.dolphinscheduler.server.master.runner.MasterSchedulerService;
+import org.apache.dolphinscheduler.server.master.runner.ProcessInstanceArchiveService;
 import org.apache.dolphinscheduler.server.worker.WorkerServer;
 import org.apache.dolphinscheduler.server.zk.ZKMasterClient;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
@@ -91,6 +92,12 @@ public class MasterServer {
     @Autowired
     private MasterSchedulerService masterSchedulerService;
 
+    /**
+     * process instance archive service
+     */
+    @Autowired
+    private ProcessInstanceArchiveService processInstanceArchiveService;
+
     /**
      * master server startup
      *
@@ -113,6 +120,7 @@ public class MasterServer {
         serverConfig.setListenPort(masterConfig.getListenPort());
         this.nettyRemotingServer = new NettyRemotingServer(serverConfig);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_RESPONSE, new TaskResponseProcessor());
+        this.nettyRemotingServer.registerProcessor(CommandType.TASK_CALLBACK_BATCH, new TaskResponseProcessor());
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_ACK, new TaskAckProcessor());
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_KILL_RESPONSE, new TaskKillResponseProcessor());
         this.nettyRemotingServer.start();
@@ -126,6 +134,9 @@ public class MasterServer {
         //
         masterSchedulerService.start();
 
+        // archive finished process instances
+        processInstanceArchiveService.start();
+
         // start QuartzExecutors
         // what system should do if exception
         try {
@@ -177,6 +188,7 @@ public class MasterServer {
             }
             //
             this.masterSchedulerService.close();
+            this.processInstanceArchiveService.close();
             this.nettyRemotingServer.close();
             this.masterRegistry.unRegistry();
             this.zkMasterClient.close();
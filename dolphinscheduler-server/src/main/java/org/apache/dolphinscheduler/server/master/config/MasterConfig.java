@@ -34,6 +34,15 @@ public class MasterConfig {
     @Value("${master.heartbeat.interval:10}")
     private int masterHeartbeatInterval;
 
+    @Value("${master.heartbeat.change.threshold:0.1}")
+    private double masterHeartbeatChangeThreshold;
+
+    @Value("${master.heartbeat.max.interval:60}")
+    private int masterHeartbeatMaxInterval;
+
+    @Value("${master.heartbeat.compact:false}")
+    private boolean masterHeartbeatCompact;
+
     @Value("${master.task.commit.retryTimes:5}")
     private int masterTaskCommitRetryTimes;
 
@@ -55,6 +64,15 @@ public class MasterConfig {
     @Value("${master.listen.port:5678}")
     private int listenPort;
 
+    @Value("${master.archive.retention.days:0}")
+    private int archiveRetentionDays;
+
+    @Value("${master.archive.batch.size:500}")
+    private int archiveBatchSize;
+
+    @Value("${master.archive.interval:3600}")
+    private int archiveInterval;
+
     public int getListenPort() {
         return listenPort;
     }
@@ -95,6 +113,54 @@ public class MasterConfig {
         this.masterHeartbeatInterval = masterHeartbeatInterval;
     }
 
+    public double getMasterHeartbeatChangeThreshold() {
+        return masterHeartbeatChangeThreshold;
+    }
+
+    public void setMasterHeartbeatChangeThreshold(double masterHeartbeatChangeThreshold) {
+        this.masterHeartbeatChangeThreshold = masterHeartbeatChangeThreshold;
+    }
+
+    public int getArchiveRetentionDays() {
+        return archiveRetentionDays;
+    }
+
+    public void setArchiveRetentionDays(int archiveRetentionDays) {
+        this.archiveRetentionDays = archiveRetentionDays;
+    }
+
+    public int getArchiveBatchSize() {
+        return archiveBatchSize;
+    }
+
+    public void setArchiveBatchSize(int archiveBatchSize) {
+        this.archiveBatchSize = archiveBatchSize;
+    }
+
+    public int getArchiveInterval() {
+        return archiveInterval;
+    }
+
+    public void setArchiveInterval(int archiveInterval) {
+        this.archiveInterval = archiveInterval;
+    }
+
+    public int getMasterHeartbeatMaxInterval() {
+        return masterHeartbeatMaxInterval;
+    }
+
+    public void setMasterHeartbeatMaxInterval(int masterHeartbeatMaxInterval) {
+        this.masterHeartbeatMaxInterval = masterHeartbeatMaxInterval;
+    }
+
+    public boolean isMasterHeartbeatCompact() {
+        return masterHeartbeatCompact;
+    }
+
+    public void setMasterHeartbeatCompact(boolean masterHeartbeatCompact) {
+        this.masterHeartbeatCompact = masterHeartbeatCompact;
+    }
+
     public int getMasterTaskCommitRetryTimes() {
         return masterTaskCommitRetryTimes;
     }
@@ -21,6 +21,9 @@ import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.apache.dolphinscheduler.common.Constants.DEFAULT_WORKER_GROUP;
 
 /**
@@ -48,6 +51,11 @@ public class ExecutionContext {
      */
     private String workerGroup;
 
+    /**
+     *  hosts which must not be selected, such as workers that rejected the task
+     */
+    private final Set<String> excludedHosts = new HashSet<>();
+
 
     public ExecutionContext(Command command, ExecutorType executorType) {
         this(command, executorType, DEFAULT_WORKER_GROUP);
@@ -83,4 +91,25 @@ public class ExecutionContext {
     public void setHost(Host host) {
         this.host = host;
     }
+
+    public Set<String> getExcludedHosts() {
+        return excludedHosts;
+    }
+
+    /**
+     *  exclude host from selection
+     * @param address host address
+     */
+    public void excludeHost(String address) {
+        this.excludedHosts.add(address);
+    }
+
+    /**
+     *  whether host is excluded
+     * @param address host address
+     * @return true if excluded
+     */
+    public boolean isExcluded(String address) {
+        return this.excludedHosts.contains(address);
+    }
 }
@@ -22,13 +22,16 @@ import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.processor.TaskAckProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskKillResponseProcessor;
+import org.apache.dolphinscheduler.server.master.processor.TaskRejectProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskResponseProcessor;
 import org.apache.dolphinscheduler.server.registry.ZookeeperNodeManager;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,6 +54,18 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean>{
     @Autowired
     private ZookeeperNodeManager zookeeperNodeManager;
 
+    /**
+     * executor dispatcher, re-dispatches rejected tasks
+     */
+    @Autowired
+    private ExecutorDispatcher executorDispatcher;
+
+    /**
+     * task priority queue, takes rejected tasks back
+     */
+    @Autowired
+    private TaskPriorityQueue taskPriorityQueue;
+
     /**
      * netty remote client
      */
@@ -69,10 +84,13 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean>{
         /**
          * register EXECUTE_TASK_RESPONSE command type TaskResponseProcessor
          * register EXECUTE_TASK_ACK command type TaskAckProcessor
+         * register EXECUTE_TASK_REJECT command type TaskRejectProcessor
          */
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_RESPONSE, new TaskResponseProcessor());
+        this.nettyRemotingClient.registerProcessor(CommandType.TASK_CALLBACK_BATCH, new TaskResponseProcessor());
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_ACK, new TaskAckProcessor());
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_KILL_RESPONSE, new TaskKillResponseProcessor());
+        this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_REJECT, new TaskRejectProcessor(executorDispatcher, taskPriorityQueue));
     }
 
     /**
@@ -100,6 +118,8 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean>{
         // remove start host address and add it to head
         allNodes.remove(startHostAddress);
         allNodes.addFirst(startHostAddress);
+        // skip the hosts which already rejected this task
+        allNodes.removeIf(address -> !address.equals(startHostAddress) && context.isExcluded(address));
  
         boolean success = false;
         for (String address : allNodes) {
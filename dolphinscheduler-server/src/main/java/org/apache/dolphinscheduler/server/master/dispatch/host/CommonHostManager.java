@@ -71,7 +71,12 @@ public abstract class CommonHostManager implements HostManager {
             return host;
         }
         List<Host> candidateHosts = new ArrayList<>(nodes.size());
-        nodes.stream().forEach(node -> candidateHosts.add(Host.of(node)));
+        nodes.stream()
+                .filter(node -> !context.isExcluded(node))
+                .forEach(node -> candidateHosts.add(Host.of(node)));
+        if(candidateHosts.isEmpty()){
+            return host;
+        }
 
         return select(candidateHosts);
     }
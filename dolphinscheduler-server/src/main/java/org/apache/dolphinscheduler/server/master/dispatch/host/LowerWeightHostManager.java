@@ -18,8 +18,8 @@
 package org.apache.dolphinscheduler.server.master.dispatch.host;
 
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.HeartBeat;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
-import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
@@ -40,9 +40,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
-import static org.apache.dolphinscheduler.common.Constants.COMMA;
-
-
 /**
  *  round robin host manager
  */
@@ -105,6 +102,15 @@ public class LowerWeightHostManager extends CommonHostManager {
     @Override
     public Host select(ExecutionContext context){
         Set<HostWeight> workerHostWeights = getWorkerHostWeights(context.getWorkerGroup());
+        if(CollectionUtils.isNotEmpty(workerHostWeights) && CollectionUtils.isNotEmpty(context.getExcludedHosts())){
+            Set<HostWeight> candidateHostWeights = new HashSet<>(workerHostWeights.size());
+            for(HostWeight hostWeight : workerHostWeights){
+                if(!context.isExcluded(hostWeight.getHost().getAddress())){
+                    candidateHostWeights.add(hostWeight);
+                }
+            }
+            workerHostWeights = candidateHostWeights;
+        }
         if(CollectionUtils.isNotEmpty(workerHostWeights)){
             return selector.select(workerHostWeights).getHost();
         }
@@ -150,21 +156,16 @@ public class LowerWeightHostManager extends CommonHostManager {
                     Set<HostWeight> hostWeights = new HashSet<>(nodes.size());
                     for(String node : nodes){
                         String heartbeat = registryCenter.getZookeeperCachedOperator().get(workerGroupPath + "/" + node);
-                        if(StringUtils.isNotEmpty(heartbeat)
-                                && heartbeat.split(COMMA).length == Constants.HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH){
-                            String[] parts = heartbeat.split(COMMA);
-
-                            int status = Integer.parseInt(parts[8]);
-                            if (status == Constants.ABNORMAL_NODE_STATUS){
+                        HeartBeat heartBeat = HeartBeat.decode(heartbeat);
+                        if(heartBeat != null){
+                            if (heartBeat.getStatus() == Constants.ABNORMAL_NODE_STATUS){
                                 logger.warn("load is too high or availablePhysicalMemorySize(G) is too low, it's availablePhysicalMemorySize(G):{},loadAvg:{}",
-                                        Double.parseDouble(parts[3]) , Double.parseDouble(parts[2]));
+                                        heartBeat.getAvailablePhysicalMemorySize() , heartBeat.getLoadAverage());
                                 continue;
                             }
 
-                            double cpu = Double.parseDouble(parts[0]);
-                            double memory = Double.parseDouble(parts[1]);
-                            double loadAverage = Double.parseDouble(parts[2]);
-                            HostWeight hostWeight = new HostWeight(Host.of(node), cpu, memory, loadAverage);
+                            HostWeight hostWeight = new HostWeight(Host.of(node), heartBeat.getCpuUsage(),
+                                    heartBeat.getMemoryUsage(), heartBeat.getLoadAverage());
                             hostWeights.add(hostWeight);
                         }
                     }
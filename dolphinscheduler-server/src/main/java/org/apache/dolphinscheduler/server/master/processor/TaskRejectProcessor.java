@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.processor;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.netty.channel.Channel;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.common.utils.Preconditions;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRejectCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
+import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.entity.TaskPriority;
+import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
+import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
+import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.dolphinscheduler.common.Constants.SLEEP_TIME_MILLIS;
+
+/**
+ *  task reject processor, dispatch the task rejected by a full worker to another worker
+ */
+public class TaskRejectProcessor implements NettyRequestProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskRejectProcessor.class);
+
+    /**
+     * workers which rejected a task instance recently
+     */
+    private final Cache<Integer, Set<String>> rejectedHosts = CacheBuilder.newBuilder()
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * executor dispatcher
+     */
+    private final ExecutorDispatcher executorDispatcher;
+
+    /**
+     * task priority queue
+     */
+    private final TaskPriorityQueue taskPriorityQueue;
+
+    /**
+     * puts tasks rejected by every worker back to the task queue after a pause,
+     * the netty callback thread is not blocked meanwhile
+     */
+    private final ScheduledExecutorService retryExecutor;
+
+    /**
+     * constructor
+     * @param executorDispatcher executor dispatcher
+     * @param taskPriorityQueue task priority queue
+     */
+    public TaskRejectProcessor(ExecutorDispatcher executorDispatcher, TaskPriorityQueue taskPriorityQueue){
+        this.executorDispatcher = executorDispatcher;
+        this.taskPriorityQueue = taskPriorityQueue;
+        this.retryExecutor = ThreadUtils.newDaemonThreadScheduledExecutor("Master-Task-Reject-Retry", 1);
+    }
+
+    /**
+     * task reject process
+     * @param channel channel channel
+     * @param command command TaskExecuteRejectCommand
+     */
+    @Override
+    public void process(Channel channel, Command command) {
+        Preconditions.checkArgument(CommandType.TASK_EXECUTE_REJECT == command.getType(), String.format("invalid command type : %s", command.getType()));
+        TaskExecuteRejectCommand rejectCommand = JsonSerializer.deserialize(command.getBody(), TaskExecuteRejectCommand.class);
+        logger.info("taskRejectCommand : {}", rejectCommand);
+
+        TaskExecutionContext taskExecutionContext = JSONUtils.parseObject(rejectCommand.getTaskExecutionContext(), TaskExecutionContext.class);
+        if(taskExecutionContext == null){
+            logger.error("task execution context of rejected task : {} is null", rejectCommand.getTaskInstanceId());
+            return;
+        }
+
+        Set<String> hosts = rejectedHosts.asMap().computeIfAbsent(rejectCommand.getTaskInstanceId(), key -> ConcurrentHashMap.newKeySet());
+        hosts.add(rejectCommand.getHost());
+
+        ExecutionContext executionContext = new ExecutionContext(taskExecutionContext.toCommand(),
+                ExecutorType.WORKER, taskExecutionContext.getWorkerGroup());
+        hosts.forEach(executionContext::excludeHost);
+        try {
+            executorDispatcher.dispatch(executionContext);
+            logger.info("rejected task : {} dispatched to {}", rejectCommand.getTaskInstanceId(), executionContext.getHost());
+            return;
+        } catch (ExecuteException e) {
+            logger.warn("no other worker for rejected task : {}, put it back to task queue, cause : {}",
+                    rejectCommand.getTaskInstanceId(), e.getMessage());
+        }
+
+        // every worker of the group is full, retry later from the master task queue
+        rejectedHosts.invalidate(rejectCommand.getTaskInstanceId());
+        TaskPriority taskPriority = new TaskPriority(taskExecutionContext.getProcessInstancePriority(),
+                taskExecutionContext.getProcessInstanceId(),
+                taskExecutionContext.getTaskInstancePriority(),
+                taskExecutionContext.getTaskInstanceId(),
+                taskExecutionContext.getWorkerGroup());
+        retryExecutor.schedule(() -> {
+            try {
+                taskPriorityQueue.put(taskPriority.getTaskPriorityInfo());
+            } catch (Exception e) {
+                logger.error("put rejected task : {} back to task queue error", rejectCommand.getTaskInstanceId(), e);
+            }
+        }, SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
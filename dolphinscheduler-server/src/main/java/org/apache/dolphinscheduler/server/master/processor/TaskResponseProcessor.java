@@ -25,8 +25,11 @@ import org.apache.dolphinscheduler.common.utils.Preconditions;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskCallbackBatchCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
 import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
 import org.apache.dolphinscheduler.server.master.cache.TaskInstanceCacheManager;
 import org.apache.dolphinscheduler.server.master.cache.impl.TaskInstanceCacheManagerImpl;
@@ -37,6 +40,9 @@ import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.apache.dolphinscheduler.common.Constants.*;
 
 /**
@@ -68,7 +74,7 @@ public class TaskResponseProcessor implements NettyRequestProcessor {
     }
 
     /**
-     * task final result response
+     * task final result response, or a batch of task acks and responses of a worker
      * need master process , state persistence
      *
      * @param channel channel
@@ -76,32 +82,89 @@ public class TaskResponseProcessor implements NettyRequestProcessor {
      */
     @Override
     public void process(Channel channel, Command command) {
-        Preconditions.checkArgument(CommandType.TASK_EXECUTE_RESPONSE == command.getType(), String.format("invalid command type : %s", command.getType()));
+        Preconditions.checkArgument(CommandType.TASK_EXECUTE_RESPONSE == command.getType()
+                || CommandType.TASK_CALLBACK_BATCH == command.getType(), String.format("invalid command type : %s", command.getType()));
+
+        if (CommandType.TASK_CALLBACK_BATCH == command.getType()) {
+            processBatch(channel, command);
+            return;
+        }
 
         TaskExecuteResponseCommand responseCommand = JsonSerializer.deserialize(command.getBody(), TaskExecuteResponseCommand.class);
         logger.info("received command : {}", responseCommand);
 
+        ExecutionStatus responseStatus = addResponse(responseCommand);
+
+        while (Stopper.isRunning()){
+            TaskInstance taskInstance = processService.findTaskInstanceById(responseCommand.getTaskInstanceId());
+
+            if (taskInstance != null && responseStatus.typeIsFinished()){
+                break;
+            }
+            ThreadUtils.sleep(SLEEP_TIME_MILLIS);
+        }
+    }
+
+    /**
+     * unpack a callback batch, the acks are queued before the responses so a task acked and
+     * finished within one batch keeps its order
+     *
+     * @param channel channel
+     * @param command batch command
+     */
+    private void processBatch(Channel channel, Command command) {
+        TaskCallbackBatchCommand batchCommand = JsonSerializer.deserialize(command.getBody(), TaskCallbackBatchCommand.class);
+        logger.info("received command : {}", batchCommand);
+
+        String workerAddress = ChannelUtils.toAddress(channel).getAddress();
+        List<Integer> taskInstanceIds = new ArrayList<>();
+
+        for (TaskExecuteAckCommand ackCommand : batchCommand.getAcks()) {
+            taskInstanceCacheManager.cacheTaskInstance(ackCommand);
+            taskResponseService.addResponse(TaskResponseEvent.newAck(ExecutionStatus.of(ackCommand.getStatus()),
+                    ackCommand.getStartTime(),
+                    workerAddress,
+                    ackCommand.getExecutePath(),
+                    ackCommand.getLogPath(),
+                    ackCommand.getTaskInstanceId()));
+            taskInstanceIds.add(ackCommand.getTaskInstanceId());
+        }
+        for (TaskExecuteResponseCommand responseCommand : batchCommand.getResponses()) {
+            addResponse(responseCommand);
+            taskInstanceIds.add(responseCommand.getTaskInstanceId());
+        }
+
+        for (Integer taskInstanceId : taskInstanceIds) {
+            while (Stopper.isRunning() && processService.findTaskInstanceById(taskInstanceId) == null){
+                ThreadUtils.sleep(SLEEP_TIME_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * cache the task instance and queue the result event
+     *
+     * @param responseCommand response command
+     * @return response status
+     */
+    private ExecutionStatus addResponse(TaskExecuteResponseCommand responseCommand) {
         taskInstanceCacheManager.cacheTaskInstance(responseCommand);
 
         ExecutionStatus responseStatus = ExecutionStatus.of(responseCommand.getStatus());
 
         // TaskResponseEvent
-        TaskResponseEvent taskResponseEvent = TaskResponseEvent.newResult(ExecutionStatus.of(responseCommand.getStatus()),
+        TaskResponseEvent taskResponseEvent = TaskResponseEvent.newResult(responseStatus,
                 responseCommand.getEndTime(),
                 responseCommand.getProcessId(),
                 responseCommand.getAppIds(),
                 responseCommand.getTaskInstanceId());
+        taskResponseEvent.setPeakCpuUsage(responseCommand.getPeakCpuUsage());
+        taskResponseEvent.setAvgCpuUsage(responseCommand.getAvgCpuUsage());
+        taskResponseEvent.setPeakMemory(responseCommand.getPeakMemory());
+        taskResponseEvent.setAvgMemory(responseCommand.getAvgMemory());
 
         taskResponseService.addResponse(taskResponseEvent);
-
-        while (Stopper.isRunning()){
-            TaskInstance taskInstance = processService.findTaskInstanceById(taskResponseEvent.getTaskInstanceId());
-
-            if (taskInstance != null && responseStatus.typeIsFinished()){
-                break;
-            }
-            ThreadUtils.sleep(SLEEP_TIME_MILLIS);
-        }
+        return responseStatus;
     }
 
 
@@ -74,6 +74,26 @@ public class TaskResponseEvent {
      */
     private String appIds;
 
+    /**
+     * peak cpu usage, 100 is one core
+     */
+    private Double peakCpuUsage;
+
+    /**
+     * average cpu usage, 100 is one core
+     */
+    private Double avgCpuUsage;
+
+    /**
+     * peak memory in MB
+     */
+    private Double peakMemory;
+
+    /**
+     * average memory in MB
+     */
+    private Double avgMemory;
+
     /**
      * ack / response
      */
@@ -174,6 +194,38 @@ public class TaskResponseEvent {
         this.appIds = appIds;
     }
 
+    public Double getPeakCpuUsage() {
+        return peakCpuUsage;
+    }
+
+    public void setPeakCpuUsage(Double peakCpuUsage) {
+        this.peakCpuUsage = peakCpuUsage;
+    }
+
+    public Double getAvgCpuUsage() {
+        return avgCpuUsage;
+    }
+
+    public void setAvgCpuUsage(Double avgCpuUsage) {
+        this.avgCpuUsage = avgCpuUsage;
+    }
+
+    public Double getPeakMemory() {
+        return peakMemory;
+    }
+
+    public void setPeakMemory(Double peakMemory) {
+        this.peakMemory = peakMemory;
+    }
+
+    public Double getAvgMemory() {
+        return avgMemory;
+    }
+
+    public void setAvgMemory(Double avgMemory) {
+        this.avgMemory = avgMemory;
+    }
+
     public Event getEvent() {
         return event;
     }
@@ -137,6 +137,10 @@ public class TaskResponseService {
                         taskResponseEvent.getEndTime(),
                         taskResponseEvent.getProcessId(),
                         taskResponseEvent.getAppIds(),
+                        taskResponseEvent.getPeakCpuUsage(),
+                        taskResponseEvent.getAvgCpuUsage(),
+                        taskResponseEvent.getPeakMemory(),
+                        taskResponseEvent.getAvgMemory(),
                         taskResponseEvent.getTaskInstanceId());
                 break;
             default:
@@ -83,6 +83,14 @@ public class MasterRegistry {
         String address = NetUtils.getHost();
         String localNodePath = getMasterPath();
         zookeeperRegistryCenter.getZookeeperCachedOperator().persistEphemeral(localNodePath, "");
+        HeartBeatTask heartBeatTask = new HeartBeatTask(startTime,
+                masterConfig.getMasterReservedMemory(),
+                masterConfig.getMasterMaxCpuloadAvg(),
+                masterConfig.getMasterHeartbeatChangeThreshold(),
+                masterConfig.getMasterHeartbeatMaxInterval(),
+                masterConfig.isMasterHeartbeatCompact(),
+                getMasterPath(),
+                zookeeperRegistryCenter);
         zookeeperRegistryCenter.getZookeeperCachedOperator().getZkClient().getConnectionStateListenable().addListener(new ConnectionStateListener() {
             @Override
             public void stateChanged(CuratorFramework client, ConnectionState newState) {
@@ -91,17 +99,13 @@ public class MasterRegistry {
                 } else if(newState == ConnectionState.RECONNECTED){
                     logger.info("master : {} reconnected to zookeeper", address);
                     zookeeperRegistryCenter.getZookeeperCachedOperator().persistEphemeral(localNodePath, "");
+                    heartBeatTask.reset();
                 } else if(newState == ConnectionState.SUSPENDED){
                     logger.warn("master : {} connection SUSPENDED ", address);
                 }
             }
         });
         int masterHeartbeatInterval = masterConfig.getMasterHeartbeatInterval();
-        HeartBeatTask heartBeatTask = new HeartBeatTask(startTime,
-                masterConfig.getMasterReservedMemory(),
-                masterConfig.getMasterMaxCpuloadAvg(),
-                getMasterPath(),
-                zookeeperRegistryCenter);
 
         this.heartBeatExecutor.scheduleAtFixedRate(heartBeatTask, masterHeartbeatInterval, masterHeartbeatInterval, TimeUnit.SECONDS);
         logger.info("master node : {} registry to ZK successfully with heartBeatInterval : {}s", address, masterHeartbeatInterval);
@@ -230,17 +230,8 @@ public class MasterTaskExecThread extends MasterBaseTaskExecThread {
      * @return whether exists
      */
     public Boolean existsValidWorkerGroup(String taskInstanceWorkerGroup){
-        Set<String> workerGroups = zookeeperRegistryCenter.getWorkerGroupDirectly();
-        // not worker group
-        if (CollectionUtils.isEmpty(workerGroups)){
-            return false;
-        }
-
-        // has worker group , but not taskInstance assigned worker group
-        if (!workerGroups.contains(taskInstanceWorkerGroup)){
-            return false;
-        }
-        Set<String> workers = zookeeperRegistryCenter.getWorkerGroupNodesDirectly(taskInstanceWorkerGroup);
+        // null if the worker group does not exist
+        Set<String> workers = zookeeperRegistryCenter.getWorkerGroupNodes(taskInstanceWorkerGroup);
         if (CollectionUtils.isEmpty(workers)) {
             return false;
         }
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.curator.framework.recipes.locks.InterProcessMutex;
+import org.apache.dolphinscheduler.common.thread.Stopper;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.zk.ZKMasterClient;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  moves finished process instances older than the retention days and their task instances
+ *  to the archive tables in small batches, one master archives at a time
+ */
+@Service
+public class ProcessInstanceArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessInstanceArchiveService.class);
+
+    /**
+     * pause between two batches, lets the other transactions get the locks
+     */
+    private static final long BATCH_PAUSE_MILLIS = 100;
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private ZKMasterClient zkMasterClient;
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    private ScheduledExecutorService archiveExecutor;
+
+    public void start(){
+        if(masterConfig.getArchiveRetentionDays() <= 0){
+            logger.info("process instance archive is disabled");
+            return;
+        }
+        int interval = masterConfig.getArchiveInterval();
+        this.archiveExecutor = ThreadUtils.newDaemonThreadScheduledExecutor("Master-Archive-Thread", 1);
+        this.archiveExecutor.scheduleWithFixedDelay(this::archive, interval, interval, TimeUnit.SECONDS);
+        logger.info("process instance archive started, retention days : {}, batch size : {}, interval : {}s",
+                masterConfig.getArchiveRetentionDays(), masterConfig.getArchiveBatchSize(), interval);
+    }
+
+    public void close(){
+        if(archiveExecutor != null){
+            archiveExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * archive all the archivable process instances, skipped if another master is archiving
+     */
+    public void archive(){
+        InterProcessMutex mutex = null;
+        try {
+            InterProcessMutex archiveMutex = new InterProcessMutex(zkMasterClient.getZkClient(), zkMasterClient.getArchiveLockPath());
+            if(!archiveMutex.acquire(0, TimeUnit.SECONDS)){
+                logger.info("another master is archiving process instances");
+                return;
+            }
+            mutex = archiveMutex;
+
+            Date endTime = DateUtils.getSomeDay(new Date(), -masterConfig.getArchiveRetentionDays());
+            long start = System.currentTimeMillis();
+            int archived = archiveBefore(endTime, masterConfig.getArchiveBatchSize(), BATCH_PAUSE_MILLIS);
+            logger.info("archived {} process instances ended before {}, cost {} ms",
+                    archived, DateUtils.dateToString(endTime), System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("archive process instances failed", e);
+        } finally {
+            zkMasterClient.releaseMutex(mutex);
+        }
+    }
+
+    /**
+     * archive the archivable process instances ended before the end time batch by batch,
+     * the cursor moves past every queried batch so instances skipped by the lock are not queried again
+     * @param endTime end time
+     * @param batchSize batch size
+     * @param pauseMillis pause between two batches
+     * @return archived process instance count
+     * @throws InterruptedException if interrupted during the pause
+     */
+    int archiveBefore(Date endTime, int batchSize, long pauseMillis) throws InterruptedException {
+        int lastId = 0;
+        int archived = 0;
+        while (Stopper.isRunning()){
+            List<Integer> ids = processService.queryArchivableProcessInstanceIds(endTime, lastId, batchSize);
+            if(ids.isEmpty()){
+                break;
+            }
+            archived += processService.archiveProcessInstances(ids);
+            lastId = ids.get(ids.size() - 1);
+            Thread.sleep(pauseMillis);
+        }
+        return archived;
+    }
+}
@@ -18,43 +18,75 @@
 package org.apache.dolphinscheduler.server.registry;
 
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.HeartBeat;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.OSUtils;
+import org.apache.dolphinscheduler.common.utils.SystemMetrics;
+import org.apache.dolphinscheduler.common.utils.SystemMetricsSampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
-import static org.apache.dolphinscheduler.remote.utils.Constants.COMMA;
-
+/**
+ *  heartbeat task, reads the sampled system metrics once per tick and only writes the heartbeat
+ *  when the status changes, a metric moves beyond the change threshold or the last write is too old
+ */
 public class HeartBeatTask extends Thread{
 
     private final Logger logger = LoggerFactory.getLogger(HeartBeatTask.class);
 
-    private String startTime;
+    private long startTime;
     private double reservedMemory;
     private double maxCpuloadAvg;
+    private double changeThreshold;
+    private long maxInterval;
+    private boolean compact;
     private String heartBeatPath;
     private ZookeeperRegistryCenter zookeeperRegistryCenter;
+    private int processId;
+
+    /**
+     * last written heartbeat, null to write on the next tick
+     */
+    private volatile HeartBeat lastHeartBeat;
 
     public HeartBeatTask(String startTime,
                          double reservedMemory,
                          double maxCpuloadAvg,
+                         double changeThreshold,
+                         int maxInterval,
+                         boolean compact,
                          String heartBeatPath,
                          ZookeeperRegistryCenter zookeeperRegistryCenter){
-        this.startTime = startTime;
+        Date start = DateUtils.stringToDate(startTime);
+        this.startTime = start == null ? System.currentTimeMillis() : start.getTime();
         this.reservedMemory = reservedMemory;
         this.maxCpuloadAvg = maxCpuloadAvg;
+        this.changeThreshold = changeThreshold;
+        this.maxInterval = TimeUnit.SECONDS.toMillis(maxInterval);
+        this.compact = compact;
         this.heartBeatPath = heartBeatPath;
         this.zookeeperRegistryCenter = zookeeperRegistryCenter;
+        this.processId = OSUtils.getProcessID();
+    }
+
+    /**
+     * write the heartbeat on the next tick whatever it changed, e.g. after the node is registered again
+     */
+    public void reset(){
+        this.lastHeartBeat = null;
     }
 
     @Override
     public void run() {
         try {
 
-            double availablePhysicalMemorySize = OSUtils.availablePhysicalMemorySize();
-            double loadAverage = OSUtils.loadAverage();
+            SystemMetrics metrics = SystemMetricsSampler.getMetrics();
+            double availablePhysicalMemorySize = metrics.getAvailablePhysicalMemorySize();
+            double loadAverage = metrics.getLoadAverage();
 
             int status = Constants.NORAML_NODE_STATUS;
 
@@ -64,19 +96,28 @@ public class HeartBeatTask extends Thread{
                 status = Constants.ABNORMAL_NODE_STATUS;
             }
 
-            StringBuilder builder = new StringBuilder(100);
-            builder.append(OSUtils.cpuUsage()).append(COMMA);
-            builder.append(OSUtils.memoryUsage()).append(COMMA);
-            builder.append(OSUtils.loadAverage()).append(COMMA);
-            builder.append(OSUtils.availablePhysicalMemorySize()).append(Constants.COMMA);
-            builder.append(maxCpuloadAvg).append(Constants.COMMA);
-            builder.append(reservedMemory).append(Constants.COMMA);
-            builder.append(startTime).append(Constants.COMMA);
-            builder.append(DateUtils.dateToString(new Date())).append(Constants.COMMA);
-            builder.append(status).append(COMMA);
-            //save process id
-            builder.append(OSUtils.getProcessID());
-            zookeeperRegistryCenter.getZookeeperCachedOperator().update(heartBeatPath, builder.toString());
+            long now = System.currentTimeMillis();
+            HeartBeat heartBeat = new HeartBeat(metrics.getCpuUsage(),
+                    metrics.getMemoryUsage(),
+                    loadAverage,
+                    availablePhysicalMemorySize,
+                    startTime,
+                    now,
+                    status,
+                    processId);
+
+            HeartBeat last = lastHeartBeat;
+            if(last != null
+                    && now - last.getReportTime() < maxInterval
+                    && !heartBeat.isChanged(last, changeThreshold)){
+                return;
+            }
+            // servers before the compact heartbeat only read the legacy format
+            String heartBeatInfo = compact ? heartBeat.encode() : heartBeat.encodeLegacy(maxCpuloadAvg, reservedMemory);
+            // fails if the node is gone, the heartbeat is then written again on the next tick
+            zookeeperRegistryCenter.getZookeeperCachedOperator().getZkClient().setData()
+                    .forPath(heartBeatPath, heartBeatInfo.getBytes(StandardCharsets.UTF_8));
+            lastHeartBeat = heartBeat;
         } catch (Throwable ex){
             logger.error("error write heartbeat info", ex);
         }
@@ -17,13 +17,12 @@
 
 package org.apache.dolphinscheduler.server.registry;
 
-import org.apache.commons.collections.CollectionUtils;
-import org.apache.curator.framework.CuratorFramework;
-
-import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.dolphinscheduler.common.enums.ZKNodeType;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.dao.AlertDao;
-import org.apache.dolphinscheduler.service.zk.AbstractListener;
+import org.apache.dolphinscheduler.service.zk.MembershipEvent;
+import org.apache.dolphinscheduler.service.zk.MembershipListener;
+import org.apache.dolphinscheduler.service.zk.ZookeeperMembershipCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
@@ -31,12 +30,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import static org.apache.dolphinscheduler.common.Constants.DEFAULT_WORKER_GROUP;
 
@@ -49,24 +45,14 @@ public class ZookeeperNodeManager implements InitializingBean {
     private final Logger logger = LoggerFactory.getLogger(ZookeeperNodeManager.class);
 
     /**
-     *  master lock
-     */
-    private final Lock masterLock = new ReentrantLock();
-
-    /**
-     *  worker group lock
-     */
-    private final Lock workerGroupLock = new ReentrantLock();
-
-    /**
-     *  worker group nodes
+     *  worker group nodes, lower case worker group -> immutable worker nodes
      */
     private final ConcurrentHashMap<String, Set<String>> workerGroupNodes = new ConcurrentHashMap<>();
 
     /**
-     *  master nodes
+     *  immutable master nodes
      */
-    private final Set<String> masterNodes = new HashSet<>();
+    private volatile Set<String> masterNodes = Collections.emptySet();
 
     /**
      * zookeeper registry center
@@ -80,114 +66,68 @@ public class ZookeeperNodeManager implements InitializingBean {
     @Autowired
     private AlertDao alertDao;
 
+    /**
+     * membership cache, only watches the children of the master and worker paths
+     */
+    private ZookeeperMembershipCache membershipCache;
+
     /**
      * init listener
      * @throws Exception if error throws Exception
      */
     @Override
     public void afterPropertiesSet() throws Exception {
+        membershipCache = registryCenter.getZookeeperCachedOperator().getMembershipCache();
         /**
-         *  load nodes from zookeeper
+         * init NodeMembershipListener listener before loading, so no change is missed
          */
-        load();
+        membershipCache.addListener(new NodeMembershipListener());
         /**
-         * init MasterNodeListener listener
+         *  load nodes from the membership cache
          */
-        registryCenter.getZookeeperCachedOperator().addListener(new MasterNodeListener());
-        /**
-         * init WorkerNodeListener listener
-         */
-        registryCenter.getZookeeperCachedOperator().addListener(new WorkerGroupNodeListener());
+        load();
     }
 
     /**
-     *  load nodes from zookeeper
+     *  load nodes from the membership cache
      */
     private void load(){
-        /**
-         * master nodes from zookeeper
-         */
-        Set<String> masterNodes = registryCenter.getMasterNodesDirectly();
-        syncMasterNodes(masterNodes);
-
-        /**
-         * worker group nodes from zookeeper
-         */
-        Set<String> workerGroups = registryCenter.getWorkerGroupDirectly();
-        for(String workerGroup : workerGroups){
-            syncWorkerGroupNodes(workerGroup, registryCenter.getWorkerGroupNodesDirectly(workerGroup));
+        syncMasterNodes(membershipCache.getMasterNodes());
+        for(Map.Entry<String, Set<String>> entry : membershipCache.getWorkerGroupNodes().entrySet()){
+            syncWorkerGroupNodes(entry.getKey(), entry.getValue());
         }
     }
 
     /**
-     *  worker group node listener
+     *  master and worker node membership listener
      */
-    class WorkerGroupNodeListener extends AbstractListener {
+    class NodeMembershipListener implements MembershipListener {
 
         @Override
-        protected void dataChanged(CuratorFramework client, TreeCacheEvent event, String path) {
-            if(registryCenter.isWorkerPath(path)){
-                try {
-                    if (event.getType() == TreeCacheEvent.Type.NODE_ADDED) {
-                        logger.info("worker group node : {} added.", path);
-                        String group = parseGroup(path);
-                        Set<String> workerNodes = workerGroupNodes.getOrDefault(group, new HashSet<>());
-                        Set<String> previousNodes = new HashSet<>(workerNodes);
-                        Set<String> currentNodes = registryCenter.getWorkerGroupNodesDirectly(group);
-                        logger.info("currentNodes : {}", currentNodes);
-                        syncWorkerGroupNodes(group, currentNodes);
-                    } else if (event.getType() == TreeCacheEvent.Type.NODE_REMOVED) {
-                        logger.info("worker group node : {} down.", path);
-                        String group = parseGroup(path);
-                        Set<String> workerNodes = workerGroupNodes.getOrDefault(group, new HashSet<>());
-                        Set<String> previousNodes = new HashSet<>(workerNodes);
-                        Set<String> currentNodes = registryCenter.getWorkerGroupNodesDirectly(group);
-                        syncWorkerGroupNodes(group, currentNodes);
-                        alertDao.sendServerStopedAlert(1, path, "WORKER");
-                    }
-                } catch (IllegalArgumentException ignore) {
-                    logger.warn(ignore.getMessage());
-                } catch (Exception ex) {
-                    logger.error("WorkerGroupListener capture data change and get data failed", ex);
-                }
-            }
-        }
-
-        private String parseGroup(String path){
-            String[] parts = path.split("\\/");
-            if(parts.length != 6){
-                throw new IllegalArgumentException(String.format("worker group path : %s is not valid, ignore", path));
-            }
-            String group = parts[4];
-            return group;
-        }
-    }
-
-
-    /**
-     *  master node listener
-     */
-    class MasterNodeListener extends AbstractListener {
-
-        @Override
-        protected void dataChanged(CuratorFramework client, TreeCacheEvent event, String path) {
-            if (registryCenter.isMasterPath(path)) {
-                try {
-                    if (event.getType() == TreeCacheEvent.Type.NODE_ADDED) {
+        public void membershipChanged(MembershipEvent event) {
+            String path = event.getPath();
+            try {
+                if (event.getNodeType() == ZKNodeType.MASTER) {
+                    syncMasterNodes(membershipCache.getMasterNodes());
+                    if (event.getType() == MembershipEvent.Type.NODE_ADDED) {
                         logger.info("master node : {} added.", path);
-                        Set<String> previousNodes = new HashSet<>(masterNodes);
-                        Set<String> currentNodes = registryCenter.getMasterNodesDirectly();
-                        syncMasterNodes(currentNodes);
-                    } else if (event.getType() == TreeCacheEvent.Type.NODE_REMOVED) {
+                    } else {
                         logger.info("master node : {} down.", path);
-                        Set<String> previousNodes = new HashSet<>(masterNodes);
-                        Set<String> currentNodes = registryCenter.getMasterNodesDirectly();
-                        syncMasterNodes(currentNodes);
                         alertDao.sendServerStopedAlert(1, path, "MASTER");
                     }
-                } catch (Exception ex) {
-                    logger.error("MasterNodeListener capture data change and get data failed.", ex);
+                } else if (event.getNodeType() == ZKNodeType.WORKER) {
+                    String group = event.getGroup();
+                    Set<String> currentNodes = membershipCache.getWorkerGroupNodes(group);
+                    syncWorkerGroupNodes(group, currentNodes == null ? Collections.emptySet() : currentNodes);
+                    if (event.getType() == MembershipEvent.Type.NODE_ADDED) {
+                        logger.info("worker group node : {} added.", path);
+                    } else {
+                        logger.info("worker group node : {} down.", path);
+                        alertDao.sendServerStopedAlert(1, path, "WORKER");
+                    }
                 }
+            } catch (Exception ex) {
+                logger.error("NodeMembershipListener capture membership change failed, event : {}", event, ex);
             }
         }
     }
@@ -197,44 +137,24 @@ public class ZookeeperNodeManager implements InitializingBean {
      * @return master nodes
      */
     public Set<String> getMasterNodes() {
-        masterLock.lock();
-        try {
-            return Collections.unmodifiableSet(masterNodes);
-        } finally {
-            masterLock.unlock();
-        }
+        return masterNodes;
     }
 
     /**
      *  sync master nodes
-     * @param nodes master nodes
+     * @param nodes immutable master nodes
      */
     private void syncMasterNodes(Set<String> nodes){
-        masterLock.lock();
-        try {
-            masterNodes.clear();
-            masterNodes.addAll(nodes);
-        } finally {
-            masterLock.unlock();
-        }
+        masterNodes = nodes;
     }
 
     /**
      * sync worker group nodes
      * @param workerGroup worker group
-     * @param nodes worker nodes
+     * @param nodes immutable worker nodes
      */
     private void syncWorkerGroupNodes(String workerGroup, Set<String> nodes){
-        workerGroupLock.lock();
-        try {
-            workerGroup = workerGroup.toLowerCase();
-            Set<String> workerNodes = workerGroupNodes.getOrDefault(workerGroup, new HashSet<>());
-            workerNodes.clear();
-            workerNodes.addAll(nodes);
-            workerGroupNodes.put(workerGroup, workerNodes);
-        } finally {
-            workerGroupLock.unlock();
-        }
+        workerGroupNodes.put(workerGroup.toLowerCase(), nodes);
     }
 
     public Map<String, Set<String>> getWorkerGroupNodes(){
@@ -247,20 +167,10 @@ public class ZookeeperNodeManager implements InitializingBean {
      * @return worker nodes
      */
     public Set<String> getWorkerGroupNodes(String workerGroup){
-        workerGroupLock.lock();
-        try {
-            if(StringUtils.isEmpty(workerGroup)){
-                workerGroup = DEFAULT_WORKER_GROUP;
-            }
-            workerGroup = workerGroup.toLowerCase();
-            Set<String> nodes = workerGroupNodes.get(workerGroup);
-            if(CollectionUtils.isNotEmpty(nodes)){
-                return Collections.unmodifiableSet(nodes);
-            }
-            return nodes;
-        } finally {
-            workerGroupLock.unlock();
+        if(StringUtils.isEmpty(workerGroup)){
+            workerGroup = DEFAULT_WORKER_GROUP;
         }
+        return workerGroupNodes.get(workerGroup.toLowerCase());
     }
 
     /**
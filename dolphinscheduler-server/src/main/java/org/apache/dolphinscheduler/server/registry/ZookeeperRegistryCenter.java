@@ -150,6 +150,23 @@ public class ZookeeperRegistryCenter implements InitializingBean {
         return new HashSet<>(workers);
     }
 
+    /**
+     * get master nodes from the membership cache
+     * @return immutable master nodes
+     */
+    public Set<String> getMasterNodes() {
+        return zookeeperCachedOperator.getMembershipCache().getMasterNodes();
+    }
+
+    /**
+     * get worker group nodes from the membership cache
+     * @param workerGroup worker group
+     * @return immutable worker nodes, null if the worker group does not exist
+     */
+    public Set<String> getWorkerGroupNodes(String workerGroup) {
+        return zookeeperCachedOperator.getMembershipCache().getWorkerGroupNodes(workerGroup);
+    }
+
     /**
      * whether worker path
      * @param path path
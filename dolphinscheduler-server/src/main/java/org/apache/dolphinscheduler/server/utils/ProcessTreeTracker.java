@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.utils;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils.ProcStat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  tracks the process trees of running tasks by scanning /proc.
+ *
+ *  descendants are recorded while the task runs, so processes which were reparented
+ *  after their parent exited are still killed with the task. pids are remembered
+ *  together with their start time to never signal a reused pid.
+ */
+public class ProcessTreeTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessTreeTracker.class);
+
+    /**
+     * interval of /proc scans while any tree is tracked
+     */
+    private static final long SCAN_INTERVAL_MILLIS = 2000;
+
+    private static final ProcessTreeTracker INSTANCE = new ProcessTreeTracker();
+
+    /**
+     * root pid -> (pid -> start time) of known tree members, guarded by this
+     */
+    private final Map<Integer, Map<Integer, Long>> trees = new HashMap<>();
+
+    /**
+     * scan executor, started on first track
+     */
+    private ScheduledExecutorService scanExecutor;
+
+    private ProcessTreeTracker() {
+    }
+
+    public static ProcessTreeTracker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * start tracking the tree of a task process
+     *
+     * @param rootPid task process id
+     */
+    public synchronized void track(int rootPid) {
+        if (rootPid <= 0 || !ProcfsUtils.isSupported()) {
+            return;
+        }
+        trees.put(rootPid, new LinkedHashMap<>());
+        refresh(rootPid, trees.get(rootPid), ProcfsUtils.listProcesses());
+        if (scanExecutor == null) {
+            scanExecutor = ThreadUtils.newDaemonThreadScheduledExecutor("Worker-Process-Tree-Tracker", 1);
+            scanExecutor.scheduleWithFixedDelay(this::scan, SCAN_INTERVAL_MILLIS, SCAN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * stop tracking the tree of a task process
+     *
+     * @param rootPid task process id
+     */
+    public synchronized void untrack(int rootPid) {
+        trees.remove(rootPid);
+    }
+
+    /**
+     * refresh all tracked trees with a single /proc scan
+     */
+    synchronized void scan() {
+        if (trees.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Integer, ProcStat> processes = ProcfsUtils.listProcesses();
+            for (Map.Entry<Integer, Map<Integer, Long>> tree : trees.entrySet()) {
+                refresh(tree.getKey(), tree.getValue(), processes);
+            }
+        } catch (Exception e) {
+            logger.error("scan process trees failed", e);
+        }
+    }
+
+    /**
+     * get the live members of a process tree, parents before children
+     *
+     * @param rootPid task process id
+     * @return process ids
+     */
+    public List<Integer> getProcessTree(int rootPid) {
+        return getProcessTree(rootPid, ProcfsUtils.listProcesses());
+    }
+
+    /**
+     * get the live members of a process tree from a scan taken by the caller, parents before children
+     *
+     * @param rootPid task process id
+     * @param processes processes listed by {@link ProcfsUtils#listProcesses()}
+     * @return process ids
+     */
+    public synchronized List<Integer> getProcessTree(int rootPid, Map<Integer, ProcStat> processes) {
+        Map<Integer, Long> known = trees.get(rootPid);
+        if (known == null) {
+            return ProcfsUtils.getProcessTree(processes, Collections.singletonList(rootPid));
+        }
+        refresh(rootPid, known, processes);
+        return new ArrayList<>(known.keySet());
+    }
+
+    /**
+     * signal every process of the tree in-process, parents first so that no new children are forked.
+     * processes owned by other users (tasks run with sudo -u tenant) are signaled by one batched sudo kill.
+     *
+     * @param rootPid task process id
+     * @param signal signal
+     * @return process ids which were signaled
+     */
+    public List<Integer> kill(int rootPid, int signal) {
+        List<Integer> pids = getProcessTree(rootPid);
+        List<Integer> notPermitted = new ArrayList<>();
+        for (Integer pid : pids) {
+            int errno = ProcfsUtils.kill(pid, signal);
+            if (errno == ProcfsUtils.EPERM) {
+                notPermitted.add(pid);
+            } else if (errno != 0 && errno != ProcfsUtils.ESRCH) {
+                logger.warn("send signal {} to process {} failed, errno : {}", signal, pid, errno);
+            }
+        }
+        if (!notPermitted.isEmpty()) {
+            List<String> command = new ArrayList<>(notPermitted.size() + 3);
+            command.add("sudo");
+            command.add("kill");
+            command.add("-" + signal);
+            for (Integer pid : notPermitted) {
+                command.add(String.valueOf(pid));
+            }
+            logger.info("kill processes with sudo : {}", command);
+            try {
+                Runtime.getRuntime().exec(command.toArray(new String[0]));
+            } catch (IOException e) {
+                logger.error("kill processes {} with sudo failed", notPermitted, e);
+            }
+        }
+        return pids;
+    }
+
+    /**
+     * drop dead or reused pids and add new descendants of the root and of every known member
+     */
+    private void refresh(int rootPid, Map<Integer, Long> known, Map<Integer, ProcStat> processes) {
+        known.entrySet().removeIf(member -> {
+            ProcStat stat = processes.get(member.getKey());
+            return stat == null || stat.getStartTime() != member.getValue();
+        });
+        List<Integer> roots = new ArrayList<>(known.size() + 1);
+        roots.add(rootPid);
+        roots.addAll(known.keySet());
+        for (Integer pid : ProcfsUtils.getProcessTree(processes, roots)) {
+            known.putIfAbsent(pid, processes.get(pid).getStartTime());
+        }
+    }
+}
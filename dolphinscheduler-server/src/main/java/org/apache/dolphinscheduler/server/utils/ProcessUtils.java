@@ -337,11 +337,7 @@ public class ProcessUtils {
         return ;
       }
 
-      String cmd = String.format("sudo kill -9 %s", getPidsStr(processId));
-
-      logger.info("process id:{}, cmd:{}", processId, cmd);
-
-      OSUtils.exeCmd(cmd);
+      killProcessTree(processId);
 
       // find log and kill yarn job
       killYarnJob(taskExecutionContext);
@@ -351,6 +347,31 @@ public class ProcessUtils {
     }
   }
 
+  /**
+   * kill the process and all its descendants with SIGKILL.
+   * on linux the tree is read from /proc and signaled without forking pstree and kill
+   *
+   * @param processId process id
+   * @throws Exception exception
+   */
+  public static void killProcessTree(int processId) throws Exception {
+    if (ProcfsUtils.isSupported()) {
+      try {
+        List<Integer> pids = ProcessTreeTracker.getInstance().kill(processId, ProcfsUtils.SIGKILL);
+        logger.info("process id:{}, killed process tree:{}", processId, pids);
+      } finally {
+        ProcessTreeTracker.getInstance().untrack(processId);
+      }
+      return;
+    }
+
+    String cmd = String.format("sudo kill -9 %s", getPidsStr(processId));
+
+    logger.info("process id:{}, cmd:{}", processId, cmd);
+
+    OSUtils.exeCmd(cmd);
+  }
+
   /**
    * get pids str
    *
@@ -360,6 +381,12 @@ public class ProcessUtils {
    */
   public static String getPidsStr(int processId)throws Exception{
     StringBuilder sb = new StringBuilder();
+    if (ProcfsUtils.isSupported()) {
+      for (Integer pid : ProcfsUtils.getProcessTree(processId)) {
+        sb.append(pid).append(" ");
+      }
+      return sb.toString().trim();
+    }
     Matcher mat;
     // pstree pid get sub pids
     if (OSUtils.isMacOS()) {
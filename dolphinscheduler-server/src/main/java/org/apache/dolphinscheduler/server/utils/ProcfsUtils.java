@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.utils;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *  linux /proc file system utils, reads process information and sends signals without forking
+ */
+public class ProcfsUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcfsUtils.class);
+
+    /**
+     * proc root
+     */
+    private static final File PROC_DIR = new File("/proc");
+
+    /**
+     * whether /proc is available
+     */
+    private static final boolean SUPPORTED = new File(PROC_DIR, "self/stat").exists();
+
+    public static final int SIGKILL = 9;
+
+    public static final int SIGTERM = 15;
+
+    /**
+     * operation not permitted
+     */
+    public static final int EPERM = 1;
+
+    /**
+     * no such process
+     */
+    public static final int ESRCH = 3;
+
+    private ProcfsUtils() {
+        throw new IllegalStateException("ProcfsUtils class");
+    }
+
+    /**
+     * whether /proc is available on this host
+     *
+     * @return true if supported
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * read /proc/[pid]/stat
+     *
+     * @param pid process id
+     * @return process stat, null if the process does not exist
+     */
+    public static ProcStat readStat(int pid) {
+        try {
+            byte[] content = Files.readAllBytes(new File(PROC_DIR, pid + "/stat").toPath());
+            return parseStat(pid, new String(content, StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * parse the content of /proc/[pid]/stat.
+     * the command name may contain spaces and parentheses, so fields are read after the last ')'
+     *
+     * @param pid process id
+     * @param content stat content
+     * @return process stat
+     */
+    static ProcStat parseStat(int pid, String content) {
+        int commEnd = content.lastIndexOf(')');
+        String[] fields = content.substring(commEnd + 2).trim().split(" ");
+        // fields[0] is field 3 (state) of proc(5)
+        ProcStat stat = new ProcStat();
+        stat.pid = pid;
+        stat.state = fields[0].charAt(0);
+        stat.ppid = Integer.parseInt(fields[1]);
+        stat.utime = Long.parseLong(fields[11]);
+        stat.stime = Long.parseLong(fields[12]);
+        stat.startTime = Long.parseLong(fields[19]);
+        stat.rssPages = Long.parseLong(fields[21]);
+        return stat;
+    }
+
+    /**
+     * read the memory fields of /proc/[pid]/status
+     *
+     * @param pid process id
+     * @return process status, null if the process does not exist
+     */
+    public static ProcStatus readStatus(int pid) {
+        try {
+            byte[] content = Files.readAllBytes(new File(PROC_DIR, pid + "/status").toPath());
+            return parseStatus(new String(content, StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * parse the content of /proc/[pid]/status, kernel threads have no memory fields
+     *
+     * @param content status content
+     * @return process status
+     */
+    static ProcStatus parseStatus(String content) {
+        ProcStatus status = new ProcStatus();
+        for (String line : content.split("\n")) {
+            if (line.startsWith("VmRSS:")) {
+                status.vmRssKb = parseKb(line);
+            } else if (line.startsWith("VmHWM:")) {
+                status.vmHwmKb = parseKb(line);
+            }
+        }
+        return status;
+    }
+
+    /**
+     * parse a line like "VmRSS:\t    1024 kB"
+     */
+    private static long parseKb(String line) {
+        String value = line.substring(line.indexOf(':') + 1).trim();
+        int end = value.indexOf(' ');
+        return Long.parseLong(end < 0 ? value : value.substring(0, end));
+    }
+
+    /**
+     * list all processes by scanning /proc once
+     *
+     * @return pid -> process stat
+     */
+    public static Map<Integer, ProcStat> listProcesses() {
+        String[] names = PROC_DIR.list();
+        if (names == null) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, ProcStat> processes = new HashMap<>(names.length);
+        for (String name : names) {
+            if (!isNumeric(name)) {
+                continue;
+            }
+            int pid = Integer.parseInt(name);
+            ProcStat stat = readStat(pid);
+            if (stat != null) {
+                processes.put(pid, stat);
+            }
+        }
+        return processes;
+    }
+
+    /**
+     * get the given processes and all their descendants, parents before children
+     *
+     * @param processes processes listed by {@link #listProcesses()}
+     * @param roots root process ids
+     * @return process ids
+     */
+    public static List<Integer> getProcessTree(Map<Integer, ProcStat> processes, Collection<Integer> roots) {
+        Map<Integer, List<Integer>> children = new HashMap<>();
+        for (ProcStat stat : processes.values()) {
+            children.computeIfAbsent(stat.ppid, key -> new ArrayList<>()).add(stat.pid);
+        }
+
+        Set<Integer> tree = new LinkedHashSet<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (Integer root : roots) {
+            if (processes.containsKey(root)) {
+                queue.add(root);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Integer pid = queue.poll();
+            if (tree.add(pid)) {
+                queue.addAll(children.getOrDefault(pid, Collections.emptyList()));
+            }
+        }
+        return new ArrayList<>(tree);
+    }
+
+    /**
+     * get the process and all its descendants, parents before children
+     *
+     * @param rootPid root process id
+     * @return process ids
+     */
+    public static List<Integer> getProcessTree(int rootPid) {
+        return getProcessTree(listProcesses(), Collections.singletonList(rootPid));
+    }
+
+    /**
+     * send a signal to a process with libc kill(2)
+     *
+     * @param pid process id
+     * @param signal signal
+     * @return 0 if sent, otherwise errno
+     */
+    public static int kill(int pid, int signal) {
+        CLibrary libc = CLibraryHolder.INSTANCE;
+        if (libc == null) {
+            return EPERM;
+        }
+        if (libc.kill(pid, signal) == 0) {
+            return 0;
+        }
+        return Native.getLastError();
+    }
+
+    private static boolean isNumeric(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return !name.isEmpty();
+    }
+
+    /**
+     * libc
+     */
+    interface CLibrary extends Library {
+        int kill(int pid, int signal);
+    }
+
+    /**
+     * lazily loaded libc, null when it can not be loaded
+     */
+    private static class CLibraryHolder {
+        private static final CLibrary INSTANCE = load();
+
+        private static CLibrary load() {
+            try {
+                return (CLibrary) Native.loadLibrary("c", CLibrary.class);
+            } catch (Throwable e) {
+                logger.warn("load libc failed, signals will be sent with sudo kill", e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * memory fields of /proc/[pid]/status
+     */
+    public static class ProcStatus {
+
+        /**
+         * resident set size, in KB
+         */
+        private long vmRssKb;
+
+        /**
+         * peak resident set size, in KB
+         */
+        private long vmHwmKb;
+
+        public long getVmRssKb() {
+            return vmRssKb;
+        }
+
+        public long getVmHwmKb() {
+            return vmHwmKb;
+        }
+    }
+
+    /**
+     * fields of /proc/[pid]/stat
+     */
+    public static class ProcStat {
+
+        private int pid;
+
+        private int ppid;
+
+        private char state;
+
+        /**
+         * user mode time, in clock ticks
+         */
+        private long utime;
+
+        /**
+         * kernel mode time, in clock ticks
+         */
+        private long stime;
+
+        /**
+         * start time after system boot, in clock ticks
+         */
+        private long startTime;
+
+        /**
+         * resident set size, in pages
+         */
+        private long rssPages;
+
+        public int getPid() {
+            return pid;
+        }
+
+        public int getPpid() {
+            return ppid;
+        }
+
+        public char getState() {
+            return state;
+        }
+
+        public long getUtime() {
+            return utime;
+        }
+
+        public long getStime() {
+            return stime;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public long getRssPages() {
+            return rssPages;
+        }
+    }
+}
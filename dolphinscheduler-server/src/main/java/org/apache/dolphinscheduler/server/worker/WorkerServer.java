@@ -22,8 +22,10 @@ import org.apache.dolphinscheduler.remote.NettyRemotingServer;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.journal.TaskStateRecovery;
 import org.apache.dolphinscheduler.server.worker.processor.TaskExecuteProcessor;
 import org.apache.dolphinscheduler.server.worker.processor.TaskKillProcessor;
+import org.apache.dolphinscheduler.server.worker.processor.TaskReconcileProcessor;
 import org.apache.dolphinscheduler.server.worker.registry.WorkerRegistry;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.slf4j.Logger;
@@ -57,6 +59,12 @@ public class WorkerServer {
     @Autowired
     private WorkerRegistry workerRegistry;
 
+    /**
+     *  task state recovery
+     */
+    @Autowired
+    private TaskStateRecovery taskStateRecovery;
+
     /**
      *  worker config
      */
@@ -95,8 +103,12 @@ public class WorkerServer {
         this.nettyRemotingServer = new NettyRemotingServer(serverConfig);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_REQUEST, new TaskExecuteProcessor());
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_KILL_REQUEST, new TaskKillProcessor());
+        this.nettyRemotingServer.registerProcessor(CommandType.TASK_RECONCILE_REQUEST, new TaskReconcileProcessor());
         this.nettyRemotingServer.start();
 
+        // recover the tasks of the last run before masters see this worker
+        this.taskStateRecovery.recover();
+
         // worker registry
         this.workerRegistry.registry();
 
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.dolphinscheduler.common.utils.FileUtils;
+import org.apache.dolphinscheduler.common.utils.HadoopUtils;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ *  resource cache manager, creates the worker resource cache on first use
+ */
+@Service
+public class ResourceCacheManager {
+
+    /**
+     * worker config
+     */
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    /**
+     * resource cache
+     */
+    private volatile ResourceFileCache resourceFileCache;
+
+    /**
+     * whether the resource cache is enabled
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return workerConfig.isResourceCacheEnable();
+    }
+
+    /**
+     * get resource cache
+     *
+     * @return resource cache
+     * @throws IOException if the cache directory can not be created
+     */
+    public ResourceFileCache getResourceFileCache() throws IOException {
+        if (resourceFileCache == null) {
+            synchronized (this) {
+                if (resourceFileCache == null) {
+                    String cacheDir = workerConfig.getResourceCacheDir();
+                    if (StringUtils.isEmpty(cacheDir)) {
+                        cacheDir = FileUtils.DATA_BASEDIR + File.separator + "cache" + File.separator + "resources";
+                    }
+                    resourceFileCache = new ResourceFileCache(HadoopUtils.getInstance().getFileSystem(),
+                            cacheDir,
+                            workerConfig.getResourceCacheMaxSizeMb() * 1024 * 1024,
+                            workerConfig.getResourceCacheDownloadThreads());
+                }
+            }
+        }
+        return resourceFileCache;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (resourceFileCache != null) {
+            resourceFileCache.close();
+        }
+    }
+}
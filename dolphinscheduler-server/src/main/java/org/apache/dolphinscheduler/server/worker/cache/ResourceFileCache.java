@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  worker local resource cache
+ *
+ *  resources are stored once per (storage path, modification time, length) and
+ *  linked into task execute paths, so a resource is only downloaded again when
+ *  it changes in the resource storage. entries are evicted in LRU order when the
+ *  cache exceeds its disk budget.
+ *
+ *  cached files are read only and owned by the worker user. a hard link shares the
+ *  cached inode, so resources are only linked for tasks running as another user,
+ *  which can neither write nor chmod them; tasks running as the worker user get a
+ *  private copy.
+ */
+public class ResourceFileCache implements Closeable {
+
+    private final Logger logger = LoggerFactory.getLogger(ResourceFileCache.class);
+
+    /**
+     * suffix of files being downloaded
+     */
+    private static final String TMP_SUFFIX = ".tmp";
+
+    /**
+     * resource storage file system
+     */
+    private final FileSystem fs;
+
+    /**
+     * local cache directory
+     */
+    private final File cacheDir;
+
+    /**
+     * disk budget in bytes
+     */
+    private final long maxBytes;
+
+    /**
+     * cached entries in access order, guarded by this
+     */
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * downloads in progress, one per cache key
+     */
+    private final ConcurrentHashMap<String, Future<CacheEntry>> downloading = new ConcurrentHashMap<>();
+
+    /**
+     * download executor
+     */
+    private final ExecutorService downloadExecutor;
+
+    /**
+     * bytes used by cached entries, guarded by this
+     */
+    private long usedBytes;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * constructor
+     *
+     * @param fs resource storage file system
+     * @param cacheDir local cache directory
+     * @param maxBytes disk budget in bytes
+     * @param downloadThreads number of parallel downloads
+     * @throws IOException if the cache directory can not be created
+     */
+    public ResourceFileCache(FileSystem fs, String cacheDir, long maxBytes, int downloadThreads) throws IOException {
+        this.fs = fs;
+        this.cacheDir = new File(cacheDir);
+        this.maxBytes = maxBytes;
+        this.downloadExecutor = ThreadUtils.newDaemonFixedThreadExecutor("Worker-Resource-Download", downloadThreads);
+        Files.createDirectories(this.cacheDir.toPath());
+        loadExisting();
+    }
+
+    /**
+     * link all resources into the target files, downloading missing ones in parallel.
+     * targets which already exist are left untouched.
+     *
+     * @param resources storage path -> local target file
+     * @param tenantCode user the task runs as
+     * @throws IOException if any resource can not be fetched
+     */
+    public void linkAll(Map<String, File> resources, String tenantCode) throws IOException {
+        boolean shareable = isShareable(tenantCode);
+        List<Future<?>> futures = new ArrayList<>(resources.size());
+        for (Map.Entry<String, File> resource : resources.entrySet()) {
+            if (resource.getValue().exists()) {
+                logger.info("file : {} exists ", resource.getValue().getName());
+                continue;
+            }
+            futures.add(downloadExecutor.submit(() -> {
+                link(resource.getKey(), resource.getValue(), shareable);
+                return null;
+            }));
+        }
+        IOException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof IOException
+                            ? (IOException) e.getCause() : new IOException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while fetching resources", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * link one resource into the target file
+     *
+     * @param storagePath resource storage path
+     * @param target local target file
+     * @param shareable whether the task can not modify the cached file, so it may be hard linked
+     * @throws IOException if the resource can not be fetched
+     */
+    public void link(String storagePath, File target, boolean shareable) throws IOException {
+        FileStatus status = fs.getFileStatus(new Path(storagePath));
+        Files.createDirectories(target.getParentFile().toPath());
+        if (status.getLen() > maxBytes) {
+            // never fits the budget, caching it would only evict everything else
+            logger.info("resource {} size {} exceeds cache size {}, get it from storage",
+                    storagePath, status.getLen(), maxBytes);
+            fs.copyToLocalFile(false, status.getPath(), new Path(target.getAbsolutePath()), true);
+            return;
+        }
+        String key = cacheKey(storagePath, status);
+        CacheEntry entry = acquire(key, status);
+        try {
+            if (!shareable || !createLink(target, entry.file)) {
+                Files.copy(entry.file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                // the copy keeps the read only mode of the cached file
+                target.setWritable(true, true);
+            }
+            logger.info("resource {} linked from cache {}", storagePath, entry.file.getName());
+        } finally {
+            release(entry);
+        }
+    }
+
+    private boolean createLink(File target, File cached) {
+        try {
+            Files.createLink(target.toPath(), cached.toPath());
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            // cross-device or unsupported hard links, fall back to a private copy
+            logger.debug("hard link {} -> {} failed, copy instead", target, cached, e);
+            return false;
+        }
+    }
+
+    /**
+     * tasks running as the worker user own the cached files and could change them
+     */
+    static boolean isShareable(String tenantCode) {
+        return tenantCode != null && !tenantCode.equals(System.getProperty("user.name"));
+    }
+
+    /**
+     * get a pinned cache entry, downloading it if absent.
+     * a downloaded entry is pinned for its downloader before it becomes evictable.
+     */
+    private CacheEntry acquire(String key, FileStatus status) throws IOException {
+        while (true) {
+            synchronized (this) {
+                CacheEntry entry = entries.get(key);
+                if (entry != null) {
+                    entry.pins++;
+                    hitCount.incrementAndGet();
+                    return entry;
+                }
+            }
+
+            FutureTask<CacheEntry> task = new FutureTask<>(() -> download(key, status));
+            Future<CacheEntry> future = downloading.putIfAbsent(key, task);
+            boolean downloader = future == null;
+            if (downloader) {
+                future = task;
+                missCount.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    downloading.remove(key, task);
+                }
+            }
+
+            CacheEntry downloaded;
+            try {
+                downloaded = future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException
+                        ? (IOException) e.getCause() : new IOException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while downloading " + status.getPath(), e);
+            }
+            if (downloader) {
+                return downloaded;
+            }
+            // waiters pin the entry through the lookup above, retry it
+        }
+    }
+
+    /**
+     * download a resource into the cache directory
+     */
+    private CacheEntry download(String key, FileStatus status) throws IOException {
+        File tmp = new File(cacheDir, key + TMP_SUFFIX);
+        File file = new File(cacheDir, key);
+        logger.info("get resource file from storage :{}", status.getPath());
+        fs.copyToLocalFile(false, status.getPath(), new Path(tmp.getAbsolutePath()), true);
+        if (!tmp.setReadOnly()) {
+            logger.warn("set cached resource {} read only failed", tmp);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        CacheEntry entry = new CacheEntry(file, file.length());
+        // pinned for the downloader under the same lock that makes it evictable
+        entry.pins = 1;
+        synchronized (this) {
+            CacheEntry previous = entries.put(key, entry);
+            if (previous != null) {
+                usedBytes -= previous.size;
+            }
+            usedBytes += entry.size;
+            evict();
+        }
+        return entry;
+    }
+
+    /**
+     * unpin a cache entry
+     */
+    private synchronized void release(CacheEntry entry) {
+        entry.pins--;
+        entry.file.setLastModified(System.currentTimeMillis());
+        evict();
+    }
+
+    /**
+     * evict least recently used, unpinned entries until the cache fits its budget
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            CacheEntry entry = iterator.next().getValue();
+            if (entry.pins > 0) {
+                continue;
+            }
+            iterator.remove();
+            usedBytes -= entry.size;
+            if (!entry.file.delete()) {
+                logger.warn("delete cached resource {} failed", entry.file);
+            }
+            logger.info("evict cached resource {}, size : {}", entry.file.getName(), entry.size);
+        }
+    }
+
+    /**
+     * load entries left by a previous worker run, oldest first
+     */
+    private synchronized void loadExisting() {
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (!file.isFile()) {
+                continue;
+            }
+            if (file.getName().endsWith(TMP_SUFFIX)) {
+                file.delete();
+                continue;
+            }
+            file.setReadOnly();
+            CacheEntry entry = new CacheEntry(file, file.length());
+            entries.put(file.getName(), entry);
+            usedBytes += entry.size;
+        }
+        evict();
+    }
+
+    /**
+     * cache key of a resource version
+     */
+    static String cacheKey(String storagePath, FileStatus status) {
+        String version = storagePath + "@" + status.getModificationTime() + "#" + status.getLen();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(version.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public void close() {
+        downloadExecutor.shutdownNow();
+    }
+
+    /**
+     * cached resource file
+     */
+    private static class CacheEntry {
+
+        private final File file;
+
+        private final long size;
+
+        /**
+         * number of in-progress links, guarded by the cache
+         */
+        private int pins;
+
+        CacheEntry(File file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+}
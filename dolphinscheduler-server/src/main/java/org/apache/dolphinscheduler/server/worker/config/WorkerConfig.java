@@ -29,9 +29,21 @@ public class WorkerConfig {
     @Value("${worker.exec.threads:100}")
     private int workerExecThreads;
 
+    @Value("${worker.exec.queue.size:100}")
+    private int workerExecQueueSize;
+
     @Value("${worker.heartbeat.interval:10}")
     private int workerHeartbeatInterval;
 
+    @Value("${worker.heartbeat.change.threshold:0.1}")
+    private double workerHeartbeatChangeThreshold;
+
+    @Value("${worker.heartbeat.max.interval:60}")
+    private int workerHeartbeatMaxInterval;
+
+    @Value("${worker.heartbeat.compact:false}")
+    private boolean workerHeartbeatCompact;
+
     @Value("${worker.fetch.task.num:3}")
     private int workerFetchTaskNum;
 
@@ -47,6 +59,90 @@ public class WorkerConfig {
     @Value("${worker.listen.port: 1234}")
     private int listenPort;
 
+    @Value("${worker.resource.cache.enable:false}")
+    private boolean resourceCacheEnable;
+
+    @Value("${worker.resource.cache.dir:}")
+    private String resourceCacheDir;
+
+    @Value("${worker.resource.cache.max.size.mb:10240}")
+    private long resourceCacheMaxSizeMb;
+
+    @Value("${worker.resource.cache.download.threads:4}")
+    private int resourceCacheDownloadThreads;
+
+    @Value("${worker.jdbc.pool.datasources:}")
+    private String jdbcPoolDatasources;
+
+    @Value("${worker.jdbc.pool.max.active:8}")
+    private int jdbcPoolMaxActive;
+
+    @Value("${worker.jdbc.pool.max.wait.millis:60000}")
+    private long jdbcPoolMaxWaitMillis;
+
+    @Value("${worker.jdbc.pool.idle.timeout.seconds:300}")
+    private long jdbcPoolIdleTimeoutSeconds;
+
+    @Value("${worker.http.task.max.connections:200}")
+    private int httpTaskMaxConnections;
+
+    @Value("${worker.http.task.max.connections.per.route:20}")
+    private int httpTaskMaxConnectionsPerRoute;
+
+    @Value("${worker.http.task.keep.alive.seconds:30}")
+    private int httpTaskKeepAliveSeconds;
+
+    @Value("${worker.http.task.connection.request.timeout.millis:60000}")
+    private int httpTaskConnectionRequestTimeoutMillis;
+
+    @Value("${worker.shell.warm.enable:false}")
+    private boolean shellWarmEnable;
+
+    @Value("${worker.shell.warm.pool.size:2}")
+    private int shellWarmPoolSize;
+
+    @Value("${worker.shell.warm.max.tasks:100}")
+    private int shellWarmMaxTasks;
+
+    @Value("${worker.shell.warm.idle.timeout.seconds:300}")
+    private long shellWarmIdleTimeoutSeconds;
+
+    @Value("${worker.python.pool.enable:false}")
+    private boolean pythonPoolEnable;
+
+    @Value("${worker.python.pool.size:2}")
+    private int pythonPoolSize;
+
+    @Value("${worker.python.pool.max.tasks:50}")
+    private int pythonPoolMaxTasks;
+
+    @Value("${worker.python.pool.max.memory.mb:1024}")
+    private long pythonPoolMaxMemoryMb;
+
+    @Value("${worker.python.pool.idle.timeout.seconds:300}")
+    private long pythonPoolIdleTimeoutSeconds;
+
+    @Value("${worker.callback.batch.enable:false}")
+    private boolean callbackBatchEnable;
+
+    @Value("${worker.callback.batch.window.millis:20}")
+    private long callbackBatchWindowMillis;
+
+    @Value("${worker.callback.batch.max.size:500}")
+    private int callbackBatchMaxSize;
+
+    @Value("${worker.journal.enable:false}")
+    private boolean journalEnable;
+
+    @Value("${worker.journal.dir:${user.dir}/journal}")
+    private String journalDir;
+
+    @Value("${worker.resource.sample.interval.seconds:0}")
+    private int resourceSampleIntervalSeconds;
+
+    @Value("${worker.log.archive.delay.seconds:0}")
+    private int logArchiveDelaySeconds;
+
     public int getListenPort() {
         return listenPort;
     }
@@ -71,6 +167,14 @@ public class WorkerConfig {
         this.workerExecThreads = workerExecThreads;
     }
 
+    public int getWorkerExecQueueSize() {
+        return workerExecQueueSize;
+    }
+
+    public void setWorkerExecQueueSize(int workerExecQueueSize) {
+        this.workerExecQueueSize = workerExecQueueSize;
+    }
+
     public int getWorkerHeartbeatInterval() {
         return workerHeartbeatInterval;
     }
@@ -79,6 +183,30 @@ public class WorkerConfig {
         this.workerHeartbeatInterval = workerHeartbeatInterval;
     }
 
+    public double getWorkerHeartbeatChangeThreshold() {
+        return workerHeartbeatChangeThreshold;
+    }
+
+    public void setWorkerHeartbeatChangeThreshold(double workerHeartbeatChangeThreshold) {
+        this.workerHeartbeatChangeThreshold = workerHeartbeatChangeThreshold;
+    }
+
+    public int getWorkerHeartbeatMaxInterval() {
+        return workerHeartbeatMaxInterval;
+    }
+
+    public void setWorkerHeartbeatMaxInterval(int workerHeartbeatMaxInterval) {
+        this.workerHeartbeatMaxInterval = workerHeartbeatMaxInterval;
+    }
+
+    public boolean isWorkerHeartbeatCompact() {
+        return workerHeartbeatCompact;
+    }
+
+    public void setWorkerHeartbeatCompact(boolean workerHeartbeatCompact) {
+        this.workerHeartbeatCompact = workerHeartbeatCompact;
+    }
+
     public int getWorkerFetchTaskNum() {
         return workerFetchTaskNum;
     }
@@ -95,6 +223,230 @@ public class WorkerConfig {
         this.workerReservedMemory = workerReservedMemory;
     }
 
+    public boolean isResourceCacheEnable() {
+        return resourceCacheEnable;
+    }
+
+    public void setResourceCacheEnable(boolean resourceCacheEnable) {
+        this.resourceCacheEnable = resourceCacheEnable;
+    }
+
+    public String getResourceCacheDir() {
+        return resourceCacheDir;
+    }
+
+    public void setResourceCacheDir(String resourceCacheDir) {
+        this.resourceCacheDir = resourceCacheDir;
+    }
+
+    public long getResourceCacheMaxSizeMb() {
+        return resourceCacheMaxSizeMb;
+    }
+
+    public void setResourceCacheMaxSizeMb(long resourceCacheMaxSizeMb) {
+        this.resourceCacheMaxSizeMb = resourceCacheMaxSizeMb;
+    }
+
+    public int getResourceCacheDownloadThreads() {
+        return resourceCacheDownloadThreads;
+    }
+
+    public void setResourceCacheDownloadThreads(int resourceCacheDownloadThreads) {
+        this.resourceCacheDownloadThreads = resourceCacheDownloadThreads;
+    }
+
+    public String getJdbcPoolDatasources() {
+        return jdbcPoolDatasources;
+    }
+
+    public void setJdbcPoolDatasources(String jdbcPoolDatasources) {
+        this.jdbcPoolDatasources = jdbcPoolDatasources;
+    }
+
+    public int getJdbcPoolMaxActive() {
+        return jdbcPoolMaxActive;
+    }
+
+    public void setJdbcPoolMaxActive(int jdbcPoolMaxActive) {
+        this.jdbcPoolMaxActive = jdbcPoolMaxActive;
+    }
+
+    public long getJdbcPoolMaxWaitMillis() {
+        return jdbcPoolMaxWaitMillis;
+    }
+
+    public void setJdbcPoolMaxWaitMillis(long jdbcPoolMaxWaitMillis) {
+        this.jdbcPoolMaxWaitMillis = jdbcPoolMaxWaitMillis;
+    }
+
+    public long getJdbcPoolIdleTimeoutSeconds() {
+        return jdbcPoolIdleTimeoutSeconds;
+    }
+
+    public void setJdbcPoolIdleTimeoutSeconds(long jdbcPoolIdleTimeoutSeconds) {
+        this.jdbcPoolIdleTimeoutSeconds = jdbcPoolIdleTimeoutSeconds;
+    }
+
+    public int getHttpTaskMaxConnections() {
+        return httpTaskMaxConnections;
+    }
+
+    public void setHttpTaskMaxConnections(int httpTaskMaxConnections) {
+        this.httpTaskMaxConnections = httpTaskMaxConnections;
+    }
+
+    public int getHttpTaskMaxConnectionsPerRoute() {
+        return httpTaskMaxConnectionsPerRoute;
+    }
+
+    public void setHttpTaskMaxConnectionsPerRoute(int httpTaskMaxConnectionsPerRoute) {
+        this.httpTaskMaxConnectionsPerRoute = httpTaskMaxConnectionsPerRoute;
+    }
+
+    public int getHttpTaskKeepAliveSeconds() {
+        return httpTaskKeepAliveSeconds;
+    }
+
+    public void setHttpTaskKeepAliveSeconds(int httpTaskKeepAliveSeconds) {
+        this.httpTaskKeepAliveSeconds = httpTaskKeepAliveSeconds;
+    }
+
+    public int getHttpTaskConnectionRequestTimeoutMillis() {
+        return httpTaskConnectionRequestTimeoutMillis;
+    }
+
+    public void setHttpTaskConnectionRequestTimeoutMillis(int httpTaskConnectionRequestTimeoutMillis) {
+        this.httpTaskConnectionRequestTimeoutMillis = httpTaskConnectionRequestTimeoutMillis;
+    }
+
+    public boolean isShellWarmEnable() {
+        return shellWarmEnable;
+    }
+
+    public void setShellWarmEnable(boolean shellWarmEnable) {
+        this.shellWarmEnable = shellWarmEnable;
+    }
+
+    public int getShellWarmPoolSize() {
+        return shellWarmPoolSize;
+    }
+
+    public void setShellWarmPoolSize(int shellWarmPoolSize) {
+        this.shellWarmPoolSize = shellWarmPoolSize;
+    }
+
+    public int getShellWarmMaxTasks() {
+        return shellWarmMaxTasks;
+    }
+
+    public void setShellWarmMaxTasks(int shellWarmMaxTasks) {
+        this.shellWarmMaxTasks = shellWarmMaxTasks;
+    }
+
+    public long getShellWarmIdleTimeoutSeconds() {
+        return shellWarmIdleTimeoutSeconds;
+    }
+
+    public void setShellWarmIdleTimeoutSeconds(long shellWarmIdleTimeoutSeconds) {
+        this.shellWarmIdleTimeoutSeconds = shellWarmIdleTimeoutSeconds;
+    }
+
+    public boolean isPythonPoolEnable() {
+        return pythonPoolEnable;
+    }
+
+    public void setPythonPoolEnable(boolean pythonPoolEnable) {
+        this.pythonPoolEnable = pythonPoolEnable;
+    }
+
+    public int getPythonPoolSize() {
+        return pythonPoolSize;
+    }
+
+    public void setPythonPoolSize(int pythonPoolSize) {
+        this.pythonPoolSize = pythonPoolSize;
+    }
+
+    public int getPythonPoolMaxTasks() {
+        return pythonPoolMaxTasks;
+    }
+
+    public void setPythonPoolMaxTasks(int pythonPoolMaxTasks) {
+        this.pythonPoolMaxTasks = pythonPoolMaxTasks;
+    }
+
+    public long getPythonPoolMaxMemoryMb() {
+        return pythonPoolMaxMemoryMb;
+    }
+
+    public void setPythonPoolMaxMemoryMb(long pythonPoolMaxMemoryMb) {
+        this.pythonPoolMaxMemoryMb = pythonPoolMaxMemoryMb;
+    }
+
+    public long getPythonPoolIdleTimeoutSeconds() {
+        return pythonPoolIdleTimeoutSeconds;
+    }
+
+    public void setPythonPoolIdleTimeoutSeconds(long pythonPoolIdleTimeoutSeconds) {
+        this.pythonPoolIdleTimeoutSeconds = pythonPoolIdleTimeoutSeconds;
+    }
+
+    public boolean isCallbackBatchEnable() {
+        return callbackBatchEnable;
+    }
+
+    public void setCallbackBatchEnable(boolean callbackBatchEnable) {
+        this.callbackBatchEnable = callbackBatchEnable;
+    }
+
+    public long getCallbackBatchWindowMillis() {
+        return callbackBatchWindowMillis;
+    }
+
+    public void setCallbackBatchWindowMillis(long callbackBatchWindowMillis) {
+        this.callbackBatchWindowMillis = callbackBatchWindowMillis;
+    }
+
+    public int getCallbackBatchMaxSize() {
+        return callbackBatchMaxSize;
+    }
+
+    public void setCallbackBatchMaxSize(int callbackBatchMaxSize) {
+        this.callbackBatchMaxSize = callbackBatchMaxSize;
+    }
+
+    public boolean isJournalEnable() {
+        return journalEnable;
+    }
+
+    public void setJournalEnable(boolean journalEnable) {
+        this.journalEnable = journalEnable;
+    }
+
+    public String getJournalDir() {
+        return journalDir;
+    }
+
+    public void setJournalDir(String journalDir) {
+        this.journalDir = journalDir;
+    }
+
+    public int getResourceSampleIntervalSeconds() {
+        return resourceSampleIntervalSeconds;
+    }
+
+    public void setResourceSampleIntervalSeconds(int resourceSampleIntervalSeconds) {
+        this.resourceSampleIntervalSeconds = resourceSampleIntervalSeconds;
+    }
+
+    public int getLogArchiveDelaySeconds() {
+        return logArchiveDelaySeconds;
+    }
+
+    public void setLogArchiveDelaySeconds(int logArchiveDelaySeconds) {
+        this.logArchiveDelaySeconds = logArchiveDelaySeconds;
+    }
+
     public int getWorkerMaxCpuloadAvg() {
         if (workerMaxCpuloadAvg == -1){
             return Constants.DEFAULT_WORKER_CPU_LOAD;
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import org.apache.commons.lang.StringUtils;
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.DbType;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.CommonUtils;
+import org.apache.dolphinscheduler.common.utils.EncryptionUtils;
+import org.apache.dolphinscheduler.dao.datasource.BaseDataSource;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *  worker wide jdbc connection pools of the datasources used by sql, procedure and datax tasks.
+ *
+ *  one pool is created per distinct connection params, only for the datasources configured by
+ *  worker.jdbc.pool.datasources, other datasources are connected directly as before.
+ *  pools which were not used for the idle timeout are closed. connections get a clean session
+ *  when they are returned, see {@link SessionResetFilter}.
+ */
+@Service
+public class JdbcConnectionPoolManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcConnectionPoolManager.class);
+
+    /**
+     * pool all datasources
+     */
+    private static final String ALL_DATASOURCES = "*";
+
+    /**
+     * interval of kerberos logins, connections are created by pool threads long after a task logged in
+     */
+    private static final long KERBEROS_RELOGIN_INTERVAL_MILLIS = 60 * 60 * 1000L;
+
+    /**
+     * interval of idle connection eviction and pool cleaning
+     */
+    private static final long EVICTION_INTERVAL_MILLIS = 60 * 1000L;
+
+    /**
+     * worker config
+     */
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    /**
+     * pool key -> pool
+     */
+    private final ConcurrentHashMap<String, PooledDataSource> pools = new ConcurrentHashMap<>();
+
+    /**
+     * pooled datasource ids, null if every datasource is pooled
+     */
+    private Set<Integer> pooledDatasourceIds;
+
+    private volatile long lastKerberosLoginTime;
+
+    /**
+     * clean executor, started with the first pool
+     */
+    private ScheduledExecutorService cleanExecutor;
+
+    @PostConstruct
+    public void init() {
+        String datasources = workerConfig.getJdbcPoolDatasources();
+        Set<Integer> ids = new HashSet<>();
+        if (StringUtils.isNotBlank(datasources) && !ALL_DATASOURCES.equals(datasources.trim())) {
+            for (String id : datasources.split(Constants.COMMA)) {
+                if (StringUtils.isNotBlank(id)) {
+                    ids.add(Integer.parseInt(id.trim()));
+                }
+            }
+        }
+        this.pooledDatasourceIds = ALL_DATASOURCES.equals(StringUtils.trim(datasources)) ? null : ids;
+    }
+
+    /**
+     * whether connections of the datasource are pooled
+     *
+     * @param datasourceId datasource id
+     * @return true if pooled
+     */
+    public boolean isPooled(int datasourceId) {
+        return pooledDatasourceIds == null || pooledDatasourceIds.contains(datasourceId);
+    }
+
+    /**
+     * get a connection of the datasource, closing it returns a pooled connection to its pool
+     *
+     * @param datasourceId datasource id
+     * @param dataSource datasource
+     * @param connectProperties extra driver properties, such as hive conf, may be null
+     * @return connection
+     * @throws SQLException if the connection can not be created
+     */
+    public Connection getConnection(int datasourceId, BaseDataSource dataSource, Map<String, String> connectProperties) throws SQLException {
+        if (!isPooled(datasourceId)) {
+            return getDirectConnection(dataSource, connectProperties);
+        }
+        loadKerberosConf();
+        Properties properties = new Properties();
+        if (connectProperties != null) {
+            properties.putAll(connectProperties);
+        }
+        String key = getPoolKey(datasourceId, dataSource, properties);
+        // the pool is marked borrowed under the map lock, so closeIdlePools can not close it before the connection is taken
+        PooledDataSource pool = pools.compute(key, (k, current) -> {
+            PooledDataSource borrowed = current != null ? current : createPool(datasourceId, dataSource, properties);
+            borrowed.borrowers.incrementAndGet();
+            borrowed.lastUsedTime = System.currentTimeMillis();
+            return borrowed;
+        });
+        try {
+            return pool.dataSource.getConnection();
+        } finally {
+            pool.borrowers.decrementAndGet();
+        }
+    }
+
+    /**
+     * get a connection which is not pooled, for sessions whose state must not be shared such as temporary functions
+     *
+     * @param dataSource datasource
+     * @param connectProperties extra driver properties, such as hive conf, may be null
+     * @return connection
+     * @throws SQLException if the connection can not be created
+     */
+    public Connection getDirectConnection(BaseDataSource dataSource, Map<String, String> connectProperties) throws SQLException {
+        loadKerberosConf();
+        Properties properties = new Properties();
+        if (connectProperties != null) {
+            properties.putAll(connectProperties);
+        }
+        if (dataSource.getUser() != null) {
+            properties.setProperty(Constants.USER, dataSource.getUser());
+        }
+        if (dataSource.getPassword() != null) {
+            properties.setProperty(Constants.PASSWORD, dataSource.getPassword());
+        }
+        return DriverManager.getConnection(dataSource.getJdbcUrl(), properties);
+    }
+
+    /**
+     * pool metrics, pool name -> metric name -> value
+     *
+     * @return metrics
+     */
+    public Map<String, Map<String, Object>> getMetrics() {
+        Map<String, Map<String, Object>> metrics = new TreeMap<>();
+        for (PooledDataSource pool : pools.values()) {
+            DruidDataSource dataSource = pool.dataSource;
+            Map<String, Object> poolMetrics = new LinkedHashMap<>();
+            poolMetrics.put("activeCount", dataSource.getActiveCount());
+            poolMetrics.put("idleCount", dataSource.getPoolingCount());
+            poolMetrics.put("maxActive", dataSource.getMaxActive());
+            poolMetrics.put("createCount", dataSource.getCreateCount());
+            poolMetrics.put("destroyCount", dataSource.getDestroyCount());
+            poolMetrics.put("borrowCount", dataSource.getConnectCount());
+            poolMetrics.put("waitThreadCount", dataSource.getWaitThreadCount());
+            metrics.put(dataSource.getName(), poolMetrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * close pools which were not used for the idle timeout and have no borrowed connection
+     */
+    void closeIdlePools() {
+        try {
+            long idleTimeout = workerConfig.getJdbcPoolIdleTimeoutSeconds() * 1000L;
+            long now = System.currentTimeMillis();
+            for (String key : pools.keySet()) {
+                // closed under the map lock of the key, borrowers mark the pool under the same lock
+                pools.computeIfPresent(key, (k, pool) -> {
+                    if (now - pool.lastUsedTime > idleTimeout
+                            && pool.borrowers.get() == 0
+                            && pool.dataSource.getActiveCount() == 0) {
+                        logger.info("close idle jdbc pool : {}", pool.dataSource.getName());
+                        pool.dataSource.close();
+                        return null;
+                    }
+                    return pool;
+                });
+            }
+            if (!pools.isEmpty()) {
+                logger.info("jdbc pool metrics : {}", getMetrics());
+            }
+        } catch (Exception e) {
+            logger.error("close idle jdbc pools failed", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (cleanExecutor != null) {
+            cleanExecutor.shutdownNow();
+        }
+        for (PooledDataSource pool : pools.values()) {
+            pool.dataSource.close();
+        }
+        pools.clear();
+    }
+
+    private PooledDataSource createPool(int datasourceId, BaseDataSource dataSource, Properties properties) {
+        synchronized (this) {
+            if (cleanExecutor == null) {
+                cleanExecutor = ThreadUtils.newDaemonThreadScheduledExecutor("Worker-Jdbc-Pool-Cleaner", 1);
+                cleanExecutor.scheduleWithFixedDelay(this::closeIdlePools,
+                        EVICTION_INTERVAL_MILLIS, EVICTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        DruidDataSource druidDataSource = new DruidDataSource();
+        druidDataSource.setName(String.format("datasource-%d-%d", datasourceId, pools.size()));
+        druidDataSource.setDriverClassName(dataSource.driverClassSelector());
+        druidDataSource.setUrl(dataSource.getJdbcUrl());
+        druidDataSource.setUsername(dataSource.getUser());
+        druidDataSource.setPassword(dataSource.getPassword());
+        druidDataSource.setConnectProperties(properties);
+        druidDataSource.setValidationQuery(getValidationQuery(dataSource.dbTypeSelector()));
+
+        druidDataSource.setInitialSize(0);
+        druidDataSource.setMinIdle(0);
+        druidDataSource.setMaxActive(workerConfig.getJdbcPoolMaxActive());
+        druidDataSource.setMaxWait(workerConfig.getJdbcPoolMaxWaitMillis());
+        druidDataSource.setTestWhileIdle(true);
+        druidDataSource.setTestOnBorrow(false);
+        druidDataSource.setTestOnReturn(false);
+        druidDataSource.setTimeBetweenEvictionRunsMillis(EVICTION_INTERVAL_MILLIS);
+        druidDataSource.setMinEvictableIdleTimeMillis(workerConfig.getJdbcPoolIdleTimeoutSeconds() * 1000L);
+        druidDataSource.setTimeBetweenConnectErrorMillis(EVICTION_INTERVAL_MILLIS);
+        druidDataSource.setDefaultAutoCommit(true);
+        druidDataSource.setProxyFilters(Collections.singletonList(new SessionResetFilter(dataSource.dbTypeSelector())));
+        logger.info("create jdbc pool : {}, url : {}", druidDataSource.getName(), druidDataSource.getUrl());
+        return new PooledDataSource(druidDataSource);
+    }
+
+    /**
+     * connections made with different params never share a pool, the password is hashed to keep it out of the key
+     */
+    private static String getPoolKey(int datasourceId, BaseDataSource dataSource, Properties properties) {
+        return datasourceId + Constants.AT_SIGN + dataSource.getJdbcUrl()
+                + Constants.AT_SIGN + dataSource.getUser()
+                + Constants.AT_SIGN + EncryptionUtils.getMd5(dataSource.getPassword())
+                + Constants.AT_SIGN + new TreeMap<>(properties);
+    }
+
+    private static String getValidationQuery(DbType dbType) {
+        switch (dbType) {
+            case ORACLE:
+                return "SELECT 1 FROM DUAL";
+            case DB2:
+                return "SELECT 1 FROM SYSIBM.SYSDUMMY1";
+            default:
+                return "SELECT 1";
+        }
+    }
+
+    /**
+     * if upload resource is HDFS and kerberos startup, login at most once per relogin interval
+     */
+    private void loadKerberosConf() throws SQLException {
+        if (!CommonUtils.getKerberosStartupState()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastKerberosLoginTime > KERBEROS_RELOGIN_INTERVAL_MILLIS) {
+            synchronized (this) {
+                if (now - lastKerberosLoginTime > KERBEROS_RELOGIN_INTERVAL_MILLIS) {
+                    try {
+                        CommonUtils.loadKerberosConf();
+                    } catch (Exception e) {
+                        throw new SQLException("kerberos login failed", e);
+                    }
+                    lastKerberosLoginTime = now;
+                }
+            }
+        }
+    }
+
+    /**
+     * pool, its last use and the threads taking a connection from it
+     */
+    private static class PooledDataSource {
+
+        private final DruidDataSource dataSource;
+
+        private final AtomicInteger borrowers = new AtomicInteger();
+
+        private volatile long lastUsedTime = System.currentTimeMillis();
+
+        PooledDataSource(DruidDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
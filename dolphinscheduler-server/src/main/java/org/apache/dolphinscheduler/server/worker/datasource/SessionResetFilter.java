@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.datasource;
+
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.filter.FilterEventAdapter;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import com.alibaba.druid.proxy.jdbc.ConnectionProxy;
+import com.alibaba.druid.proxy.jdbc.StatementProxy;
+import org.apache.dolphinscheduler.common.enums.DbType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ *  resets the session of a pooled connection before it goes back to its pool, so a task never sees
+ *  the session state left by the previous one.
+ *
+ *  open transactions are rolled back and auto commit is turned on again. connections which ran
+ *  statements changing the session, such as set, use or alter session, are reset with the reset
+ *  statement of the database and get their initial catalog and schema back, they are closed instead
+ *  if the database has no reset statement.
+ */
+class SessionResetFilter extends FilterEventAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionResetFilter.class);
+
+    /**
+     * statements which change the session
+     */
+    private static final Pattern SESSION_STATEMENT = Pattern.compile("^\\s*(SET|USE|ALTER\\s+SESSION)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final String CATALOG_ATTRIBUTE = "dolphinscheduler.catalog";
+
+    private static final String SCHEMA_ATTRIBUTE = "dolphinscheduler.schema";
+
+    private static final String SESSION_CHANGED_ATTRIBUTE = "dolphinscheduler.sessionChanged";
+
+    /**
+     * statement resetting the session, null if the database has none
+     */
+    private final String resetStatement;
+
+    SessionResetFilter(DbType dbType) {
+        this.resetStatement = getResetStatement(dbType);
+    }
+
+    @Override
+    public ConnectionProxy connection_connect(FilterChain chain, Properties info) throws SQLException {
+        ConnectionProxy connection = super.connection_connect(chain, info);
+        connection.putAttribute(CATALOG_ATTRIBUTE, connection.getCatalog());
+        connection.putAttribute(SCHEMA_ATTRIBUTE, getSchema(connection));
+        return connection;
+    }
+
+    @Override
+    protected void statementExecuteBefore(StatementProxy statement, String sql) {
+        checkSessionStatement(statement, sql);
+    }
+
+    @Override
+    protected void statementExecuteQueryBefore(StatementProxy statement, String sql) {
+        checkSessionStatement(statement, sql);
+    }
+
+    @Override
+    protected void statementExecuteUpdateBefore(StatementProxy statement, String sql) {
+        checkSessionStatement(statement, sql);
+    }
+
+    @Override
+    public void dataSource_releaseConnection(FilterChain chain, DruidPooledConnection connection) throws SQLException {
+        try {
+            resetSession(connection);
+        } catch (Exception e) {
+            // a closed physical connection is discarded by the pool
+            logger.warn("reset jdbc session failed, close the connection", e);
+            closeQuietly(connection.getConnection());
+        }
+        super.dataSource_releaseConnection(chain, connection);
+    }
+
+    private void resetSession(DruidPooledConnection connection) throws SQLException {
+        if (!connection.getAutoCommit()) {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+        ConnectionProxy physicalConnection = (ConnectionProxy) connection.getConnection();
+        if (physicalConnection.getAttribute(SESSION_CHANGED_ATTRIBUTE) == null) {
+            return;
+        }
+        if (resetStatement == null) {
+            logger.info("session of the jdbc connection changed, close it");
+            closeQuietly(physicalConnection);
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(resetStatement);
+        }
+        String catalog = (String) physicalConnection.getAttribute(CATALOG_ATTRIBUTE);
+        if (catalog != null && !catalog.equals(connection.getCatalog())) {
+            connection.setCatalog(catalog);
+        }
+        String schema = (String) physicalConnection.getAttribute(SCHEMA_ATTRIBUTE);
+        if (schema != null && !Objects.equals(schema, getSchema(connection))) {
+            connection.setSchema(schema);
+        }
+        physicalConnection.getAttributes().remove(SESSION_CHANGED_ATTRIBUTE);
+    }
+
+    private static void checkSessionStatement(StatementProxy statement, String sql) {
+        if (sql != null && SESSION_STATEMENT.matcher(sql).find()) {
+            statement.getConnectionProxy().putAttribute(SESSION_CHANGED_ATTRIBUTE, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * schema of the connection, null if the driver does not support it
+     */
+    private static String getSchema(Connection connection) {
+        try {
+            return connection.getSchema();
+        } catch (SQLException | AbstractMethodError e) {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("close jdbc connection failed", e);
+        }
+    }
+
+    private static String getResetStatement(DbType dbType) {
+        switch (dbType) {
+            case POSTGRESQL:
+                return "DISCARD ALL";
+            case HIVE:
+            case SPARK:
+                return "RESET";
+            default:
+                return null;
+        }
+    }
+}
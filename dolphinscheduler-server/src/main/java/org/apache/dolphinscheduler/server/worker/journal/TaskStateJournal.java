@@ -0,0 +1,483 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.journal;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  append only journal of the tasks accepted by this worker, used when worker.journal.enable is set.
+ *
+ *  records are written by one thread which syncs every batch of queued records with a single fsync,
+ *  the accept and result records are waited for, so a task is acked and its result is sent only after
+ *  they are on disk. the journal is rewritten with the state of the unfinished tasks when it grows.
+ *
+ *  the journal directory is only accessible by the worker user, and the datasource connection params
+ *  of the tasks are not journaled, a recovered task is only waited for and killed, never run again.
+ */
+@Service
+public class TaskStateJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStateJournal.class);
+
+    private static final String JOURNAL_FILE = "task-state.journal";
+
+    /**
+     * max time to wait for a record to be synced
+     */
+    private static final long SYNC_TIMEOUT_MILLIS = 5000L;
+
+    /**
+     * the journal is compacted when it has more records than this and four times the unfinished tasks
+     */
+    private static final int COMPACT_MIN_RECORDS = 1000;
+
+    private static final Set<PosixFilePermission> DIR_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+
+    /**
+     * parts of the task execution context holding datasource connection params
+     */
+    private static final List<String> CONNECTION_CONTEXTS = Arrays.asList(
+            "sqlTaskExecutionContext", "procedureTaskExecutionContext", "dataxTaskExecutionContext", "sqoopTaskExecutionContext");
+
+    /**
+     * queued to stop the writer
+     */
+    private static final PendingRecord CLOSE = new PendingRecord(null);
+
+    /**
+     * worker config
+     */
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    /**
+     * task instance id -> state of the unfinished task, guarded by itself together with the queue order
+     */
+    private final Map<Integer, TaskStateRecord> states = new HashMap<>();
+
+    /**
+     * records waiting to be written
+     */
+    private final BlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+
+    private ExecutorService writer;
+
+    /**
+     * journal file channel, only used by the writer after open
+     */
+    private FileChannel channel;
+
+    /**
+     * records in the journal file
+     */
+    private int recordCount;
+
+    private volatile boolean opened;
+
+    private volatile boolean closed;
+
+    /**
+     * whether the journal is enabled
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return workerConfig.isJournalEnable();
+    }
+
+    /**
+     * replay the journal left by the last run and start writing
+     *
+     * @return unfinished tasks of the last run, empty if the journal is opened already
+     * @throws IOException if the journal can not be read or written
+     */
+    public synchronized List<TaskStateRecord> open() throws IOException {
+        if (closed) {
+            throw new IOException("task journal is closed");
+        }
+        if (opened) {
+            return new ArrayList<>();
+        }
+        File file = getJournalFile();
+        createDirectory(file.getParentFile().toPath());
+        if (file.exists()) {
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    TaskStateRecord record = JSONUtils.parseObject(line, TaskStateRecord.class);
+                    // the last line is torn if the worker died while writing it
+                    if (record != null && record.getType() != null) {
+                        apply(record);
+                    }
+                }
+            }
+        }
+        List<TaskStateRecord> unfinished = new ArrayList<>();
+        for (TaskStateRecord state : states.values()) {
+            unfinished.add(state.snapshot());
+        }
+        compact();
+        writer = ThreadUtils.newDaemonSingleThreadExecutor("Worker-Task-Journal");
+        writer.execute(this::writeLoop);
+        opened = true;
+        logger.info("task journal {} opened, unfinished tasks : {}", file, unfinished.size());
+        return unfinished;
+    }
+
+    /**
+     * record an accepted task, waits until it is synced
+     *
+     * @param taskExecutionContext task execution context
+     * @param masterHost master address the task was accepted from
+     * @param opaque opaque of the execute request
+     */
+    public void accepted(TaskExecutionContext taskExecutionContext, String masterHost, long opaque) {
+        if (!isEnabled()) {
+            return;
+        }
+        TaskStateRecord record = new TaskStateRecord(TaskStateRecord.Type.ACCEPT, taskExecutionContext.getTaskInstanceId());
+        record.setMasterHost(masterHost);
+        record.setOpaque(opaque);
+        ObjectNode context = (ObjectNode) JSONUtils.toJsonNode(taskExecutionContext);
+        context.remove(CONNECTION_CONTEXTS);
+        record.setTaskExecutionContext(context.toString());
+        await(append(record), record);
+    }
+
+    /**
+     * record the started process of a task
+     *
+     * @param taskInstanceId task instance id
+     * @param processId process id
+     */
+    public void processStarted(int taskInstanceId, int processId) {
+        if (!contains(taskInstanceId)) {
+            return;
+        }
+        TaskStateRecord record = new TaskStateRecord(TaskStateRecord.Type.PROCESS, taskInstanceId);
+        record.setProcessId(processId);
+        ProcfsUtils.ProcStat stat = ProcfsUtils.readStat(processId);
+        if (stat != null) {
+            record.setProcessStartTime(stat.getStartTime());
+        }
+        append(record);
+    }
+
+    /**
+     * record the yarn application ids of a task found so far
+     *
+     * @param taskInstanceId task instance id
+     * @param appIds comma separated application ids
+     */
+    public void appIdsFound(int taskInstanceId, String appIds) {
+        if (!contains(taskInstanceId)) {
+            return;
+        }
+        TaskStateRecord record = new TaskStateRecord(TaskStateRecord.Type.APP_IDS, taskInstanceId);
+        record.setAppIds(appIds);
+        append(record);
+    }
+
+    /**
+     * record the result of a task before it is sent, waits until it is synced
+     *
+     * @param responseCommand task result
+     */
+    public void finished(TaskExecuteResponseCommand responseCommand) {
+        if (!contains(responseCommand.getTaskInstanceId())) {
+            return;
+        }
+        TaskStateRecord record = new TaskStateRecord(TaskStateRecord.Type.RESULT, responseCommand.getTaskInstanceId());
+        record.setResult(responseCommand);
+        await(append(record), record);
+    }
+
+    /**
+     * remove a task whose result was delivered or which is given up
+     *
+     * @param taskInstanceId task instance id
+     */
+    public void done(int taskInstanceId) {
+        if (!contains(taskInstanceId)) {
+            return;
+        }
+        append(new TaskStateRecord(TaskStateRecord.Type.DONE, taskInstanceId));
+    }
+
+    /**
+     * whether the task is unfinished in the journal
+     *
+     * @param taskInstanceId task instance id
+     * @return true if the task is accepted and its result not delivered yet
+     */
+    public boolean contains(int taskInstanceId) {
+        if (!isEnabled()) {
+            return false;
+        }
+        synchronized (states) {
+            return states.containsKey(taskInstanceId);
+        }
+    }
+
+    private CompletableFuture<Void> append(TaskStateRecord record) {
+        PendingRecord pending = new PendingRecord(record);
+        try {
+            if (!opened || closed) {
+                open();
+            }
+        } catch (IOException e) {
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        }
+        // the queue keeps the order in which the records changed the state
+        synchronized (states) {
+            apply(record);
+            queue.add(pending);
+        }
+        return pending.future;
+    }
+
+    private void apply(TaskStateRecord record) {
+        synchronized (states) {
+            switch (record.getType()) {
+                case ACCEPT:
+                case SNAPSHOT:
+                    states.put(record.getTaskInstanceId(), record.snapshot());
+                    break;
+                case DONE:
+                    states.remove(record.getTaskInstanceId());
+                    break;
+                default:
+                    TaskStateRecord state = states.get(record.getTaskInstanceId());
+                    if (state != null) {
+                        state.merge(record);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private void await(CompletableFuture<Void> future, TaskStateRecord record) {
+        try {
+            future.get(SYNC_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // the task goes on, it is failed over as without the journal if the worker restarts
+            logger.warn("sync task journal record {} failed", record, e);
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingRecord> batch = new ArrayList<>();
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch);
+            closing = batch.remove(CLOSE);
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<PendingRecord> batch) {
+        try {
+            List<TaskStateRecord> records = new ArrayList<>(batch.size());
+            for (PendingRecord pending : batch) {
+                records.add(pending.record);
+            }
+            writeRecords(channel, records);
+            channel.force(false);
+            recordCount += records.size();
+            for (PendingRecord pending : batch) {
+                pending.future.complete(null);
+            }
+        } catch (Exception e) {
+            logger.error("write task journal failed", e);
+            for (PendingRecord pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+            return;
+        }
+        try {
+            int unfinished;
+            synchronized (states) {
+                unfinished = states.size();
+            }
+            if (recordCount > Math.max(COMPACT_MIN_RECORDS, unfinished * 4)) {
+                compact();
+            }
+        } catch (Exception e) {
+            logger.error("compact task journal failed", e);
+        }
+    }
+
+    /**
+     * rewrite the journal with the state of the unfinished tasks.
+     * records queued meanwhile are already in the states and are written again after the snapshots,
+     * replaying them a second time gives the same state
+     */
+    private void compact() throws IOException {
+        List<TaskStateRecord> snapshots = new ArrayList<>();
+        synchronized (states) {
+            for (TaskStateRecord state : states.values()) {
+                snapshots.add(state.snapshot());
+            }
+        }
+        File file = getJournalFile();
+        File tmpFile = new File(file.getPath() + ".tmp");
+        // created anew, so it never keeps the permissions of a file left by an older version
+        Files.deleteIfExists(tmpFile.toPath());
+        try (FileChannel out = openFile(tmpFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writeRecords(out, snapshots);
+            out.force(false);
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (channel != null) {
+            channel.close();
+        }
+        channel = openFile(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        recordCount = snapshots.size();
+    }
+
+    /**
+     * create the journal directory accessible only by the worker user, an existing directory is restricted too
+     */
+    private static void createDirectory(Path dir) throws IOException {
+        if (!isPosix()) {
+            Files.createDirectories(dir);
+            return;
+        }
+        if (Files.isDirectory(dir)) {
+            Files.setPosixFilePermissions(dir, DIR_PERMISSIONS);
+        } else {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(DIR_PERMISSIONS));
+        }
+    }
+
+    /**
+     * open a journal file, a created file is readable and writable only by the worker user
+     */
+    private static FileChannel openFile(Path path, OpenOption... options) throws IOException {
+        if (!isPosix()) {
+            return FileChannel.open(path, options);
+        }
+        FileAttribute<Set<PosixFilePermission>> permissions = PosixFilePermissions.asFileAttribute(FILE_PERMISSIONS);
+        Set<OpenOption> optionSet = new HashSet<>(Arrays.asList(options));
+        return FileChannel.open(path, optionSet, permissions);
+    }
+
+    private static boolean isPosix() {
+        return FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    }
+
+    private static void writeRecords(FileChannel out, List<TaskStateRecord> records) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (TaskStateRecord record : records) {
+            builder.append(JSONUtils.toJsonString(record)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private File getJournalFile() {
+        return new File(workerConfig.getJournalDir(), JOURNAL_FILE);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (!opened || closed) {
+            return;
+        }
+        closed = true;
+        // the writer stops after the records queued before
+        queue.add(CLOSE);
+        writer.shutdown();
+        try {
+            if (writer.awaitTermination(SYNC_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("close task journal failed", e);
+        }
+    }
+
+    /**
+     * record waiting to be written
+     */
+    private static class PendingRecord {
+
+        private final TaskStateRecord record;
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingRecord(TaskStateRecord record) {
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.journal;
+
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+
+/**
+ *  one line of the task journal, and the merged state of a task replayed from its lines
+ */
+public class TaskStateRecord {
+
+    /**
+     *  record type
+     */
+    public enum Type {
+        /**
+         * task accepted from a master, carries the master and the execution context
+         */
+        ACCEPT,
+        /**
+         * task process started
+         */
+        PROCESS,
+        /**
+         * yarn application ids found in the task output
+         */
+        APP_IDS,
+        /**
+         * task result, written before it is sent to the master
+         */
+        RESULT,
+        /**
+         * result delivered or task given up, the task is removed from the journal
+         */
+        DONE,
+        /**
+         * merged state of a task, written when the journal is compacted
+         */
+        SNAPSHOT
+    }
+
+    private Type type;
+
+    private int taskInstanceId;
+
+    /**
+     *  master address the task was accepted from
+     */
+    private String masterHost;
+
+    /**
+     *  opaque of the execute request, results are sent with it
+     */
+    private long opaque;
+
+    /**
+     *  task execution context json
+     */
+    private String taskExecutionContext;
+
+    private int processId;
+
+    /**
+     *  start time of the process in clock ticks after boot, tells a surviving process from a reused pid
+     */
+    private long processStartTime;
+
+    private String appIds;
+
+    private TaskExecuteResponseCommand result;
+
+    public TaskStateRecord() {
+    }
+
+    public TaskStateRecord(Type type, int taskInstanceId) {
+        this.type = type;
+        this.taskInstanceId = taskInstanceId;
+    }
+
+    /**
+     * apply a later record of the same task to this state
+     *
+     * @param record record
+     */
+    void merge(TaskStateRecord record) {
+        switch (record.getType()) {
+            case PROCESS:
+                this.processId = record.getProcessId();
+                this.processStartTime = record.getProcessStartTime();
+                break;
+            case APP_IDS:
+                this.appIds = record.getAppIds();
+                break;
+            case RESULT:
+                this.result = record.getResult();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * copy of this state as a snapshot record
+     *
+     * @return snapshot
+     */
+    TaskStateRecord snapshot() {
+        TaskStateRecord snapshot = new TaskStateRecord(Type.SNAPSHOT, taskInstanceId);
+        snapshot.setMasterHost(masterHost);
+        snapshot.setOpaque(opaque);
+        snapshot.setTaskExecutionContext(taskExecutionContext);
+        snapshot.setProcessId(processId);
+        snapshot.setProcessStartTime(processStartTime);
+        snapshot.setAppIds(appIds);
+        snapshot.setResult(result);
+        return snapshot;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public int getTaskInstanceId() {
+        return taskInstanceId;
+    }
+
+    public void setTaskInstanceId(int taskInstanceId) {
+        this.taskInstanceId = taskInstanceId;
+    }
+
+    public String getMasterHost() {
+        return masterHost;
+    }
+
+    public void setMasterHost(String masterHost) {
+        this.masterHost = masterHost;
+    }
+
+    public long getOpaque() {
+        return opaque;
+    }
+
+    public void setOpaque(long opaque) {
+        this.opaque = opaque;
+    }
+
+    public String getTaskExecutionContext() {
+        return taskExecutionContext;
+    }
+
+    public void setTaskExecutionContext(String taskExecutionContext) {
+        this.taskExecutionContext = taskExecutionContext;
+    }
+
+    public int getProcessId() {
+        return processId;
+    }
+
+    public void setProcessId(int processId) {
+        this.processId = processId;
+    }
+
+    public long getProcessStartTime() {
+        return processStartTime;
+    }
+
+    public void setProcessStartTime(long processStartTime) {
+        this.processStartTime = processStartTime;
+    }
+
+    public String getAppIds() {
+        return appIds;
+    }
+
+    public void setAppIds(String appIds) {
+        this.appIds = appIds;
+    }
+
+    public TaskExecuteResponseCommand getResult() {
+        return result;
+    }
+
+    public void setResult(TaskExecuteResponseCommand result) {
+        this.result = result;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStateRecord{" +
+                "type=" + type +
+                ", taskInstanceId=" + taskInstanceId +
+                ", masterHost='" + masterHost + '\'' +
+                ", processId=" + processId +
+                ", appIds='" + appIds + '\'' +
+                ", result=" + result +
+                '}';
+    }
+}
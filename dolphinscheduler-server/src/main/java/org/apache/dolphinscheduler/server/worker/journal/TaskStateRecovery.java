@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.journal;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.common.thread.Stopper;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils;
+import org.apache.dolphinscheduler.server.worker.cache.impl.TaskExecutionContextCacheManagerImpl;
+import org.apache.dolphinscheduler.server.worker.processor.NettyRemoteChannel;
+import org.apache.dolphinscheduler.server.worker.processor.TaskCallbackService;
+import org.apache.dolphinscheduler.server.worker.task.YarnApplicationStatusPoller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ *  recovers the unfinished tasks of the last run from the task journal when the worker starts.
+ *
+ *  results which were recorded but maybe not delivered are sent again. a task whose process survived
+ *  the restart, or which has yarn applications, is reattached: the worker waits for the process and the
+ *  applications and reports the result. the exit code of a surviving process is lost, so without yarn
+ *  applications the task is reported as failed. other tasks are left to the failover of the master.
+ */
+@Service
+public class TaskStateRecovery {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStateRecovery.class);
+
+    /**
+     * interval of checking whether a reattached process is still running
+     */
+    private static final long CHECK_INTERVAL_MILLIS = 5000L;
+
+    @Autowired
+    private TaskStateJournal taskStateJournal;
+
+    @Autowired
+    private TaskCallbackService taskCallbackService;
+
+    @Autowired
+    private TaskExecutionContextCacheManagerImpl taskExecutionContextCacheManager;
+
+    /**
+     * threads waiting for reattached tasks
+     */
+    private ExecutorService reattachExecutor;
+
+    /**
+     * recover the unfinished tasks, called before the worker registers itself,
+     * so masters reconciling with this worker see the recovered tasks
+     */
+    public void recover() {
+        if (!taskStateJournal.isEnabled()) {
+            return;
+        }
+        List<TaskStateRecord> states;
+        try {
+            states = taskStateJournal.open();
+        } catch (IOException e) {
+            logger.error("open task journal failed, the tasks of the last run are failed over by masters", e);
+            return;
+        }
+        for (TaskStateRecord state : states) {
+            try {
+                recover(state);
+            } catch (Exception e) {
+                logger.error("recover task {} failed", state.getTaskInstanceId(), e);
+                taskCallbackService.remove(state.getTaskInstanceId());
+                taskStateJournal.done(state.getTaskInstanceId());
+            }
+        }
+    }
+
+    private void recover(TaskStateRecord state) {
+        int taskInstanceId = state.getTaskInstanceId();
+        taskCallbackService.addRemoteChannel(taskInstanceId,
+                new NettyRemoteChannel(Host.of(state.getMasterHost()), state.getOpaque()));
+
+        if (state.getResult() != null) {
+            logger.info("send result of task {} recorded before restart", taskInstanceId);
+            taskCallbackService.sendResult(taskInstanceId, state.getResult());
+            return;
+        }
+
+        boolean processAlive = isProcessAlive(state);
+        if (!processAlive && StringUtils.isEmpty(state.getAppIds())) {
+            logger.info("process of task {} did not survive the restart, leave it to master failover", taskInstanceId);
+            taskCallbackService.remove(taskInstanceId);
+            taskStateJournal.done(taskInstanceId);
+            return;
+        }
+
+        TaskExecutionContext taskExecutionContext = JSONUtils.parseObject(state.getTaskExecutionContext(), TaskExecutionContext.class);
+        taskExecutionContext.setProcessId(state.getProcessId());
+        taskExecutionContext.setAppIds(state.getAppIds());
+        // cached so that the task can be killed
+        taskExecutionContextCacheManager.cacheTaskExecutionContext(taskExecutionContext);
+
+        logger.info("reattach task {}, process {} alive : {}, app ids : {}",
+                taskInstanceId, state.getProcessId(), processAlive, state.getAppIds());
+        getReattachExecutor().execute(() -> awaitReattached(state, processAlive));
+    }
+
+    /**
+     * wait until the process and the yarn applications of a reattached task finished and send its result
+     */
+    private void awaitReattached(TaskStateRecord state, boolean processAlive) {
+        int taskInstanceId = state.getTaskInstanceId();
+        ExecutionStatus status;
+        try {
+            while (processAlive && Stopper.isRunning() && isProcessAlive(state)) {
+                ThreadUtils.sleep(CHECK_INTERVAL_MILLIS);
+            }
+            if (StringUtils.isNotEmpty(state.getAppIds())) {
+                status = awaitApplications(state.getAppIds().split(Constants.COMMA));
+            } else {
+                logger.warn("process {} of reattached task {} exited with an unknown exit code", state.getProcessId(), taskInstanceId);
+                status = ExecutionStatus.FAILURE;
+            }
+        } catch (Exception e) {
+            logger.error("wait for reattached task {} failed", taskInstanceId, e);
+            status = ExecutionStatus.FAILURE;
+        }
+        if (!Stopper.isRunning()) {
+            return;
+        }
+        if (taskExecutionContextCacheManager.getByTaskInstanceId(taskInstanceId) == null) {
+            // killed meanwhile, the kill response was the result
+            return;
+        }
+        taskExecutionContextCacheManager.removeByTaskInstanceId(taskInstanceId);
+
+        TaskExecuteResponseCommand responseCommand = new TaskExecuteResponseCommand(taskInstanceId);
+        responseCommand.setStatus(status.getCode());
+        responseCommand.setEndTime(new Date());
+        responseCommand.setProcessId(state.getProcessId());
+        responseCommand.setAppIds(state.getAppIds());
+        logger.info("reattached task {} final status : {}", taskInstanceId, status);
+        taskCallbackService.sendResult(taskInstanceId, responseCommand);
+    }
+
+    private ExecutionStatus awaitApplications(String[] appIds) throws Exception {
+        for (String appId : appIds) {
+            CompletableFuture<ExecutionStatus> future = YarnApplicationStatusPoller.getInstance().watch(appId);
+            while (true) {
+                if (!Stopper.isRunning()) {
+                    return ExecutionStatus.FAILURE;
+                }
+                try {
+                    ExecutionStatus applicationStatus = future.get(Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+                    logger.info("appId:{}, final state:{}", appId, applicationStatus.name());
+                    if (applicationStatus != ExecutionStatus.SUCCESS) {
+                        return ExecutionStatus.FAILURE;
+                    }
+                    break;
+                } catch (TimeoutException e) {
+                    // not finished yet
+                }
+            }
+        }
+        return ExecutionStatus.SUCCESS;
+    }
+
+    /**
+     * whether the process of the task is still running, a reused pid has another start time
+     */
+    private static boolean isProcessAlive(TaskStateRecord state) {
+        if (state.getProcessId() <= 0) {
+            return false;
+        }
+        ProcfsUtils.ProcStat stat = ProcfsUtils.readStat(state.getProcessId());
+        return stat != null
+                && stat.getState() != 'Z'
+                && (state.getProcessStartTime() == 0 || stat.getStartTime() == state.getProcessStartTime());
+    }
+
+    private synchronized ExecutorService getReattachExecutor() {
+        if (reattachExecutor == null) {
+            reattachExecutor = ThreadUtils.newDaemonCachedThreadPool("Worker-Task-Reattach");
+        }
+        return reattachExecutor;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (reattachExecutor != null) {
+            reattachExecutor.shutdownNow();
+        }
+    }
+}
@@ -50,6 +50,17 @@ public class NettyRemoteChannel {
         this.opaque = opaque;
     }
 
+    /**
+     *  channel of a task recovered after a restart, it is connected to the master on first use
+     * @param host master host
+     * @param opaque request unique identification
+     */
+    public NettyRemoteChannel(Host host, long opaque) {
+        this.channel = null;
+        this.host = host;
+        this.opaque = opaque;
+    }
+
     public Channel getChannel() {
         return channel;
     }
@@ -63,7 +74,7 @@ public class NettyRemoteChannel {
     }
 
     public boolean isActive(){
-        return this.channel.isActive();
+        return this.channel != null && this.channel.isActive();
     }
 
     public ChannelFuture writeAndFlush(Command command){
@@ -71,6 +82,8 @@ public class NettyRemoteChannel {
     }
 
     public void close(){
-        this.channel.close();
+        if (this.channel != null) {
+            this.channel.close();
+        }
     }
 }
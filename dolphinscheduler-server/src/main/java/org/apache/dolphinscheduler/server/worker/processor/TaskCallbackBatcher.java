@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.processor;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.remote.command.TaskCallbackBatchCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  collects the task acks and results sent to each master for a short window and sends them as one
+ *  batch command. the channel of a batch is resolved once, so an unreachable master is looked up
+ *  once per batch instead of once per task, and a failed batch is retried as a whole with backoff.
+ */
+class TaskCallbackBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCallbackBatcher.class);
+
+    private final TaskCallbackService taskCallbackService;
+
+    private final long windowMillis;
+
+    private final int maxSize;
+
+    private final ScheduledExecutorService executor = ThreadUtils.newDaemonThreadScheduledExecutor("Worker-Callback-Batcher", 1);
+
+    /**
+     * master host -> pending batch
+     */
+    private final ConcurrentHashMap<Host, Batch> batches = new ConcurrentHashMap<>();
+
+    TaskCallbackBatcher(TaskCallbackService taskCallbackService, long windowMillis, int maxSize) {
+        this.taskCallbackService = taskCallbackService;
+        this.windowMillis = windowMillis;
+        this.maxSize = maxSize;
+    }
+
+    void addAck(Host host, TaskExecuteAckCommand ackCommand) {
+        add(host, new Entry(ackCommand.getTaskInstanceId(), ackCommand, null));
+    }
+
+    void addResponse(Host host, TaskExecuteResponseCommand responseCommand) {
+        add(host, new Entry(responseCommand.getTaskInstanceId(), null, responseCommand));
+    }
+
+    private void add(Host host, Entry entry) {
+        Batch batch = batches.computeIfAbsent(host, Batch::new);
+        synchronized (batch) {
+            batch.entries.add(entry);
+            if (batch.entries.size() >= maxSize) {
+                executor.execute(() -> flush(batch));
+            } else {
+                schedule(batch, windowMillis);
+            }
+        }
+    }
+
+    /**
+     * schedule a flush unless one is scheduled already, the caller holds the batch lock
+     */
+    private void schedule(Batch batch, long delayMillis) {
+        if (!batch.scheduled) {
+            batch.scheduled = true;
+            executor.schedule(() -> flush(batch), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(Batch batch) {
+        List<Entry> entries;
+        synchronized (batch) {
+            batch.scheduled = false;
+            // a batch in flight reschedules the flush when it completes, which keeps the order of the callbacks
+            if (batch.entries.isEmpty() || batch.inFlight) {
+                return;
+            }
+            List<Entry> head = batch.entries.subList(0, Math.min(maxSize, batch.entries.size()));
+            entries = new ArrayList<>(head);
+            head.clear();
+            batch.inFlight = true;
+        }
+        try {
+            NettyRemoteChannel remoteChannel = taskCallbackService.getRemoteChannel(entries.get(0).taskInstanceId);
+            TaskCallbackBatchCommand batchCommand = new TaskCallbackBatchCommand();
+            for (Entry entry : entries) {
+                taskCallbackService.rebindRemoteChannel(entry.taskInstanceId, remoteChannel);
+                if (entry.ackCommand != null) {
+                    batchCommand.getAcks().add(entry.ackCommand);
+                } else {
+                    batchCommand.getResponses().add(entry.responseCommand);
+                }
+            }
+            remoteChannel.writeAndFlush(batchCommand.convert2Command())
+                    .addListener(future -> complete(batch, entries, future.isSuccess(), future.cause()));
+        } catch (Exception e) {
+            complete(batch, entries, false, e);
+        }
+    }
+
+    private void complete(Batch batch, List<Entry> entries, boolean success, Throwable cause) {
+        if (success) {
+            for (Entry entry : entries) {
+                if (entry.responseCommand != null) {
+                    taskCallbackService.delivered(entry.taskInstanceId);
+                }
+            }
+        } else {
+            logger.warn("send {} task callbacks to master {} failed, retry later", entries.size(), batch.host, cause);
+        }
+        synchronized (batch) {
+            batch.inFlight = false;
+            if (success) {
+                batch.retries = 0;
+                if (!batch.entries.isEmpty()) {
+                    // these callbacks already waited for the batch in flight
+                    schedule(batch, 0);
+                }
+            } else {
+                batch.entries.addAll(0, entries);
+                schedule(batch, taskCallbackService.pause(batch.retries++));
+            }
+        }
+    }
+
+    /**
+     * send the pending callbacks once and stop
+     */
+    void close() {
+        for (Batch batch : batches.values()) {
+            executor.execute(() -> flush(batch));
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * callbacks waiting to be sent to one master
+     */
+    private static class Batch {
+
+        private final Host host;
+
+        private final List<Entry> entries = new ArrayList<>();
+
+        private boolean scheduled;
+
+        private boolean inFlight;
+
+        private int retries;
+
+        Batch(Host host) {
+            this.host = host;
+        }
+    }
+
+    private static class Entry {
+
+        private final int taskInstanceId;
+
+        private final TaskExecuteAckCommand ackCommand;
+
+        private final TaskExecuteResponseCommand responseCommand;
+
+        Entry(int taskInstanceId, TaskExecuteAckCommand ackCommand, TaskExecuteResponseCommand responseCommand) {
+            this.taskInstanceId = taskInstanceId;
+            this.ackCommand = ackCommand;
+            this.responseCommand = responseCommand;
+        }
+    }
+}
@@ -25,13 +25,19 @@ import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.registry.ZookeeperRegistryCenter;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.journal.TaskStateJournal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import static org.apache.dolphinscheduler.common.Constants.SLEEP_TIME_MILLIS;
@@ -56,6 +62,22 @@ public class TaskCallbackService {
     @Autowired
     private ZookeeperRegistryCenter zookeeperRegistryCenter;
 
+    /**
+     * worker config
+     */
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    /**
+     * task state journal
+     */
+    @Autowired
+    private TaskStateJournal taskStateJournal;
+
+    /**
+     * callback batcher, created with the first batched callback
+     */
+    private TaskCallbackBatcher taskCallbackBatcher;
 
     /**
      * netty remoting client
@@ -82,7 +104,7 @@ public class TaskCallbackService {
      * @param taskInstanceId taskInstanceId
      * @return callback channel
      */
-    private NettyRemoteChannel getRemoteChannel(int taskInstanceId){
+    NettyRemoteChannel getRemoteChannel(int taskInstanceId){
         NettyRemoteChannel nettyRemoteChannel = REMOTE_CHANNELS.get(taskInstanceId);
         if(nettyRemoteChannel == null){
             throw new IllegalArgumentException("nettyRemoteChannel is empty, should call addRemoteChannel first");
@@ -100,7 +122,7 @@ public class TaskCallbackService {
         Set<String> masterNodes = null;
         int ntries = 0;
         while (Stopper.isRunning()) {
-            masterNodes = zookeeperRegistryCenter.getMasterNodesDirectly();
+            masterNodes = zookeeperRegistryCenter.getMasterNodes();
             if (CollectionUtils.isEmpty(masterNodes)) {
                 logger.info("try {} times but not find any master for task : {}.",
                         ntries + 1,
@@ -138,6 +160,18 @@ public class TaskCallbackService {
         return remoteChannel;
     }
 
+    /**
+     *  point an inactive callback channel of the task to the given channel, keeping its opaque
+     * @param taskInstanceId taskInstanceId
+     * @param remoteChannel active channel
+     */
+    void rebindRemoteChannel(int taskInstanceId, NettyRemoteChannel remoteChannel){
+        NettyRemoteChannel nettyRemoteChannel = REMOTE_CHANNELS.get(taskInstanceId);
+        if(nettyRemoteChannel != null && !nettyRemoteChannel.isActive()){
+            getRemoteChannel(remoteChannel.getChannel(), nettyRemoteChannel.getOpaque(), taskInstanceId);
+        }
+    }
+
     /**
      *  remove callback channels
      * @param taskInstanceId taskInstanceId
@@ -146,6 +180,15 @@ public class TaskCallbackService {
         REMOTE_CHANNELS.remove(taskInstanceId);
     }
 
+    /**
+     *  the result of the task is delivered, remove its callback channel and its journal state
+     * @param taskInstanceId taskInstanceId
+     */
+    void delivered(int taskInstanceId){
+        remove(taskInstanceId);
+        taskStateJournal.done(taskInstanceId);
+    }
+
     /**
      *  send ack
      * @param taskInstanceId taskInstanceId
@@ -169,10 +212,62 @@ public class TaskCallbackService {
             @Override
             public void operationComplete(ChannelFuture future) throws Exception {
                 if(future.isSuccess()){
-                    remove(taskInstanceId);
+                    delivered(taskInstanceId);
                     return;
                 }
             }
         });
     }
+
+    /**
+     *  send ack, batched with other callbacks to the same master when worker.callback.batch.enable is set
+     * @param taskInstanceId taskInstanceId
+     * @param ackCommand ack command
+     */
+    public void sendAck(int taskInstanceId, TaskExecuteAckCommand ackCommand){
+        if(workerConfig.isCallbackBatchEnable()){
+            getTaskCallbackBatcher().addAck(getRemoteHost(taskInstanceId), ackCommand);
+            return;
+        }
+        sendAck(taskInstanceId, ackCommand.convert2Command());
+    }
+
+    /**
+     *  send result, batched with other callbacks to the same master when worker.callback.batch.enable is set
+     * @param taskInstanceId taskInstanceId
+     * @param responseCommand response command
+     */
+    public void sendResult(int taskInstanceId, TaskExecuteResponseCommand responseCommand){
+        // recorded first, a worker restarted before the result was delivered sends it again
+        taskStateJournal.finished(responseCommand);
+        if(workerConfig.isCallbackBatchEnable()){
+            getTaskCallbackBatcher().addResponse(getRemoteHost(taskInstanceId), responseCommand);
+            return;
+        }
+        sendResult(taskInstanceId, responseCommand.convert2Command());
+    }
+
+    private Host getRemoteHost(int taskInstanceId){
+        NettyRemoteChannel nettyRemoteChannel = REMOTE_CHANNELS.get(taskInstanceId);
+        if(nettyRemoteChannel == null){
+            throw new IllegalArgumentException("nettyRemoteChannel is empty, should call addRemoteChannel first");
+        }
+        return nettyRemoteChannel.getHost();
+    }
+
+    private synchronized TaskCallbackBatcher getTaskCallbackBatcher(){
+        if(taskCallbackBatcher == null){
+            taskCallbackBatcher = new TaskCallbackBatcher(this,
+                    workerConfig.getCallbackBatchWindowMillis(),
+                    workerConfig.getCallbackBatchMaxSize());
+        }
+        return taskCallbackBatcher;
+    }
+
+    @PreDestroy
+    public synchronized void close(){
+        if(taskCallbackBatcher != null){
+            taskCallbackBatcher.close();
+        }
+    }
 }
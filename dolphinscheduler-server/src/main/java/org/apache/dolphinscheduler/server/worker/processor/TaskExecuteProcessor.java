@@ -30,12 +30,15 @@ import org.apache.dolphinscheduler.common.utils.*;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRejectCommand;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
 import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
 import org.apache.dolphinscheduler.server.log.TaskLogDiscriminator;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.journal.TaskStateJournal;
 import org.apache.dolphinscheduler.server.worker.runner.TaskExecuteThread;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.slf4j.Logger;
@@ -44,7 +47,8 @@ import org.slf4j.LoggerFactory;
 import java.util.Date;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  *  worker request processor
@@ -54,9 +58,9 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
     private final Logger logger = LoggerFactory.getLogger(TaskExecuteProcessor.class);
 
     /**
-     *  thread executor service
+     *  thread executor service, waiting tasks are ordered by task priority
      */
-    private final ExecutorService workerExecService;
+    private final ThreadPoolExecutor workerExecService;
 
     /**
      *  worker config
@@ -68,10 +72,17 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
      */
     private final TaskCallbackService taskCallbackService;
 
+    /**
+     *  task state journal
+     */
+    private final TaskStateJournal taskStateJournal;
+
     public TaskExecuteProcessor(){
         this.taskCallbackService = SpringApplicationContext.getBean(TaskCallbackService.class);
+        this.taskStateJournal = SpringApplicationContext.getBean(TaskStateJournal.class);
         this.workerConfig = SpringApplicationContext.getBean(WorkerConfig.class);
-        this.workerExecService = ThreadUtils.newDaemonFixedThreadExecutor("Worker-Execute-Thread", workerConfig.getWorkerExecThreads());
+        this.workerExecService = ThreadUtils.newDaemonFixedPriorityThreadPool("Worker-Execute-Thread",
+                workerConfig.getWorkerExecThreads(), workerConfig.getWorkerExecQueueSize());
     }
 
     @Override
@@ -105,6 +116,39 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
                 taskExecutionContext.getProcessInstanceId(),
                 taskExecutionContext.getTaskInstanceId()));
 
+        // the bounded execute queue takes or refuses the task atomically, the task waits until it is acknowledged.
+        // execute rather than submit, the priority queue orders TaskExecuteThread itself
+        TaskExecuteThread taskExecuteThread = new TaskExecuteThread(taskExecutionContext, taskCallbackService, taskLogger);
+        try {
+            workerExecService.execute(taskExecuteThread);
+        } catch (RejectedExecutionException e) {
+            // reject the task when the execute queue is full, so that master dispatches it to another worker
+            logger.warn("worker execute queue is full, size : {}, reject task : {}",
+                    workerExecService.getQueue().size(), taskExecutionContext.getTaskInstanceId());
+            TaskExecuteRejectCommand rejectCommand = new TaskExecuteRejectCommand(taskExecutionContext.getTaskInstanceId(),
+                    taskExecutionContext.getHost(), contextJson);
+            channel.writeAndFlush(rejectCommand.convert2Command());
+            return;
+        }
+
+        boolean accepted = false;
+        try {
+            accepted = accept(channel, command, taskExecutionContext, taskLogger);
+        } finally {
+            taskExecuteThread.admit(accepted);
+        }
+    }
+
+    /**
+     * prepare the execute path and acknowledge the task
+     * @param channel channel
+     * @param command command
+     * @param taskExecutionContext taskExecutionContext
+     * @param taskLogger task logger
+     * @return true if the ack was sent
+     */
+    private boolean accept(Channel channel, Command command, TaskExecutionContext taskExecutionContext, Logger taskLogger) {
+
         // local execute path
         String execLocalPath = getExecLocalPath(taskExecutionContext);
         logger.info("task instance  local execute path : {} ", execLocalPath);
@@ -123,17 +167,20 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
                 new NettyRemoteChannel(channel, command.getOpaque()));
 
         // tell master that task is in executing
-        final Command ackCommand = buildAckCommand(taskExecutionContext).convert2Command();
+        final TaskExecuteAckCommand ackCommand = buildAckCommand(taskExecutionContext);
+
+        // recorded before the ack, so a restarted worker knows every task a master sees running on it
+        taskStateJournal.accepted(taskExecutionContext, ChannelUtils.toAddress(channel).getAddress(), command.getOpaque());
 
         try {
             RetryerUtils.retryCall(() -> {
                 taskCallbackService.sendAck(taskExecutionContext.getTaskInstanceId(),ackCommand);
                 return Boolean.TRUE;
             });
-            // submit task
-            workerExecService.submit(new TaskExecuteThread(taskExecutionContext, taskCallbackService, taskLogger));
+            return true;
         } catch (ExecutionException | RetryException e) {
             logger.error(e.getMessage(), e);
+            return false;
         }
     }
 
@@ -21,7 +21,6 @@ import io.netty.channel.Channel;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.common.utils.LoggerUtils;
-import org.apache.dolphinscheduler.common.utils.OSUtils;
 import org.apache.dolphinscheduler.common.utils.Preconditions;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.remote.command.Command;
@@ -42,6 +41,7 @@ import org.apache.dolphinscheduler.service.log.LogClientService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -113,17 +113,19 @@ public class TaskKillProcessor implements NettyRequestProcessor {
                 return Pair.of(false, appIds);
             }
 
-            String cmd = String.format("sudo kill -9 %s", ProcessUtils.getPidsStr(taskExecutionContext.getProcessId()));
-
-            logger.info("process id:{}, cmd:{}", taskExecutionContext.getProcessId(), cmd);
-
-            OSUtils.exeCmd(cmd);
-
-            // find log and kill yarn job
-            appIds = killYarnJob(Host.of(taskExecutionContext.getHost()).getIp(),
-                    taskExecutionContext.getLogPath(),
-                    taskExecutionContext.getExecutePath(),
-                    taskExecutionContext.getTenantCode());
+            ProcessUtils.killProcessTree(taskExecutionContext.getProcessId());
+
+            if (StringUtils.isNotEmpty(taskExecutionContext.getAppIds())) {
+                // app ids collected from the output of the running task
+                appIds = Arrays.asList(taskExecutionContext.getAppIds().split(Constants.COMMA));
+                ProcessUtils.cancelApplication(appIds, logger, taskExecutionContext.getTenantCode(), taskExecutionContext.getExecutePath());
+            } else {
+                // find log and kill yarn job
+                appIds = killYarnJob(Host.of(taskExecutionContext.getHost()).getIp(),
+                        taskExecutionContext.getLogPath(),
+                        taskExecutionContext.getExecutePath(),
+                        taskExecutionContext.getTenantCode());
+            }
 
             return Pair.of(true, appIds);
         } catch (Exception e) {
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.processor;
+
+import io.netty.channel.Channel;
+import org.apache.dolphinscheduler.common.utils.Preconditions;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskReconcileRequestCommand;
+import org.apache.dolphinscheduler.remote.command.TaskReconcileResponseCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
+import org.apache.dolphinscheduler.server.worker.journal.TaskStateJournal;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  task reconcile processor, tells a master which of its failover candidates this worker still owns
+ */
+public class TaskReconcileProcessor implements NettyRequestProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskReconcileProcessor.class);
+
+    /**
+     *  task state journal
+     */
+    private final TaskStateJournal taskStateJournal;
+
+    public TaskReconcileProcessor(){
+        this.taskStateJournal = SpringApplicationContext.getBean(TaskStateJournal.class);
+    }
+
+    @Override
+    public void process(Channel channel, Command command) {
+        Preconditions.checkArgument(CommandType.TASK_RECONCILE_REQUEST == command.getType(),
+                String.format("invalid command type : %s", command.getType()));
+
+        TaskReconcileRequestCommand reconcileCommand = JsonSerializer.deserialize(command.getBody(), TaskReconcileRequestCommand.class);
+        logger.info("received command : {}", reconcileCommand);
+
+        List<Integer> recoveredTaskInstanceIds = new ArrayList<>();
+        for (Integer taskInstanceId : reconcileCommand.getTaskInstanceIds()) {
+            if (taskStateJournal.contains(taskInstanceId)) {
+                recoveredTaskInstanceIds.add(taskInstanceId);
+            }
+        }
+        TaskReconcileResponseCommand responseCommand = new TaskReconcileResponseCommand(recoveredTaskInstanceIds);
+        logger.info("reconcile response : {}", responseCommand);
+        channel.writeAndFlush(responseCommand.convert2Command(command.getOpaque()));
+    }
+}
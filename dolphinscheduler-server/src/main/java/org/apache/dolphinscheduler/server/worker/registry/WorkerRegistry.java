@@ -90,6 +90,14 @@ public class WorkerRegistry {
         String address = NetUtils.getHost();
         String localNodePath = getWorkerPath();
         zookeeperRegistryCenter.getZookeeperCachedOperator().persistEphemeral(localNodePath, "");
+        HeartBeatTask heartBeatTask = new HeartBeatTask(startTime,
+                workerConfig.getWorkerReservedMemory(),
+                workerConfig.getWorkerMaxCpuloadAvg(),
+                workerConfig.getWorkerHeartbeatChangeThreshold(),
+                workerConfig.getWorkerHeartbeatMaxInterval(),
+                workerConfig.isWorkerHeartbeatCompact(),
+                getWorkerPath(),
+                zookeeperRegistryCenter);
         zookeeperRegistryCenter.getZookeeperCachedOperator().getZkClient().getConnectionStateListenable().addListener(new ConnectionStateListener() {
             @Override
             public void stateChanged(CuratorFramework client, ConnectionState newState) {
@@ -98,6 +106,7 @@ public class WorkerRegistry {
                 } else if(newState == ConnectionState.RECONNECTED){
                     logger.info("worker : {} reconnected to zookeeper", address);
                     zookeeperRegistryCenter.getZookeeperCachedOperator().persistEphemeral(localNodePath, "");
+                    heartBeatTask.reset();
                 } else if(newState == ConnectionState.SUSPENDED){
                     logger.warn("worker : {} connection SUSPENDED ", address);
                 }
@@ -105,11 +114,6 @@ public class WorkerRegistry {
         });
         int workerHeartbeatInterval = workerConfig.getWorkerHeartbeatInterval();
 
-        HeartBeatTask heartBeatTask = new HeartBeatTask(startTime,
-                workerConfig.getWorkerReservedMemory(),
-                workerConfig.getWorkerMaxCpuloadAvg(),
-                getWorkerPath(),
-                zookeeperRegistryCenter);
         this.heartBeatExecutor.scheduleAtFixedRate(heartBeatTask, workerHeartbeatInterval, workerHeartbeatInterval, TimeUnit.SECONDS);
         logger.info("worker node : {} registry to ZK successfully with heartBeatInterval : {}s", address, workerHeartbeatInterval);
 
@@ -19,8 +19,11 @@ package org.apache.dolphinscheduler.server.worker.runner;
 import java.io.File;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import org.apache.dolphinscheduler.common.Constants;
@@ -35,11 +38,16 @@ import org.apache.dolphinscheduler.common.utils.HadoopUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.entity.TaskPriority;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.cache.TaskExecutionContextCacheManager;
 import org.apache.dolphinscheduler.server.worker.cache.impl.TaskExecutionContextCacheManagerImpl;
 import org.apache.dolphinscheduler.server.worker.processor.TaskCallbackService;
 import org.apache.dolphinscheduler.server.worker.task.AbstractTask;
+import org.apache.dolphinscheduler.server.worker.task.TaskLogArchiver;
 import org.apache.dolphinscheduler.server.worker.task.TaskManager;
+import org.apache.dolphinscheduler.server.worker.task.TaskResourceSampler;
+import org.apache.dolphinscheduler.server.worker.task.TaskResourceUsage;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,7 +56,7 @@ import org.slf4j.LoggerFactory;
 /**
  *  task scheduler thread
  */
-public class TaskExecuteThread implements Runnable {
+public class TaskExecuteThread implements Runnable, Comparable<TaskExecuteThread> {
 
     /**
      * logger
@@ -75,11 +83,31 @@ public class TaskExecuteThread implements Runnable {
      */
     private TaskExecutionContextCacheManager taskExecutionContextCacheManager;
 
+    /**
+     * task resource sampler
+     */
+    private TaskResourceSampler taskResourceSampler;
+
+    /**
+     * task log archiver
+     */
+    private TaskLogArchiver taskLogArchiver;
+
     /**
      * task logger
      */
     private Logger taskLogger;
 
+    /**
+     * task priority, orders tasks waiting in the worker execute queue
+     */
+    private final TaskPriority taskPriority;
+
+    /**
+     * completed when the master was told that the task is accepted, the task does not start before
+     */
+    private final CompletableFuture<Boolean> admitted = new CompletableFuture<>();
+
     /**
      *  constructor
      * @param taskExecutionContext taskExecutionContext
@@ -91,11 +119,42 @@ public class TaskExecuteThread implements Runnable {
         this.taskExecutionContext = taskExecutionContext;
         this.taskCallbackService = taskCallbackService;
         this.taskExecutionContextCacheManager = SpringApplicationContext.getBean(TaskExecutionContextCacheManagerImpl.class);
+        this.taskResourceSampler = SpringApplicationContext.getBean(TaskResourceSampler.class);
+        this.taskLogArchiver = SpringApplicationContext.getBean(TaskLogArchiver.class);
         this.taskLogger = taskLogger;
+        this.taskPriority = new TaskPriority(taskExecutionContext.getProcessInstancePriority(),
+                taskExecutionContext.getProcessInstanceId(),
+                taskExecutionContext.getTaskInstancePriority(),
+                taskExecutionContext.getTaskInstanceId(),
+                taskExecutionContext.getWorkerGroup());
+    }
+
+    @Override
+    public int compareTo(TaskExecuteThread other) {
+        return this.taskPriority.compareTo(other.taskPriority);
+    }
+
+    /**
+     * the task is queued before it is acknowledged, let it start or drop it
+     * @param accepted whether the master was told that the task is accepted
+     */
+    public void admit(boolean accepted) {
+        admitted.complete(accepted);
     }
 
     @Override
     public void run() {
+        try {
+            if (!admitted.get()) {
+                logger.warn("task : {} was not acknowledged, skip it", taskExecutionContext.getTaskInstanceId());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            return;
+        }
 
         TaskExecuteResponseCommand responseCommand = new TaskExecuteResponseCommand(taskExecutionContext.getTaskInstanceId());
         try {
@@ -147,14 +206,44 @@ public class TaskExecuteThread implements Runnable {
         } finally {
             try {
                 taskExecutionContextCacheManager.removeByTaskInstanceId(taskExecutionContext.getTaskInstanceId());
-                taskCallbackService.sendResult(taskExecutionContext.getTaskInstanceId(), responseCommand.convert2Command());
+                setResourceUsage(responseCommand);
+                taskLogArchiver.archiveLater(taskExecutionContext.getLogPath());
+                taskCallbackService.sendResult(taskExecutionContext.getTaskInstanceId(), responseCommand);
             }catch (Exception e){
                 ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
-                taskCallbackService.sendResult(taskExecutionContext.getTaskInstanceId(), responseCommand.convert2Command());
+                taskCallbackService.sendResult(taskExecutionContext.getTaskInstanceId(), responseCommand);
             }
         }
     }
 
+    /**
+     * record the sampled resource usage of the task process tree
+     * @param responseCommand responseCommand
+     */
+    private void setResourceUsage(TaskExecuteResponseCommand responseCommand) {
+        TaskResourceUsage usage = taskResourceSampler.stop(taskExecutionContext.getTaskInstanceId());
+        if (usage != null) {
+            responseCommand.setPeakCpuUsage(usage.getPeakCpuUsage());
+            responseCommand.setAvgCpuUsage(usage.getAvgCpuUsage());
+            responseCommand.setPeakMemory(usage.getPeakMemory());
+            responseCommand.setAvgMemory(usage.getAvgMemory());
+        }
+    }
+
+    /**
+     * kill the failed task
+     * @param responseCommand responseCommand
+     * @param e cause
+     */
+    private void failed(TaskExecuteResponseCommand responseCommand, Throwable e) {
+        logger.error("task scheduler failure", e);
+        kill();
+        responseCommand.setStatus(ExecutionStatus.FAILURE.getCode());
+        responseCommand.setEndTime(new Date());
+        responseCommand.setProcessId(task.getProcessId());
+        responseCommand.setAppIds(task.getAppIds());
+    }
+
     /**
      * get global paras map
      * @return
@@ -234,6 +323,21 @@ public class TaskExecuteThread implements Runnable {
             return;
         }
 
+        ResourceCacheManager resourceCacheManager = SpringApplicationContext.getBean(ResourceCacheManager.class);
+        if (resourceCacheManager.isEnabled()) {
+            Map<String, File> resources = new LinkedHashMap<>(projectRes.size());
+            for (String resource : projectRes) {
+                resources.put(HadoopUtils.getHdfsResourceFileName(tenantCode, resource), new File(execLocalPath, resource));
+            }
+            try {
+                resourceCacheManager.getResourceFileCache().linkAll(resources, tenantCode);
+            } catch (Exception e) {
+                logger.error(e.getMessage(), e);
+                throw new RuntimeException(e.getMessage());
+            }
+            return;
+        }
+
         for (String resource : projectRes) {
             File resFile = new File(execLocalPath, resource);
             if (!resFile.exists()) {
@@ -22,27 +22,36 @@ import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.common.thread.Stopper;
 import org.apache.dolphinscheduler.common.thread.ThreadUtils;
-import org.apache.dolphinscheduler.common.utils.HadoopUtils;
 import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.common.utils.OSUtils;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.common.utils.process.ProcessBuilderForWin32;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.utils.ProcessTreeTracker;
 import org.apache.dolphinscheduler.server.utils.ProcessUtils;
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils;
 import org.apache.dolphinscheduler.server.worker.cache.TaskExecutionContextCacheManager;
 import org.apache.dolphinscheduler.server.worker.cache.impl.TaskExecutionContextCacheManagerImpl;
+import org.apache.dolphinscheduler.server.worker.journal.TaskStateJournal;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.slf4j.Logger;
 
 import java.io.*;
 import java.lang.reflect.Field;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -59,11 +68,36 @@ public abstract class AbstractCommandExecutor {
      */
     protected static final Pattern APPLICATION_REGEX = Pattern.compile(Constants.APPLICATION_REGEX);
 
+    /**
+     * prefix of yarn application ids, checked before running the regex
+     */
+    private static final String APPLICATION_PREFIX = "application_";
+
+    /**
+     * max time to wait for the remaining process output after the process exited
+     */
+    private static final long OUTPUT_PARSE_WAIT_MILLIS = 10000L;
+
     /**
      *  process
      */
     private Process process;
 
+    /**
+     *  yarn application ids found in the process output, in order of appearance
+     */
+    private final Set<String> appIds = Collections.synchronizedSet(new LinkedHashSet<>());
+
+    /**
+     *  process output parse executor
+     */
+    private ExecutorService parseProcessOutputExecutorService;
+
+    /**
+     *  pid field of the platform process class, resolved once
+     */
+    private static volatile Field pidField;
+
     /**
      *  log handler
      */
@@ -89,6 +123,16 @@ public abstract class AbstractCommandExecutor {
      */
     private TaskExecutionContextCacheManager taskExecutionContextCacheManager;
 
+    /**
+     * task state journal
+     */
+    private TaskStateJournal taskStateJournal;
+
+    /**
+     * task resource sampler
+     */
+    private TaskResourceSampler taskResourceSampler;
+
     public AbstractCommandExecutor(Consumer<List<String>> logHandler,
                                    TaskExecutionContext taskExecutionContext ,
                                    Logger logger){
@@ -97,6 +141,8 @@ public abstract class AbstractCommandExecutor {
         this.logger = logger;
         this.logBuffer = Collections.synchronizedList(new ArrayList<>());
         this.taskExecutionContextCacheManager = SpringApplicationContext.getBean(TaskExecutionContextCacheManagerImpl.class);
+        this.taskStateJournal = SpringApplicationContext.getBean(TaskStateJournal.class);
+        this.taskResourceSampler = SpringApplicationContext.getBean(TaskResourceSampler.class);
     }
 
     /**
@@ -129,13 +175,6 @@ public abstract class AbstractCommandExecutor {
             processBuilder.command(command);
             process = processBuilder.start();
         } else {
-            //init process builder
-            ProcessBuilder processBuilder = new ProcessBuilder();
-            // setting up a working directory
-            processBuilder.directory(new File(taskExecutionContext.getExecutePath()));
-            // merge error information to standard output stream
-            processBuilder.redirectErrorStream(true);
-
             // setting up user to run commands
             command.add("sudo");
             command.add("-u");
@@ -144,9 +183,21 @@ public abstract class AbstractCommandExecutor {
             command.addAll(commandOptions());
             command.add(commandFile);
 
-            // setting commands
-            processBuilder.command(command);
-            process = processBuilder.start();
+            Process warmProcess = startInWarmProcess(commandFile);
+            if (warmProcess != null) {
+                process = warmProcess;
+            } else {
+                //init process builder
+                ProcessBuilder processBuilder = new ProcessBuilder();
+                // setting up a working directory
+                processBuilder.directory(new File(taskExecutionContext.getExecutePath()));
+                // merge error information to standard output stream
+                processBuilder.redirectErrorStream(true);
+
+                // setting commands
+                processBuilder.command(command);
+                process = processBuilder.start();
+            }
         }
 
         // print command
@@ -188,39 +239,54 @@ public abstract class AbstractCommandExecutor {
         // cache processId
         taskExecutionContext.setProcessId(processId);
         taskExecutionContextCacheManager.cacheTaskExecutionContext(taskExecutionContext);
+        taskStateJournal.processStarted(taskExecutionContext.getTaskInstanceId(), processId);
 
-        // print process id
-        logger.info("process start, process id is: {}", processId);
+        // record descendants while the task runs, so the whole tree can be killed
+        ProcessTreeTracker.getInstance().track(processId);
+        try {
+            // the usage is taken by the task execute thread when it sends the result
+            taskResourceSampler.start(taskExecutionContext.getTaskInstanceId(), processId);
 
-        // if timeout occurs, exit directly
-        long remainTime = getRemaintime();
+            // print process id
+            logger.info("process start, process id is: {}", processId);
 
-        // waiting for the run to finish
-        boolean status = process.waitFor(remainTime, TimeUnit.SECONDS);
+            // if timeout occurs, exit directly
+            long remainTime = getRemaintime();
 
+            // waiting for the run to finish
+            boolean status = process.waitFor(remainTime, TimeUnit.SECONDS);
 
-        logger.info("process has exited, execute path:{}, processId:{} ,exitStatusCode:{}",
-                taskExecutionContext.getExecutePath(),
-                processId
-                , result.getExitStatusCode());
 
-        // if SHELL task exit
-        if (status) {
-            // set appIds
-            List<String> appIds = getAppIds(taskExecutionContext.getLogPath());
-            result.setAppIds(String.join(Constants.COMMA, appIds));
+            logger.info("process has exited, execute path:{}, processId:{} ,exitStatusCode:{}",
+                    taskExecutionContext.getExecutePath(),
+                    processId
+                    , result.getExitStatusCode());
 
-            // SHELL task state
-            result.setExitStatusCode(process.exitValue());
+            // if SHELL task exit
+            if (status) {
+                // the task exited, stop scanning its tree before waiting for the output and yarn
+                ProcessTreeTracker.getInstance().untrack(processId);
 
-            // if yarn task , yarn state is final state
-            if (process.exitValue() == 0){
-                result.setExitStatusCode(isSuccessOfYarnState(appIds) ? EXIT_CODE_SUCCESS : EXIT_CODE_FAILURE);
+                // app ids are collected while parsing the output, wait for the remaining output
+                awaitProcessOutputParsed();
+                List<String> appIds = getAppIds();
+                result.setAppIds(String.join(Constants.COMMA, appIds));
+
+                // SHELL task state
+                result.setExitStatusCode(process.exitValue());
+
+                // if yarn task , yarn state is final state
+                if (process.exitValue() == 0){
+                    result.setExitStatusCode(isSuccessOfYarnState(appIds) ? EXIT_CODE_SUCCESS : EXIT_CODE_FAILURE);
+                }
+            } else {
+                logger.error("process has failure , exitStatusCode : {} , ready to kill ...", result.getExitStatusCode());
+                ProcessUtils.kill(taskExecutionContext);
+                result.setExitStatusCode(EXIT_CODE_FAILURE);
             }
-        } else {
-            logger.error("process has failure , exitStatusCode : {} , ready to kill ...", result.getExitStatusCode());
-            ProcessUtils.kill(taskExecutionContext);
-            result.setExitStatusCode(EXIT_CODE_FAILURE);
+        } finally {
+            // also when the wait is interrupted or the kill fails
+            ProcessTreeTracker.getInstance().untrack(processId);
         }
 
 
@@ -266,7 +332,10 @@ public abstract class AbstractCommandExecutor {
      */
     private boolean softKill(int processId) {
 
-        if (processId != 0 && process.isAlive()) {
+        if (processId != 0 && process.isAlive() && ProcfsUtils.isSupported()) {
+            List<Integer> pids = ProcessTreeTracker.getInstance().kill(processId, ProcfsUtils.SIGTERM);
+            logger.info("soft kill task:{}, process id:{}, process tree:{}", taskExecutionContext.getTaskAppId(), processId, pids);
+        } else if (processId != 0 && process.isAlive()) {
             try {
                 // sudo -u user command to run command
                 String cmd = String.format("sudo kill %d", processId);
@@ -287,7 +356,14 @@ public abstract class AbstractCommandExecutor {
      * @param processId process id
      */
     private void hardKill(int processId) {
-        if (processId != 0 && process.isAlive()) {
+        if (processId != 0 && process.isAlive() && ProcfsUtils.isSupported()) {
+            try {
+                List<Integer> pids = ProcessTreeTracker.getInstance().kill(processId, ProcfsUtils.SIGKILL);
+                logger.info("hard kill task:{}, process id:{}, process tree:{}", taskExecutionContext.getTaskAppId(), processId, pids);
+            } finally {
+                ProcessTreeTracker.getInstance().untrack(processId);
+            }
+        } else if (processId != 0 && process.isAlive()) {
             try {
                 String cmd = String.format("sudo kill -9 %d", processId);
 
@@ -333,7 +409,7 @@ public abstract class AbstractCommandExecutor {
      */
     private void parseProcessOutput(Process process) {
         String threadLoggerInfoName = String.format(LoggerUtils.TASK_LOGGER_THREAD_NAME + "-%s", taskExecutionContext.getTaskAppId());
-        ExecutorService parseProcessOutputExecutorService = ThreadUtils.newDaemonSingleThreadExecutor(threadLoggerInfoName);
+        parseProcessOutputExecutorService = ThreadUtils.newDaemonSingleThreadExecutor(threadLoggerInfoName);
         parseProcessOutputExecutorService.submit(new Runnable(){
             @Override
             public void run() {
@@ -347,6 +423,7 @@ public abstract class AbstractCommandExecutor {
 
                     while ((line = inReader.readLine()) != null) {
                         logBuffer.add(line);
+                        findAppIds(line);
                         lastFlushTime = flush(lastFlushTime);
                     }
                 } catch (Exception e) {
@@ -369,19 +446,24 @@ public abstract class AbstractCommandExecutor {
     public boolean isSuccessOfYarnState(List<String> appIds) {
         boolean result = true;
         try {
+            // register every application first, they are polled together by the shared poller
+            List<CompletableFuture<ExecutionStatus>> futures = new ArrayList<>(appIds.size());
             for (String appId : appIds) {
-                while(Stopper.isRunning()){
-                    ExecutionStatus applicationStatus = HadoopUtils.getInstance().getApplicationStatus(appId);
-                    logger.info("appId:{}, final state:{}",appId,applicationStatus.name());
-                    if (applicationStatus.equals(ExecutionStatus.FAILURE) ||
-                            applicationStatus.equals(ExecutionStatus.KILL)) {
-                        return false;
-                    }
-
-                    if (applicationStatus.equals(ExecutionStatus.SUCCESS)){
+                futures.add(YarnApplicationStatusPoller.getInstance().watch(appId));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                CompletableFuture<ExecutionStatus> future = futures.get(i);
+                while (Stopper.isRunning()) {
+                    try {
+                        ExecutionStatus applicationStatus = future.get(Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+                        logger.info("appId:{}, final state:{}", appIds.get(i), applicationStatus.name());
+                        if (applicationStatus != ExecutionStatus.SUCCESS) {
+                            return false;
+                        }
                         break;
+                    } catch (TimeoutException e) {
+                        // not finished yet, check whether the worker is stopping
                     }
-                    Thread.sleep(Constants.SLEEP_TIME_MILLIS);
                 }
             }
         } catch (Exception e) {
@@ -397,77 +479,54 @@ public abstract class AbstractCommandExecutor {
     }
 
     /**
-     * get app links
+     * get the yarn application ids found in the process output so far
      *
-     * @param logPath log path
      * @return app id list
      */
-    private List<String> getAppIds(String logPath) {
-        List<String> logs = convertFile2List(logPath);
-
-        List<String> appIds = new ArrayList<>();
-        /**
-         * analysis log?get submited yarn application id
-         */
-        for (String log : logs) {
-            String appId = findAppId(log);
-            if (StringUtils.isNotEmpty(appId) && !appIds.contains(appId)) {
-                logger.info("find app id: {}", appId);
-                appIds.add(appId);
-            }
+    public List<String> getAppIds() {
+        synchronized (appIds) {
+            return new ArrayList<>(appIds);
         }
-        return appIds;
     }
 
     /**
-     * convert file to list
-     * @param filename file name
-     * @return line list
+     * find app ids in an output line, the ids are published to the task execution context
+     * immediately so that a running task can be killed together with its yarn applications
+     *
+     * @param line output line
      */
-    private List<String> convertFile2List(String filename) {
-        List lineList = new ArrayList<String>(100);
-        File file=new File(filename);
-
-        if (!file.exists()){
-            return lineList;
+    private void findAppIds(String line) {
+        if (!line.contains(APPLICATION_PREFIX)) {
+            return;
         }
-
-        BufferedReader br = null;
-        try {
-            br = new BufferedReader(new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8));
-            String line = null;
-            while ((line = br.readLine()) != null) {
-                lineList.add(line);
-            }
-        } catch (Exception e) {
-            logger.error(String.format("read file: %s failed : ",filename),e);
-        } finally {
-            if(br != null){
-                try {
-                    br.close();
-                } catch (IOException e) {
-                    logger.error(e.getMessage(),e);
-                }
+        Matcher matcher = APPLICATION_REGEX.matcher(line);
+        while (matcher.find()) {
+            String appId = matcher.group();
+            if (appIds.add(appId)) {
+                logger.info("find app id: {}", appId);
+                taskExecutionContext.setAppIds(String.join(Constants.COMMA, getAppIds()));
+                taskStateJournal.appIdsFound(taskExecutionContext.getTaskInstanceId(), taskExecutionContext.getAppIds());
             }
-
         }
-        return lineList;
     }
 
     /**
-     * find app id
-     * @param line line
-     * @return appid
+     * wait until the process output has been parsed
      */
-    private String findAppId(String line) {
-        Matcher matcher = APPLICATION_REGEX.matcher(line);
-        if (matcher.find()) {
-            return matcher.group();
+    private void awaitProcessOutputParsed() {
+        if (parseProcessOutputExecutorService == null) {
+            return;
+        }
+        try {
+            // children which inherited stdout may keep the stream open, so do not wait forever
+            if (!parseProcessOutputExecutorService.awaitTermination(OUTPUT_PARSE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                logger.warn("process output is still open after the process exited, task : {}", taskExecutionContext.getTaskAppId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return null;
     }
 
-
     /**
      * get remain time?s?
      *
@@ -491,11 +550,18 @@ public abstract class AbstractCommandExecutor {
      * @return process id
      */
     private int getProcessId(Process process) {
+        if (process instanceof WarmProcess) {
+            return ((WarmProcess) process).getPid();
+        }
         int processId = 0;
 
         try {
-            Field f = process.getClass().getDeclaredField(Constants.PID);
-            f.setAccessible(true);
+            Field f = pidField;
+            if (f == null || f.getDeclaringClass() != process.getClass()) {
+                f = process.getClass().getDeclaredField(Constants.PID);
+                f.setAccessible(true);
+                pidField = f;
+            }
 
             if (OSUtils.isWindows()) {
                 WinNT.HANDLE handle = (WinNT.HANDLE) f.get(process);
@@ -550,6 +616,43 @@ public abstract class AbstractCommandExecutor {
     protected List<String> commandOptions() {
         return Collections.emptyList();
     }
+
+    /**
+     * run the command file in an already started shell or interpreter instead of a new process
+     *
+     * @param commandFile command file
+     * @return the running command, null to start a new process
+     */
+    protected Process startInWarmProcess(String commandFile) {
+        return null;
+    }
+
+    /**
+     * create the file receiving the output of a command run in a warm process.
+     * it is created by the worker, the tenant may not be allowed to create files in the execute path.
+     * like the output of a new process it is only visible to the tenant and the worker:
+     * the file is owned by the tenant, and the group of the worker may read it back
+     *
+     * @return output file
+     * @throws IOException if the file can not be created
+     */
+    protected File createWarmOutputFile() throws IOException {
+        File outputFile = new File(String.format("%s/%s.out"
+                , taskExecutionContext.getExecutePath()
+                , taskExecutionContext.getTaskAppId()));
+        Path outputPath = outputFile.toPath();
+        Files.deleteIfExists(outputPath);
+        Files.createFile(outputPath, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+
+        String tenantCode = taskExecutionContext.getTenantCode();
+        if (!tenantCode.equals(System.getProperty("user.name"))) {
+            String group = Files.readAttributes(outputPath, PosixFileAttributes.class).group().getName();
+            Files.setPosixFilePermissions(outputPath, PosixFilePermissions.fromString("rw-r-----"));
+            OSUtils.exeShell(new String[]{"sudo", "chown", tenantCode + ":" + group, outputFile.getAbsolutePath()});
+        }
+        return outputFile;
+    }
+
     protected abstract String buildCommandFilePath();
     protected abstract String commandInterpreter();
     protected abstract void createCommandFileIfNotExists(String execCommand, String commandFile) throws IOException;
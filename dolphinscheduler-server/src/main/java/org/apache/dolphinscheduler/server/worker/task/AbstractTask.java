@@ -102,7 +102,6 @@ public abstract class AbstractTask {
      */
     public abstract void handle() throws Exception;
 
-
     /**
      * cancel application
      * @param status status
@@ -20,6 +20,8 @@ import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.utils.FileUtils;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.task.python.PythonWorkerPool;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -108,6 +110,24 @@ public class PythonCommandExecutor extends AbstractCommandExecutor {
         return Collections.singletonList("-u");
     }
 
+    @Override
+    protected Process startInWarmProcess(String commandFile) {
+        PythonWorkerPool pythonWorkerPool = SpringApplicationContext.getBean(PythonWorkerPool.class);
+        if (!pythonWorkerPool.isEnabled()) {
+            return null;
+        }
+        try {
+            File outputFile = createWarmOutputFile();
+            Process process = pythonWorkerPool.execute(taskExecutionContext.getTenantCode(), commandInterpreter(),
+                    taskExecutionContext.getExecutePath(), commandFile, outputFile);
+            logger.info("task run script in pooled python process of tenant {}", taskExecutionContext.getTenantCode());
+            return process;
+        } catch (IOException e) {
+            logger.warn("run script in pooled python process failed, start a new process instead", e);
+            return null;
+        }
+    }
+
     /**
      * get python home
      * @return python home
@@ -19,6 +19,8 @@ package org.apache.dolphinscheduler.server.worker.task;
 import org.apache.commons.io.FileUtils;
 import org.apache.dolphinscheduler.common.utils.OSUtils;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.task.shell.WarmShellPool;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.slf4j.Logger;
 
 import java.io.File;
@@ -44,6 +46,11 @@ public class ShellCommandExecutor extends AbstractCommandExecutor {
      */
     public static final String CMD = "cmd.exe";
 
+    /**
+     * whether the command may run in a warm shell when the worker enables them
+     */
+    private boolean warmShell;
+
     /**
      * constructor
      * @param logHandler logHandler
@@ -56,6 +63,10 @@ public class ShellCommandExecutor extends AbstractCommandExecutor {
         super(logHandler,taskExecutionContext,logger);
     }
 
+    public void setWarmShell(boolean warmShell) {
+        this.warmShell = warmShell;
+    }
+
 
     @Override
     protected String buildCommandFilePath() {
@@ -103,6 +114,10 @@ public class ShellCommandExecutor extends AbstractCommandExecutor {
                 sb.append("BASEDIR=$(cd `dirname $0`; pwd)\n");
                 sb.append("cd $BASEDIR\n");
                 if (taskExecutionContext.getEnvFile() != null) {
+                    if (warmShell) {
+                        // a warm shell already sourced the env file
+                        sb.append(String.format("[ \"$%s\" = \"%s\" ] || ", WarmShellPool.ENV_FILE_VARIABLE, taskExecutionContext.getEnvFile()));
+                    }
                     sb.append("source ").append(taskExecutionContext.getEnvFile()).append("\n");
                 }
             }
@@ -115,5 +130,24 @@ public class ShellCommandExecutor extends AbstractCommandExecutor {
         }
     }
 
-
+    @Override
+    protected Process startInWarmProcess(String commandFile) {
+        if (!warmShell) {
+            return null;
+        }
+        WarmShellPool warmShellPool = SpringApplicationContext.getBean(WarmShellPool.class);
+        if (!warmShellPool.isEnabled()) {
+            return null;
+        }
+        try {
+            File outputFile = createWarmOutputFile();
+            Process process = warmShellPool.execute(taskExecutionContext.getTenantCode(), taskExecutionContext.getEnvFile(),
+                    taskExecutionContext.getExecutePath(), commandFile, outputFile);
+            logger.info("task run command in warm shell of tenant {}", taskExecutionContext.getTenantCode());
+            return process;
+        } catch (IOException e) {
+            logger.warn("run command in warm shell failed, start a new process instead", e);
+            return null;
+        }
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.StringUtils;
+import org.apache.dolphinscheduler.server.log.LogArchive;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  compresses the logs of finished tasks worker.log.archive.delay.seconds after they finished,
+ *  see {@link LogArchive}. logs of tasks finished before a worker restart are left uncompressed.
+ */
+@Service
+public class TaskLogArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskLogArchiver.class);
+
+    /**
+     * worker config
+     */
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    /**
+     * archive executor, started with the first finished task
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * whether task logs are archived
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return workerConfig.getLogArchiveDelaySeconds() > 0;
+    }
+
+    /**
+     * archive the log of a finished task later
+     *
+     * @param logPath log path
+     */
+    public void archiveLater(String logPath) {
+        if (StringUtils.isEmpty(logPath) || !isEnabled()) {
+            return;
+        }
+        try {
+            getExecutor().schedule(() -> archive(logPath), workerConfig.getLogArchiveDelaySeconds(), TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // rejected while closing
+            logger.warn("schedule archiving task log {} failed", logPath, e);
+        }
+    }
+
+    /**
+     * archive the log of a finished task
+     *
+     * @param logPath log path
+     */
+    void archive(String logPath) {
+        try {
+            long length = new File(logPath).length();
+            if (LogArchive.archive(logPath)) {
+                logger.info("archived task log {}, {} bytes -> {} bytes", logPath, length,
+                        new File(logPath + LogArchive.ARCHIVE_SUFFIX).length());
+            }
+        } catch (Exception e) {
+            logger.warn("archive task log {} failed", logPath, e);
+        }
+    }
+
+    private synchronized ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            executor = ThreadUtils.newDaemonThreadScheduledExecutor("Worker-Log-Archiver", 1);
+        }
+        return executor;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.server.utils.ProcessTreeTracker;
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils;
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils.ProcStat;
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils.ProcStatus;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  samples cpu and memory of the process trees of running tasks from /proc every
+ *  worker.resource.sample.interval.seconds. all trees are sampled with one /proc scan,
+ *  the status file is only read for members of task trees.
+ */
+@Service
+public class TaskResourceSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskResourceSampler.class);
+
+    /**
+     * worker config
+     */
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    /**
+     * task instance id -> usage of the running task
+     */
+    private final Map<Integer, TaskResourceUsage> usages = new ConcurrentHashMap<>();
+
+    /**
+     * sample executor, started with the first sampled task
+     */
+    private ScheduledExecutorService sampleExecutor;
+
+    /**
+     * whether task resource usage is sampled
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return workerConfig.getResourceSampleIntervalSeconds() > 0 && ProcfsUtils.isSupported();
+    }
+
+    /**
+     * start sampling the process tree of a task
+     *
+     * @param taskInstanceId task instance id
+     * @param rootPid task process id
+     */
+    public void start(int taskInstanceId, int rootPid) {
+        if (rootPid <= 0 || !isEnabled()) {
+            return;
+        }
+        usages.put(taskInstanceId, new TaskResourceUsage(rootPid, System.nanoTime()));
+        startExecutor();
+    }
+
+    /**
+     * stop sampling a task
+     *
+     * @param taskInstanceId task instance id
+     * @return usage of the task, null if it was never sampled
+     */
+    public TaskResourceUsage stop(int taskInstanceId) {
+        TaskResourceUsage usage = usages.remove(taskInstanceId);
+        if (usage == null || !usage.isSampled()) {
+            return null;
+        }
+        logger.info("task instance {} resource usage : {}", taskInstanceId, usage);
+        return usage;
+    }
+
+    /**
+     * live usage of a running task
+     *
+     * @param taskInstanceId task instance id
+     * @return usage, null if the task is not sampled
+     */
+    public TaskResourceUsage getUsage(int taskInstanceId) {
+        return usages.get(taskInstanceId);
+    }
+
+    /**
+     * live usage metrics, task instance id -> metric name -> value
+     *
+     * @return metrics
+     */
+    public Map<Integer, Map<String, Object>> getMetrics() {
+        Map<Integer, Map<String, Object>> metrics = new TreeMap<>();
+        for (Map.Entry<Integer, TaskResourceUsage> entry : usages.entrySet()) {
+            TaskResourceUsage usage = entry.getValue();
+            Map<String, Object> taskMetrics = new LinkedHashMap<>();
+            taskMetrics.put("cpuUsage", usage.getCpuUsage());
+            taskMetrics.put("memory", usage.getMemory());
+            taskMetrics.put("peakCpuUsage", usage.getPeakCpuUsage());
+            taskMetrics.put("avgCpuUsage", usage.getAvgCpuUsage());
+            taskMetrics.put("peakMemory", usage.getPeakMemory());
+            taskMetrics.put("avgMemory", usage.getAvgMemory());
+            metrics.put(entry.getKey(), taskMetrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * sample all running tasks with a single /proc scan, called by the sample executor
+     */
+    void sample() {
+        if (usages.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Integer, ProcStat> processes = ProcfsUtils.listProcesses();
+            long now = System.nanoTime();
+            for (TaskResourceUsage usage : usages.values()) {
+                List<Integer> pids = ProcessTreeTracker.getInstance().getProcessTree(usage.getRootPid(), processes);
+                Map<Integer, ProcStatus> statuses = new HashMap<>(pids.size() * 2);
+                for (Integer pid : pids) {
+                    ProcStatus status = ProcfsUtils.readStatus(pid);
+                    if (status != null) {
+                        statuses.put(pid, status);
+                    }
+                }
+                usage.update(now, pids, processes, statuses);
+            }
+        } catch (Exception e) {
+            logger.error("sample task resource usage failed", e);
+        }
+    }
+
+    private synchronized void startExecutor() {
+        if (sampleExecutor == null) {
+            long intervalMillis = workerConfig.getResourceSampleIntervalSeconds() * 1000L;
+            sampleExecutor = ThreadUtils.newDaemonThreadScheduledExecutor("Worker-Resource-Sampler", 1);
+            sampleExecutor.scheduleWithFixedDelay(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (sampleExecutor != null) {
+            sampleExecutor.shutdownNow();
+        }
+        usages.clear();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task;
+
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils.ProcStat;
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils.ProcStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  cpu and memory usage of the process tree of one task, updated by {@link TaskResourceSampler}.
+ *  cpu usage is in percent of one core, memory is the resident memory in MB.
+ */
+public class TaskResourceUsage {
+
+    /**
+     * clock ticks per second of utime and stime, USER_HZ is 100 on all mainstream linux architectures
+     */
+    static final int USER_HZ = 100;
+
+    private final int rootPid;
+
+    private final long startNanos;
+
+    /**
+     * pid -> (start time, cpu ticks) of the tree members at the last sample
+     */
+    private Map<Integer, long[]> lastTicks = new HashMap<>();
+
+    private long lastSampleNanos;
+
+    private long totalTicks;
+
+    private int sampleCount;
+
+    private double totalMemory;
+
+    private double cpuUsage;
+
+    private double memory;
+
+    private double peakCpuUsage;
+
+    private double peakMemory;
+
+    TaskResourceUsage(int rootPid, long startNanos) {
+        this.rootPid = rootPid;
+        this.startNanos = startNanos;
+        this.lastSampleNanos = startNanos;
+    }
+
+    int getRootPid() {
+        return rootPid;
+    }
+
+    /**
+     * add a sample of the tree members, called by the sampler thread
+     *
+     * @param nanos sample time
+     * @param pids live tree members
+     * @param stats stats of the members
+     * @param statuses pid -> status of the members, a member without status is skipped for memory
+     */
+    synchronized void update(long nanos, List<Integer> pids, Map<Integer, ProcStat> stats, Map<Integer, ProcStatus> statuses) {
+        if (pids.isEmpty() || nanos <= lastSampleNanos) {
+            return;
+        }
+        Map<Integer, long[]> ticks = new HashMap<>(pids.size() * 2);
+        long deltaTicks = 0;
+        long rssKb = 0;
+        long hwmKb = 0;
+        for (Integer pid : pids) {
+            ProcStat stat = stats.get(pid);
+            if (stat == null) {
+                continue;
+            }
+            long cpuTicks = stat.getUtime() + stat.getStime();
+            long[] last = lastTicks.get(pid);
+            // a process started after the last sample spent all its ticks within this interval
+            long lastCpuTicks = last != null && last[0] == stat.getStartTime() ? last[1] : 0;
+            deltaTicks += Math.max(0, cpuTicks - lastCpuTicks);
+            ticks.put(pid, new long[]{stat.getStartTime(), cpuTicks});
+
+            ProcStatus status = statuses.get(pid);
+            if (status != null) {
+                rssKb += status.getVmRssKb();
+                hwmKb = Math.max(hwmKb, status.getVmHwmKb());
+            }
+        }
+        double seconds = (nanos - lastSampleNanos) / 1e9;
+        lastTicks = ticks;
+        lastSampleNanos = nanos;
+        totalTicks += deltaTicks;
+        sampleCount++;
+
+        cpuUsage = deltaTicks * 100.0 / USER_HZ / seconds;
+        memory = rssKb / 1024.0;
+        totalMemory += memory;
+        peakCpuUsage = Math.max(peakCpuUsage, cpuUsage);
+        // the high water mark of a single process catches peaks between two samples
+        peakMemory = Math.max(peakMemory, Math.max(memory, hwmKb / 1024.0));
+    }
+
+    /**
+     * whether the tree was sampled at least once
+     *
+     * @return true if sampled
+     */
+    public synchronized boolean isSampled() {
+        return sampleCount > 0;
+    }
+
+    /**
+     * cpu usage of the last sample interval
+     *
+     * @return percent of one core
+     */
+    public synchronized double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    /**
+     * resident memory at the last sample
+     *
+     * @return MB
+     */
+    public synchronized double getMemory() {
+        return memory;
+    }
+
+    public synchronized double getPeakCpuUsage() {
+        return peakCpuUsage;
+    }
+
+    /**
+     * cpu usage from the start of the task to the last sample
+     *
+     * @return percent of one core
+     */
+    public synchronized double getAvgCpuUsage() {
+        double seconds = (lastSampleNanos - startNanos) / 1e9;
+        return seconds > 0 ? totalTicks * 100.0 / USER_HZ / seconds : 0;
+    }
+
+    public synchronized double getPeakMemory() {
+        return peakMemory;
+    }
+
+    public synchronized double getAvgMemory() {
+        return sampleCount > 0 ? totalMemory / sampleCount : 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TaskResourceUsage{" +
+                "rootPid=" + rootPid +
+                ", cpuUsage=" + cpuUsage +
+                ", memory=" + memory +
+                ", peakCpuUsage=" + peakCpuUsage +
+                ", peakMemory=" + peakMemory +
+                ", sampleCount=" + sampleCount +
+                '}';
+    }
+}
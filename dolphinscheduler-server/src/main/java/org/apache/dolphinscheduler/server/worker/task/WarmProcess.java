@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task;
+
+import org.apache.commons.io.input.ClosedInputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.dolphinscheduler.server.utils.ProcessTreeTracker;
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ *  a task script running in an already started shell or interpreter, seen by the command executor
+ *  as a plain process. the output of the script is written to a file and read back while the script runs.
+ */
+public class WarmProcess extends Process {
+
+    /**
+     * interval of polling the output file for new output
+     */
+    private static final long OUTPUT_POLL_MILLIS = 50L;
+
+    /**
+     * pid of the process running the task script
+     */
+    private volatile int pid;
+
+    private final File outputFile;
+
+    private final CompletableFuture<Integer> pidFuture = new CompletableFuture<>();
+
+    private final CompletableFuture<Integer> exitFuture = new CompletableFuture<>();
+
+    private final InputStream inputStream = new OutputFileInputStream();
+
+    public WarmProcess(File outputFile) {
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * the script was started
+     *
+     * @param pid pid of the process running the script
+     */
+    public void started(int pid) {
+        this.pid = pid;
+        pidFuture.complete(pid);
+    }
+
+    /**
+     * the script exited, or the process running it was lost
+     *
+     * @param exitValue exit value
+     */
+    public void exited(int exitValue) {
+        // the script may have been lost before its pid was known
+        pidFuture.complete(0);
+        exitFuture.complete(exitValue);
+    }
+
+    /**
+     * wait until the shell reported the pid of the script
+     *
+     * @param timeoutMillis timeout
+     * @return pid, 0 if the shell was lost
+     * @throws IOException if the shell did not start the script in time
+     */
+    public int awaitStarted(long timeoutMillis) throws IOException {
+        try {
+            return pidFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while starting the task script");
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IOException("task script was not started in " + timeoutMillis + " ms", e);
+        }
+    }
+
+    public CompletableFuture<Integer> getExitFuture() {
+        return exitFuture;
+    }
+
+    public int getPid() {
+        return pid;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return NullOutputStream.NULL_OUTPUT_STREAM;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        // stderr is redirected to the output file as well
+        return ClosedInputStream.CLOSED_INPUT_STREAM;
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        try {
+            return exitFuture.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            exitFuture.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int exitValue() {
+        if (!exitFuture.isDone()) {
+            throw new IllegalThreadStateException("task script has not exited");
+        }
+        return exitFuture.join();
+    }
+
+    @Override
+    public boolean isAlive() {
+        return !exitFuture.isDone();
+    }
+
+    @Override
+    public void destroy() {
+        if (isAlive() && pid != 0 && ProcfsUtils.isSupported()) {
+            ProcessTreeTracker.getInstance().kill(pid, ProcfsUtils.SIGKILL);
+        }
+    }
+
+    /**
+     * reads the output file as it grows, the end of stream is reached once the script
+     * exited and everything it wrote has been read
+     */
+    private class OutputFileInputStream extends InputStream {
+
+        private FileInputStream in;
+
+        private volatile boolean closed;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (!closed) {
+                // checked before reading, output written before the exit is never missed
+                boolean exited = !isAlive();
+                if (in == null && outputFile.exists()) {
+                    in = new FileInputStream(outputFile);
+                }
+                if (in != null) {
+                    int n = in.read(b, off, len);
+                    if (n > 0) {
+                        return n;
+                    }
+                }
+                if (exited) {
+                    return -1;
+                }
+                try {
+                    Thread.sleep(OUTPUT_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while reading " + outputFile);
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            synchronized (this) {
+                if (in != null) {
+                    in.close();
+                }
+            }
+        }
+    }
+}
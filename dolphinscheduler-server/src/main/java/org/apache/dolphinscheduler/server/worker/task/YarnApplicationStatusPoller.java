@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.HadoopUtils;
+import org.apache.dolphinscheduler.common.utils.HttpUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  worker wide yarn application status poller.
+ *
+ *  every outstanding application is tracked once no matter how many tasks wait for it.
+ *  applications which finished since the last poll are fetched with one bulk request to the
+ *  resourcemanager applications api, single application requests back off exponentially
+ *  and are only needed for applications the bulk request can not see. final states are cached,
+ *  failed queries leave the application unknown and it is queried again on the next tick.
+ */
+public class YarnApplicationStatusPoller implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(YarnApplicationStatusPoller.class);
+
+    /**
+     * overlap of the first bulk query, tolerates clock skew between worker and resourcemanager
+     */
+    private static final long BULK_QUERY_OVERLAP_MILLIS = 60 * 1000L;
+
+    /**
+     * single application status fetcher
+     */
+    private final ApplicationStatusFetcher statusFetcher;
+
+    /**
+     * applications url supplier, such as http://ds1:8088/ws/v1/cluster/apps
+     */
+    private final ApplicationsUrlSupplier applicationsUrlSupplier;
+
+    /**
+     * poll interval
+     */
+    private final long minIntervalMillis;
+
+    /**
+     * max interval of single application requests
+     */
+    private final long maxIntervalMillis;
+
+    /**
+     * outstanding applications
+     */
+    private final ConcurrentHashMap<String, PendingApplication> pendingApplications = new ConcurrentHashMap<>();
+
+    /**
+     * final states of recently finished applications
+     */
+    private final Cache<String, ExecutionStatus> finalStates = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(30, TimeUnit.MINUTES)
+            .build();
+
+    private final ScheduledExecutorService pollExecutor;
+
+    /**
+     * resolved applications url, reset after failures
+     */
+    private String applicationsUrl;
+
+    /**
+     * latest finish time reported by the resourcemanager, the next bulk query starts there,
+     * so it only lists the applications finished since the last poll
+     */
+    private long lastFinishedTime;
+
+    private final AtomicLong bulkRequestCount = new AtomicLong();
+
+    private final AtomicLong singleRequestCount = new AtomicLong();
+
+    /**
+     * constructor
+     *
+     * @param statusFetcher single application status fetcher
+     * @param applicationsUrlSupplier applications url supplier, bulk queries are disabled if it returns null
+     * @param minIntervalMillis poll interval
+     * @param maxIntervalMillis max interval of single application requests
+     */
+    public YarnApplicationStatusPoller(ApplicationStatusFetcher statusFetcher,
+                                       ApplicationsUrlSupplier applicationsUrlSupplier,
+                                       long minIntervalMillis,
+                                       long maxIntervalMillis) {
+        this.statusFetcher = statusFetcher;
+        this.applicationsUrlSupplier = applicationsUrlSupplier;
+        this.minIntervalMillis = minIntervalMillis;
+        this.maxIntervalMillis = maxIntervalMillis;
+        this.pollExecutor = ThreadUtils.newDaemonThreadScheduledExecutor("Worker-Yarn-Status-Poller", 1);
+        this.pollExecutor.scheduleWithFixedDelay(this::poll, minIntervalMillis, minIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * get the shared poller of this worker
+     *
+     * @return poller
+     */
+    public static YarnApplicationStatusPoller getInstance() {
+        return PollerHolder.INSTANCE;
+    }
+
+    /**
+     * watch an application until it reaches a final state
+     *
+     * @param appId application id
+     * @return future completed with SUCCESS, FAILURE or KILL
+     */
+    public CompletableFuture<ExecutionStatus> watch(String appId) {
+        ExecutionStatus finalState = finalStates.getIfPresent(appId);
+        if (finalState != null) {
+            return CompletableFuture.completedFuture(finalState);
+        }
+        return pendingApplications.computeIfAbsent(appId, PendingApplication::new).future;
+    }
+
+    /**
+     * poll outstanding applications, called by the poll executor
+     */
+    void poll() {
+        if (pendingApplications.isEmpty()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            Map<String, ExecutionStatus> finished = queryFinishedApplications(now);
+            for (Map.Entry<String, ExecutionStatus> app : finished.entrySet()) {
+                complete(app.getKey(), app.getValue());
+            }
+
+            Iterator<PendingApplication> iterator = pendingApplications.values().iterator();
+            while (iterator.hasNext()) {
+                PendingApplication app = iterator.next();
+                if (app.nextPollTime > now) {
+                    continue;
+                }
+                ExecutionStatus status = queryApplication(app.appId);
+                if (status == null) {
+                    // the status is unknown, try again on the next tick
+                    app.nextPollTime = now + minIntervalMillis;
+                } else if (isFinal(status)) {
+                    complete(app.appId, status);
+                } else {
+                    app.interval = Math.min(app.interval * 2, maxIntervalMillis);
+                    app.nextPollTime = now + app.interval;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("poll yarn application status failed", e);
+        }
+    }
+
+    /**
+     * query applications which finished since the last bulk query
+     */
+    private Map<String, ExecutionStatus> queryFinishedApplications(long now) {
+        Map<String, ExecutionStatus> finished = new HashMap<>();
+        try {
+            if (applicationsUrl == null) {
+                applicationsUrl = applicationsUrlSupplier.get();
+                if (applicationsUrl == null) {
+                    return finished;
+                }
+            }
+            // pending applications finish after they are registered and after the last bulk query
+            long begin = now;
+            for (PendingApplication app : pendingApplications.values()) {
+                begin = Math.min(begin, app.registerTime);
+            }
+            begin = Math.max(lastFinishedTime, begin - BULK_QUERY_OVERLAP_MILLIS);
+            String url = String.format("%s?states=FINISHED,FAILED,KILLED&finishedTimeBegin=%d",
+                    applicationsUrl, Math.max(0, begin));
+            bulkRequestCount.incrementAndGet();
+            String response = HttpUtils.get(url);
+            if (response == null) {
+                applicationsUrl = null;
+                return finished;
+            }
+            ObjectNode jsonObject = JSONUtils.parseObject(response);
+            JsonNode apps = jsonObject == null ? null : jsonObject.path("apps").path("app");
+            if (apps != null && apps.isArray()) {
+                long finishedTime = lastFinishedTime;
+                for (JsonNode app : apps) {
+                    finishedTime = Math.max(finishedTime, app.path("finishedTime").asLong(0));
+                    String appId = app.path("id").asText();
+                    if (pendingApplications.containsKey(appId)) {
+                        finished.put(appId, HadoopUtils.getExecutionStatus(app.path("finalStatus").asText()));
+                    }
+                }
+                lastFinishedTime = finishedTime;
+            }
+        } catch (Exception e) {
+            logger.warn("query finished yarn applications failed : {}", e.getMessage());
+            applicationsUrl = null;
+        }
+        return finished;
+    }
+
+    /**
+     * query a single application
+     *
+     * @return status, null if unknown
+     */
+    private ExecutionStatus queryApplication(String appId) {
+        singleRequestCount.incrementAndGet();
+        try {
+            ExecutionStatus status = statusFetcher.fetch(appId);
+            logger.info("appId:{}, state:{}", appId, status);
+            return status;
+        } catch (Exception e) {
+            logger.warn("query yarn application {} status failed, retry on the next poll : {}", appId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void complete(String appId, ExecutionStatus status) {
+        if (!isFinal(status)) {
+            return;
+        }
+        finalStates.put(appId, status);
+        PendingApplication app = pendingApplications.remove(appId);
+        if (app != null) {
+            logger.info("appId:{}, final state:{}", appId, status);
+            app.future.complete(status);
+        }
+    }
+
+    private static boolean isFinal(ExecutionStatus status) {
+        return status == ExecutionStatus.SUCCESS
+                || status == ExecutionStatus.FAILURE
+                || status == ExecutionStatus.KILL;
+    }
+
+    public int getPendingSize() {
+        return pendingApplications.size();
+    }
+
+    public long getBulkRequestCount() {
+        return bulkRequestCount.get();
+    }
+
+    public long getSingleRequestCount() {
+        return singleRequestCount.get();
+    }
+
+    @Override
+    public void close() {
+        pollExecutor.shutdownNow();
+    }
+
+    /**
+     * single application status fetcher
+     */
+    @FunctionalInterface
+    public interface ApplicationStatusFetcher {
+        ExecutionStatus fetch(String appId) throws Exception;
+    }
+
+    /**
+     * applications url supplier
+     */
+    @FunctionalInterface
+    public interface ApplicationsUrlSupplier {
+        String get() throws Exception;
+    }
+
+    /**
+     * application waiting for its final state
+     */
+    private class PendingApplication {
+
+        private final String appId;
+
+        private final long registerTime = System.currentTimeMillis();
+
+        private final CompletableFuture<ExecutionStatus> future = new CompletableFuture<>();
+
+        /**
+         * the first single request is sent immediately, the application may have finished already
+         */
+        private volatile long nextPollTime = 0;
+
+        private volatile long interval = minIntervalMillis;
+
+        PendingApplication(String appId) {
+            this.appId = appId;
+        }
+    }
+
+    /**
+     * shared poller backed by the configured resourcemanager
+     */
+    private static class PollerHolder {
+        private static final YarnApplicationStatusPoller INSTANCE = new YarnApplicationStatusPoller(
+                appId -> HadoopUtils.getInstance().getApplicationStatus(appId),
+                () -> HadoopUtils.getInstance().getApplicationsUrl(),
+                Constants.SLEEP_TIME_MILLIS,
+                30 * 1000L);
+    }
+}
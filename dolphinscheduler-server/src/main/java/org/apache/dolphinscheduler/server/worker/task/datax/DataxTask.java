@@ -43,9 +43,11 @@ import org.apache.dolphinscheduler.server.entity.DataxTaskExecutionContext;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
 import org.apache.dolphinscheduler.server.utils.DataxUtils;
 import org.apache.dolphinscheduler.server.utils.ParamUtils;
+import org.apache.dolphinscheduler.server.worker.datasource.JdbcConnectionPoolManager;
 import org.apache.dolphinscheduler.server.worker.task.AbstractTask;
 import org.apache.dolphinscheduler.server.worker.task.CommandExecuteResult;
 import org.apache.dolphinscheduler.server.worker.task.ShellCommandExecutor;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.slf4j.Logger;
 
 import java.io.File;
@@ -520,9 +522,9 @@ public class DataxTask extends AbstractTask {
         sql = String.format("SELECT t.* FROM ( %s ) t WHERE 0 = 1", sql);
         sql = sql.replace(";", "");
 
+        JdbcConnectionPoolManager jdbcConnectionPoolManager = SpringApplicationContext.getBean(JdbcConnectionPoolManager.class);
         try (
-                Connection connection = DriverManager.getConnection(baseDataSource.getJdbcUrl(), baseDataSource.getUser(),
-                        baseDataSource.getPassword());
+                Connection connection = jdbcConnectionPoolManager.getConnection(dataXParameters.getDataSource(), baseDataSource, null);
                 PreparedStatement stmt = connection.prepareStatement(sql);
                 ResultSet resultSet = stmt.executeQuery()) {
 
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.http;
+
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  worker wide pooled http client of http tasks, created on first use.
+ *  connections are kept alive and reused by tasks calling the same endpoints.
+ */
+@Service
+public class HttpClientManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientManager.class);
+
+    /**
+     * worker config
+     */
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    private volatile CloseableHttpClient httpClient;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * get the shared http client, it must not be closed by tasks
+     *
+     * @return http client
+     */
+    public CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            synchronized (this) {
+                if (httpClient == null) {
+                    connectionManager = new PoolingHttpClientConnectionManager();
+                    connectionManager.setMaxTotal(workerConfig.getHttpTaskMaxConnections());
+                    connectionManager.setDefaultMaxPerRoute(workerConfig.getHttpTaskMaxConnectionsPerRoute());
+                    // connections closed by the server while idle in the pool are detected before reuse
+                    connectionManager.setValidateAfterInactivity(2000);
+
+                    long keepAliveMillis = workerConfig.getHttpTaskKeepAliveSeconds() * 1000L;
+                    ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+                        long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                        return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+                    };
+                    httpClient = HttpClients.custom()
+                            .setConnectionManager(connectionManager)
+                            .setDefaultRequestConfig(getDefaultRequestConfig())
+                            .setKeepAliveStrategy(keepAliveStrategy)
+                            .evictExpiredConnections()
+                            .evictIdleConnections(workerConfig.getHttpTaskKeepAliveSeconds(), TimeUnit.SECONDS)
+                            .build();
+                    logger.info("http task client created, max connections : {}, max connections per route : {}",
+                            workerConfig.getHttpTaskMaxConnections(), workerConfig.getHttpTaskMaxConnectionsPerRoute());
+                }
+            }
+        }
+        return httpClient;
+    }
+
+    /**
+     * default request config of the shared client, requests with their own config should copy it.
+     * the connection request timeout bounds how long a task waits for a pooled connection
+     *
+     * @return request config
+     */
+    public RequestConfig getDefaultRequestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(workerConfig.getHttpTaskConnectionRequestTimeoutMillis())
+                .build();
+    }
+
+    /**
+     * pool stats, such as [leased: 1; pending: 0; available: 3; max: 200]
+     *
+     * @return pool stats
+     */
+    public String getPoolStats() {
+        return connectionManager == null ? null : connectionManager.getTotalStats().toString();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (httpClient != null) {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                logger.error("close http task client failed", e);
+            }
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.dolphinscheduler.common.utils.*;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
 import org.apache.dolphinscheduler.server.utils.ParamUtils;
 import org.apache.dolphinscheduler.server.worker.task.AbstractTask;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.http.HttpEntity;
 import org.apache.http.ParseException;
 import org.apache.http.client.config.RequestConfig;
@@ -39,8 +40,6 @@ import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 
@@ -77,6 +76,11 @@ public class HttpTask extends AbstractTask {
      */
     private TaskExecutionContext taskExecutionContext;
 
+    /**
+     * shared http client manager
+     */
+    private HttpClientManager httpClientManager;
+
     /**
      * constructor
      * @param taskExecutionContext     taskExecutionContext
@@ -106,8 +110,7 @@ public class HttpTask extends AbstractTask {
         String statusCode = null;
         String body = null;
 
-        try(CloseableHttpClient client = createHttpClient();
-            CloseableHttpResponse response = sendRequest(client)) {
+        try(CloseableHttpResponse response = sendRequest(getHttpClientManager().getHttpClient())) {
             statusCode = String.valueOf(getStatusCode(response));
             body = getResponseBody(response);
             exitStatusCode = validResponse(body, statusCode);
@@ -122,6 +125,13 @@ public class HttpTask extends AbstractTask {
         }
     }
 
+    private HttpClientManager getHttpClientManager() {
+        if (httpClientManager == null) {
+            httpClientManager = SpringApplicationContext.getBean(HttpClientManager.class);
+        }
+        return httpClientManager;
+    }
+
     /**
      * send request
      * @param client client
@@ -148,7 +158,7 @@ public class HttpTask extends AbstractTask {
         }
         addRequestParams(builder,httpPropertyList);
         String requestUrl = ParameterUtils.convertParameterPlaceholders(httpParameters.getUrl(),ParamUtils.convert(paramsMap));
-        HttpUriRequest request = builder.setUri(requestUrl).build();
+        HttpUriRequest request = builder.setUri(requestUrl).setConfig(requestConfig()).build();
         setHeaders(request,httpPropertyList);
         return client.execute(request);
     }
@@ -276,22 +286,14 @@ public class HttpTask extends AbstractTask {
     }
 
     /**
-     * create http client
-     * @return CloseableHttpClient
-     */
-    protected CloseableHttpClient createHttpClient() {
-        final RequestConfig requestConfig = requestConfig();
-        HttpClientBuilder httpClientBuilder;
-        httpClientBuilder = HttpClients.custom().setDefaultRequestConfig(requestConfig);
-        return httpClientBuilder.build();
-    }
-
-    /**
-     * request config
+     * request config, based on the default config of the shared client
      * @return RequestConfig
      */
     private RequestConfig requestConfig() {
-        return RequestConfig.custom().setSocketTimeout(httpParameters.getSocketTimeout()).setConnectTimeout(httpParameters.getConnectTimeout()).build();
+        return RequestConfig.copy(getHttpClientManager().getDefaultRequestConfig())
+                .setSocketTimeout(httpParameters.getSocketTimeout())
+                .setConnectTimeout(httpParameters.getConnectTimeout())
+                .build();
     }
 
     /**
@@ -29,7 +29,9 @@ import org.apache.dolphinscheduler.dao.datasource.BaseDataSource;
 import org.apache.dolphinscheduler.dao.datasource.DataSourceFactory;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
 import org.apache.dolphinscheduler.server.utils.ParamUtils;
+import org.apache.dolphinscheduler.server.worker.datasource.JdbcConnectionPoolManager;
 import org.apache.dolphinscheduler.server.worker.task.AbstractTask;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.slf4j.Logger;
 
 import java.sql.*;
@@ -106,9 +108,8 @@ public class ProcedureTask extends AbstractTask {
 
 
             // get jdbc connection
-            connection = DriverManager.getConnection(baseDataSource.getJdbcUrl(),
-                    baseDataSource.getUser(),
-                    baseDataSource.getPassword());
+            connection = SpringApplicationContext.getBean(JdbcConnectionPoolManager.class)
+                    .getConnection(procedureParameters.getDatasource(), baseDataSource, null);
 
 
 
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.python;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.server.worker.task.WarmProcess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+/**
+ *  a long running python process of a tenant which runs task scripts one after another.
+ *
+ *  the process runs as the tenant. every script runs with runpy in a fresh __main__ namespace, its stdout
+ *  and stderr are redirected to the output file of the task on the file descriptor level, so the output
+ *  of child processes is kept too. the output file is created by the worker for the tenant beforehand.
+ *  after a script the working directory, environment, sys.path and the modules loaded from the task
+ *  directory are restored, modules imported from the python installation stay loaded for the next script.
+ */
+class PythonWorker implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PythonWorker.class);
+
+    /**
+     * main loop of the python process, python 2.7 and 3 compatible.
+     * requests are read from stdin, reports are written to stdout, both are moved away
+     * from the standard file descriptors before any script runs
+     */
+    private static final String BOOTSTRAP = String.join("\n",
+            "import gc, os, runpy, sys, traceback",
+            "marker = sys.argv[1]",
+            "requests = os.fdopen(os.dup(0), 'r')",
+            "reports = os.fdopen(os.dup(1), 'w')",
+            "devnull = os.open(os.devnull, os.O_RDWR)",
+            "for fd in (0, 1, 2):",
+            "    os.dup2(devnull, fd)",
+            "base_cwd, base_env, base_path = os.getcwd(), dict(os.environ), list(sys.path)",
+            "def report(kind, value):",
+            "    reports.write('%s %s %s\\n' % (marker, kind, value))",
+            "    reports.flush()",
+            "def rss():",
+            "    try:",
+            "        with open('/proc/self/statm') as f:",
+            "            return int(f.read().split()[1]) * os.sysconf('SC_PAGE_SIZE') // 1024",
+            "    except Exception:",
+            "        return 0",
+            "def run(work_dir, script, output):",
+            "    fd = os.open(output, os.O_WRONLY | os.O_APPEND | os.O_CREAT, 0o600)",
+            "    os.dup2(fd, 1)",
+            "    os.dup2(fd, 2)",
+            "    os.close(fd)",
+            "    script_dir = os.path.dirname(script)",
+            "    code = 0",
+            "    try:",
+            "        os.chdir(work_dir)",
+            "        sys.argv = [script]",
+            "        sys.path[0:0] = [script_dir]",
+            "        runpy.run_path(script, run_name='__main__')",
+            "    except SystemExit:",
+            "        e = sys.exc_info()[1]",
+            "        if e.code is None or isinstance(e.code, int):",
+            "            code = e.code or 0",
+            "        else:",
+            "            sys.stderr.write('%s\\n' % e.code)",
+            "            code = 1",
+            "    except BaseException:",
+            "        traceback.print_exc()",
+            "        code = 1",
+            "    sys.stdout.flush()",
+            "    sys.stderr.flush()",
+            "    os.dup2(devnull, 1)",
+            "    os.dup2(devnull, 2)",
+            "    os.chdir(base_cwd)",
+            "    os.environ.clear()",
+            "    os.environ.update(base_env)",
+            "    sys.path[:] = base_path",
+            "    for name, module in list(sys.modules.items()):",
+            "        path = getattr(module, '__file__', None) or ''",
+            "        if path.startswith(work_dir) or path.startswith(script_dir):",
+            "            del sys.modules[name]",
+            "    gc.collect()",
+            "    return code",
+            "while True:",
+            "    line = requests.readline()",
+            "    if not line:",
+            "        break",
+            "    report('pid', os.getpid())",
+            "    code = run(*line.rstrip('\\n').split('\\t'))",
+            "    report('exit', '%d %d' % (code, rss()))",
+            "");
+
+    private final String key;
+
+    private final Process process;
+
+    private final Writer stdin;
+
+    /**
+     * prefix of the lines the python process reports with
+     */
+    private final String marker = "__DS_PYTHON_" + UUID.randomUUID().toString().replace("-", "") + "__";
+
+    private volatile WarmProcess current;
+
+    private volatile boolean alive = true;
+
+    private int taskCount;
+
+    private volatile long lastUsedTime = System.currentTimeMillis();
+
+    /**
+     * resident memory after the last script, unit is KB. it is reported when a script exits,
+     * the memory used while a script runs is not limited by the pool
+     */
+    private volatile long rssKb;
+
+    /**
+     * start a python process
+     *
+     * @param key pool key
+     * @param command command starting the python interpreter, such as sudo -u tenant python
+     * @param readerExecutor executor of the thread reading the reports
+     * @throws IOException if the process can not be started
+     */
+    PythonWorker(String key, List<String> command, ExecutorService readerExecutor) throws IOException {
+        this.key = key;
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.add("-u");
+        fullCommand.add("-c");
+        fullCommand.add(BOOTSTRAP);
+        fullCommand.add(marker);
+        ProcessBuilder processBuilder = new ProcessBuilder(fullCommand);
+        processBuilder.redirectErrorStream(true);
+        this.process = processBuilder.start();
+        this.stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        readerExecutor.submit(this::readReports);
+    }
+
+    /**
+     * run a script
+     *
+     * @param workDir working directory of the script
+     * @param scriptFile script file
+     * @param outputFile file receiving stdout and stderr of the script
+     * @param startTimeoutMillis max time to wait for the python process to start the script
+     * @return the running script
+     * @throws IOException if the python process is lost
+     */
+    synchronized WarmProcess execute(String workDir, String scriptFile, File outputFile, long startTimeoutMillis) throws IOException {
+        if (!alive || current != null) {
+            throw new IOException("python worker is not available: " + key);
+        }
+        String request = String.join("\t", workDir, scriptFile, outputFile.getAbsolutePath());
+        if (request.indexOf('\n') >= 0 || request.split("\t").length != 3) {
+            throw new IOException("paths with tabs or line breaks are not supported: " + request);
+        }
+        taskCount++;
+        WarmProcess taskProcess = new WarmProcess(outputFile);
+        current = taskProcess;
+        try {
+            stdin.write(request);
+            stdin.write('\n');
+            stdin.flush();
+        } catch (IOException e) {
+            alive = false;
+            throw e;
+        }
+        taskProcess.awaitStarted(startTimeoutMillis);
+        return taskProcess;
+    }
+
+    private void readReports() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith(marker)) {
+                    // errors of the interpreter itself
+                    logger.info("python worker {} : {}", key, line);
+                    continue;
+                }
+                String[] report = line.substring(marker.length()).trim().split(" ");
+                WarmProcess taskProcess = current;
+                if (report.length < 2 || taskProcess == null) {
+                    continue;
+                }
+                int value = Integer.parseInt(report[1]);
+                if ("pid".equals(report[0])) {
+                    taskProcess.started(value);
+                } else {
+                    if (report.length > 2) {
+                        rssKb = Long.parseLong(report[2]);
+                    }
+                    lastUsedTime = System.currentTimeMillis();
+                    current = null;
+                    taskProcess.exited(value);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("read python worker {} failed", key, e);
+        } finally {
+            alive = false;
+            WarmProcess taskProcess = current;
+            if (taskProcess != null) {
+                current = null;
+                taskProcess.exited(Constants.EXIT_CODE_FAILURE);
+            }
+        }
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    boolean isAlive() {
+        return alive && process.isAlive();
+    }
+
+    synchronized int getTaskCount() {
+        return taskCount;
+    }
+
+    long getLastUsedTime() {
+        return lastUsedTime;
+    }
+
+    long getRssKb() {
+        return rssKb;
+    }
+
+    @Override
+    public void close() {
+        alive = false;
+        try {
+            stdin.close();
+        } catch (IOException e) {
+            // the process is already gone
+        }
+        process.destroy();
+    }
+}
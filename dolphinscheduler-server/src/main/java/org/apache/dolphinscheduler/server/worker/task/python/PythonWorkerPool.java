@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.python;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.OSUtils;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.task.WarmProcess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  pools of long running python processes per tenant and python interpreter,
+ *  used by python tasks when worker.python.pool.enable is set.
+ *
+ *  a process is only reused after a script exited with 0 and while its resident memory is below
+ *  worker.python.pool.max.memory.mb, it is replaced after worker.python.pool.max.tasks scripts
+ *  or when it was idle for worker.python.pool.idle.timeout.seconds. the memory cap is checked between
+ *  scripts, it keeps memory a script left behind from piling up, a running script may use more like
+ *  a script in a new process.
+ *  after every borrow the pool is filled up again in the background.
+ */
+@Service
+public class PythonWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(PythonWorkerPool.class);
+
+    /**
+     * max time to wait for a python process to start a script, a new process may still be starting up
+     */
+    private static final long START_TIMEOUT_MILLIS = 30 * 1000L;
+
+    /**
+     * interval of stopping idle processes
+     */
+    private static final long CLEAN_INTERVAL_MILLIS = 30 * 1000L;
+
+    /**
+     * worker config
+     */
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    /**
+     * pool key -> idle python processes, the most recently used first
+     */
+    private final Map<String, Deque<PythonWorker>> idleWorkers = new ConcurrentHashMap<>();
+
+    /**
+     * keys whose pool is being filled up
+     */
+    private final Set<String> filling = ConcurrentHashMap.newKeySet();
+
+    /**
+     * fill and clean executor, started with the first python process
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * threads reading the reports of the python processes
+     */
+    private ExecutorService readerExecutor;
+
+    private volatile boolean closed;
+
+    /**
+     * whether python tasks run in pooled python processes
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return workerConfig.isPythonPoolEnable() && !OSUtils.isWindows();
+    }
+
+    /**
+     * run a script in a pooled python process of the tenant
+     *
+     * @param tenant tenant
+     * @param python python interpreter
+     * @param workDir working directory of the script
+     * @param scriptFile script file
+     * @param outputFile file receiving the script output
+     * @return the running script
+     * @throws IOException if no python process could run the script
+     */
+    public Process execute(String tenant, String python, String workDir, String scriptFile, File outputFile) throws IOException {
+        startExecutors();
+        String key = tenant + "@" + python;
+        PythonWorker worker = borrow(key);
+        if (worker == null) {
+            worker = new PythonWorker(key, pythonCommand(tenant, python), readerExecutor);
+        }
+        fill(key, tenant, python);
+
+        WarmProcess process;
+        try {
+            process = worker.execute(workDir, scriptFile, outputFile, START_TIMEOUT_MILLIS);
+        } catch (IOException e) {
+            worker.close();
+            throw e;
+        }
+        PythonWorker usedWorker = worker;
+        process.getExitFuture().whenComplete((exitCode, e) -> release(usedWorker, exitCode));
+        return process;
+    }
+
+    /**
+     * command starting the python interpreter as the tenant
+     *
+     * @param tenant tenant
+     * @param python python interpreter
+     * @return command
+     */
+    protected List<String> pythonCommand(String tenant, String python) {
+        return Arrays.asList("sudo", "-u", tenant, python);
+    }
+
+    private PythonWorker borrow(String key) {
+        Deque<PythonWorker> workers = idleWorkers.get(key);
+        if (workers == null) {
+            return null;
+        }
+        while (true) {
+            PythonWorker worker;
+            synchronized (workers) {
+                worker = workers.pollFirst();
+            }
+            if (worker == null) {
+                return null;
+            }
+            if (isReusable(worker, System.currentTimeMillis())) {
+                return worker;
+            }
+            worker.close();
+        }
+    }
+
+    private void release(PythonWorker worker, Integer exitCode) {
+        if (closed || exitCode == null || exitCode != 0 || !isReusable(worker, System.currentTimeMillis())) {
+            // a failed script may have left broken module state behind
+            worker.close();
+            return;
+        }
+        if (worker.getRssKb() > workerConfig.getPythonPoolMaxMemoryMb() * 1024) {
+            logger.info("python worker {} uses {} KB memory, replace it", worker.getKey(), worker.getRssKb());
+            worker.close();
+            return;
+        }
+        Deque<PythonWorker> workers = idleWorkers.computeIfAbsent(worker.getKey(), k -> new ArrayDeque<>());
+        synchronized (workers) {
+            if (workers.size() < workerConfig.getPythonPoolSize()) {
+                workers.offerFirst(worker);
+                return;
+            }
+        }
+        worker.close();
+    }
+
+    private boolean isReusable(PythonWorker worker, long now) {
+        return worker.isAlive()
+                && worker.getTaskCount() < workerConfig.getPythonPoolMaxTasks()
+                && now - worker.getLastUsedTime() < workerConfig.getPythonPoolIdleTimeoutSeconds() * 1000L;
+    }
+
+    /**
+     * start python processes in the background until the key has pool size idle processes
+     */
+    private void fill(String key, String tenant, String python) {
+        if (!filling.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    Deque<PythonWorker> workers = idleWorkers.computeIfAbsent(key, k -> new ArrayDeque<>());
+                    while (!closed) {
+                        synchronized (workers) {
+                            if (workers.size() >= workerConfig.getPythonPoolSize()) {
+                                break;
+                            }
+                        }
+                        PythonWorker worker = new PythonWorker(key, pythonCommand(tenant, python), readerExecutor);
+                        synchronized (workers) {
+                            workers.offerLast(worker);
+                        }
+                    }
+                } catch (Exception e) {
+                    logger.warn("start python worker of {} failed", key, e);
+                } finally {
+                    filling.remove(key);
+                }
+            });
+        } catch (Exception e) {
+            // rejected while closing
+            filling.remove(key);
+        }
+    }
+
+    /**
+     * stop idle python processes which are expired or lost
+     */
+    void closeIdleWorkers() {
+        try {
+            long now = System.currentTimeMillis();
+            int idleCount = 0;
+            for (Deque<PythonWorker> workers : idleWorkers.values()) {
+                synchronized (workers) {
+                    Iterator<PythonWorker> iterator = workers.iterator();
+                    while (iterator.hasNext()) {
+                        PythonWorker worker = iterator.next();
+                        if (!isReusable(worker, now)) {
+                            iterator.remove();
+                            worker.close();
+                        }
+                    }
+                    idleCount += workers.size();
+                }
+            }
+            if (idleCount > 0) {
+                logger.info("idle python workers : {}", idleCount);
+            }
+        } catch (Exception e) {
+            logger.error("close idle python workers failed", e);
+        }
+    }
+
+    /**
+     * number of idle python processes
+     *
+     * @return idle count
+     */
+    public int getIdleCount() {
+        int count = 0;
+        for (Deque<PythonWorker> workers : idleWorkers.values()) {
+            synchronized (workers) {
+                count += workers.size();
+            }
+        }
+        return count;
+    }
+
+    private synchronized void startExecutors() {
+        if (executor == null) {
+            readerExecutor = ThreadUtils.newDaemonCachedThreadPool("Worker-Python-Pool-Reader");
+            executor = ThreadUtils.newDaemonThreadScheduledExecutor("Worker-Python-Pool", 1);
+            executor.scheduleWithFixedDelay(this::closeIdleWorkers,
+                    CLEAN_INTERVAL_MILLIS, CLEAN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (Deque<PythonWorker> workers : idleWorkers.values()) {
+            synchronized (workers) {
+                workers.forEach(PythonWorker::close);
+                workers.clear();
+            }
+        }
+        idleWorkers.clear();
+        if (readerExecutor != null) {
+            readerExecutor.shutdownNow();
+        }
+    }
+}
@@ -75,6 +75,7 @@ public class ShellTask extends AbstractTask {
     this.shellCommandExecutor = new ShellCommandExecutor(this::logHandle,
             taskExecutionContext,
             logger);
+    this.shellCommandExecutor.setWarmShell(true);
   }
 
   @Override
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.shell;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.server.worker.task.WarmProcess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+/**
+ *  a long running shell of a tenant which already sourced the env file.
+ *  every task script runs in a forked subshell in the background, the shell only reports
+ *  the pid and the exit code of the script, so the scripts of different tasks do not see
+ *  each other's variables or working directory.
+ */
+class WarmShell implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmShell.class);
+
+    private final String key;
+
+    private final Process process;
+
+    private final Writer stdin;
+
+    /**
+     * prefix of the lines the shell reports with, task output never goes to the shell stdout
+     */
+    private final String marker = "__DS_WARM_" + UUID.randomUUID().toString().replace("-", "") + "__";
+
+    private volatile WarmProcess current;
+
+    private volatile boolean alive = true;
+
+    private int taskCount;
+
+    private volatile long lastUsedTime = System.currentTimeMillis();
+
+    /**
+     * start a warm shell
+     *
+     * @param key pool key
+     * @param command shell command, such as sudo -u tenant sh
+     * @param envFile env file sourced once, may be null
+     * @param readerExecutor executor of the thread reading the shell reports
+     * @throws IOException if the shell can not be started
+     */
+    WarmShell(String key, List<String> command, String envFile, ExecutorService readerExecutor) throws IOException {
+        this.key = key;
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectErrorStream(true);
+        this.process = processBuilder.start();
+        this.stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        readerExecutor.submit(this::readReports);
+
+        if (envFile != null) {
+            send(String.format(". %s\n%s=%s", quote(envFile), WarmShellPool.ENV_FILE_VARIABLE, quote(envFile)));
+        }
+    }
+
+    /**
+     * run a command file in a subshell
+     *
+     * @param workDir working directory of the script
+     * @param commandFile command file
+     * @param outputFile file receiving stdout and stderr of the script
+     * @param startTimeoutMillis max time to wait for the shell to start the script
+     * @return the running script
+     * @throws IOException if the shell is lost
+     */
+    synchronized WarmProcess execute(String workDir, String commandFile, File outputFile, long startTimeoutMillis) throws IOException {
+        if (!alive || current != null) {
+            throw new IOException("warm shell is not available: " + key);
+        }
+        taskCount++;
+        WarmProcess taskProcess = new WarmProcess(outputFile);
+        current = taskProcess;
+        send(String.format("( cd %s && . %s ) > %s 2>&1 < /dev/null & echo \"%s pid $!\"; wait $!; echo \"%s exit $?\"",
+                quote(workDir), quote(commandFile), quote(outputFile.getAbsolutePath()), marker, marker));
+        taskProcess.awaitStarted(startTimeoutMillis);
+        return taskProcess;
+    }
+
+    private void send(String line) throws IOException {
+        try {
+            stdin.write(line);
+            stdin.write('\n');
+            stdin.flush();
+        } catch (IOException e) {
+            alive = false;
+            throw e;
+        }
+    }
+
+    private void readReports() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith(marker)) {
+                    // output of the env file
+                    logger.info("warm shell {} : {}", key, line);
+                    continue;
+                }
+                String[] report = line.substring(marker.length()).trim().split(" ");
+                WarmProcess taskProcess = current;
+                if (report.length != 2 || taskProcess == null) {
+                    continue;
+                }
+                int value = Integer.parseInt(report[1]);
+                if ("pid".equals(report[0])) {
+                    taskProcess.started(value);
+                } else {
+                    lastUsedTime = System.currentTimeMillis();
+                    current = null;
+                    taskProcess.exited(value);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("read warm shell {} failed", key, e);
+        } finally {
+            alive = false;
+            WarmProcess taskProcess = current;
+            if (taskProcess != null) {
+                current = null;
+                taskProcess.exited(Constants.EXIT_CODE_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * single quote a shell word
+     */
+    static String quote(String word) {
+        return "'" + word.replace("'", "'\\''") + "'";
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    boolean isAlive() {
+        return alive && process.isAlive();
+    }
+
+    synchronized int getTaskCount() {
+        return taskCount;
+    }
+
+    long getLastUsedTime() {
+        return lastUsedTime;
+    }
+
+    @Override
+    public void close() {
+        alive = false;
+        try {
+            stdin.close();
+        } catch (IOException e) {
+            // the shell is already gone
+        }
+        process.destroy();
+    }
+}
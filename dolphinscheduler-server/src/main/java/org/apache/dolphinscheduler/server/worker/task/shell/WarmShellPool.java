@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.shell;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.OSUtils;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.task.WarmProcess;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  pools of warm shells per tenant and env file, used by shell tasks when worker.shell.warm.enable is set.
+ *
+ *  a shell is only reused after a script exited with 0, it is replaced after worker.shell.warm.max.tasks
+ *  scripts or when it was idle for worker.shell.warm.idle.timeout.seconds.
+ *  after every borrow the pool of the tenant is filled up again in the background.
+ */
+@Service
+public class WarmShellPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmShellPool.class);
+
+    /**
+     * variable set by a warm shell to the env file it sourced, command files skip sourcing it again
+     */
+    public static final String ENV_FILE_VARIABLE = "DS_WARM_ENV_FILE";
+
+    /**
+     * max time to wait for a shell to start a script
+     */
+    private static final long START_TIMEOUT_MILLIS = 10 * 1000L;
+
+    /**
+     * interval of stopping idle shells
+     */
+    private static final long CLEAN_INTERVAL_MILLIS = 30 * 1000L;
+
+    /**
+     * worker config
+     */
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    /**
+     * pool key -> idle shells, the most recently used first
+     */
+    private final Map<String, Deque<WarmShell>> idleShells = new ConcurrentHashMap<>();
+
+    /**
+     * keys whose pool is being filled up
+     */
+    private final Set<String> filling = ConcurrentHashMap.newKeySet();
+
+    /**
+     * fill and clean executor, started with the first shell
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * threads reading the reports of the shells
+     */
+    private ExecutorService readerExecutor;
+
+    private volatile boolean closed;
+
+    /**
+     * whether shell tasks run in warm shells
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return workerConfig.isShellWarmEnable() && !OSUtils.isWindows();
+    }
+
+    /**
+     * run a command file in a warm shell of the tenant
+     *
+     * @param tenant tenant
+     * @param envFile env file, may be null
+     * @param workDir working directory of the script
+     * @param commandFile command file
+     * @param outputFile file receiving the script output
+     * @return the running script
+     * @throws IOException if no shell could run the script
+     */
+    public Process execute(String tenant, String envFile, String workDir, String commandFile, File outputFile) throws IOException {
+        startExecutors();
+        String key = buildKey(tenant, envFile);
+        WarmShell shell = borrow(key);
+        if (shell == null) {
+            shell = new WarmShell(key, shellCommand(tenant), envFile, readerExecutor);
+        }
+        fill(key, tenant, envFile);
+
+        WarmProcess process;
+        try {
+            process = shell.execute(workDir, commandFile, outputFile, START_TIMEOUT_MILLIS);
+        } catch (IOException e) {
+            shell.close();
+            throw e;
+        }
+        WarmShell usedShell = shell;
+        process.getExitFuture().whenComplete((exitCode, e) -> release(usedShell, exitCode));
+        return process;
+    }
+
+    /**
+     * command starting a shell of the tenant
+     *
+     * @param tenant tenant
+     * @return command
+     */
+    protected List<String> shellCommand(String tenant) {
+        return Arrays.asList("sudo", "-u", tenant, "sh");
+    }
+
+    /**
+     * shells are keyed by the env file modify time too, so changes of the env file are picked up
+     */
+    private String buildKey(String tenant, String envFile) {
+        if (envFile == null) {
+            return tenant;
+        }
+        return String.format("%s@%s@%d", tenant, envFile, new File(envFile).lastModified());
+    }
+
+    private WarmShell borrow(String key) {
+        Deque<WarmShell> shells = idleShells.get(key);
+        if (shells == null) {
+            return null;
+        }
+        while (true) {
+            WarmShell shell;
+            synchronized (shells) {
+                shell = shells.pollFirst();
+            }
+            if (shell == null) {
+                return null;
+            }
+            if (isReusable(shell, System.currentTimeMillis())) {
+                return shell;
+            }
+            shell.close();
+        }
+    }
+
+    private void release(WarmShell shell, Integer exitCode) {
+        if (closed || exitCode == null || exitCode != 0 || !isReusable(shell, System.currentTimeMillis())) {
+            // failed and killed scripts may have left the shell in any state
+            shell.close();
+            return;
+        }
+        Deque<WarmShell> shells = idleShells.computeIfAbsent(shell.getKey(), k -> new ArrayDeque<>());
+        synchronized (shells) {
+            if (shells.size() < workerConfig.getShellWarmPoolSize()) {
+                shells.offerFirst(shell);
+                return;
+            }
+        }
+        shell.close();
+    }
+
+    private boolean isReusable(WarmShell shell, long now) {
+        return shell.isAlive()
+                && shell.getTaskCount() < workerConfig.getShellWarmMaxTasks()
+                && now - shell.getLastUsedTime() < workerConfig.getShellWarmIdleTimeoutSeconds() * 1000L;
+    }
+
+    /**
+     * start shells in the background until the tenant has pool size idle shells
+     */
+    private void fill(String key, String tenant, String envFile) {
+        if (!filling.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    Deque<WarmShell> shells = idleShells.computeIfAbsent(key, k -> new ArrayDeque<>());
+                    while (!closed) {
+                        synchronized (shells) {
+                            if (shells.size() >= workerConfig.getShellWarmPoolSize()) {
+                                break;
+                            }
+                        }
+                        WarmShell shell = new WarmShell(key, shellCommand(tenant), envFile, readerExecutor);
+                        synchronized (shells) {
+                            shells.offerLast(shell);
+                        }
+                    }
+                } catch (Exception e) {
+                    logger.warn("start warm shell of {} failed", key, e);
+                } finally {
+                    filling.remove(key);
+                }
+            });
+        } catch (Exception e) {
+            // rejected while closing
+            filling.remove(key);
+        }
+    }
+
+    /**
+     * stop idle shells which are expired or lost
+     */
+    void closeIdleShells() {
+        try {
+            long now = System.currentTimeMillis();
+            int idleCount = 0;
+            for (Deque<WarmShell> shells : idleShells.values()) {
+                synchronized (shells) {
+                    Iterator<WarmShell> iterator = shells.iterator();
+                    while (iterator.hasNext()) {
+                        WarmShell shell = iterator.next();
+                        if (!isReusable(shell, now)) {
+                            iterator.remove();
+                            shell.close();
+                        }
+                    }
+                    idleCount += shells.size();
+                }
+            }
+            if (idleCount > 0) {
+                logger.info("idle warm shells : {}", idleCount);
+            }
+        } catch (Exception e) {
+            logger.error("close idle warm shells failed", e);
+        }
+    }
+
+    /**
+     * number of idle shells
+     *
+     * @return idle shell count
+     */
+    public int getIdleCount() {
+        int count = 0;
+        for (Deque<WarmShell> shells : idleShells.values()) {
+            synchronized (shells) {
+                count += shells.size();
+            }
+        }
+        return count;
+    }
+
+    private synchronized void startExecutors() {
+        if (executor == null) {
+            readerExecutor = ThreadUtils.newDaemonCachedThreadPool("Worker-Warm-Shell-Reader");
+            executor = ThreadUtils.newDaemonThreadScheduledExecutor("Worker-Warm-Shell", 1);
+            executor.scheduleWithFixedDelay(this::closeIdleShells,
+                    CLEAN_INTERVAL_MILLIS, CLEAN_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (Deque<WarmShell> shells : idleShells.values()) {
+            synchronized (shells) {
+                shells.forEach(WarmShell::close);
+                shells.clear();
+            }
+        }
+        idleShells.clear();
+        if (readerExecutor != null) {
+            readerExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.sql;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.dolphinscheduler.common.task.sql.SqlResultFormat;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ *  writes a query result set row by row to a csv or json lines file,
+ *  only the first rows are kept in memory as a preview for alerts
+ */
+public class SqlResultFileWriter implements Closeable {
+
+    private final File file;
+
+    private final SqlResultFormat format;
+
+    private final int previewRows;
+
+    private final Writer writer;
+
+    private final ArrayNode preview = JSONUtils.createArrayNode();
+
+    private long rowCount;
+
+    /**
+     * constructor
+     *
+     * @param file result file
+     * @param format result file format
+     * @param previewRows number of rows kept for the preview
+     * @throws IOException if the file can not be created
+     */
+    public SqlResultFileWriter(File file, SqlResultFormat format, int previewRows) throws IOException {
+        this.file = file;
+        this.format = format;
+        this.previewRows = previewRows;
+        this.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * write every remaining row of the result set
+     *
+     * @param resultSet result set
+     * @throws SQLException if reading the result set fails
+     * @throws IOException if writing the file fails
+     */
+    public void write(ResultSet resultSet) throws SQLException, IOException {
+        ResultSetMetaData md = resultSet.getMetaData();
+        int num = md.getColumnCount();
+        String[] columnNames = new String[num];
+        for (int i = 1; i <= num; i++) {
+            columnNames[i - 1] = md.getColumnName(i);
+        }
+        if (format == SqlResultFormat.CSV) {
+            writeCsvLine(columnNames);
+        }
+
+        Object[] values = new Object[num];
+        while (resultSet.next()) {
+            for (int i = 1; i <= num; i++) {
+                values[i - 1] = resultSet.getObject(i);
+            }
+            if (format == SqlResultFormat.CSV) {
+                writeCsvLine(values);
+            }
+            if (format == SqlResultFormat.JSON || rowCount < previewRows) {
+                ObjectNode row = JSONUtils.createObjectNode();
+                for (int i = 0; i < num; i++) {
+                    row.set(columnNames[i], JSONUtils.toJsonNode(values[i]));
+                }
+                if (format == SqlResultFormat.JSON) {
+                    writer.write(JSONUtils.toJsonString(row));
+                    writer.write('\n');
+                }
+                if (rowCount < previewRows) {
+                    preview.add(row);
+                }
+            }
+            rowCount++;
+        }
+    }
+
+    private void writeCsvLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(String.valueOf(values[i])));
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * quote values containing separators, quotes or line breaks as rfc 4180 requires
+     */
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public ArrayNode getPreview() {
+        return preview;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -29,6 +29,7 @@ import org.apache.dolphinscheduler.common.process.Property;
 import org.apache.dolphinscheduler.common.task.AbstractParameters;
 import org.apache.dolphinscheduler.common.task.sql.SqlBinds;
 import org.apache.dolphinscheduler.common.task.sql.SqlParameters;
+import org.apache.dolphinscheduler.common.task.sql.SqlResultFormat;
 import org.apache.dolphinscheduler.common.task.sql.SqlType;
 import org.apache.dolphinscheduler.common.utils.*;
 import org.apache.dolphinscheduler.dao.AlertDao;
@@ -39,10 +40,12 @@ import org.apache.dolphinscheduler.server.entity.SQLTaskExecutionContext;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
 import org.apache.dolphinscheduler.server.utils.ParamUtils;
 import org.apache.dolphinscheduler.server.utils.UDFUtils;
+import org.apache.dolphinscheduler.server.worker.datasource.JdbcConnectionPoolManager;
 import org.apache.dolphinscheduler.server.worker.task.AbstractTask;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.slf4j.Logger;
 
+import java.io.File;
 import java.sql.*;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -60,10 +63,18 @@ public class SqlTask extends AbstractTask {
      *  sql parameters
      */
     private SqlParameters sqlParameters;
+    /**
+     *  result file format, null if the result is not written to a file
+     */
+    private SqlResultFormat resultFormat;
     /**
      *  alert dao
      */
     private AlertDao alertDao;
+    /**
+     *  jdbc connection pool manager
+     */
+    private JdbcConnectionPoolManager jdbcConnectionPoolManager;
     /**
      * base datasource
      */
@@ -79,6 +90,16 @@ public class SqlTask extends AbstractTask {
      */
     private static final int LIMIT = 10000;
 
+    /**
+     * fetch size of streamed query results
+     */
+    private static final int RESULT_FETCH_SIZE = 1000;
+
+    /**
+     * rows of streamed query results sent by alert
+     */
+    private static final int RESULT_PREVIEW_ROWS = 100;
+
     public SqlTask(TaskExecutionContext taskExecutionContext, Logger logger) {
         super(taskExecutionContext, logger);
 
@@ -86,12 +107,15 @@ public class SqlTask extends AbstractTask {
 
         logger.info("sql task params {}", taskExecutionContext.getTaskParams());
         this.sqlParameters = JSONUtils.parseObject(taskExecutionContext.getTaskParams(), SqlParameters.class);
+        // fails with the supported formats in the message
+        this.resultFormat = SqlResultFormat.of(sqlParameters.getResultFormat());
 
         if (!sqlParameters.checkParameters()) {
             throw new RuntimeException("sql task params is not valid");
         }
 
         this.alertDao = SpringApplicationContext.getBean(AlertDao.class);
+        this.jdbcConnectionPoolManager = SpringApplicationContext.getBean(JdbcConnectionPoolManager.class);
     }
 
     @Override
@@ -212,10 +236,8 @@ public class SqlTask extends AbstractTask {
         PreparedStatement stmt = null;
         ResultSet resultSet = null;
         try {
-            // if upload resource is HDFS and kerberos startup
-            CommonUtils.loadKerberosConf();
             // create connection
-            connection = createConnection();
+            connection = createConnection(createFuncs);
             // create temp function
             if (CollectionUtils.isNotEmpty(createFuncs)) {
                 createTempFunction(connection,createFuncs);
@@ -227,9 +249,14 @@ public class SqlTask extends AbstractTask {
 
             // decide whether to executeQuery or executeUpdate based on sqlType
             if (sqlParameters.getSqlType() == SqlType.QUERY.ordinal()) {
-                // query statements need to be convert to JsonArray and inserted into Alert to send
-                resultSet = stmt.executeQuery();
-                resultProcess(resultSet);
+                if (resultFormat != null) {
+                    // query results are streamed to a file, only a preview is sent by alert
+                    streamResultProcess(connection, stmt);
+                } else {
+                    // query statements need to be convert to JsonArray and inserted into Alert to send
+                    resultSet = stmt.executeQuery();
+                    resultProcess(resultSet);
+                }
 
             } else if (sqlParameters.getSqlType() == SqlType.NON_QUERY.ordinal()) {
                 // non query statement
@@ -267,6 +294,9 @@ public class SqlTask extends AbstractTask {
             resultJSONArray.add(mapOfColValues);
             rowCount++;
         }
+        if (rowCount == LIMIT && resultSet.next()) {
+            logger.warn("query result is truncated to {} rows, set a result format to write every row to a file", LIMIT);
+        }
         String result = JSONUtils.toJsonString(resultJSONArray);
         logger.debug("execute sql : {}", result);
 
@@ -275,6 +305,84 @@ public class SqlTask extends AbstractTask {
                 JSONUtils.toJsonString(resultJSONArray));
     }
 
+    /**
+     * stream the query result to a file in the execute path and send a preview
+     *
+     * @param connection connection
+     * @param stmt query statement
+     * @throws Exception
+     */
+    private void streamResultProcess(Connection connection, PreparedStatement stmt) throws Exception{
+        DbType dbType = DbType.valueOf(sqlParameters.getType());
+        boolean cursorTransaction = false;
+        if (dbType == DbType.MYSQL) {
+            // mysql driver streams rows one by one only with this fetch size
+            stmt.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            if (dbType == DbType.POSTGRESQL && connection.getAutoCommit()) {
+                // postgresql driver fetches with a cursor only in a transaction
+                connection.setAutoCommit(false);
+                cursorTransaction = true;
+            }
+            stmt.setFetchSize(RESULT_FETCH_SIZE);
+        }
+
+        File resultFile = new File(taskExecutionContext.getExecutePath(),
+                String.format("sql_result_%d.%s", taskExecutionContext.getTaskInstanceId(), resultFormat.getExtension()));
+        SqlResultFileWriter resultWriter = new SqlResultFileWriter(resultFile, resultFormat, RESULT_PREVIEW_ROWS);
+        try {
+            try (ResultSet resultSet = stmt.executeQuery()) {
+                resultWriter.write(resultSet);
+            }
+            if (cursorTransaction) {
+                connection.commit();
+            }
+        } catch (Exception e) {
+            if (cursorTransaction) {
+                rollback(connection, e);
+            }
+            throw e;
+        } finally {
+            resultWriter.close();
+            if (cursorTransaction) {
+                connection.setAutoCommit(true);
+            }
+        }
+        logger.info("query result : {} rows written to {}", resultWriter.getRowCount(), resultFile.getAbsolutePath());
+
+        if (sqlParameters.isUploadResult()) {
+            if (PropertyUtils.getResUploadStartupState()) {
+                String resultPath = String.format("%s/sql_results/%s",
+                        HadoopUtils.getHdfsTenantDir(taskExecutionContext.getTenantCode()), resultFile.getName());
+                HadoopUtils.getInstance().copyLocalToHdfs(resultFile.getAbsolutePath(), resultPath, false, true);
+                logger.info("query result uploaded to {}", resultPath);
+            } else {
+                logger.warn("resource storage is not enabled, query result is not uploaded");
+            }
+        }
+
+        String title = StringUtils.isNotEmpty(sqlParameters.getTitle()) ?
+                sqlParameters.getTitle() : taskExecutionContext.getTaskName() + " query result sets";
+        if (resultWriter.getRowCount() > resultWriter.getPreview().size()) {
+            title = String.format("%s (first %d of %d rows)", title, resultWriter.getPreview().size(), resultWriter.getRowCount());
+        }
+        sendAttachment(title, JSONUtils.toJsonString(resultWriter.getPreview()));
+    }
+
+    /**
+     * rollback the transaction of a failed statement, a rollback error does not hide the statement error
+     *
+     * @param connection connection
+     * @param cause statement error
+     */
+    private void rollback(Connection connection, Exception cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
     /**
      *  pre sql
      *
@@ -325,31 +433,24 @@ public class SqlTask extends AbstractTask {
         }
     }
     /**
-     * create connection
+     * create connection, pooled unless the session gets temporary functions
      *
+     * @param createFuncs createFuncs
      * @return connection
      * @throws Exception
      */
-    private Connection createConnection() throws Exception{
+    private Connection createConnection(List<String> createFuncs) throws Exception{
         // if hive , load connection params if exists
-        Connection connection = null;
+        Map<String, String> connParamMap = null;
         if (HIVE == DbType.valueOf(sqlParameters.getType())) {
-            Properties paramProp = new Properties();
-            paramProp.setProperty(USER, baseDataSource.getUser());
-            paramProp.setProperty(PASSWORD, baseDataSource.getPassword());
-            Map<String, String> connParamMap = CollectionUtils.stringToMap(sqlParameters.getConnParams(),
+            connParamMap = CollectionUtils.stringToMap(sqlParameters.getConnParams(),
                     SEMICOLON,
                     HIVE_CONF);
-            paramProp.putAll(connParamMap);
-
-            connection = DriverManager.getConnection(baseDataSource.getJdbcUrl(),
-                    paramProp);
-        }else{
-            connection = DriverManager.getConnection(baseDataSource.getJdbcUrl(),
-                    baseDataSource.getUser(),
-                    baseDataSource.getPassword());
         }
-        return connection;
+        if (CollectionUtils.isNotEmpty(createFuncs)) {
+            return jdbcConnectionPoolManager.getDirectConnection(baseDataSource, connParamMap);
+        }
+        return jdbcConnectionPoolManager.getConnection(sqlParameters.getDatasource(), baseDataSource, connParamMap);
     }
 
     /**
@@ -17,8 +17,6 @@
 package org.apache.dolphinscheduler.server.zk;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.curator.framework.CuratorFramework;
-import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
 import org.apache.curator.framework.recipes.locks.InterProcessMutex;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
@@ -28,18 +26,31 @@ import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.TaskReconcileRequestCommand;
+import org.apache.dolphinscheduler.remote.command.TaskReconcileResponseCommand;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
 import org.apache.dolphinscheduler.server.builder.TaskExecutionContextBuilder;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.server.utils.ProcessUtils;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.zk.AbstractZKClient;
+import org.apache.dolphinscheduler.service.zk.MembershipEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.apache.dolphinscheduler.common.Constants.SLEEP_TIME_MILLIS;
 
@@ -57,12 +68,23 @@ public class ZKMasterClient extends AbstractZKClient {
 	 */
 	private static final Logger logger = LoggerFactory.getLogger(ZKMasterClient.class);
 
+	/**
+	 * max time to wait for a worker to reconcile its tasks
+	 */
+	private static final long RECONCILE_TIMEOUT_MILLIS = 5000L;
+
 	/**
 	 *  process service
 	 */
 	@Autowired
 	private ProcessService processService;
 
+	/**
+	 *  netty executor manager, its client is used to reconcile with workers
+	 */
+	@Autowired
+	private NettyExecutorManager nettyExecutorManager;
+
 	public void start() {
 
 		InterProcessMutex mutex = null;
@@ -99,19 +121,17 @@ public class ZKMasterClient extends AbstractZKClient {
 	}
 
 	/**
-	 * handle path events that this class cares about
-	 * @param client   zkClient
-	 * @param event	   path event
-	 * @param path     zk path
+	 * handle membership events that this class cares about
+	 * @param event	   membership event
 	 */
 	@Override
-	protected void dataChanged(CuratorFramework client, TreeCacheEvent event, String path) {
+	protected void membershipChanged(MembershipEvent event) {
 		//monitor master
-		if(path.startsWith(getZNodeParentPath(ZKNodeType.MASTER)+Constants.SINGLE_SLASH)){
-			handleMasterEvent(event,path);
-		}else if(path.startsWith(getZNodeParentPath(ZKNodeType.WORKER)+Constants.SINGLE_SLASH)){
+		if(event.getNodeType() == ZKNodeType.MASTER){
+			handleMasterEvent(event,event.getPath());
+		}else if(event.getNodeType() == ZKNodeType.WORKER){
 			//monitor worker
-			handleWorkerEvent(event,path);
+			handleWorkerEvent(event,event.getPath());
 		}
 	}
 
@@ -192,7 +212,7 @@ public class ZKMasterClient extends AbstractZKClient {
 	 * @param event event
 	 * @param path path
 	 */
-	public void handleMasterEvent(TreeCacheEvent event, String path){
+	public void handleMasterEvent(MembershipEvent event, String path){
 		switch (event.getType()) {
 			case NODE_ADDED:
 				logger.info("master node added : {}", path);
@@ -210,7 +230,7 @@ public class ZKMasterClient extends AbstractZKClient {
 	 * @param event event
 	 * @param path path
 	 */
-	public void handleWorkerEvent(TreeCacheEvent event, String path){
+	public void handleWorkerEvent(MembershipEvent event, String path){
 		switch (event.getType()) {
 			case NODE_ADDED:
 				logger.info("worker node added : {}", path);
@@ -297,13 +317,22 @@ public class ZKMasterClient extends AbstractZKClient {
 	private void failoverWorker(String workerHost, boolean needCheckWorkerAlive) throws Exception {
 		logger.info("start worker[{}] failover ...", workerHost);
 
-		List<TaskInstance> needFailoverTaskInstanceList = processService.queryNeedFailoverTaskInstances(workerHost);
-		for(TaskInstance taskInstance : needFailoverTaskInstanceList){
+		List<TaskInstance> needFailoverTaskInstanceList = new ArrayList<>();
+		for(TaskInstance taskInstance : processService.queryNeedFailoverTaskInstances(workerHost)){
 			if(needCheckWorkerAlive){
 				if(!checkTaskInstanceNeedFailover(taskInstance)){
 					continue;
 				}
 			}
+			needFailoverTaskInstanceList.add(taskInstance);
+		}
+
+		Set<Integer> recoveredTaskInstanceIds = reconcileWithWorkers(needFailoverTaskInstanceList);
+		for(TaskInstance taskInstance : needFailoverTaskInstanceList){
+			if(recoveredTaskInstanceIds.contains(taskInstance.getId())){
+				logger.info("task instance {} is recovered by worker {}, no need to failover", taskInstance.getId(), taskInstance.getHost());
+				continue;
+			}
 
 			ProcessInstance processInstance = processService.findProcessInstanceDetailById(taskInstance.getProcessInstanceId());
 			if(processInstance != null){
@@ -323,6 +352,39 @@ public class ZKMasterClient extends AbstractZKClient {
 		logger.info("end worker[{}] failover ...", workerHost);
 	}
 
+	/**
+	 * ask the restarted workers which of the tasks they recovered from their task journal,
+	 * these workers still run the tasks or deliver their results themselves
+	 *
+	 * @param taskInstances	task instances to failover
+	 * @return recovered task instance ids
+	 */
+	private Set<Integer> reconcileWithWorkers(Collection<TaskInstance> taskInstances) {
+		Map<String, List<Integer>> workerTaskInstanceIds = new HashMap<>();
+		for(TaskInstance taskInstance : taskInstances){
+			if(StringUtils.isNotEmpty(taskInstance.getHost())){
+				workerTaskInstanceIds.computeIfAbsent(taskInstance.getHost(), k -> new ArrayList<>()).add(taskInstance.getId());
+			}
+		}
+		Set<Integer> recoveredTaskInstanceIds = new HashSet<>();
+		for(Map.Entry<String, List<Integer>> entry : workerTaskInstanceIds.entrySet()){
+			try {
+				// a worker which is not back yet has nothing to recover
+				if(!checkZKNodeExists(entry.getKey(), ZKNodeType.WORKER)){
+					continue;
+				}
+				Command request = new TaskReconcileRequestCommand(entry.getValue()).convert2Command();
+				Command response = nettyExecutorManager.getNettyRemotingClient().sendSync(Host.of(entry.getKey()), request, RECONCILE_TIMEOUT_MILLIS);
+				TaskReconcileResponseCommand reconcileCommand = JsonSerializer.deserialize(response.getBody(), TaskReconcileResponseCommand.class);
+				recoveredTaskInstanceIds.addAll(reconcileCommand.getRecoveredTaskInstanceIds());
+			}catch (Exception e){
+				// workers without a task journal do not answer
+				logger.warn("reconcile tasks with worker {} failed, failover its tasks", entry.getKey(), e);
+			}
+		}
+		return recoveredTaskInstanceIds;
+	}
+
 	/**
 	 * failover master tasks
 	 *
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.log;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class LogArchiveTest {
+
+    private Path logFile;
+
+    @Before
+    public void before() throws IOException {
+        logFile = Files.createTempFile("log-archive", ".log");
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.deleteIfExists(logFile);
+        LogArchive.delete(logFile.toString());
+    }
+
+    @Test
+    public void testArchive() throws IOException {
+        // about 40 blocks
+        List<String> expected = lines(200000);
+        byte[] content = (String.join("\n", expected) + "\n").getBytes(StandardCharsets.UTF_8);
+        Files.write(logFile, content);
+
+        Assert.assertFalse(LogArchive.isArchived(logFile.toString()));
+        Assert.assertTrue(LogArchive.archive(logFile.toString()));
+        Assert.assertTrue(LogArchive.isArchived(logFile.toString()));
+        Assert.assertFalse(Files.exists(logFile));
+
+        LogArchive archive = LogArchive.open(logFile);
+        Assert.assertEquals(200000, archive.getLineCount());
+        Assert.assertEquals(content.length, archive.getSize());
+        Assert.assertEquals(expected.subList(0, 10), archive.readLines(0, 10));
+        Assert.assertEquals(expected.subList(123456, 124456), archive.readLines(123456, 1000));
+        Assert.assertEquals(expected.subList(199990, 200000), archive.readLastLines(10));
+        Assert.assertEquals(Collections.emptyList(), archive.readLines(200000, 10));
+
+        long offset = 3 * LogArchive.BLOCK_SIZE + 17;
+        Assert.assertArrayEquals(Arrays.copyOfRange(content, (int) offset, (int) offset + 100000),
+                archive.read(offset, 100000));
+        Assert.assertArrayEquals(Arrays.copyOfRange(content, content.length - 5, content.length),
+                archive.read(content.length - 5, 100));
+        Assert.assertArrayEquals(content, readAll(archive.newInputStream()));
+
+        // the archive stays a gzip file
+        Path archiveFile = Paths.get(logFile + LogArchive.ARCHIVE_SUFFIX);
+        Assert.assertArrayEquals(content, readAll(new GZIPInputStream(Files.newInputStream(archiveFile))));
+
+        Assert.assertTrue(LogArchive.delete(logFile.toString()));
+        Assert.assertFalse(Files.exists(archiveFile));
+    }
+
+    @Test
+    public void testIncompleteLastLine() throws IOException {
+        Files.write(logFile, "a\nb\nc".getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(LogArchive.archive(logFile.toString()));
+
+        LogArchive archive = LogArchive.open(logFile);
+        Assert.assertEquals(3, archive.getLineCount());
+        Assert.assertEquals(Arrays.asList("b", "c"), archive.readLastLines(2));
+    }
+
+    @Test
+    public void testEmptyLog() throws IOException {
+        Assert.assertTrue(LogArchive.archive(logFile.toString()));
+
+        LogArchive archive = LogArchive.open(logFile);
+        Assert.assertEquals(0, archive.getLineCount());
+        Assert.assertEquals(Collections.emptyList(), archive.readLines(0, 10));
+        Assert.assertEquals(0, archive.read(0, 10).length);
+    }
+
+    @Test
+    public void testLineIndexReadsArchive() throws IOException {
+        List<String> expected = lines(5000);
+        Files.write(logFile, (String.join("\n", expected) + "\n").getBytes(StandardCharsets.UTF_8));
+        LogLineIndex index = new LogLineIndex(logFile);
+        Assert.assertEquals(expected.subList(4990, 5000), index.readLastLines(10));
+
+        Assert.assertTrue(LogArchive.archive(logFile.toString()));
+        Assert.assertEquals(5000, index.getLineCount());
+        Assert.assertEquals(expected.subList(2500, 2510), index.readLines(2500, 10));
+        Assert.assertEquals(expected.subList(4990, 5000), index.readCompleteLines(4990, 100));
+        Assert.assertNotNull(index.getArchive());
+    }
+
+    private static List<String> lines(int count) {
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add("[INFO] task log line " + i);
+        }
+        return lines;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.log;
+
+import io.netty.channel.Channel;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.log.LogFollowPushCommand;
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class LogFollowerTest {
+
+    private Path logFile;
+
+    private Channel channel;
+
+    private final AtomicBoolean writable = new AtomicBoolean(true);
+
+    private final List<Command> commands = new ArrayList<>();
+
+    private LogFollower logFollower;
+
+    @Before
+    public void before() throws IOException {
+        logFile = Files.createTempFile("log-follower", ".log");
+        channel = Mockito.mock(Channel.class);
+        Mockito.when(channel.isActive()).thenReturn(true);
+        Mockito.when(channel.isWritable()).thenAnswer(invocation -> writable.get());
+        Mockito.when(channel.writeAndFlush(Mockito.any())).thenAnswer(invocation -> {
+            synchronized (commands) {
+                commands.add(invocation.getArgument(0));
+            }
+            return null;
+        });
+        logFollower = new LogFollower(path -> new LogLineIndex(Paths.get(path)));
+    }
+
+    @After
+    public void after() throws IOException {
+        logFollower.close();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Test
+    public void testFollow() throws Exception {
+        append("line-0\nline-1\nline-2\n");
+        logFollower.follow(channel, 10, logFile.toString(), 1);
+        Assert.assertEquals("line-1\r\nline-2\r\n", awaitPush(1).getMsg());
+
+        // the incomplete line is pushed when it is complete
+        append("line-3\nline-");
+        Assert.assertEquals("line-3\r\n", awaitPush(2).getMsg());
+        append("4\n");
+        LogFollowPushCommand push = awaitPush(3);
+        Assert.assertEquals(4, push.getLineNum());
+        Assert.assertEquals("line-4\r\n", push.getMsg());
+
+        append("line-5");
+        logFollower.cancel(channel, 10, true);
+        push = awaitPush(4);
+        Assert.assertEquals("line-5\r\n", push.getMsg());
+        Assert.assertTrue(push.isEnd());
+        Assert.assertEquals(0, logFollower.getFollowCount());
+    }
+
+    @Test
+    public void testNotWritable() throws Exception {
+        writable.set(false);
+        append("line-0\n");
+        logFollower.follow(channel, 11, logFile.toString(), 0);
+        Thread.sleep(LogFollower.PUSH_INTERVAL_MILLIS * 2);
+        synchronized (commands) {
+            Assert.assertTrue(commands.isEmpty());
+        }
+
+        writable.set(true);
+        Assert.assertEquals("line-0\r\n", awaitPush(1).getMsg());
+
+        logFollower.cancel(channel, 11, false);
+        Assert.assertEquals(0, logFollower.getFollowCount());
+    }
+
+    @Test
+    public void testCancelUnknownFollow() throws Exception {
+        logFollower.cancel(channel, 12, true);
+        Assert.assertTrue(awaitPush(1).isEnd());
+    }
+
+    private LogFollowPushCommand awaitPush(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            synchronized (commands) {
+                if (commands.size() >= count) {
+                    Command command = commands.get(count - 1);
+                    Assert.assertEquals(CommandType.LOG_FOLLOW_PUSH, command.getType());
+                    return JsonSerializer.deserialize(command.getBody(), LogFollowPushCommand.class);
+                }
+            }
+            Thread.sleep(20);
+        }
+        Assert.fail("no push " + count);
+        return null;
+    }
+
+    private void append(String content) throws IOException {
+        Files.write(logFile, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.log;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LogLineIndexTest {
+
+    private Path logFile;
+
+    @Before
+    public void before() throws IOException {
+        logFile = Files.createTempFile("log-line-index", ".log");
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.deleteIfExists(logFile);
+    }
+
+    @Test
+    public void testReadLines() throws IOException {
+        List<String> expected = lines(0, 3500);
+        append(expected, true);
+        LogLineIndex index = new LogLineIndex(logFile);
+
+        Assert.assertEquals(3500, index.getLineCount());
+        Assert.assertEquals(expected.subList(0, 10), index.readLines(0, 10));
+        Assert.assertEquals(expected.subList(999, 1001), index.readLines(999, 2));
+        Assert.assertEquals(expected.subList(2500, 3500), index.readLines(2500, 5000));
+        Assert.assertEquals(Collections.emptyList(), index.readLines(3500, 10));
+        Assert.assertEquals(expected.subList(3490, 3500), index.readLastLines(10));
+    }
+
+    @Test
+    public void testGrowingLog() throws IOException {
+        LogLineIndex index = new LogLineIndex(logFile);
+        append(lines(0, 1500), false);
+        Assert.assertEquals(1500, index.getLineCount());
+        Assert.assertEquals(Collections.singletonList("line-1499"), index.readLastLines(1));
+
+        // finish the incomplete last line and append more lines
+        Files.write(logFile, "-end\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        append(lines(1500, 2100), true);
+        Assert.assertEquals(2100, index.getLineCount());
+        Assert.assertEquals(Arrays.asList("line-1499-end", "line-1500"), index.readLines(1499, 2));
+        Assert.assertEquals(Collections.singletonList("line-2099"), index.readLastLines(1));
+    }
+
+    @Test
+    public void testReplacedLog() throws IOException {
+        append(lines(0, 2000), true);
+        LogLineIndex index = new LogLineIndex(logFile);
+        Assert.assertEquals(2000, index.getLineCount());
+
+        Files.write(logFile, "new\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+        Assert.assertEquals(Collections.singletonList("new"), index.readLines(0, 10));
+        Assert.assertEquals(1, index.getLineCount());
+    }
+
+    private void append(List<String> lines, boolean lastLineComplete) throws IOException {
+        String content = String.join("\n", lines) + (lastLineComplete ? "\n" : "");
+        Files.write(logFile, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    private static List<String> lines(int from, int to) {
+        List<String> lines = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            lines.add("line-" + i);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.log;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.apache.dolphinscheduler.remote.command.log.LogMatch;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.SearchLogResponseCommand;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LogSearcherTest {
+
+    private Path logFile;
+
+    private LoadingCache<String, LogLineIndex> lineIndexes;
+
+    private LogSearcher logSearcher;
+
+    @Before
+    public void before() throws IOException {
+        logFile = Files.createTempFile("log-search", ".log");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            lines.add(i % 1000 == 500 ? "[ERROR] failed at line " + i : "[INFO] line " + i);
+        }
+        Files.write(logFile, (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        lineIndexes = CacheBuilder.newBuilder().build(new CacheLoader<String, LogLineIndex>() {
+            @Override
+            public LogLineIndex load(String path) {
+                return new LogLineIndex(Paths.get(path));
+            }
+        });
+        logSearcher = new LogSearcher(lineIndexes);
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.deleteIfExists(logFile);
+        LogArchive.delete(logFile.toString());
+    }
+
+    @Test
+    public void testLiteralSearch() {
+        SearchLogResponseCommand response = search("[ERROR]", false, 0, 2, 100);
+
+        Assert.assertFalse(response.isTruncated());
+        Assert.assertEquals(5, response.getMatches().size());
+        LogMatch match = response.getMatches().get(1);
+        Assert.assertEquals(1500, match.getLineNum());
+        Assert.assertEquals("[ERROR] failed at line 1500", match.getLine());
+        Assert.assertEquals(Arrays.asList("[INFO] line 1498", "[INFO] line 1499"), match.getBefore());
+        Assert.assertEquals(Arrays.asList("[INFO] line 1501", "[INFO] line 1502"), match.getAfter());
+        // a search from the start does not build a line index
+        Assert.assertNull(lineIndexes.getIfPresent(logFile.toString()));
+    }
+
+    @Test
+    public void testRegexSearchWithSkip() {
+        SearchLogResponseCommand response = search("line [34]500$", true, 2000, 0, 100);
+
+        Assert.assertEquals(2, response.getMatches().size());
+        Assert.assertEquals(3500, response.getMatches().get(0).getLineNum());
+        Assert.assertEquals(4500, response.getMatches().get(1).getLineNum());
+        Assert.assertEquals(Collections.emptyList(), response.getMatches().get(0).getBefore());
+    }
+
+    @Test
+    public void testMaxMatches() {
+        SearchLogResponseCommand response = search("line 4", false, 0, 1, 3);
+
+        Assert.assertTrue(response.isTruncated());
+        Assert.assertEquals(3, response.getMatches().size());
+        Assert.assertEquals(4, response.getMatches().get(0).getLineNum());
+        Assert.assertEquals(41, response.getMatches().get(2).getLineNum());
+        Assert.assertEquals(Collections.singletonList("[INFO] line 42"), response.getMatches().get(2).getAfter());
+    }
+
+    @Test
+    public void testMaxMatchesAtEndOfLog() throws IOException {
+        Path otherLogFile = Files.createTempFile("log-search", ".log");
+        try {
+            Files.write(otherLogFile, "[INFO] line 0\n".getBytes(StandardCharsets.UTF_8));
+
+            SearchLogResponseCommand response = search(Arrays.asList(logFile.toString(), otherLogFile.toString()),
+                    "[ERROR]", false, 5);
+            Assert.assertFalse(response.isTruncated());
+            Assert.assertEquals(5, response.getMatches().size());
+
+            response = search(Arrays.asList(logFile.toString(), logFile.toString()), "[ERROR]", false, 5);
+            Assert.assertTrue(response.isTruncated());
+            Assert.assertEquals(5, response.getMatches().size());
+        } finally {
+            Files.deleteIfExists(otherLogFile);
+        }
+    }
+
+    @Test
+    public void testRegexSearchTimeout() throws IOException {
+        char[] chars = new char[40];
+        Arrays.fill(chars, 'a');
+        Files.write(logFile, (new String(chars) + "\n").getBytes(StandardCharsets.UTF_8));
+        logSearcher = new LogSearcher(lineIndexes, 100);
+
+        long start = System.currentTimeMillis();
+        // backtracks for minutes on a line without b
+        SearchLogResponseCommand response = search("(.*a){20}b", true, 0, 0, 10);
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+        Assert.assertTrue(response.isTruncated());
+        Assert.assertNull(response.getError());
+        Assert.assertEquals(Collections.emptyList(), response.getMatches());
+    }
+
+    @Test
+    public void testInvalidRegex() {
+        SearchLogResponseCommand response = search("[", true, 0, 0, 10);
+
+        Assert.assertNotNull(response.getError());
+        Assert.assertEquals(Collections.emptyList(), response.getMatches());
+    }
+
+    @Test
+    public void testSearchArchivedLog() throws IOException {
+        Assert.assertTrue(LogArchive.archive(logFile.toString()));
+
+        SearchLogResponseCommand response = search("[ERROR]", false, 3000, 1, 100);
+        Assert.assertEquals(2, response.getMatches().size());
+        Assert.assertEquals(3500, response.getMatches().get(0).getLineNum());
+        Assert.assertEquals(Collections.singletonList("[INFO] line 3501"), response.getMatches().get(0).getAfter());
+    }
+
+    private SearchLogResponseCommand search(List<String> paths, String keyword, boolean regex, int maxMatches) {
+        return logSearcher.search(new SearchLogRequestCommand(paths, keyword, regex, 0, 0, maxMatches));
+    }
+
+    private SearchLogResponseCommand search(String keyword, boolean regex, int skipLineNum, int contextLines, int maxMatches) {
+        return logSearcher.search(new SearchLogRequestCommand(Collections.singletonList(logFile.toString()),
+                keyword, regex, skipLineNum, contextLines, maxMatches));
+    }
+}
@@ -19,8 +19,17 @@ package org.apache.dolphinscheduler.server.log;
 
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.service.log.LogClientService;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
 public class LoggerServerTest {
 
 
@@ -59,4 +68,50 @@ public class LoggerServerTest {
         loggerServer.stop();
         logClientService.close();
     }
+
+    @Test
+    public void testRemoveTaskLogs() throws IOException {
+        LoggerServer loggerServer = new LoggerServer();
+        loggerServer.start();
+
+        File first = File.createTempFile("task-log", ".log");
+        File second = File.createTempFile("task-log", ".log");
+        LogClientService logClientService = new LogClientService();
+        List<Boolean> statuses = logClientService.removeTaskLogs("localhost", Constants.RPC_PORT,
+                Arrays.asList(first.getAbsolutePath(), second.getAbsolutePath()));
+
+        Assert.assertEquals(Arrays.asList(true, true), statuses);
+        Assert.assertFalse(first.exists());
+        Assert.assertFalse(second.exists());
+
+        loggerServer.stop();
+        logClientService.close();
+    }
+
+    @Test
+    public void testDownloadLog() throws IOException {
+        LoggerServer loggerServer = new LoggerServer();
+        loggerServer.start();
+
+        File log = File.createTempFile("task-log", ".log");
+        Files.write(log.toPath(), "line1\nline2\n".getBytes(StandardCharsets.UTF_8));
+        LogClientService logClientService = new LogClientService();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            logClientService.downloadLog("localhost", Constants.RPC_PORT, log.getAbsolutePath(), out);
+            Assert.assertEquals("line1\nline2\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+            try {
+                logClientService.downloadLog("localhost", Constants.RPC_PORT, log.getAbsolutePath() + ".missing",
+                        new ByteArrayOutputStream());
+                Assert.fail("download of a missing log should fail");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains(".missing"));
+            }
+        } finally {
+            log.delete();
+            loggerServer.stop();
+            logClientService.close();
+        }
+    }
 }
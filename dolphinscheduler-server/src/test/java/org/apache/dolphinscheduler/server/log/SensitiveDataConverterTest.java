@@ -21,6 +21,7 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.classic.spi.IThrowableProxy;
 import ch.qos.logback.classic.spi.LoggerContextVO;
+import ch.qos.logback.classic.spi.LoggingEvent;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.utils.SensitiveLogUtils;
 import org.junit.Assert;
@@ -150,6 +151,28 @@ public class SensitiveDataConverterTest {
 
     }
 
+    /**
+     * messages without a password are returned as they are
+     */
+    @Test
+    public void testConvertWithoutPassword() {
+        SensitiveDataConverter sensitiveDataConverter = new SensitiveDataConverter();
+
+        String plainLogMsg = "task instance 1 is running";
+        Assert.assertSame(plainLogMsg, sensitiveDataConverter.convert(loggingEvent(plainLogMsg)));
+        String keywordLogMsg = "password of user view is not set";
+        Assert.assertSame(keywordLogMsg, sensitiveDataConverter.convert(loggingEvent(keywordLogMsg)));
+
+        Assert.assertEquals(maskLogMsg + "," + maskLogMsg,
+                sensitiveDataConverter.convert(loggingEvent(logMsg + "," + logMsg)));
+    }
+
+    private static ILoggingEvent loggingEvent(String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setMessage(message);
+        return event;
+    }
+
     /**
      * password regex test
      *
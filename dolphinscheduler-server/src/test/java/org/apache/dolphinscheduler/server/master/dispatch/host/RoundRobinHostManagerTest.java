@@ -75,4 +75,15 @@ public class RoundRobinHostManagerTest {
         Assert.assertTrue(StringUtils.isNotEmpty(host.getAddress()));
         Assert.assertTrue(host.getAddress().equalsIgnoreCase(NetUtils.getHost() + ":" + workerConfig.getListenPort()));
     }
+
+    @Test
+    public void testSelectWithExcludedHost(){
+        workerRegistry.registry();
+        RoundRobinHostManager roundRobinHostManager = new RoundRobinHostManager();
+        roundRobinHostManager.setZookeeperNodeManager(zookeeperNodeManager);
+        ExecutionContext context = ExecutionContextTestUtils.getExecutionContext(10000);
+        context.excludeHost(NetUtils.getHost() + ":" + workerConfig.getListenPort());
+        Host host = roundRobinHostManager.select(context);
+        Assert.assertTrue(StringUtils.isEmpty(host.getAddress()));
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.processor;
+
+import io.netty.channel.Channel;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRejectCommand;
+import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
+import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ *  task reject processor test
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TaskRejectProcessorTest {
+
+    @Mock
+    private ExecutorDispatcher executorDispatcher;
+
+    @Mock
+    private TaskPriorityQueue taskPriorityQueue;
+
+    @Mock
+    private Channel channel;
+
+    private TaskRejectProcessor taskRejectProcessor;
+
+    private String contextJson;
+
+    @Before
+    public void before() {
+        taskRejectProcessor = new TaskRejectProcessor(executorDispatcher, taskPriorityQueue);
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(1);
+        taskExecutionContext.setProcessInstanceId(2);
+        taskExecutionContext.setProcessInstancePriority(1);
+        taskExecutionContext.setTaskInstancePriority(2);
+        taskExecutionContext.setWorkerGroup("default");
+        contextJson = JSONUtils.toJsonString(taskExecutionContext);
+    }
+
+    @Test
+    public void testDispatchToOtherWorker() throws Exception {
+        taskRejectProcessor.process(channel, new TaskExecuteRejectCommand(1, "192.168.1.1:1234", contextJson).convert2Command());
+        taskRejectProcessor.process(channel, new TaskExecuteRejectCommand(1, "192.168.1.2:1234", contextJson).convert2Command());
+
+        // workers which rejected the task before are skipped
+        ArgumentCaptor<ExecutionContext> captor = ArgumentCaptor.forClass(ExecutionContext.class);
+        Mockito.verify(executorDispatcher, Mockito.times(2)).dispatch(captor.capture());
+        ExecutionContext executionContext = captor.getAllValues().get(1);
+        Assert.assertTrue(executionContext.isExcluded("192.168.1.1:1234"));
+        Assert.assertTrue(executionContext.isExcluded("192.168.1.2:1234"));
+        Assert.assertEquals("default", executionContext.getWorkerGroup());
+        Mockito.verify(taskPriorityQueue, Mockito.never()).put(Mockito.anyString());
+    }
+
+    @Test
+    public void testPutBackWhenEveryWorkerIsFull() throws Exception {
+        Mockito.when(executorDispatcher.dispatch(Mockito.any(ExecutionContext.class)))
+                .thenThrow(new ExecuteException("fail to execute"));
+
+        long start = System.currentTimeMillis();
+        taskRejectProcessor.process(channel, new TaskExecuteRejectCommand(1, "192.168.1.1:1234", contextJson).convert2Command());
+
+        // the netty thread returns at once, the task goes back to the task queue later
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+        Mockito.verify(taskPriorityQueue, Mockito.timeout(5000)).put("1_2_2_1_default");
+    }
+}
@@ -50,7 +50,7 @@ public class MasterTaskExecThreadTest {
     @Test
     public void testExistsValidWorkerGroup1(){
         ZookeeperRegistryCenter zookeeperRegistryCenter = Mockito.mock(ZookeeperRegistryCenter.class);
-        Mockito.when(zookeeperRegistryCenter.getWorkerGroupDirectly()).thenReturn(null);
+        Mockito.when(zookeeperRegistryCenter.getWorkerGroupNodes("default")).thenReturn(null);
         MasterTaskExecThread masterTaskExecThread = new MasterTaskExecThread(null);
         masterTaskExecThread.existsValidWorkerGroup("default");
     }
@@ -61,7 +61,10 @@ public class MasterTaskExecThreadTest {
         workerGorups.add("test1");
         workerGorups.add("test2");
 
-        Mockito.when(zookeeperRegistryCenter.getWorkerGroupDirectly()).thenReturn(workerGorups);
+        // other groups exist, but not the one of the task
+        Mockito.when(zookeeperRegistryCenter.getWorkerGroupNodes("test1")).thenReturn(workerGorups);
+        Mockito.when(zookeeperRegistryCenter.getWorkerGroupNodes("test2")).thenReturn(workerGorups);
+        Mockito.when(zookeeperRegistryCenter.getWorkerGroupNodes("default")).thenReturn(null);
         MasterTaskExecThread masterTaskExecThread = new MasterTaskExecThread(null);
         masterTaskExecThread.existsValidWorkerGroup("default");
     }
@@ -72,8 +75,7 @@ public class MasterTaskExecThreadTest {
         Set<String> workerGorups = new HashSet<>();
         workerGorups.add("test1");
 
-        Mockito.when(zookeeperRegistryCenter.getWorkerGroupDirectly()).thenReturn(workerGorups);
-        Mockito.when(zookeeperRegistryCenter.getWorkerGroupNodesDirectly("test1")).thenReturn(workerGorups);
+        Mockito.when(zookeeperRegistryCenter.getWorkerGroupNodes("test1")).thenReturn(workerGorups);
         MasterTaskExecThread masterTaskExecThread = new MasterTaskExecThread(null);
         masterTaskExecThread.existsValidWorkerGroup("test1");
     }
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ProcessInstanceArchiveServiceTest {
+
+    @InjectMocks
+    private ProcessInstanceArchiveService processInstanceArchiveService;
+
+    @Mock
+    private ProcessService processService;
+
+    @Test
+    public void testArchiveBefore() throws InterruptedException {
+        Date endTime = new Date();
+        Mockito.when(processService.queryArchivableProcessInstanceIds(endTime, 0, 2)).thenReturn(Arrays.asList(1, 2));
+        Mockito.when(processService.queryArchivableProcessInstanceIds(endTime, 2, 2)).thenReturn(Collections.singletonList(5));
+        Mockito.when(processService.queryArchivableProcessInstanceIds(endTime, 5, 2)).thenReturn(Collections.emptyList());
+        Mockito.when(processService.archiveProcessInstances(Arrays.asList(1, 2))).thenReturn(2);
+        Mockito.when(processService.archiveProcessInstances(Collections.singletonList(5))).thenReturn(1);
+
+        Assert.assertEquals(3, processInstanceArchiveService.archiveBefore(endTime, 2, 0));
+        Mockito.verify(processService, Mockito.times(3)).queryArchivableProcessInstanceIds(Mockito.eq(endTime), Mockito.anyInt(), Mockito.eq(2));
+        Mockito.verify(processService, Mockito.times(2)).archiveProcessInstances(Mockito.anyList());
+    }
+
+    @Test
+    public void testArchiveBeforeSkipsLockedBatch() throws InterruptedException {
+        Date endTime = new Date();
+        // the first batch was rerun meanwhile and is skipped by the lock, the cursor must still move past it
+        Mockito.when(processService.queryArchivableProcessInstanceIds(endTime, 0, 2)).thenReturn(Arrays.asList(1, 2));
+        Mockito.when(processService.queryArchivableProcessInstanceIds(endTime, 2, 2)).thenReturn(Arrays.asList(3, 4));
+        Mockito.when(processService.queryArchivableProcessInstanceIds(endTime, 4, 2)).thenReturn(Collections.emptyList());
+        Mockito.when(processService.archiveProcessInstances(Arrays.asList(1, 2))).thenReturn(0);
+        Mockito.when(processService.archiveProcessInstances(Arrays.asList(3, 4))).thenReturn(2);
+
+        Assert.assertEquals(2, processInstanceArchiveService.archiveBefore(endTime, 2, 0));
+        Mockito.verify(processService, Mockito.never()).queryArchivableProcessInstanceIds(endTime, 1, 2);
+    }
+
+    @Test
+    public void testArchiveBeforeNothingToArchive() throws InterruptedException {
+        Date endTime = new Date();
+        Mockito.when(processService.queryArchivableProcessInstanceIds(endTime, 0, 100)).thenReturn(Collections.emptyList());
+
+        Assert.assertEquals(0, processInstanceArchiveService.archiveBefore(endTime, 100, 0));
+        Mockito.verify(processService, Mockito.never()).archiveProcessInstances(Mockito.anyList());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.utils;
+
+import org.apache.dolphinscheduler.common.utils.OSUtils;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ProcfsUtilsTest {
+
+    @Test
+    public void testParseStat() {
+        String content = "1047 (java (a) b) S 1027 1047 1027 0 -1 4194304 4436 0 0 0 7 2 0 0 20 0 14 0 48105 "
+                + "3698622464 8745 18446744073709551615 94266527145984 0";
+        ProcfsUtils.ProcStat stat = ProcfsUtils.parseStat(1047, content);
+        Assert.assertEquals(1047, stat.getPid());
+        Assert.assertEquals('S', stat.getState());
+        Assert.assertEquals(1027, stat.getPpid());
+        Assert.assertEquals(7, stat.getUtime());
+        Assert.assertEquals(2, stat.getStime());
+        Assert.assertEquals(48105, stat.getStartTime());
+        Assert.assertEquals(8745, stat.getRssPages());
+    }
+
+    @Test
+    public void testParseStatus() {
+        String content = "Name:\tjava\nState:\tS (sleeping)\nVmPeak:\t 3611936 kB\nVmHWM:\t   41232 kB\n"
+                + "VmRSS:\t   34980 kB\nThreads:\t14\n";
+        ProcfsUtils.ProcStatus status = ProcfsUtils.parseStatus(content);
+        Assert.assertEquals(34980, status.getVmRssKb());
+        Assert.assertEquals(41232, status.getVmHwmKb());
+
+        // kernel threads have no memory fields
+        Assert.assertEquals(0, ProcfsUtils.parseStatus("Name:\tkthreadd\nState:\tS (sleeping)\n").getVmRssKb());
+    }
+
+    @Test
+    public void testReadSelf() {
+        Assume.assumeTrue(ProcfsUtils.isSupported());
+        ProcfsUtils.ProcStat stat = ProcfsUtils.readStat(OSUtils.getProcessID());
+        Assert.assertNotNull(stat);
+        Assert.assertNull(ProcfsUtils.readStat(Integer.MAX_VALUE));
+        Assert.assertTrue(ProcfsUtils.readStatus(OSUtils.getProcessID()).getVmRssKb() > 0);
+        Assert.assertNull(ProcfsUtils.readStatus(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testKillProcessTree() throws Exception {
+        Assume.assumeTrue(ProcfsUtils.isSupported());
+        Process process = new ProcessBuilder("sh", "-c", "sleep 60 & sleep 60 & wait").start();
+        try {
+            int shellPid = pid(process);
+            // wait until the shell forked its children
+            List<Integer> tree = ProcfsUtils.getProcessTree(shellPid);
+            for (int i = 0; i < 50 && tree.size() < 3; i++) {
+                Thread.sleep(100);
+                tree = ProcfsUtils.getProcessTree(shellPid);
+            }
+            Assert.assertEquals(3, tree.size());
+            Assert.assertEquals(Integer.valueOf(shellPid), tree.get(0));
+
+            List<Integer> killed;
+            ProcessTreeTracker.getInstance().track(shellPid);
+            try {
+                killed = ProcessTreeTracker.getInstance().kill(shellPid, ProcfsUtils.SIGKILL);
+            } finally {
+                ProcessTreeTracker.getInstance().untrack(shellPid);
+            }
+
+            Assert.assertEquals(3, killed.size());
+            Assert.assertTrue(killed.containsAll(tree));
+            Assert.assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+
+    private static int pid(Process process) throws Exception {
+        Field field = process.getClass().getDeclaredField("pid");
+        field.setAccessible(true);
+        return field.getInt(process);
+    }
+}
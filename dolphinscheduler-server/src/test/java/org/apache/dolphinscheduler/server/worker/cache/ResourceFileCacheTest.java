@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ResourceFileCacheTest {
+
+    private File baseDir;
+
+    private File storageDir;
+
+    private ResourceFileCache cache;
+
+    @Before
+    public void before() throws IOException {
+        baseDir = Files.createTempDirectory("resource-cache-test").toFile();
+        storageDir = new File(baseDir, "storage");
+        Assert.assertTrue(storageDir.mkdirs());
+    }
+
+    @After
+    public void after() {
+        if (cache != null) {
+            cache.close();
+        }
+        FileUtils.deleteQuietly(baseDir);
+    }
+
+    private ResourceFileCache newCache(long maxBytes) throws IOException {
+        FileSystem fs = FileSystem.getLocal(new Configuration());
+        return new ResourceFileCache(fs, new File(baseDir, "cache").getAbsolutePath(), maxBytes, 2);
+    }
+
+    private String writeResource(String name, String content) throws IOException {
+        File file = new File(storageDir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file.getAbsolutePath();
+    }
+
+    @Test
+    public void testDownloadOnceForManyTasks() throws IOException {
+        cache = newCache(1024 * 1024);
+        String resource = writeResource("a.jar", "version-1");
+
+        File target1 = new File(baseDir, "exec/1/a.jar");
+        File target2 = new File(baseDir, "exec/2/a.jar");
+        cache.link(resource, target1, true);
+        cache.link(resource, target2, true);
+
+        Assert.assertEquals("version-1", new String(Files.readAllBytes(target2.toPath()), StandardCharsets.UTF_8));
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testChangedResourceIsDownloadedAgain() throws IOException {
+        cache = newCache(1024 * 1024);
+        String resource = writeResource("a.sh", "echo 1");
+        cache.link(resource, new File(baseDir, "exec/1/a.sh"), true);
+
+        writeResource("a.sh", "echo 22");
+        File target = new File(baseDir, "exec/2/a.sh");
+        cache.link(resource, target, true);
+
+        Assert.assertEquals("echo 22", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws IOException {
+        cache = newCache(10);
+        String first = writeResource("first", "123456");
+        String second = writeResource("second", "abcdef");
+
+        cache.link(first, new File(baseDir, "exec/1/first"), true);
+        File target = new File(baseDir, "exec/1/second");
+        cache.link(second, target, true);
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(6, cache.getUsedBytes());
+        // linked files survive eviction of their cache entry
+        Assert.assertTrue(new File(baseDir, "exec/1/first").exists());
+        Assert.assertTrue(target.exists());
+    }
+
+    @Test
+    public void testLinkAll() throws IOException {
+        cache = newCache(1024 * 1024);
+        Map<String, File> resources = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            resources.put(writeResource("res" + i, "content" + i), new File(baseDir, "exec/1/res" + i));
+        }
+        cache.linkAll(resources, "tenant");
+
+        for (File target : resources.values()) {
+            Assert.assertTrue(target.exists());
+        }
+        Assert.assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void testReloadExistingEntries() throws IOException {
+        cache = newCache(1024 * 1024);
+        String resource = writeResource("a.jar", "version-1");
+        cache.link(resource, new File(baseDir, "exec/1/a.jar"), true);
+        cache.close();
+
+        cache = newCache(1024 * 1024);
+        cache.link(resource, new File(baseDir, "exec/2/a.jar"), true);
+        Assert.assertEquals(0, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testResourceLargerThanCacheIsCopied() throws IOException {
+        cache = newCache(4);
+        String resource = writeResource("big.jar", "0123456789");
+        File target1 = new File(baseDir, "exec/1/big.jar");
+        File target2 = new File(baseDir, "exec/2/big.jar");
+        cache.link(resource, target1, true);
+        cache.link(resource, target2, true);
+
+        Assert.assertEquals("0123456789", new String(Files.readAllBytes(target2.toPath()), StandardCharsets.UTF_8));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    public void testPrivateCopyDoesNotChangeCache() throws IOException {
+        cache = newCache(1024 * 1024);
+        String resource = writeResource("a.sh", "echo 1");
+        File target1 = new File(baseDir, "exec/1/a.sh");
+        cache.link(resource, target1, false);
+
+        Assert.assertTrue(target1.canWrite());
+        Files.write(target1.toPath(), "echo 2".getBytes(StandardCharsets.UTF_8));
+
+        File target2 = new File(baseDir, "exec/2/a.sh");
+        cache.link(resource, target2, true);
+        Assert.assertEquals("echo 1", new String(Files.readAllBytes(target2.toPath()), StandardCharsets.UTF_8));
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testIsShareable() {
+        Assert.assertFalse(ResourceFileCache.isShareable(System.getProperty("user.name")));
+        Assert.assertFalse(ResourceFileCache.isShareable(null));
+        Assert.assertTrue(ResourceFileCache.isShareable(System.getProperty("user.name") + "_tenant"));
+    }
+}
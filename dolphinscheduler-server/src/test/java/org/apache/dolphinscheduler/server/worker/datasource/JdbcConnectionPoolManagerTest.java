@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.datasource;
+
+import org.apache.dolphinscheduler.common.enums.DbType;
+import org.apache.dolphinscheduler.dao.datasource.BaseDataSource;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JdbcConnectionPoolManagerTest {
+
+    @Spy
+    private WorkerConfig workerConfig = new WorkerConfig();
+
+    @InjectMocks
+    private JdbcConnectionPoolManager jdbcConnectionPoolManager;
+
+    @Before
+    public void before() {
+        workerConfig.setJdbcPoolDatasources("1");
+        workerConfig.setJdbcPoolMaxActive(2);
+        workerConfig.setJdbcPoolMaxWaitMillis(1000);
+        workerConfig.setJdbcPoolIdleTimeoutSeconds(0);
+        jdbcConnectionPoolManager.init();
+    }
+
+    @After
+    public void after() {
+        jdbcConnectionPoolManager.close();
+    }
+
+    @Test
+    public void testPooledConnectionIsReused() throws Exception {
+        Assert.assertTrue(jdbcConnectionPoolManager.isPooled(1));
+        Assert.assertFalse(jdbcConnectionPoolManager.isPooled(2));
+
+        BaseDataSource dataSource = new H2DataSource();
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = jdbcConnectionPoolManager.getConnection(1, dataSource, null);
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+                Assert.assertTrue(resultSet.next());
+            }
+        }
+
+        Map<String, Map<String, Object>> metrics = jdbcConnectionPoolManager.getMetrics();
+        Assert.assertEquals(1, metrics.size());
+        Map<String, Object> poolMetrics = metrics.values().iterator().next();
+        Assert.assertEquals(1L, poolMetrics.get("createCount"));
+        Assert.assertEquals(3L, poolMetrics.get("borrowCount"));
+        Assert.assertEquals(0, poolMetrics.get("activeCount"));
+    }
+
+    @Test
+    public void testNotPooledDatasource() throws Exception {
+        try (Connection connection = jdbcConnectionPoolManager.getConnection(2, new H2DataSource(), null)) {
+            Assert.assertFalse(connection.isClosed());
+        }
+        Assert.assertTrue(jdbcConnectionPoolManager.getMetrics().isEmpty());
+    }
+
+    @Test
+    public void testCloseIdlePools() throws Exception {
+        jdbcConnectionPoolManager.getConnection(1, new H2DataSource(), null).close();
+        Assert.assertEquals(1, jdbcConnectionPoolManager.getMetrics().size());
+        Thread.sleep(10);
+        jdbcConnectionPoolManager.closeIdlePools();
+        Assert.assertTrue(jdbcConnectionPoolManager.getMetrics().isEmpty());
+    }
+
+    @Test
+    public void testCloseIdlePoolsKeepsBorrowedPool() throws Exception {
+        try (Connection connection = jdbcConnectionPoolManager.getConnection(1, new H2DataSource(), null)) {
+            Thread.sleep(10);
+            jdbcConnectionPoolManager.closeIdlePools();
+            Assert.assertEquals(1, jdbcConnectionPoolManager.getMetrics().size());
+            Assert.assertFalse(connection.isClosed());
+        }
+    }
+
+    @Test
+    public void testTransactionIsRolledBackOnReturn() throws Exception {
+        BaseDataSource dataSource = new H2DataSource();
+        try (Connection connection = jdbcConnectionPoolManager.getConnection(1, dataSource, null);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS t_pool_rollback (id INT)");
+            connection.setAutoCommit(false);
+            statement.execute("INSERT INTO t_pool_rollback VALUES (1)");
+        }
+        try (Connection connection = jdbcConnectionPoolManager.getConnection(1, dataSource, null);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM t_pool_rollback")) {
+            Assert.assertTrue(connection.getAutoCommit());
+            Assert.assertTrue(resultSet.next());
+            Assert.assertEquals(0, resultSet.getInt(1));
+        }
+        Map<String, Object> poolMetrics = jdbcConnectionPoolManager.getMetrics().values().iterator().next();
+        Assert.assertEquals(1L, poolMetrics.get("createCount"));
+    }
+
+    @Test
+    public void testChangedSessionIsNotReused() throws Exception {
+        BaseDataSource dataSource = new H2DataSource();
+        try (Connection connection = jdbcConnectionPoolManager.getConnection(1, dataSource, null);
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET @task_variable = 1");
+        }
+        try (Connection connection = jdbcConnectionPoolManager.getConnection(1, dataSource, null);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT @task_variable")) {
+            Assert.assertTrue(resultSet.next());
+            Assert.assertNull(resultSet.getObject(1));
+        }
+        Map<String, Object> poolMetrics = jdbcConnectionPoolManager.getMetrics().values().iterator().next();
+        Assert.assertEquals(2L, poolMetrics.get("createCount"));
+        Assert.assertEquals(0, poolMetrics.get("activeCount"));
+    }
+
+    /**
+     * in memory h2 database
+     */
+    private static class H2DataSource extends BaseDataSource {
+
+        H2DataSource() {
+            setUser("sa");
+            setPassword("");
+        }
+
+        @Override
+        public String getJdbcUrl() {
+            return "jdbc:h2:mem:jdbc_pool_test;DB_CLOSE_DELAY=-1";
+        }
+
+        @Override
+        public String driverClassSelector() {
+            return "org.h2.Driver";
+        }
+
+        @Override
+        public DbType dbTypeSelector() {
+            return DbType.MYSQL;
+        }
+    }
+}
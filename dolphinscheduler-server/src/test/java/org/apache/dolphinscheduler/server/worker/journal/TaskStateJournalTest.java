@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.journal;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.server.entity.SQLTaskExecutionContext;
+import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+/**
+ *  task state journal test
+ */
+public class TaskStateJournalTest {
+
+    private File journalDir;
+
+    private TaskStateJournal taskStateJournal;
+
+    @Before
+    public void before() throws Exception {
+        journalDir = Files.createTempDirectory("task-journal-test").toFile();
+        taskStateJournal = newJournal();
+        Assert.assertTrue(taskStateJournal.open().isEmpty());
+    }
+
+    @After
+    public void after() {
+        taskStateJournal.close();
+        FileUtils.deleteQuietly(journalDir);
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        taskStateJournal.accepted(context(1), "192.168.1.1:5678", 10L);
+        taskStateJournal.processStarted(1, 123);
+        taskStateJournal.appIdsFound(1, "application_1_0001");
+        taskStateJournal.accepted(context(2), "192.168.1.1:5678", 11L);
+        TaskExecuteResponseCommand responseCommand = new TaskExecuteResponseCommand(2);
+        responseCommand.setStatus(7);
+        taskStateJournal.finished(responseCommand);
+        taskStateJournal.accepted(context(3), "192.168.1.1:5678", 12L);
+        taskStateJournal.done(3);
+
+        List<TaskStateRecord> states = reopen();
+        Assert.assertEquals(2, states.size());
+        for (TaskStateRecord state : states) {
+            Assert.assertEquals("192.168.1.1:5678", state.getMasterHost());
+            if (state.getTaskInstanceId() == 1) {
+                Assert.assertEquals(10L, state.getOpaque());
+                Assert.assertEquals(123, state.getProcessId());
+                Assert.assertEquals("application_1_0001", state.getAppIds());
+                Assert.assertNull(state.getResult());
+            } else {
+                Assert.assertEquals(2, state.getTaskInstanceId());
+                Assert.assertEquals(7, state.getResult().getStatus());
+            }
+        }
+        Assert.assertTrue(taskStateJournal.contains(1));
+        Assert.assertFalse(taskStateJournal.contains(3));
+    }
+
+    @Test
+    public void testTornRecord() throws Exception {
+        taskStateJournal.accepted(context(1), "192.168.1.1:5678", 10L);
+        taskStateJournal.close();
+        Files.write(new File(journalDir, "task-state.journal").toPath(),
+                "{\"type\":\"DONE\",\"taskInst".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        List<TaskStateRecord> states = reopen();
+        Assert.assertEquals(1, states.size());
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        for (int i = 0; i < 1500; i++) {
+            taskStateJournal.accepted(context(i), "192.168.1.1:5678", i);
+            taskStateJournal.done(i);
+        }
+        taskStateJournal.accepted(context(1500), "192.168.1.1:5678", 1500L);
+        taskStateJournal.close();
+
+        // 3001 records were written, the journal is rewritten when it has more than 1000
+        File journalFile = new File(journalDir, "task-state.journal");
+        Assert.assertTrue(Files.readAllLines(journalFile.toPath()).size() <= 1000);
+        List<TaskStateRecord> states = reopen();
+        Assert.assertEquals(1, states.size());
+        Assert.assertEquals(1500, states.get(0).getTaskInstanceId());
+    }
+
+    @Test
+    public void testUnknownTask() throws Exception {
+        taskStateJournal.processStarted(1, 123);
+        taskStateJournal.done(1);
+        Assert.assertTrue(reopen().isEmpty());
+    }
+
+    @Test
+    public void testJournalIsPrivate() throws Exception {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        TaskExecutionContext taskExecutionContext = context(1);
+        SQLTaskExecutionContext sqlTaskExecutionContext = new SQLTaskExecutionContext();
+        sqlTaskExecutionContext.setConnectionParams("{\"user\":\"root\",\"password\":\"secret\"}");
+        taskExecutionContext.setSqlTaskExecutionContext(sqlTaskExecutionContext);
+        taskStateJournal.accepted(taskExecutionContext, "192.168.1.1:5678", 10L);
+
+        File journalFile = new File(journalDir, "task-state.journal");
+        Assert.assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(journalDir.toPath())));
+        Assert.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(journalFile.toPath())));
+        Assert.assertFalse(new String(Files.readAllBytes(journalFile.toPath()), StandardCharsets.UTF_8).contains("secret"));
+
+        List<TaskStateRecord> states = reopen();
+        Assert.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(journalFile.toPath())));
+        TaskExecutionContext recovered = JSONUtils.parseObject(states.get(0).getTaskExecutionContext(), TaskExecutionContext.class);
+        Assert.assertEquals("tenant", recovered.getTenantCode());
+        Assert.assertNull(recovered.getSqlTaskExecutionContext());
+    }
+
+    private List<TaskStateRecord> reopen() throws Exception {
+        taskStateJournal.close();
+        taskStateJournal = newJournal();
+        return taskStateJournal.open();
+    }
+
+    private TaskStateJournal newJournal() {
+        WorkerConfig workerConfig = new WorkerConfig();
+        workerConfig.setJournalEnable(true);
+        workerConfig.setJournalDir(journalDir.getAbsolutePath());
+        TaskStateJournal journal = new TaskStateJournal();
+        ReflectionTestUtils.setField(journal, "workerConfig", workerConfig);
+        return journal;
+    }
+
+    private TaskExecutionContext context(int taskInstanceId) {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(taskInstanceId);
+        taskExecutionContext.setTenantCode("tenant");
+        return taskExecutionContext;
+    }
+}
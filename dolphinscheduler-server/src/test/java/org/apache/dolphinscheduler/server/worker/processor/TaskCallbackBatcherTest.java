@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.processor;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.util.concurrent.GenericFutureListener;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskCallbackBatchCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *  task callback batcher test
+ */
+public class TaskCallbackBatcherTest {
+
+    private final Host host = Host.of("127.0.0.1:5678");
+
+    private TaskCallbackService taskCallbackService;
+
+    private NettyRemoteChannel remoteChannel;
+
+    private final AtomicBoolean writeSuccess = new AtomicBoolean(true);
+
+    private TaskCallbackBatcher taskCallbackBatcher;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() {
+        taskCallbackService = Mockito.mock(TaskCallbackService.class);
+        remoteChannel = Mockito.mock(NettyRemoteChannel.class);
+        Mockito.when(taskCallbackService.getRemoteChannel(Mockito.anyInt())).thenReturn(remoteChannel);
+
+        ChannelFuture future = Mockito.mock(ChannelFuture.class);
+        Mockito.when(future.isSuccess()).thenAnswer(invocation -> writeSuccess.get());
+        Mockito.when(future.addListener(Mockito.any())).thenAnswer(invocation -> {
+            ((GenericFutureListener) invocation.getArgument(0)).operationComplete(future);
+            return future;
+        });
+        Mockito.when(remoteChannel.writeAndFlush(Mockito.any(Command.class))).thenReturn(future);
+    }
+
+    @After
+    public void after() {
+        taskCallbackBatcher.close();
+    }
+
+    @Test
+    public void testCoalesceWithinWindow() {
+        taskCallbackBatcher = new TaskCallbackBatcher(taskCallbackService, 200, 100);
+        taskCallbackBatcher.addAck(host, ack(1));
+        taskCallbackBatcher.addAck(host, ack(2));
+        taskCallbackBatcher.addResponse(host, response(1));
+
+        List<TaskCallbackBatchCommand> batches = awaitBatches(1);
+        Assert.assertEquals(2, batches.get(0).getAcks().size());
+        Assert.assertEquals(1, batches.get(0).getResponses().size());
+        Mockito.verify(taskCallbackService, Mockito.timeout(5000)).delivered(1);
+        Mockito.verify(taskCallbackService, Mockito.never()).delivered(2);
+    }
+
+    @Test
+    public void testFlushAtMaxSize() {
+        taskCallbackBatcher = new TaskCallbackBatcher(taskCallbackService, 60 * 1000L, 2);
+        taskCallbackBatcher.addResponse(host, response(1));
+        taskCallbackBatcher.addResponse(host, response(2));
+
+        List<TaskCallbackBatchCommand> batches = awaitBatches(1);
+        Assert.assertEquals(2, batches.get(0).getResponses().size());
+    }
+
+    @Test
+    public void testRetryFailedBatch() {
+        writeSuccess.set(false);
+        Mockito.when(taskCallbackService.pause(0)).thenAnswer(invocation -> {
+            writeSuccess.set(true);
+            return 10;
+        });
+        taskCallbackBatcher = new TaskCallbackBatcher(taskCallbackService, 10, 100);
+        taskCallbackBatcher.addResponse(host, response(1));
+
+        List<TaskCallbackBatchCommand> batches = awaitBatches(2);
+        Assert.assertEquals(batches.get(0).getResponses().get(0).getTaskInstanceId(),
+                batches.get(1).getResponses().get(0).getTaskInstanceId());
+        Mockito.verify(taskCallbackService, Mockito.timeout(5000)).delivered(1);
+    }
+
+    private List<TaskCallbackBatchCommand> awaitBatches(int count) {
+        ArgumentCaptor<Command> captor = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(remoteChannel, Mockito.timeout(5000).times(count)).writeAndFlush(captor.capture());
+        List<Command> commands = captor.getAllValues();
+        List<TaskCallbackBatchCommand> batches = new ArrayList<>();
+        for (Command command : commands) {
+            Assert.assertEquals(CommandType.TASK_CALLBACK_BATCH, command.getType());
+            batches.add(JsonSerializer.deserialize(command.getBody(), TaskCallbackBatchCommand.class));
+        }
+        return batches;
+    }
+
+    private TaskExecuteAckCommand ack(int taskInstanceId) {
+        TaskExecuteAckCommand ackCommand = new TaskExecuteAckCommand();
+        ackCommand.setTaskInstanceId(taskInstanceId);
+        return ackCommand;
+    }
+
+    private TaskExecuteResponseCommand response(int taskInstanceId) {
+        return new TaskExecuteResponseCommand(taskInstanceId);
+    }
+}
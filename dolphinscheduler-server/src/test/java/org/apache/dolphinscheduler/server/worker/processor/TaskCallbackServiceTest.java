@@ -37,6 +37,7 @@ import org.apache.dolphinscheduler.server.master.registry.MasterRegistry;
 import org.apache.dolphinscheduler.server.registry.ZookeeperNodeManager;
 import org.apache.dolphinscheduler.server.registry.ZookeeperRegistryCenter;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.journal.TaskStateJournal;
 import org.apache.dolphinscheduler.server.worker.registry.WorkerRegistry;
 import org.apache.dolphinscheduler.server.zk.SpringZKServer;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
@@ -70,6 +71,7 @@ import java.util.Date;
         ZookeeperConfig.class,
         ZookeeperNodeManager.class,
         TaskCallbackService.class,
+        TaskStateJournal.class,
         TaskResponseService.class,
         TaskAckProcessor.class,
         TaskResponseProcessor.class,
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.processor;
+
+import org.apache.dolphinscheduler.remote.command.TaskKillRequestCommand;
+import org.apache.dolphinscheduler.remote.utils.Pair;
+import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.utils.ProcessUtils;
+import org.apache.dolphinscheduler.server.worker.cache.impl.TaskExecutionContextCacheManagerImpl;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+import org.slf4j.Logger;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *  task kill processor test
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(ProcessUtils.class)
+@PowerMockIgnore({"javax.management.*"})
+public class TaskKillProcessorTest {
+
+    private static final String EXECUTE_PATH = "/tmp/dolphinscheduler/exec/process/1/2/3/4";
+
+    private TaskKillProcessor taskKillProcessor;
+
+    private TaskExecutionContext taskExecutionContext;
+
+    @Before
+    public void before() {
+        PowerMockito.mockStatic(ProcessUtils.class);
+
+        TaskExecutionContextCacheManagerImpl taskExecutionContextCacheManager = new TaskExecutionContextCacheManagerImpl();
+        ApplicationContext applicationContext = PowerMockito.mock(ApplicationContext.class);
+        SpringApplicationContext springApplicationContext = new SpringApplicationContext();
+        springApplicationContext.setApplicationContext(applicationContext);
+        PowerMockito.when(applicationContext.getBean(TaskExecutionContextCacheManagerImpl.class)).thenReturn(taskExecutionContextCacheManager);
+        taskKillProcessor = new TaskKillProcessor();
+
+        taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(4);
+        taskExecutionContext.setProcessId(1234);
+        taskExecutionContext.setHost("127.0.0.1:1234");
+        taskExecutionContext.setTenantCode("tenant");
+        taskExecutionContext.setExecutePath(EXECUTE_PATH);
+        taskExecutionContextCacheManager.cacheTaskExecutionContext(taskExecutionContext);
+    }
+
+    @Test
+    public void testKillWithCollectedAppIds() throws Exception {
+        List<String> appIds = Arrays.asList("application_1585532379175_228491", "application_1585532379175_228492");
+        taskExecutionContext.setAppIds(String.join(",", appIds));
+
+        Pair<Boolean, List<String>> result = Whitebox.invokeMethod(taskKillProcessor, "doKill", killCommand());
+
+        Assert.assertTrue(result.getLeft());
+        Assert.assertEquals(appIds, result.getRight());
+        PowerMockito.verifyStatic(ProcessUtils.class);
+        ProcessUtils.killProcessTree(1234);
+        // the collected ids are cancelled without fetching the task log
+        PowerMockito.verifyStatic(ProcessUtils.class);
+        ProcessUtils.cancelApplication(Mockito.eq(appIds), Mockito.any(Logger.class), Mockito.eq("tenant"), Mockito.eq(EXECUTE_PATH));
+    }
+
+    @Test
+    public void testKillWithoutProcess() throws Exception {
+        taskExecutionContext.setProcessId(0);
+
+        Pair<Boolean, List<String>> result = Whitebox.invokeMethod(taskKillProcessor, "doKill", killCommand());
+
+        Assert.assertFalse(result.getLeft());
+        Assert.assertEquals(Collections.emptyList(), result.getRight());
+        PowerMockito.verifyStatic(ProcessUtils.class, Mockito.never());
+        ProcessUtils.killProcessTree(Mockito.anyInt());
+    }
+
+    private TaskKillRequestCommand killCommand() {
+        TaskKillRequestCommand killCommand = new TaskKillRequestCommand();
+        killCommand.setTaskInstanceId(4);
+        return killCommand;
+    }
+}
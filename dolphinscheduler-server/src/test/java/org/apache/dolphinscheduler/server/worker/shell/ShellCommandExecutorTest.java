@@ -21,36 +21,90 @@ import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.common.model.TaskNode;
 import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
 import org.apache.dolphinscheduler.server.worker.task.AbstractTask;
+import org.apache.dolphinscheduler.server.worker.task.ShellCommandExecutor;
 import org.apache.dolphinscheduler.server.worker.task.TaskProps;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.dolphinscheduler.common.utils.*;
+import org.springframework.context.ApplicationContext;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 /**
  *  python shell command executor test
  */
-@Ignore
 public class ShellCommandExecutorTest {
 
     private static final Logger logger = LoggerFactory.getLogger(ShellCommandExecutorTest.class);
 
     private ProcessService processService = null;
 
+    private TaskExecutionContext taskExecutionContext;
+
+    private ShellCommandExecutor shellCommandExecutor;
+
+    private final List<String> logs = Collections.synchronizedList(new ArrayList<>());
+
     @Before
     public void before(){
-        processService = SpringApplicationContext.getBean(ProcessService.class);
+        ApplicationContext applicationContext = Mockito.mock(ApplicationContext.class);
+        SpringApplicationContext springApplicationContext = new SpringApplicationContext();
+        springApplicationContext.setApplicationContext(applicationContext);
+
+        taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskAppId("1_2_3");
+        shellCommandExecutor = new ShellCommandExecutor(logs::addAll, taskExecutionContext, logger);
+    }
+
+    @Test
+    public void testFindAppIds() throws Exception {
+        Whitebox.invokeMethod(shellCommandExecutor, "findAppIds", "INFO impl.YarnClientImpl: Submitted application application_1585532379175_228491");
+        Whitebox.invokeMethod(shellCommandExecutor, "findAppIds", "INFO mapreduce.Job: Running job: job_1585532379175_228491");
+        Whitebox.invokeMethod(shellCommandExecutor, "findAppIds",
+                "tracking application_1585532379175_228491 and application_1585532379175_228492");
+
+        List<String> appIds = Arrays.asList("application_1585532379175_228491", "application_1585532379175_228492");
+        Assert.assertEquals(appIds, shellCommandExecutor.getAppIds());
+        // published while the task runs, so a kill can cancel them
+        Assert.assertEquals(String.join(Constants.COMMA, appIds), taskExecutionContext.getAppIds());
+    }
+
+    @Test
+    public void testAwaitProcessOutputParsed() throws Exception {
+        Assume.assumeFalse(OSUtils.isWindows());
+        // nothing to wait for before the output is parsed
+        Whitebox.invokeMethod(shellCommandExecutor, "awaitProcessOutputParsed");
+
+        Process process = new ProcessBuilder("sh", "-c",
+                "echo application_1585532379175_1; sleep 0.5; echo application_1585532379175_2").start();
+        Whitebox.invokeMethod(shellCommandExecutor, "parseProcessOutput", process);
+        Assert.assertEquals(0, process.waitFor());
+        Whitebox.invokeMethod(shellCommandExecutor, "awaitProcessOutputParsed");
+
+        Assert.assertEquals(Arrays.asList("application_1585532379175_1", "application_1585532379175_2"),
+                shellCommandExecutor.getAppIds());
+        Assert.assertEquals(Arrays.asList("application_1585532379175_1", "application_1585532379175_2"), logs);
     }
 
+    @Ignore
     @Test
     public void test() throws Exception {
+        processService = SpringApplicationContext.getBean(ProcessService.class);
 
         TaskProps taskProps = new TaskProps();
         // processDefineId_processInstanceId_taskInstanceId
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task;
+
+import org.apache.dolphinscheduler.server.utils.ProcfsUtils;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+
+/**
+ *  task resource sampler test, samples a busy shell started by the test
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TaskResourceSamplerTest {
+
+    @Spy
+    private WorkerConfig workerConfig = new WorkerConfig();
+
+    @InjectMocks
+    private TaskResourceSampler taskResourceSampler;
+
+    private Process process;
+
+    @Before
+    public void before() {
+        Assume.assumeTrue(ProcfsUtils.isSupported());
+        // sampled by the test instead of the sample executor
+        workerConfig.setResourceSampleIntervalSeconds(3600);
+    }
+
+    @After
+    public void after() {
+        taskResourceSampler.close();
+        if (process != null) {
+            process.destroyForcibly();
+        }
+    }
+
+    @Test
+    public void testSample() throws Exception {
+        process = new ProcessBuilder("sh", "-c", "while :; do :; done").start();
+        taskResourceSampler.start(1, pid(process));
+        Assert.assertFalse(taskResourceSampler.getUsage(1).isSampled());
+
+        Thread.sleep(500);
+        taskResourceSampler.sample();
+        Thread.sleep(500);
+        taskResourceSampler.sample();
+
+        TaskResourceUsage usage = taskResourceSampler.getUsage(1);
+        Assert.assertTrue(usage.getCpuUsage() > 10);
+        Assert.assertTrue(usage.getMemory() > 0);
+        Assert.assertTrue(usage.getPeakCpuUsage() >= usage.getCpuUsage());
+        Assert.assertTrue(usage.getAvgCpuUsage() > 10);
+        Assert.assertTrue(usage.getPeakMemory() >= usage.getAvgMemory());
+
+        Map<String, Object> metrics = taskResourceSampler.getMetrics().get(1);
+        Assert.assertEquals(usage.getPeakMemory(), metrics.get("peakMemory"));
+
+        Assert.assertSame(usage, taskResourceSampler.stop(1));
+        Assert.assertNull(taskResourceSampler.getUsage(1));
+    }
+
+    @Test
+    public void testNotSampled() {
+        taskResourceSampler.start(2, Integer.MAX_VALUE);
+        taskResourceSampler.sample();
+        Assert.assertNull(taskResourceSampler.stop(2));
+
+        workerConfig.setResourceSampleIntervalSeconds(0);
+        taskResourceSampler.start(3, 1);
+        Assert.assertNull(taskResourceSampler.getUsage(3));
+    }
+
+    private static int pid(Process process) throws Exception {
+        Field field = process.getClass().getDeclaredField("pid");
+        field.setAccessible(true);
+        return field.getInt(process);
+    }
+}
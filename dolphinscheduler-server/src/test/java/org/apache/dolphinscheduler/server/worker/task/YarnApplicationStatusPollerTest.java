@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ *  yarn application status poller test, a local http server stands in for the resourcemanager
+ */
+public class YarnApplicationStatusPollerTest {
+
+    private HttpServer server;
+
+    private String appsUrl;
+
+    /**
+     * finished applications reported by the bulk api, appId -> finalStatus
+     */
+    private final Map<String, String> finishedApps = new ConcurrentHashMap<>();
+
+    /**
+     * states reported by the single application api
+     */
+    private final Map<String, ExecutionStatus> appStates = new ConcurrentHashMap<>();
+
+    private final AtomicInteger bulkRequests = new AtomicInteger();
+
+    private final AtomicInteger singleRequests = new AtomicInteger();
+
+    /**
+     * single application requests failing before the application is reachable
+     */
+    private final AtomicInteger singleFailures = new AtomicInteger();
+
+    private volatile String lastBulkQuery;
+
+    /**
+     * finish time the resourcemanager reports for all finished applications
+     */
+    private final long finishedTime = System.currentTimeMillis();
+
+    private YarnApplicationStatusPoller poller;
+
+    @Before
+    public void before() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ws/v1/cluster/apps", exchange -> {
+            bulkRequests.incrementAndGet();
+            lastBulkQuery = exchange.getRequestURI().getQuery();
+            StringBuilder body = new StringBuilder("{\"apps\":{\"app\":[");
+            String separator = "";
+            for (Map.Entry<String, String> app : finishedApps.entrySet()) {
+                body.append(separator).append("{\"id\":\"").append(app.getKey())
+                        .append("\",\"finalStatus\":\"").append(app.getValue())
+                        .append("\",\"finishedTime\":").append(finishedTime).append("}");
+                separator = ",";
+            }
+            body.append("]}}");
+            byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        appsUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/ws/v1/cluster/apps";
+
+        poller = new YarnApplicationStatusPoller(appId -> {
+            singleRequests.incrementAndGet();
+            if (singleFailures.getAndDecrement() > 0) {
+                throw new IllegalStateException("resourcemanager is not reachable");
+            }
+            return appStates.getOrDefault(appId, ExecutionStatus.RUNNING_EXEUTION);
+        }, () -> appsUrl, 100, 60 * 1000L);
+    }
+
+    @After
+    public void after() {
+        poller.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testBulkPoll() throws Exception {
+        CompletableFuture<ExecutionStatus> first = poller.watch("application_1_0001");
+        CompletableFuture<ExecutionStatus> second = poller.watch("application_1_0002");
+        Assert.assertSame(first, poller.watch("application_1_0001"));
+        Assert.assertEquals(2, poller.getPendingSize());
+
+        // the first single requests are sent on the first tick, then they back off
+        waitFor(() -> singleRequests.get() >= 2);
+        finishedApps.put("application_1_0001", "SUCCEEDED");
+        finishedApps.put("application_1_0002", "KILLED");
+
+        Assert.assertEquals(ExecutionStatus.SUCCESS, first.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(ExecutionStatus.KILL, second.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, poller.getPendingSize());
+        Assert.assertTrue(bulkRequests.get() > 0);
+
+        // final states are cached
+        int requests = bulkRequests.get() + singleRequests.get();
+        Assert.assertEquals(ExecutionStatus.SUCCESS, poller.watch("application_1_0001").getNow(null));
+        Assert.assertEquals(requests, bulkRequests.get() + singleRequests.get());
+
+        // the next bulk query only lists the applications finished since the last one
+        poller.watch("application_1_0004");
+        waitFor(() -> lastBulkQuery != null && lastBulkQuery.endsWith("finishedTimeBegin=" + finishedTime));
+    }
+
+    @Test
+    public void testQueryErrorIsNotFinal() throws Exception {
+        appsUrl = null;
+        singleFailures.set(3);
+        appStates.put("application_1_0005", ExecutionStatus.SUCCESS);
+        CompletableFuture<ExecutionStatus> future = poller.watch("application_1_0005");
+
+        // failed queries are retried on the next tick instead of reporting a failure
+        Assert.assertEquals(ExecutionStatus.SUCCESS, future.get(10, TimeUnit.SECONDS));
+        Assert.assertTrue(singleRequests.get() >= 4);
+        Assert.assertEquals(ExecutionStatus.SUCCESS, poller.watch("application_1_0005").getNow(null));
+    }
+
+    @Test
+    public void testSinglePollWithoutBulkApi() throws Exception {
+        appsUrl = null;
+        appStates.put("application_1_0003", ExecutionStatus.FAILURE);
+        Assert.assertEquals(ExecutionStatus.FAILURE, poller.watch("application_1_0003").get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, bulkRequests.get());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(50);
+        }
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  http client manager test, a local http server stands in for the called service
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class HttpClientManagerTest {
+
+    @Spy
+    private WorkerConfig workerConfig = new WorkerConfig();
+
+    @InjectMocks
+    private HttpClientManager httpClientManager;
+
+    private HttpServer server;
+
+    private String url;
+
+    /**
+     * client ports seen by the server, one per tcp connection
+     */
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * releases the requests blocked by the server
+     */
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * threads of the concurrent requests, each blocks on the shared client as http tasks do
+     */
+    private final ExecutorService executor = Executors.newFixedThreadPool(10);
+
+    @Before
+    public void before() throws Exception {
+        workerConfig.setHttpTaskMaxConnections(4);
+        workerConfig.setHttpTaskMaxConnectionsPerRoute(2);
+        workerConfig.setHttpTaskKeepAliveSeconds(30);
+        workerConfig.setHttpTaskConnectionRequestTimeoutMillis(500);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/check", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] bytes = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.createContext("/block", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/check";
+    }
+
+    @After
+    public void after() {
+        release.countDown();
+        executor.shutdownNow();
+        httpClientManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testKeepAlive() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals("ok", get());
+        }
+        Assert.assertSame(httpClientManager.getHttpClient(), httpClientManager.getHttpClient());
+        Assert.assertEquals(1, clientPorts.size());
+        Assert.assertTrue(httpClientManager.getPoolStats().contains("available: 1"));
+    }
+
+    @Test
+    public void testRouteLimit() throws Exception {
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(CompletableFuture.supplyAsync(this::get, executor));
+        }
+        for (CompletableFuture<String> future : futures) {
+            Assert.assertEquals("ok", future.get(10, TimeUnit.SECONDS));
+        }
+        Assert.assertTrue(clientPorts.size() <= 2);
+    }
+
+    @Test
+    public void testConnectionRequestTimeout() throws Exception {
+        String blockUrl = url.replace("/check", "/block");
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> get(blockUrl), executor));
+        }
+        // both connections of the route are leased, the next request gives up instead of waiting forever
+        try {
+            CompletableFuture.supplyAsync(() -> get(blockUrl), executor).get(10, TimeUnit.SECONDS);
+            Assert.fail("connection request should time out");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause().getCause() instanceof ConnectionPoolTimeoutException);
+        }
+        release.countDown();
+        for (CompletableFuture<String> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private String get() {
+        return get(url);
+    }
+
+    private String get(String url) {
+        try (CloseableHttpResponse response = httpClientManager.getHttpClient().execute(new HttpGet(url))) {
+            return response.getEntity() == null ? null : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.python;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.dolphinscheduler.common.utils.OSUtils;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.task.WarmProcess;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  python worker pool test, python processes are started as the current user instead of sudo
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PythonWorkerPoolTest {
+
+    private static final String PYTHON = "python";
+
+    @Spy
+    private WorkerConfig workerConfig = new WorkerConfig();
+
+    @InjectMocks
+    private PythonWorkerPool pythonWorkerPool = new PythonWorkerPool() {
+        @Override
+        protected List<String> pythonCommand(String tenant, String python) {
+            return Collections.singletonList(python);
+        }
+    };
+
+    private File baseDir;
+
+    @Before
+    public void before() throws Exception {
+        Assume.assumeFalse(OSUtils.isWindows());
+        Assume.assumeTrue(isPythonAvailable());
+        workerConfig.setPythonPoolEnable(true);
+        workerConfig.setPythonPoolSize(1);
+        workerConfig.setPythonPoolMaxTasks(10);
+        workerConfig.setPythonPoolMaxMemoryMb(1024);
+        workerConfig.setPythonPoolIdleTimeoutSeconds(300);
+        baseDir = Files.createTempDirectory("python-pool-test").toFile();
+    }
+
+    @After
+    public void after() {
+        pythonWorkerPool.close();
+        FileUtils.deleteQuietly(baseDir);
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        WarmProcess process = execute("first", "import os, sys\nprint('out')\nsys.stderr.write('err\\n')\nsys.exit(3)");
+        String output = IOUtils.toString(process.getInputStream(), StandardCharsets.UTF_8);
+
+        Assert.assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+        Assert.assertEquals(3, process.exitValue());
+        Assert.assertEquals("out\nerr\n", output);
+    }
+
+    @Test
+    public void testFreshNamespaceInReusedProcess() throws Exception {
+        workerConfig.setPythonPoolSize(2);
+        WarmProcess first = execute("first", "task_var = 1\nimport os\nos.chdir('/')");
+        Assert.assertTrue(first.waitFor(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, first.exitValue());
+        // the used process and the one started in the background
+        awaitIdleWorkers(2);
+
+        WarmProcess second = execute("second", "import os\nprint('task_var' in globals())\nprint(os.getcwd())");
+        String output = IOUtils.toString(second.getInputStream(), StandardCharsets.UTF_8);
+        Assert.assertTrue(second.waitFor(10, TimeUnit.SECONDS));
+        Assert.assertEquals("False\n" + baseDir.getAbsolutePath() + "\n", output);
+        Assert.assertEquals(first.getPid(), second.getPid());
+    }
+
+    @Test
+    public void testMemoryCap() throws Exception {
+        workerConfig.setPythonPoolSize(2);
+        workerConfig.setPythonPoolMaxMemoryMb(0);
+        WarmProcess first = execute("first", "print(1)");
+        Assert.assertTrue(first.waitFor(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, first.exitValue());
+
+        WarmProcess second = execute("second", "print(2)");
+        Assert.assertTrue(second.waitFor(10, TimeUnit.SECONDS));
+        Assert.assertNotEquals(first.getPid(), second.getPid());
+    }
+
+    private void awaitIdleWorkers(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pythonWorkerPool.getIdleCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertEquals(count, pythonWorkerPool.getIdleCount());
+    }
+
+    private WarmProcess execute(String name, String script) throws Exception {
+        File scriptFile = new File(baseDir, name + ".py");
+        FileUtils.writeStringToFile(scriptFile, script + "\n", StandardCharsets.UTF_8);
+        File outputFile = new File(baseDir, name + ".out");
+        return (WarmProcess) pythonWorkerPool.execute("tenant", PYTHON, baseDir.getAbsolutePath(),
+                scriptFile.getAbsolutePath(), outputFile);
+    }
+
+    private static boolean isPythonAvailable() {
+        try {
+            return new ProcessBuilder(PYTHON, "-c", "pass").start().waitFor() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
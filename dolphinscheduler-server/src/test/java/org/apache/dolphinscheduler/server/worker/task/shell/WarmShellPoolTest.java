@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.shell;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.dolphinscheduler.common.utils.OSUtils;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.task.WarmProcess;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  warm shell pool test, shells are started as the current user instead of sudo
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WarmShellPoolTest {
+
+    @Spy
+    private WorkerConfig workerConfig = new WorkerConfig();
+
+    @InjectMocks
+    private WarmShellPool warmShellPool = new WarmShellPool() {
+        @Override
+        protected List<String> shellCommand(String tenant) {
+            return Collections.singletonList("sh");
+        }
+    };
+
+    private File baseDir;
+
+    private String envFile;
+
+    @Before
+    public void before() throws Exception {
+        Assume.assumeFalse(OSUtils.isWindows());
+        workerConfig.setShellWarmEnable(true);
+        workerConfig.setShellWarmPoolSize(1);
+        workerConfig.setShellWarmMaxTasks(2);
+        workerConfig.setShellWarmIdleTimeoutSeconds(300);
+
+        baseDir = Files.createTempDirectory("warm-shell-test").toFile();
+        File env = new File(baseDir, "env.sh");
+        FileUtils.writeStringToFile(env, "export WARM_TEST_HOME=/opt/warm\n", StandardCharsets.UTF_8);
+        envFile = env.getAbsolutePath();
+    }
+
+    @After
+    public void after() {
+        warmShellPool.close();
+        FileUtils.deleteQuietly(baseDir);
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        Process process = execute("first", "echo $WARM_TEST_HOME; pwd; exit 3");
+        String output = IOUtils.toString(process.getInputStream(), StandardCharsets.UTF_8);
+
+        Assert.assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+        Assert.assertEquals(3, process.exitValue());
+        Assert.assertEquals("/opt/warm\n" + baseDir.getAbsolutePath() + "\n", output);
+        Assert.assertTrue(((WarmProcess) process).getPid() > 0);
+    }
+
+    @Test
+    public void testShellIsolationAndReuse() throws Exception {
+        Process first = execute("first", "TASK_VAR=first; cd /");
+        Assert.assertTrue(first.waitFor(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, first.exitValue());
+        awaitIdleShell();
+
+        Process second = execute("second", "echo \"[$TASK_VAR]\"; pwd");
+        String output = IOUtils.toString(second.getInputStream(), StandardCharsets.UTF_8);
+        Assert.assertTrue(second.waitFor(10, TimeUnit.SECONDS));
+        Assert.assertEquals("[]\n" + baseDir.getAbsolutePath() + "\n", output);
+    }
+
+    @Test
+    public void testFailedShellIsNotReused() throws Exception {
+        Process process = execute("first", "exit 1");
+        Assert.assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+        // the shell of the failed script is closed, only the shell started in the background is left
+        awaitIdleShell();
+        Thread.sleep(200);
+        Assert.assertEquals(1, warmShellPool.getIdleCount());
+    }
+
+    private void awaitIdleShell() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (warmShellPool.getIdleCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertEquals(1, warmShellPool.getIdleCount());
+    }
+
+    private Process execute(String name, String script) throws Exception {
+        File commandFile = new File(baseDir, name + ".command");
+        FileUtils.writeStringToFile(commandFile, script + "\n", StandardCharsets.UTF_8);
+        File outputFile = new File(baseDir, name + ".out");
+        return warmShellPool.execute("tenant", envFile, baseDir.getAbsolutePath(), commandFile.getAbsolutePath(), outputFile);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.task.sql;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.dolphinscheduler.common.task.sql.SqlResultFormat;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+public class SqlResultFileWriterTest {
+
+    private static final String QUERY = "SELECT X AS ID, CASEWHEN(X = 2, 'a,\"b\"', 'c') AS NAME FROM SYSTEM_RANGE(1, 5)";
+
+    private File baseDir;
+
+    private Connection connection;
+
+    @Before
+    public void before() throws Exception {
+        baseDir = Files.createTempDirectory("sql-result-test").toFile();
+        connection = DriverManager.getConnection("jdbc:h2:mem:sql_result_test", "sa", "");
+    }
+
+    @After
+    public void after() throws Exception {
+        connection.close();
+        FileUtils.deleteQuietly(baseDir);
+    }
+
+    @Test
+    public void testWriteCsv() throws Exception {
+        File file = new File(baseDir, "result.csv");
+        SqlResultFileWriter writer = write(file, SqlResultFormat.CSV);
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(6, lines.size());
+        Assert.assertEquals("ID,NAME", lines.get(0));
+        Assert.assertEquals("1,c", lines.get(1));
+        Assert.assertEquals("2,\"a,\"\"b\"\"\"", lines.get(2));
+        Assert.assertEquals(5, writer.getRowCount());
+        Assert.assertEquals(2, writer.getPreview().size());
+    }
+
+    @Test
+    public void testWriteJsonLines() throws Exception {
+        File file = new File(baseDir, "result.json");
+        SqlResultFileWriter writer = write(file, SqlResultFormat.JSON);
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        Assert.assertEquals(5, lines.size());
+        Assert.assertEquals("a,\"b\"", JSONUtils.parseObject(lines.get(1)).path("NAME").asText());
+        Assert.assertEquals(5, writer.getRowCount());
+        Assert.assertEquals(lines.get(0), JSONUtils.toJsonString(writer.getPreview().get(0)));
+    }
+
+    private SqlResultFileWriter write(File file, SqlResultFormat format) throws Exception {
+        SqlResultFileWriter writer = new SqlResultFileWriter(file, format, 2);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(QUERY)) {
+            writer.write(resultSet);
+        } finally {
+            writer.close();
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ *  bounded read-through cache of one entity type.
+ *  entries expire after write and are stamped with the cache version when their load starts,
+ *  an entry of an older version is a miss, so invalidating never races with a concurrent load.
+ *  null values are never cached.
+ *
+ * @param <K> key
+ * @param <V> entity
+ */
+public class EntityCache<K, V> {
+
+    private final String name;
+
+    private final Cache<K, Entry<V>> cache;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param name cache name
+     * @param maxSize max entries, 0 disables the cache
+     * @param expireSeconds expire time after write
+     */
+    public EntityCache(String name, long maxSize, long expireSeconds) {
+        this.name = name;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * get entity, load it on miss
+     * @param key key
+     * @param loader loader
+     * @return entity, null if the loader returns null
+     */
+    public V get(K key, Function<K, V> loader) {
+        long current = version.get();
+        Entry<V> entry = cache.getIfPresent(key);
+        if (entry != null && entry.version == current) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        put(key, value, current);
+        return value;
+    }
+
+    /**
+     * get entities, the missing ones are loaded with one call
+     * @param keys keys
+     * @param loader loader of the missing keys
+     * @return entities in the order of keys, keys without entity are skipped
+     */
+    public List<V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        long current = version.get();
+        Map<K, V> found = new HashMap<>(keys.size());
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            Entry<V> entry = cache.getIfPresent(key);
+            if (entry != null && entry.version == current) {
+                found.put(key, entry.value);
+            } else {
+                missing.add(key);
+            }
+        }
+        hits.add(found.size());
+        misses.add(missing.size());
+        if (!missing.isEmpty()) {
+            Map<K, V> loaded = loader.apply(missing);
+            for (Map.Entry<K, V> e : loaded.entrySet()) {
+                put(e.getKey(), e.getValue(), current);
+                found.put(e.getKey(), e.getValue());
+            }
+        }
+        List<V> values = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            V value = found.get(key);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private void put(K key, V value, long loadVersion) {
+        if (value != null && loadVersion == version.get()) {
+            cache.put(key, new Entry<>(value, loadVersion));
+        }
+    }
+
+    /**
+     * invalidate all entries, including the ones being loaded
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    @Override
+    public String toString() {
+        long hit = getHitCount();
+        long miss = getMissCount();
+        long total = hit + miss;
+        return "EntityCache{" +
+                "name='" + name + '\'' +
+                ", size=" + size() +
+                ", version=" + getVersion() +
+                ", hits=" + hit +
+                ", misses=" + miss +
+                ", hitRate=" + (total == 0 ? 0 : hit * 100 / total) + "%" +
+                '}';
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+
+        private final long version;
+
+        Entry(V value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
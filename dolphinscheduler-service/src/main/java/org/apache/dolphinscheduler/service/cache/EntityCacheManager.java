@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.service.cache;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.CuratorWatcher;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+import org.apache.dolphinscheduler.dao.entity.DataSource;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.entity.Resource;
+import org.apache.dolphinscheduler.dao.entity.Tenant;
+import org.apache.dolphinscheduler.dao.entity.User;
+import org.apache.dolphinscheduler.service.zk.ZookeeperCachedOperator;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  entity caches of the hot lookups in process service.
+ *  every cache type has a version node in zookeeper, services mutating the entities call
+ *  {@link #invalidate(CacheType...)} after the change, which bumps the node and every process
+ *  watching it drops its cache of that type.
+ */
+@Component
+public class EntityCacheManager {
+
+    private final Logger logger = LoggerFactory.getLogger(EntityCacheManager.class);
+
+    /**
+     * cached entity type
+     */
+    public enum CacheType {
+        PROCESS_DEFINITION,
+        TENANT,
+        USER,
+        DATASOURCE,
+        RESOURCE
+    }
+
+    @Autowired
+    private ZookeeperCachedOperator zookeeperCachedOperator;
+
+    private final Map<CacheType, EntityCache<Integer, ?>> caches = new EnumMap<>(CacheType.class);
+
+    private final Map<CacheType, String> versionPaths = new EnumMap<>(CacheType.class);
+
+    private final Map<String, CacheType> pathTypes = new HashMap<>();
+
+    private final CuratorWatcher versionWatcher = this::versionChanged;
+
+    private ScheduledExecutorService statsExecutor;
+
+    @PostConstruct
+    public void init() {
+        int maxSize = PropertyUtils.getInt(Constants.ENTITY_CACHE_MAX_SIZE, Constants.DEFAULT_ENTITY_CACHE_MAX_SIZE);
+        int expireSeconds = PropertyUtils.getInt(Constants.ENTITY_CACHE_EXPIRE_SECONDS, Constants.DEFAULT_ENTITY_CACHE_EXPIRE_SECONDS);
+        String root = zookeeperCachedOperator.getZookeeperConfig().getDsRoot() + Constants.ZOOKEEPER_DOLPHINSCHEDULER_ENTITY_CACHE;
+        for (CacheType type : CacheType.values()) {
+            caches.put(type, new EntityCache<>(type.name(), maxSize, expireSeconds));
+            String path = root + "/" + type.name().toLowerCase();
+            versionPaths.put(type, path);
+            pathTypes.put(path, type);
+        }
+
+        CuratorFramework client = zookeeperCachedOperator.getZkClient();
+        client.getConnectionStateListenable().addListener((c, state) -> {
+            if (state == ConnectionState.RECONNECTED) {
+                // changes may have been missed while disconnected
+                logger.info("zookeeper reconnected, invalidate all entity caches");
+                caches.values().forEach(EntityCache::invalidateAll);
+                versionPaths.values().forEach(this::watch);
+            }
+        });
+        versionPaths.values().forEach(this::watch);
+
+        int statsInterval = PropertyUtils.getInt(Constants.ENTITY_CACHE_STATS_INTERVAL, Constants.DEFAULT_ENTITY_CACHE_STATS_INTERVAL);
+        statsExecutor = ThreadUtils.newDaemonThreadScheduledExecutor("Entity-Cache-Stats", 1);
+        statsExecutor.scheduleAtFixedRate(this::logStats, statsInterval, statsInterval, TimeUnit.SECONDS);
+        logger.info("entity cache started, max size : {}, expire seconds : {}", maxSize, expireSeconds);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> EntityCache<Integer, V> getCache(CacheType type) {
+        return (EntityCache<Integer, V>) caches.get(type);
+    }
+
+    public EntityCache<Integer, ProcessDefinition> getProcessDefinitionCache() {
+        return getCache(CacheType.PROCESS_DEFINITION);
+    }
+
+    public EntityCache<Integer, Tenant> getTenantCache() {
+        return getCache(CacheType.TENANT);
+    }
+
+    public EntityCache<Integer, User> getUserCache() {
+        return getCache(CacheType.USER);
+    }
+
+    public EntityCache<Integer, DataSource> getDataSourceCache() {
+        return getCache(CacheType.DATASOURCE);
+    }
+
+    public EntityCache<Integer, Resource> getResourceCache() {
+        return getCache(CacheType.RESOURCE);
+    }
+
+    /**
+     * invalidate the caches of the given types in this process and all processes watching them,
+     * call it after the mutation is written. inside a transaction the invalidation runs after the
+     * commit, otherwise another process could reload and cache the old rows before they are committed
+     * @param types cache types
+     */
+    public void invalidate(CacheType... types) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate(types);
+                }
+            });
+            return;
+        }
+        doInvalidate(types);
+    }
+
+    private void doInvalidate(CacheType... types) {
+        for (CacheType type : types) {
+            caches.get(type).invalidateAll();
+            zookeeperCachedOperator.persist(versionPaths.get(type), String.valueOf(System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * exists watch, also fires when the version node is created
+     */
+    private void watch(String path) {
+        try {
+            zookeeperCachedOperator.getZkClient().checkExists().usingWatcher(versionWatcher).inBackground().forPath(path);
+        } catch (Exception e) {
+            logger.error("watch entity cache version : {} failed", path, e);
+        }
+    }
+
+    private void versionChanged(WatchedEvent event) {
+        if (event.getType() == Watcher.Event.EventType.None) {
+            return;
+        }
+        CacheType type = pathTypes.get(event.getPath());
+        if (type == null) {
+            return;
+        }
+        caches.get(type).invalidateAll();
+        logger.info("entity cache : {} invalidated by version change", type);
+        watch(event.getPath());
+    }
+
+    private void logStats() {
+        for (EntityCache<Integer, ?> cache : caches.values()) {
+            logger.info("{}", cache);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (statsExecutor != null) {
+            statsExecutor.shutdownNow();
+        }
+    }
+}
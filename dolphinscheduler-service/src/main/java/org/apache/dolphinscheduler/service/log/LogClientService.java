@@ -16,16 +16,29 @@
  */
 package org.apache.dolphinscheduler.service.log;
 
+import io.netty.channel.Channel;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.*;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.remote.utils.JsonSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * log client
@@ -43,6 +56,41 @@ public class LogClientService {
      */
     private static final long LOG_REQUEST_TIMEOUT = 10 * 1000L;
 
+    /**
+     *  search time out, a search scans whole logs
+     */
+    private static final long LOG_SEARCH_TIMEOUT = 60 * 1000L;
+
+    /**
+     *  log download chunk size
+     */
+    private static final int LOG_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     *  channels which are not used for this time are closed
+     */
+    private static final long CHANNEL_IDLE_TIMEOUT = 60 * 1000L;
+
+    /**
+     * channel of host -> usage, the channels are kept open between requests
+     */
+    private final ConcurrentHashMap<Host, ChannelUsage> channelUsages = new ConcurrentHashMap<>();
+
+    /**
+     * closes idle channels
+     */
+    private final ScheduledExecutorService idleChecker;
+
+    /**
+     * client of log follows, its channels stay open while logs are followed
+     */
+    private NettyRemotingClient followClient;
+
+    /**
+     * opaque of the follow request -> follow
+     */
+    private final ConcurrentHashMap<Long, LogFollow> follows = new ConcurrentHashMap<>();
+
     /**
      * construct client
      */
@@ -50,13 +98,24 @@ public class LogClientService {
         this.clientConfig = new NettyClientConfig();
         this.clientConfig.setWorkerThreads(4);
         this.client = new NettyRemotingClient(clientConfig);
+        this.idleChecker = ThreadUtils.newDaemonThreadScheduledExecutor("Log-Client-Idle-Checker", 1);
+        this.idleChecker.scheduleWithFixedDelay(this::closeIdleChannels,
+                CHANNEL_IDLE_TIMEOUT, CHANNEL_IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
     }
 
     /**
      * close
      */
     public void close()  {
+        this.idleChecker.shutdownNow();
         this.client.close();
+        channelUsages.clear();
+        synchronized (this) {
+            if (followClient != null) {
+                followClient.close();
+            }
+        }
+        follows.clear();
         logger.info("logger client closed");
     }
 
@@ -72,8 +131,73 @@ public class LogClientService {
     public String rollViewLog(String host, int port, String path,int skipLineNum,int limit) {
         logger.info("roll view log, host : {}, port : {}, path {}, skipLineNum {} ,limit {}", host, port, path, skipLineNum, limit);
         RollViewLogRequestCommand request = new RollViewLogRequestCommand(path, skipLineNum, limit);
+        return rollViewLog(host, port, request);
+    }
+
+    /**
+     * view the last lines of a log
+     * @param host host
+     * @param port port
+     * @param path path
+     * @param limit number of lines
+     * @return log content
+     */
+    public String tailLog(String host, int port, String path, int limit) {
+        logger.info("tail log, host : {}, port : {}, path {}, limit {}", host, port, path, limit);
+        RollViewLogRequestCommand request = new RollViewLogRequestCommand(path, 0, limit);
+        request.setTail(true);
+        return rollViewLog(host, port, request);
+    }
+
+    /**
+     * mark the channel of the host in use, it is not closed until the request is released
+     * @param host host
+     * @param port port
+     * @return address of the channel
+     */
+    private Host acquire(String host, int port) {
+        Host address = new Host(host, port);
+        channelUsages.compute(address, (key, usage) -> {
+            ChannelUsage result = usage == null ? new ChannelUsage() : usage;
+            result.inFlight++;
+            return result;
+        });
+        return address;
+    }
+
+    /**
+     * mark a request on the channel of the host done, the channel is closed after being idle for CHANNEL_IDLE_TIMEOUT
+     * @param address host
+     */
+    private void release(Host address) {
+        channelUsages.computeIfPresent(address, (key, usage) -> {
+            usage.inFlight--;
+            usage.lastUsedTime = System.currentTimeMillis();
+            return usage;
+        });
+    }
+
+    /**
+     * close the channels which have no request in flight and were not used for CHANNEL_IDLE_TIMEOUT
+     */
+    void closeIdleChannels() {
+        long now = System.currentTimeMillis();
+        for (Host address : channelUsages.keySet()) {
+            // checked and closed under the lock of the entry, so no request can acquire it meanwhile
+            channelUsages.computeIfPresent(address, (key, usage) -> {
+                if (usage.inFlight > 0 || now - usage.lastUsedTime < CHANNEL_IDLE_TIMEOUT) {
+                    return usage;
+                }
+                logger.info("close idle log channel {}", key);
+                this.client.closeChannel(key);
+                return null;
+            });
+        }
+    }
+
+    private String rollViewLog(String host, int port, RollViewLogRequestCommand request) {
         String result = "";
-        final Host address = new Host(host, port);
+        final Host address = acquire(host, port);
         try {
             Command command = request.convert2Command();
             Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
@@ -85,11 +209,87 @@ public class LogClientService {
         } catch (Exception e) {
             logger.error("roll view log error", e);
         } finally {
-            this.client.closeChannel(address);
+            release(address);
         }
         return result;
     }
 
+    /**
+     * follow a log, new lines are pushed to the listener until the follow is stopped
+     * @param host host
+     * @param port port
+     * @param path path
+     * @param skipLineNum lines already read
+     * @param listener listener, called by one thread in the order of the lines
+     * @return follow id
+     * @throws RemotingException if the follow request can not be sent
+     */
+    public long followLog(String host, int port, String path, int skipLineNum, LogFollowListener listener) throws RemotingException {
+        logger.info("follow log, host : {}, port : {}, path {}, skipLineNum {}", host, port, path, skipLineNum);
+        Command command = new LogFollowRequestCommand(path, skipLineNum).convert2Command();
+        Host address = new Host(host, port);
+        follows.put(command.getOpaque(), new LogFollow(address, listener));
+        try {
+            getFollowClient().send(address, command);
+        } catch (RemotingException e) {
+            follows.remove(command.getOpaque());
+            throw e;
+        }
+        return command.getOpaque();
+    }
+
+    /**
+     * stop following a log
+     * @param followId follow id
+     * @param drain whether the remaining lines are pushed before the listener ends
+     */
+    public void stopFollow(long followId, boolean drain) {
+        LogFollow follow = drain ? follows.get(followId) : follows.remove(followId);
+        if (follow == null) {
+            return;
+        }
+        try {
+            getFollowClient().send(follow.address, new LogFollowCancelRequestCommand(followId, drain).convert2Command());
+        } catch (Exception e) {
+            logger.warn("cancel log follow {} on {} failed", followId, follow.address, e);
+            if (drain && follows.remove(followId) != null) {
+                follow.listener.onEnd();
+            }
+        }
+    }
+
+    private synchronized NettyRemotingClient getFollowClient() {
+        if (followClient == null) {
+            followClient = new NettyRemotingClient(clientConfig);
+            // a single thread keeps the pushes of a follow in order
+            followClient.registerProcessor(CommandType.LOG_FOLLOW_PUSH, this::receivePush,
+                    ThreadUtils.newDaemonSingleThreadExecutor("Log-Follow-Receiver"));
+        }
+        return followClient;
+    }
+
+    private void receivePush(Channel channel, Command command) {
+        LogFollowPushCommand push = JsonSerializer.deserialize(command.getBody(), LogFollowPushCommand.class);
+        LogFollow follow = push.isEnd() ? follows.remove(command.getOpaque()) : follows.get(command.getOpaque());
+        if (follow == null) {
+            if (!push.isEnd()) {
+                // stopped by the client, the logger server still pushes
+                channel.writeAndFlush(new LogFollowCancelRequestCommand(command.getOpaque(), false).convert2Command());
+            }
+            return;
+        }
+        try {
+            if (StringUtils.isNotEmpty(push.getMsg())) {
+                follow.listener.onLog(push.getMsg());
+            }
+            if (push.isEnd()) {
+                follow.listener.onEnd();
+            }
+        } catch (Exception e) {
+            logger.error("log follow listener error", e);
+        }
+    }
+
     /**
      * view log
      * @param host host
@@ -101,7 +301,7 @@ public class LogClientService {
         logger.info("view log path {}", path);
         ViewLogRequestCommand request = new ViewLogRequestCommand(path);
         String result = "";
-        final Host address = new Host(host, port);
+        final Host address = acquire(host, port);
         try {
             Command command = request.convert2Command();
             Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
@@ -113,7 +313,7 @@ public class LogClientService {
         } catch (Exception e) {
             logger.error("view log error", e);
         } finally {
-            this.client.closeChannel(address);
+            release(address);
         }
         return result;
     }
@@ -129,7 +329,7 @@ public class LogClientService {
         logger.info("log path {}", path);
         GetLogBytesRequestCommand request = new GetLogBytesRequestCommand(path);
         byte[] result = null;
-        final Host address = new Host(host, port);
+        final Host address = acquire(host, port);
         try {
             Command command = request.convert2Command();
             Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
@@ -141,12 +341,76 @@ public class LogClientService {
         } catch (Exception e) {
             logger.error("get log size error", e);
         } finally {
-            this.client.closeChannel(address);
+            release(address);
         }
         return result;
     }
 
 
+    /**
+     * download log in chunks, at most one chunk is held in memory
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @param out stream receiving the log content
+     * @throws IOException if the log can not be downloaded or written
+     */
+    public void downloadLog(String host, int port, String path, OutputStream out) throws IOException {
+        logger.info("download log path {}", path);
+        final Host address = acquire(host, port);
+        try {
+            long offset = 0;
+            while (true) {
+                Command command = new GetLogChunkRequestCommand(path, offset, LOG_CHUNK_SIZE).convert2Command();
+                Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
+                if (response == null) {
+                    throw new IOException("get log chunk of " + path + " from " + address + " failed");
+                }
+                if (response.getType() == CommandType.GET_LOG_CHUNK_ERROR) {
+                    throw new IOException(new String(response.getBody(), StandardCharsets.UTF_8));
+                }
+                byte[] chunk = response.getBody();
+                out.write(chunk);
+                offset += chunk.length;
+                if (chunk.length < LOG_CHUNK_SIZE) {
+                    break;
+                }
+            }
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("download log " + path + " interrupted");
+        } catch (RemotingException e) {
+            throw new IOException("download log " + path + " from " + address + " failed", e);
+        } finally {
+            release(address);
+        }
+    }
+
+    /**
+     * search logs of one host
+     * @param host host
+     * @param port port
+     * @param request search request
+     * @return matches, null if the search failed
+     */
+    public SearchLogResponseCommand searchLog(String host, int port, SearchLogRequestCommand request) {
+        logger.info("search {} logs of host {}, keyword {}", request.getPaths().size(), host, request.getKeyword());
+        final Host address = acquire(host, port);
+        try {
+            Command command = request.convert2Command();
+            Command response = this.client.sendSync(address, command, LOG_SEARCH_TIMEOUT);
+            if(response != null){
+                return JsonSerializer.deserialize(response.getBody(), SearchLogResponseCommand.class);
+            }
+        } catch (Exception e) {
+            logger.error("search log error", e);
+        } finally {
+            release(address);
+        }
+        return null;
+    }
+
     /**
      * remove task log
      * @param host host
@@ -158,7 +422,7 @@ public class LogClientService {
         logger.info("log path {}", path);
         RemoveTaskLogRequestCommand request = new RemoveTaskLogRequestCommand(path);
         Boolean result = false;
-        final Host address = new Host(host, port);
+        final Host address = acquire(host, port);
         try {
             Command command = request.convert2Command();
             Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
@@ -170,8 +434,60 @@ public class LogClientService {
         } catch (Exception e) {
             logger.error("remove task log error", e);
         } finally {
-            this.client.closeChannel(address);
+            release(address);
         }
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * remove the logs of many tasks of one host in one request
+     * @param host host
+     * @param port port
+     * @param paths log paths
+     * @return remove status of each path, null if the request failed
+     */
+    public List<Boolean> removeTaskLogs(String host, int port, List<String> paths) {
+        logger.info("remove {} task logs of host {}", paths.size(), host);
+        RemoveTaskLogsRequestCommand request = new RemoveTaskLogsRequestCommand(paths);
+        final Host address = acquire(host, port);
+        try {
+            Command command = request.convert2Command();
+            Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
+            if(response != null){
+                RemoveTaskLogsResponseCommand taskLogsResponse = JsonSerializer.deserialize(
+                        response.getBody(), RemoveTaskLogsResponseCommand.class);
+                return taskLogsResponse.getStatuses();
+            }
+        } catch (Exception e) {
+            logger.error("remove task logs error", e);
+        } finally {
+            release(address);
+        }
+        return null;
+    }
+
+    /**
+     * usage of a channel, guarded by the channel usages map
+     */
+    private static class ChannelUsage {
+
+        /**
+         * number of requests waiting for their response
+         */
+        private int inFlight;
+
+        private long lastUsedTime = System.currentTimeMillis();
+    }
+
+    private static class LogFollow {
+
+        private final Host address;
+
+        private final LogFollowListener listener;
+
+        LogFollow(Host address, LogFollowListener listener) {
+            this.address = address;
+            this.listener = listener;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.apache.dolphinscheduler.common.utils.*;
 import org.apache.dolphinscheduler.dao.entity.*;
 import org.apache.dolphinscheduler.dao.mapper.*;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager;
 import org.apache.dolphinscheduler.service.log.LogClientService;
 import org.apache.dolphinscheduler.service.quartz.cron.CronUtils;
 import org.quartz.CronExpression;
@@ -38,6 +39,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PreDestroy;
 import java.io.File;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -58,6 +60,14 @@ public class ProcessService {
             ExecutionStatus.READY_PAUSE.ordinal(),
             ExecutionStatus.READY_STOP.ordinal()};
 
+    /**
+     * process instances in these states can be archived
+     */
+    private final int[] archivableStateArray = new int[]{ExecutionStatus.SUCCESS.ordinal(),
+            ExecutionStatus.FAILURE.ordinal(),
+            ExecutionStatus.KILL.ordinal(),
+            ExecutionStatus.STOP.ordinal()};
+
     @Autowired
     private UserMapper userMapper;
 
@@ -99,6 +109,14 @@ public class ProcessService {
     @Autowired
     private  ProjectMapper projectMapper;
 
+    @Autowired
+    private EntityCacheManager entityCacheManager;
+
+    /**
+     * log client, created with the first log removal
+     */
+    private LogClientService logClient;
+
     /**
      * handle Command (construct ProcessInstance from Command) , wrapped in transaction
      * @param logger logger
@@ -230,6 +248,76 @@ public class ProcessService {
         return processInstanceMapper.queryDetailById(processId);
     }
 
+    /**
+     * find archived process instance detail by id
+     * @param processId processId
+     * @return process instance
+     */
+    public ProcessInstance findArchivedProcessInstanceById(int processId){
+        return processInstanceMapper.queryArchivedDetailById(processId);
+    }
+
+    /**
+     * find process instance detail by id, archived process instances included
+     * @param processId processId
+     * @return process instance
+     */
+    public ProcessInstance findProcessInstanceDetailWithArchiveById(int processId){
+        ProcessInstance processInstance = findProcessInstanceDetailById(processId);
+        if(processInstance == null){
+            processInstance = findArchivedProcessInstanceById(processId);
+        }
+        return processInstance;
+    }
+
+    /**
+     * whether a query of instances started after the given time should hit the archive too,
+     * archived instances always started before the latest archived end time.
+     * a query without start time only reads the archive when the caller asks for archived rows
+     * @param startTime start time of the query, null for no start time
+     * @param includeArchived whether the caller asks for archived rows
+     * @return true if the archive should be queried too
+     */
+    public boolean reachArchive(Date startTime, boolean includeArchived){
+        if(startTime == null && !includeArchived){
+            return false;
+        }
+        Date archivedEndTime = processInstanceMapper.queryArchivedMaxEndTime();
+        if(archivedEndTime == null){
+            return false;
+        }
+        return startTime == null || !startTime.after(archivedEndTime);
+    }
+
+    /**
+     * query the ids of finished process instances which can be archived
+     * @param endTime process instances ended before this time
+     * @param lastId ids greater than this
+     * @param limit max ids
+     * @return process instance ids in ascending order
+     */
+    public List<Integer> queryArchivableProcessInstanceIds(Date endTime, int lastId, int limit){
+        return processInstanceMapper.queryArchivableIds(endTime, archivableStateArray, lastId, limit);
+    }
+
+    /**
+     * move process instances and their task instances to the archive tables, wrapped in transaction.
+     * instances which are not archivable any more, e.g. rerun meanwhile, are skipped
+     * @param processInstanceIds process instance ids
+     * @return archived process instance count
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int archiveProcessInstances(List<Integer> processInstanceIds){
+        List<Integer> ids = processInstanceMapper.lockArchivableByIds(processInstanceIds, archivableStateArray);
+        if(ids.isEmpty()){
+            return 0;
+        }
+        taskInstanceMapper.archiveByProcessInstanceIds(ids);
+        taskInstanceMapper.deleteByProcessInstanceIds(ids);
+        processInstanceMapper.archiveByIds(ids);
+        return processInstanceMapper.deleteBatchIds(ids);
+    }
+
     /**
      * get task node list by definitionId
      * @param defineId
@@ -264,12 +352,12 @@ public class ProcessService {
     }
 
     /**
-     * find process define by id.
+     * find process define by id, the returned definition is cached and shared, do not modify it
      * @param processDefinitionId processDefinitionId
      * @return process definition
      */
     public ProcessDefinition findProcessDefineById(int processDefinitionId) {
-        return processDefineMapper.selectById(processDefinitionId);
+        return entityCacheManager.getProcessDefinitionCache().get(processDefinitionId, processDefineMapper::selectById);
     }
 
     /**
@@ -278,7 +366,13 @@ public class ProcessService {
      * @return delete process instance result
      */
     public int deleteWorkProcessInstanceById(int processInstanceId){
-        return processInstanceMapper.deleteById(processInstanceId);
+        int delete = processInstanceMapper.deleteById(processInstanceId);
+        if(delete == 0){
+            // archived process instances have no foreign key deleting their task instances
+            taskInstanceMapper.deleteArchivedByProcessInstanceId(processInstanceId);
+            delete = processInstanceMapper.deleteArchivedById(processInstanceId);
+        }
+        return delete;
     }
 
     /**
@@ -301,25 +395,23 @@ public class ProcessService {
 
 
     /**
-     * remove task log file
+     * remove task log file, the logs of one host are removed in one request
      * @param processInstanceId processInstanceId
      */
     public void removeTaskLogFile(Integer processInstanceId){
 
-        LogClientService logClient = new LogClientService();
-
-        List<TaskInstance> taskInstanceList = findValidTaskListByProcessId(processInstanceId);
+        List<TaskInstance> taskInstanceList = findValidTaskListWithArchiveByProcessId(processInstanceId);
 
         if (CollectionUtils.isEmpty(taskInstanceList)){
             return;
         }
 
+        Map<String, List<String>> hostLogPaths = new LinkedHashMap<>();
         for (TaskInstance taskInstance : taskInstanceList){
             String taskLogPath = taskInstance.getLogPath();
-            if (StringUtils.isEmpty(taskInstance.getHost())){
+            if (StringUtils.isEmpty(taskInstance.getHost()) || StringUtils.isEmpty(taskLogPath)){
                 continue;
             }
-            int port = Constants.RPC_PORT;
             String ip = "";
             try {
                 ip = Host.of(taskInstance.getHost()).getIp();
@@ -327,10 +419,41 @@ public class ProcessService {
                 // compatible old version
                 ip = taskInstance.getHost();
             }
+            hostLogPaths.computeIfAbsent(ip, k -> new ArrayList<>()).add(taskLogPath);
+        }
+
+        int port = Constants.RPC_PORT;
+        LogClientService logClient = getLogClient();
+        for (Map.Entry<String, List<String>> entry : hostLogPaths.entrySet()) {
+            // remove task logs from loggerserver
+            List<String> logPaths = entry.getValue();
+            if (logClient.removeTaskLogs(entry.getKey(), port, logPaths) == null) {
+                // logger servers older than the batch request never answer it, remove the logs one by one
+                logger.warn("remove {} task logs of host {} in one request failed, remove them one by one",
+                        logPaths.size(), entry.getKey());
+                for (String logPath : logPaths) {
+                    logClient.removeTaskLog(entry.getKey(), port, logPath);
+                }
+            }
+        }
+    }
 
+    /**
+     * log client, its connections are reused between removals
+     * @return log client
+     */
+    private synchronized LogClientService getLogClient(){
+        if (logClient == null){
+            logClient = new LogClientService();
+        }
+        return logClient;
+    }
 
-            // remove task log from loggerserver
-            logClient.removeTaskLog(ip,port,taskLogPath);
+    @PreDestroy
+    public synchronized void close(){
+        if (logClient != null){
+            logClient.close();
+            logClient = null;
         }
     }
 
@@ -509,7 +632,7 @@ public class ProcessService {
     public Tenant getTenantForProcess(int tenantId, int userId){
         Tenant tenant = null;
         if(tenantId >= 0){
-            tenant = tenantMapper.queryById(tenantId);
+            tenant = entityCacheManager.getTenantCache().get(tenantId, tenantMapper::queryById);
         }
 
         if (userId == 0){
@@ -517,8 +640,8 @@ public class ProcessService {
         }
 
         if(tenant == null){
-            User user = userMapper.selectById(userId);
-            tenant = tenantMapper.queryById(user.getTenantId());
+            User user = getUserById(userId);
+            tenant = entityCacheManager.getTenantCache().get(user.getTenantId(), tenantMapper::queryById);
         }
         return tenant;
     }
@@ -973,11 +1096,12 @@ public class ProcessService {
      */
     private void updateSubProcessDefinitionByParent(ProcessInstance parentProcessInstance, int childDefinitionId) {
         ProcessDefinition fatherDefinition = this.findProcessDefineById(parentProcessInstance.getProcessDefinitionId());
-        ProcessDefinition childDefinition = this.findProcessDefineById(childDefinitionId);
+        ProcessDefinition childDefinition = processDefineMapper.selectById(childDefinitionId);
         if(childDefinition != null && fatherDefinition != null){
             childDefinition.setReceivers(fatherDefinition.getReceivers());
             childDefinition.setReceiversCc(fatherDefinition.getReceiversCc());
             processDefineMapper.updateById(childDefinition);
+            entityCacheManager.invalidate(EntityCacheManager.CacheType.PROCESS_DEFINITION);
         }
     }
 
@@ -1213,6 +1337,19 @@ public class ProcessService {
         return taskInstanceMapper.selectById(taskId);
     }
 
+    /**
+     * find task instance by id, archived task instances included
+     * @param taskId task instance id
+     * @return task instance
+     */
+    public TaskInstance findTaskInstanceWithArchiveById(Integer taskId){
+        TaskInstance taskInstance = findTaskInstanceById(taskId);
+        if(taskInstance == null && taskId != null){
+            taskInstance = taskInstanceMapper.queryArchivedById(taskId);
+        }
+        return taskInstance;
+    }
+
 
     /**
      * package task instance，associate processInstance and processDefine
@@ -1255,6 +1392,29 @@ public class ProcessService {
          return taskInstanceMapper.findValidTaskListByProcessId(processInstanceId, Flag.YES);
     }
 
+    /**
+     * find valid task list of an archived process instance
+     * @param processInstanceId processInstanceId
+     * @return task instance list
+     */
+    public List<TaskInstance> findArchivedTaskListByProcessId(Integer processInstanceId){
+        return taskInstanceMapper.findArchivedTaskListByProcessId(processInstanceId, Flag.YES);
+    }
+
+    /**
+     * find valid task list by process instance id, the task instances of archived
+     * process instances included. a process instance is archived with all its task instances
+     * @param processInstanceId processInstanceId
+     * @return task instance list
+     */
+    public List<TaskInstance> findValidTaskListWithArchiveByProcessId(Integer processInstanceId){
+        List<TaskInstance> taskInstanceList = findValidTaskListByProcessId(processInstanceId);
+        if(CollectionUtils.isEmpty(taskInstanceList)){
+            taskInstanceList = findArchivedTaskListByProcessId(processInstanceId);
+        }
+        return taskInstanceList;
+    }
+
     /**
      * find previous task list by work process id
      * @param processInstanceId processInstanceId
@@ -1323,6 +1483,20 @@ public class ProcessService {
         return processInstance;
     }
 
+    /**
+     * find sub process instance, archived process instances included
+     * @param parentProcessId parentProcessId
+     * @param parentTaskId parentTaskId
+     * @return process instance
+     */
+    public ProcessInstance findSubProcessInstanceWithArchive(Integer parentProcessId, Integer parentTaskId){
+        ProcessInstanceMap processInstanceMap = processInstanceMapMapper.queryByParentId(parentProcessId, parentTaskId);
+        if(processInstanceMap == null || processInstanceMap.getProcessInstanceId() == 0){
+            return null;
+        }
+        return findProcessInstanceDetailWithArchiveById(processInstanceMap.getProcessInstanceId());
+    }
+
     /**
      * find parent process instance
      * @param subProcessId subProcessId
@@ -1338,6 +1512,19 @@ public class ProcessService {
         return processInstance;
     }
 
+    /**
+     * find parent process instance, archived process instances included
+     * @param subProcessId subProcessId
+     * @return process instance
+     */
+    public ProcessInstance findParentProcessInstanceWithArchive(Integer subProcessId) {
+        ProcessInstanceMap processInstanceMap = processInstanceMapMapper.queryBySubProcessId(subProcessId);
+        if(processInstanceMap == null || processInstanceMap.getProcessInstanceId() == 0){
+            return null;
+        }
+        return findProcessInstanceDetailWithArchiveById(processInstanceMap.getParentProcessInstanceId());
+    }
+
 
     /**
      * change task state
@@ -1370,6 +1557,15 @@ public class ProcessService {
         return processInstanceMapper.updateById(processInstance);
     }
 
+    /**
+     * update the editable fields of an archived process instance
+     * @param processInstance processInstance
+     * @return update process instance result
+     */
+    public int updateArchivedProcessInstance(ProcessInstance processInstance){
+        return processInstanceMapper.updateArchivedById(processInstance);
+    }
+
     /**
      * update the process instance
      * @param processInstanceId processInstanceId
@@ -1407,11 +1603,39 @@ public class ProcessService {
                                 int processId,
                                 String appIds,
                                 int taskInstId) {
+        changeTaskState(state, endTime, processId, appIds, null, null, null, null, taskInstId);
+    }
+
+    /**
+     * change task state and record the resource usage sampled by the worker
+     * @param state state
+     * @param endTime endTime
+     * @param processId processId
+     * @param appIds appIds
+     * @param peakCpuUsage peak cpu usage, null if not sampled
+     * @param avgCpuUsage average cpu usage, null if not sampled
+     * @param peakMemory peak memory in MB, null if not sampled
+     * @param avgMemory average memory in MB, null if not sampled
+     * @param taskInstId taskInstId
+     */
+    public void changeTaskState(ExecutionStatus state,
+                                Date endTime,
+                                int processId,
+                                String appIds,
+                                Double peakCpuUsage,
+                                Double avgCpuUsage,
+                                Double peakMemory,
+                                Double avgMemory,
+                                int taskInstId) {
         TaskInstance taskInstance = taskInstanceMapper.selectById(taskInstId);
         taskInstance.setPid(processId);
         taskInstance.setAppLink(appIds);
         taskInstance.setState(state);
         taskInstance.setEndTime(endTime);
+        taskInstance.setPeakCpuUsage(peakCpuUsage);
+        taskInstance.setAvgCpuUsage(avgCpuUsage);
+        taskInstance.setPeakMemory(peakMemory);
+        taskInstance.setAvgMemory(avgMemory);
         saveTaskInstance(taskInstance);
     }
 
@@ -1508,7 +1732,7 @@ public class ProcessService {
      * @return datasource
      */
     public DataSource findDataSourceById(int id){
-        return dataSourceMapper.selectById(id);
+        return entityCacheManager.getDataSourceCache().get(id, dataSourceMapper::selectById);
     }
 
 
@@ -1654,31 +1878,45 @@ public class ProcessService {
     }
 
     /**
-     * find last scheduler process instance in the date interval
+     * find last scheduler process instance in the date interval,
+     * the archive is searched when the interval has no process instance which is not archived
      * @param definitionId definitionId
      * @param dateInterval dateInterval
      * @return process instance
      */
     public ProcessInstance findLastSchedulerProcessInterval(int definitionId, DateInterval dateInterval) {
-        return processInstanceMapper.queryLastSchedulerProcess(definitionId,
+        ProcessInstance processInstance = processInstanceMapper.queryLastSchedulerProcess(definitionId,
                 dateInterval.getStartTime(),
                 dateInterval.getEndTime());
+        if(processInstance == null){
+            processInstance = processInstanceMapper.queryLastArchivedSchedulerProcess(definitionId,
+                    dateInterval.getStartTime(),
+                    dateInterval.getEndTime());
+        }
+        return processInstance;
     }
 
     /**
-     * find last manual process instance interval
+     * find last manual process instance interval,
+     * the archive is searched when the interval has no process instance which is not archived
      * @param definitionId process definition id
      * @param dateInterval dateInterval
      * @return process instance
      */
     public ProcessInstance findLastManualProcessInterval(int definitionId, DateInterval dateInterval) {
-        return processInstanceMapper.queryLastManualProcess(definitionId,
+        ProcessInstance processInstance = processInstanceMapper.queryLastManualProcess(definitionId,
                 dateInterval.getStartTime(),
                 dateInterval.getEndTime());
+        if(processInstance == null){
+            processInstance = processInstanceMapper.queryLastArchivedManualProcess(definitionId,
+                    dateInterval.getStartTime(),
+                    dateInterval.getEndTime());
+        }
+        return processInstance;
     }
 
     /**
-     * find last running process instance
+     * find last running process instance, running process instances are never archived
      * @param definitionId  process definition id
      * @param startTime start time
      * @param endTime end time
@@ -1703,7 +1941,7 @@ public class ProcessService {
         if(processInstance == null){
             return queue;
         }
-        User executor = userMapper.selectById(processInstance.getExecutorId());
+        User executor = getUserById(processInstance.getExecutorId());
         if(executor != null){
             queue = executor.getQueue();
         }
@@ -1813,7 +2051,7 @@ public class ProcessService {
      * @return User
      */
     public User getUserById(int userId){
-        return userMapper.selectById(userId);
+        return entityCacheManager.getUserCache().get(userId, userMapper::selectById);
     }
 
     /**
@@ -1827,12 +2065,15 @@ public class ProcessService {
 
 
     /**
-     * list resources by ids
+     * list resources by ids, only the uncached ones are queried
      * @param resIds resIds
-     * @return resource list
+     * @return resource list in the order of ids
      */
     public List<Resource> listResourceByIds(Integer[] resIds){
-        return resourceMapper.listResourceByIds(resIds);
+        return entityCacheManager.getResourceCache().getAll(Arrays.asList(resIds),
+                missing -> resourceMapper.listResourceByIds(missing.toArray(new Integer[0]))
+                        .stream()
+                        .collect(Collectors.toMap(Resource::getId, resource -> resource)));
     }
 
     /**
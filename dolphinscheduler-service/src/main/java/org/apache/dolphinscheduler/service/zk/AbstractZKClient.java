@@ -218,6 +218,14 @@ public abstract class AbstractZKClient extends ZookeeperCachedOperator {
 		return getZookeeperConfig().getDsRoot() + Constants.ZOOKEEPER_DOLPHINSCHEDULER_LOCK_MASTERS;
 	}
 
+	/**
+	 *
+	 * @return get master archive lock path
+	 */
+	public String getArchiveLockPath(){
+		return getZookeeperConfig().getDsRoot() + Constants.ZOOKEEPER_DOLPHINSCHEDULER_LOCK_ARCHIVE;
+	}
+
 	/**
 	 *
 	 * @param zkNodeType zookeeper node type
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.service.zk;
+
+import org.apache.dolphinscheduler.common.enums.ZKNodeType;
+
+/**
+ * membership event of a master or worker node
+ */
+public class MembershipEvent {
+
+    /**
+     * event type
+     */
+    public enum Type {
+        NODE_ADDED, NODE_REMOVED
+    }
+
+    /**
+     * event type
+     */
+    private final Type type;
+
+    /**
+     * node type, master or worker
+     */
+    private final ZKNodeType nodeType;
+
+    /**
+     * worker group, null for masters
+     */
+    private final String group;
+
+    /**
+     * node name, host:port
+     */
+    private final String node;
+
+    /**
+     * full zookeeper path of the node
+     */
+    private final String path;
+
+    public MembershipEvent(Type type, ZKNodeType nodeType, String group, String node, String path) {
+        this.type = type;
+        this.nodeType = nodeType;
+        this.group = group;
+        this.node = node;
+        this.path = path;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public ZKNodeType getNodeType() {
+        return nodeType;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "MembershipEvent{" +
+                "type=" + type +
+                ", nodeType=" + nodeType +
+                ", path='" + path + '\'' +
+                '}';
+    }
+}
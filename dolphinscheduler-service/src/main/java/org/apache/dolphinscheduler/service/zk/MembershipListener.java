@@ -14,23 +14,16 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.apache.dolphinscheduler.service.zk;
 
-import org.apache.curator.framework.CuratorFramework;
-import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
-import org.apache.curator.framework.recipes.cache.TreeCacheListener;
-
-public abstract class AbstractListener implements TreeCacheListener {
-
-    @Override
-    public final void childEvent(final CuratorFramework client, final TreeCacheEvent event) throws Exception {
-        String path = null == event.getData() ? "" : event.getData().getPath();
-        if (path.isEmpty()) {
-            return;
-        }
-        dataChanged(client, event, path);
-    }
+/**
+ * listener of master and worker membership changes
+ */
+public interface MembershipListener {
 
-    protected abstract void dataChanged(final CuratorFramework client, final TreeCacheEvent event, final String path);
+    /**
+     * called on the membership cache thread, one event at a time
+     * @param event membership event
+     */
+    void membershipChanged(MembershipEvent event);
 }
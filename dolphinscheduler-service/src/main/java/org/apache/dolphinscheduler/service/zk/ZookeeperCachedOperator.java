@@ -16,70 +16,52 @@
  */
 package org.apache.dolphinscheduler.service.zk;
 
-import org.apache.curator.framework.CuratorFramework;
-import org.apache.curator.framework.recipes.cache.ChildData;
-import org.apache.curator.framework.recipes.cache.TreeCache;
-import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
-import org.apache.curator.framework.recipes.cache.TreeCacheListener;
+import org.apache.dolphinscheduler.common.Constants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-
 @Component
 public class ZookeeperCachedOperator extends ZookeeperOperator {
 
     private final Logger logger = LoggerFactory.getLogger(ZookeeperCachedOperator.class);
 
 
-    private TreeCache treeCache;
+    private ZookeeperMembershipCache membershipCache;
     /**
-     * register a unified listener of /${dsRoot},
+     * register a unified membership listener of master and worker nodes,
+     * heartbeat data of the nodes is read directly and never cached
      */
     @Override
     protected void registerListener() {
-        treeCache = new TreeCache(zkClient, getZookeeperConfig().getDsRoot() + "/nodes");
-        logger.info("add listener to zk path: {}", getZookeeperConfig().getDsRoot());
+        String dsRoot = getZookeeperConfig().getDsRoot();
+        membershipCache = new ZookeeperMembershipCache(zkClient,
+                dsRoot + Constants.ZOOKEEPER_DOLPHINSCHEDULER_MASTERS,
+                dsRoot + Constants.ZOOKEEPER_DOLPHINSCHEDULER_WORKERS);
+        membershipCache.addListener(this::membershipChanged);
+        logger.info("add membership listener to zk path: {}", dsRoot);
         try {
-            treeCache.start();
+            membershipCache.start();
         } catch (Exception e) {
-            logger.error("add listener to zk path: {} failed", getZookeeperConfig().getDsRoot());
+            logger.error("add membership listener to zk path: {} failed", dsRoot);
             throw new RuntimeException(e);
         }
-
-        treeCache.getListenable().addListener((client, event) -> {
-            String path = null == event.getData() ? "" : event.getData().getPath();
-            if (path.isEmpty()) {
-                return;
-            }
-            dataChanged(client, event, path);
-        });
-
     }
 
     //for sub class
-    protected void dataChanged(final CuratorFramework client, final TreeCacheEvent event, final String path){}
-
-    public String getFromCache(final String cachePath, final String key) {
-        ChildData resultInCache = treeCache.getCurrentData(key);
-        if (null != resultInCache) {
-            return null == resultInCache.getData() ? null : new String(resultInCache.getData(), StandardCharsets.UTF_8);
-        }
-        return null;
-    }
+    protected void membershipChanged(final MembershipEvent event){}
 
-    public TreeCache getTreeCache(final String cachePath) {
-        return treeCache;
+    public ZookeeperMembershipCache getMembershipCache() {
+        return membershipCache;
     }
 
-    public void addListener(TreeCacheListener listener){
-        this.treeCache.getListenable().addListener(listener);
+    public void addListener(MembershipListener listener){
+        this.membershipCache.addListener(listener);
     }
 
     @Override
     public void close() {
-        treeCache.close();
+        membershipCache.close();
         try {
             Thread.sleep(500);
         } catch (InterruptedException ignore) {
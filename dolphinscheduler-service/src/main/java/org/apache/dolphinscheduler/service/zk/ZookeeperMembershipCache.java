@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.service.zk;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.CuratorWatcher;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
+import org.apache.dolphinscheduler.common.enums.ZKNodeType;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * in memory membership of master and worker nodes
+ *
+ * only child watches are set, on the master path, the worker path and each worker group path,
+ * so heartbeat updates of the node data never reach this cache. every change re-lists the
+ * children of the changed path once and the snapshots are replaced as immutable sets, so
+ * readers never lock.
+ */
+public class ZookeeperMembershipCache implements Closeable {
+
+    private final Logger logger = LoggerFactory.getLogger(ZookeeperMembershipCache.class);
+
+    private final CuratorFramework client;
+
+    private final String masterPath;
+
+    private final String workerPath;
+
+    /**
+     * all watches and refreshes run on this thread, events are delivered in order
+     */
+    private final ExecutorService executor = ThreadUtils.newDaemonSingleThreadExecutor("Zookeeper-Membership-Cache");
+
+    private final CuratorWatcher watcher = this::process;
+
+    private final ConnectionStateListener connectionStateListener = this::stateChanged;
+
+    private final List<MembershipListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * master nodes
+     */
+    private volatile Set<String> masterNodes = Collections.emptySet();
+
+    /**
+     * worker group -> worker nodes
+     */
+    private final ConcurrentHashMap<String, Set<String>> workerGroupNodes = new ConcurrentHashMap<>();
+
+    /**
+     * worker groups of the last listing of the worker path
+     */
+    private volatile Set<String> workerGroups = Collections.emptySet();
+
+    private volatile boolean closed;
+
+    public ZookeeperMembershipCache(CuratorFramework client, String masterPath, String workerPath) {
+        this.client = client;
+        this.masterPath = masterPath;
+        this.workerPath = workerPath;
+    }
+
+    /**
+     * load the current membership and set the watches, returns when the first snapshot is loaded
+     * @throws Exception if the first snapshot can not be loaded
+     */
+    public void start() throws Exception {
+        client.getConnectionStateListenable().addListener(connectionStateListener);
+        executor.submit(this::rebuild).get(client.getZookeeperClient().getConnectionTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    public void addListener(MembershipListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(MembershipListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * get master nodes
+     * @return immutable master nodes
+     */
+    public Set<String> getMasterNodes() {
+        return masterNodes;
+    }
+
+    /**
+     * get worker group nodes
+     * @param workerGroup worker group
+     * @return immutable worker nodes, null if the group is unknown
+     */
+    public Set<String> getWorkerGroupNodes(String workerGroup) {
+        return workerGroupNodes.get(workerGroup);
+    }
+
+    /**
+     * get all worker groups and their nodes
+     * @return worker group -> immutable worker nodes
+     */
+    public Map<String, Set<String>> getWorkerGroupNodes() {
+        return Collections.unmodifiableMap(workerGroupNodes);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        client.getConnectionStateListenable().removeListener(connectionStateListener);
+        executor.shutdownNow();
+    }
+
+    private void process(WatchedEvent event) {
+        if (event.getType() == Watcher.Event.EventType.None || event.getPath() == null) {
+            return;
+        }
+        submit(() -> refresh(event.getPath()));
+    }
+
+    /**
+     * watches are lost with the session, set them again once reconnected
+     */
+    private void stateChanged(CuratorFramework client, ConnectionState newState) {
+        if (newState == ConnectionState.RECONNECTED) {
+            submit(this::rebuild);
+        }
+    }
+
+    private void submit(Runnable task) {
+        if (closed) {
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ignore) {
+            // closed concurrently
+        }
+    }
+
+    private void rebuild() {
+        refresh(masterPath);
+        refresh(workerPath);
+        for (String workerGroup : workerGroupNodes.keySet()) {
+            refresh(getWorkerGroupPath(workerGroup));
+        }
+    }
+
+    private void refresh(String path) {
+        if (closed) {
+            return;
+        }
+        if (path.equals(masterPath)) {
+            Set<String> current = watchChildren(path, true);
+            if (current != null) {
+                Set<String> previous = masterNodes;
+                masterNodes = current;
+                fireChanges(ZKNodeType.MASTER, null, masterPath, previous, current);
+            }
+        } else if (path.equals(workerPath)) {
+            Set<String> current = watchChildren(path, true);
+            if (current != null) {
+                workerGroups = current;
+                for (String workerGroup : current) {
+                    if (!workerGroupNodes.containsKey(workerGroup)) {
+                        refresh(getWorkerGroupPath(workerGroup));
+                    }
+                }
+                for (String workerGroup : workerGroupNodes.keySet()) {
+                    if (!current.contains(workerGroup)) {
+                        Set<String> previous = workerGroupNodes.remove(workerGroup);
+                        fireChanges(ZKNodeType.WORKER, workerGroup, getWorkerGroupPath(workerGroup), previous, Collections.emptySet());
+                    }
+                }
+            }
+        } else if (path.startsWith(workerPath + "/") && path.indexOf('/', workerPath.length() + 1) < 0) {
+            String workerGroup = path.substring(workerPath.length() + 1);
+            if (!workerGroups.contains(workerGroup)) {
+                // the group is gone, its nodes were removed with it
+                return;
+            }
+            Set<String> current = watchChildren(path, false);
+            if (current != null) {
+                Set<String> previous = workerGroupNodes.getOrDefault(workerGroup, Collections.emptySet());
+                workerGroupNodes.put(workerGroup, current);
+                fireChanges(ZKNodeType.WORKER, workerGroup, path, previous, current);
+            }
+        }
+    }
+
+    /**
+     * list the children of the path and set a child watch on it
+     * @param path path
+     * @param watchCreation whether to watch for the creation of a missing path
+     * @return immutable children, empty if the path does not exist, null if the listing failed
+     */
+    private Set<String> watchChildren(String path, boolean watchCreation) {
+        try {
+            return Collections.unmodifiableSet(new HashSet<>(client.getChildren().usingWatcher(watcher).forPath(path)));
+        } catch (KeeperException.NoNodeException e) {
+            if (watchCreation) {
+                try {
+                    if (client.checkExists().usingWatcher(watcher).forPath(path) != null) {
+                        // created in between, the exists watch will not fire for it
+                        return watchChildren(path, false);
+                    }
+                } catch (Exception ex) {
+                    logger.error("watch creation of path : {} failed", path, ex);
+                }
+            }
+            return Collections.emptySet();
+        } catch (Exception e) {
+            logger.error("watch children of path : {} failed", path, e);
+            return null;
+        }
+    }
+
+    private void fireChanges(ZKNodeType nodeType, String workerGroup, String parentPath, Set<String> previous, Set<String> current) {
+        for (String node : current) {
+            if (!previous.contains(node)) {
+                fire(new MembershipEvent(MembershipEvent.Type.NODE_ADDED, nodeType, workerGroup, node, parentPath + "/" + node));
+            }
+        }
+        for (String node : previous) {
+            if (!current.contains(node)) {
+                fire(new MembershipEvent(MembershipEvent.Type.NODE_REMOVED, nodeType, workerGroup, node, parentPath + "/" + node));
+            }
+        }
+    }
+
+    private void fire(MembershipEvent event) {
+        for (MembershipListener listener : listeners) {
+            try {
+                listener.membershipChanged(event);
+            } catch (Exception e) {
+                logger.error("membership listener failed on event : {}", event, e);
+            }
+        }
+    }
+
+    private String getWorkerGroupPath(String workerGroup) {
+        return workerPath + "/" + workerGroup;
+    }
+}
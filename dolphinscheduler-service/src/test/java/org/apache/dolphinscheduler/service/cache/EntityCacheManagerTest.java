@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.service.cache;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.dolphinscheduler.dao.entity.Tenant;
+import org.apache.dolphinscheduler.service.cache.EntityCacheManager.CacheType;
+import org.apache.dolphinscheduler.service.zk.ZookeeperCachedOperator;
+import org.apache.dolphinscheduler.service.zk.ZookeeperConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class EntityCacheManagerTest {
+
+    @InjectMocks
+    private EntityCacheManager entityCacheManager;
+
+    @Mock
+    private ZookeeperCachedOperator zookeeperCachedOperator;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private CuratorFramework zkClient;
+
+    @Before
+    public void before() {
+        ZookeeperConfig zookeeperConfig = new ZookeeperConfig();
+        zookeeperConfig.setDsRoot("/dolphinscheduler");
+        Mockito.when(zookeeperCachedOperator.getZookeeperConfig()).thenReturn(zookeeperConfig);
+        Mockito.when(zookeeperCachedOperator.getZkClient()).thenReturn(zkClient);
+        entityCacheManager.init();
+    }
+
+    @After
+    public void after() {
+        entityCacheManager.close();
+    }
+
+    private Tenant tenant(String code) {
+        Tenant tenant = new Tenant();
+        tenant.setTenantCode(code);
+        return tenant;
+    }
+
+    @Test
+    public void testInvalidate() {
+        entityCacheManager.getTenantCache().get(1, k -> tenant("old"));
+        entityCacheManager.invalidate(CacheType.TENANT);
+
+        Assert.assertEquals("new", entityCacheManager.getTenantCache().get(1, k -> tenant("new")).getTenantCode());
+        Mockito.verify(zookeeperCachedOperator).persist(Mockito.eq("/dolphinscheduler/cache/entity/tenant"), Mockito.anyString());
+    }
+
+    @Test
+    public void testInvalidateAfterCommit() {
+        entityCacheManager.getTenantCache().get(1, k -> tenant("old"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            entityCacheManager.invalidate(CacheType.TENANT);
+
+            // not visible to other processes before the commit
+            Assert.assertEquals("old", entityCacheManager.getTenantCache().get(1, k -> tenant("new")).getTenantCode());
+            Mockito.verify(zookeeperCachedOperator, Mockito.never()).persist(Mockito.anyString(), Mockito.anyString());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assert.assertEquals("new", entityCacheManager.getTenantCache().get(1, k -> tenant("new")).getTenantCode());
+        Mockito.verify(zookeeperCachedOperator).persist(Mockito.eq("/dolphinscheduler/cache/entity/tenant"), Mockito.anyString());
+    }
+}
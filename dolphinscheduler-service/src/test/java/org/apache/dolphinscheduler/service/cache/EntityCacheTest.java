@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.service.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EntityCacheTest {
+
+    @Test
+    public void testGet() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        Assert.assertEquals("v1", cache.get(1, k -> "v" + loads.incrementAndGet()));
+        Assert.assertEquals("v1", cache.get(1, k -> "v" + loads.incrementAndGet()));
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testNullNotCached() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        Assert.assertNull(cache.get(1, k -> { loads.incrementAndGet(); return null; }));
+        Assert.assertNull(cache.get(1, k -> { loads.incrementAndGet(); return null; }));
+        Assert.assertEquals(2, loads.get());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60);
+        cache.get(1, k -> "old");
+        cache.invalidateAll();
+
+        Assert.assertEquals("new", cache.get(1, k -> "new"));
+        Assert.assertEquals(1, cache.getVersion());
+    }
+
+    @Test
+    public void testInvalidateDuringLoad() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60);
+        // the entity changes while it is being loaded, the stale value must not be cached
+        Assert.assertEquals("stale", cache.get(1, k -> {
+            cache.invalidateAll();
+            return "stale";
+        }));
+        Assert.assertEquals("fresh", cache.get(1, k -> "fresh"));
+    }
+
+    @Test
+    public void testDisabled() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 0, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, k -> "v" + loads.incrementAndGet());
+        cache.get(1, k -> "v" + loads.incrementAndGet());
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testGetAll() {
+        EntityCache<Integer, String> cache = new EntityCache<>("test", 10, 60);
+        cache.get(2, k -> "v2");
+        AtomicInteger queried = new AtomicInteger();
+
+        List<String> values = cache.getAll(Arrays.asList(3, 2, 1, 4), (Collection<Integer> missing) -> {
+            queried.addAndGet(missing.size());
+            Map<Integer, String> loaded = new HashMap<>();
+            for (Integer key : missing) {
+                // 4 does not exist
+                if (key != 4) {
+                    loaded.put(key, "v" + key);
+                }
+            }
+            return loaded;
+        });
+
+        Assert.assertEquals(Arrays.asList("v3", "v2", "v1"), values);
+        Assert.assertEquals(3, queried.get());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(4, cache.getMissCount());
+
+        values = cache.getAll(Arrays.asList(1, 2, 3), missing -> {
+            throw new IllegalStateException("all cached");
+        });
+        Assert.assertEquals(Arrays.asList("v1", "v2", "v3"), values);
+    }
+}
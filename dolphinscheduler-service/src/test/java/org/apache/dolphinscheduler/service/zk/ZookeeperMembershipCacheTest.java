@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.service.zk;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.retry.RetryNTimes;
+import org.apache.curator.test.TestingServer;
+import org.apache.dolphinscheduler.common.enums.ZKNodeType;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooKeeper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ZookeeperMembershipCacheTest {
+
+    private static final String MASTER_PATH = "/nodes/master";
+
+    private static final String WORKER_PATH = "/nodes/worker";
+
+    private TestingServer server;
+
+    /**
+     * client of the cache
+     */
+    private CuratorFramework client;
+
+    /**
+     * client of the nodes joining and leaving
+     */
+    private CuratorFramework nodeClient;
+
+    private ZookeeperMembershipCache membershipCache;
+
+    private final BlockingQueue<MembershipEvent> events = new LinkedBlockingQueue<>();
+
+    @Before
+    public void before() throws Exception {
+        server = new TestingServer(true);
+        client = newClient();
+        nodeClient = newClient();
+        createNode(MASTER_PATH + "/192.168.1.1:5678");
+        createNode(WORKER_PATH + "/default/192.168.1.2:1234");
+
+        membershipCache = new ZookeeperMembershipCache(client, MASTER_PATH, WORKER_PATH);
+        membershipCache.addListener(events::add);
+        membershipCache.start();
+    }
+
+    @After
+    public void after() throws Exception {
+        membershipCache.close();
+        client.close();
+        nodeClient.close();
+        server.close();
+    }
+
+    @Test
+    public void testStart() throws Exception {
+        Assert.assertEquals(Collections.singleton("192.168.1.1:5678"), membershipCache.getMasterNodes());
+        Assert.assertEquals(Collections.singleton("192.168.1.2:1234"), membershipCache.getWorkerGroupNodes("default"));
+        Assert.assertNull(membershipCache.getWorkerGroupNodes("other"));
+
+        // the first snapshot is reported as added nodes
+        assertEvent(MembershipEvent.Type.NODE_ADDED, ZKNodeType.MASTER, null, "192.168.1.1:5678");
+        assertEvent(MembershipEvent.Type.NODE_ADDED, ZKNodeType.WORKER, "default", "192.168.1.2:1234");
+        Assert.assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testJoinAndLeave() throws Exception {
+        events.clear();
+
+        createNode(WORKER_PATH + "/default/192.168.1.3:1234");
+        assertEvent(MembershipEvent.Type.NODE_ADDED, ZKNodeType.WORKER, "default", "192.168.1.3:1234");
+        Assert.assertEquals(new HashSet<>(Arrays.asList("192.168.1.2:1234", "192.168.1.3:1234")),
+                membershipCache.getWorkerGroupNodes("default"));
+
+        createNode(WORKER_PATH + "/other/192.168.1.4:1234");
+        assertEvent(MembershipEvent.Type.NODE_ADDED, ZKNodeType.WORKER, "other", "192.168.1.4:1234");
+        Assert.assertEquals(Collections.singleton("192.168.1.4:1234"), membershipCache.getWorkerGroupNodes("other"));
+
+        nodeClient.delete().forPath(MASTER_PATH + "/192.168.1.1:5678");
+        assertEvent(MembershipEvent.Type.NODE_REMOVED, ZKNodeType.MASTER, null, "192.168.1.1:5678");
+        Assert.assertEquals(Collections.emptySet(), membershipCache.getMasterNodes());
+
+        nodeClient.delete().deletingChildrenIfNeeded().forPath(WORKER_PATH + "/other");
+        assertEvent(MembershipEvent.Type.NODE_REMOVED, ZKNodeType.WORKER, "other", "192.168.1.4:1234");
+        // the group is dropped once the worker path is listed again
+        long deadline = System.currentTimeMillis() + 10000;
+        while (membershipCache.getWorkerGroupNodes("other") != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertNull(membershipCache.getWorkerGroupNodes("other"));
+        Assert.assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testHeartbeatDoesNotFire() throws Exception {
+        events.clear();
+
+        nodeClient.setData().forPath(MASTER_PATH + "/192.168.1.1:5678", "heartbeat".getBytes(StandardCharsets.UTF_8));
+        nodeClient.setData().forPath(WORKER_PATH + "/default/192.168.1.2:1234", "heartbeat".getBytes(StandardCharsets.UTF_8));
+        // the next event is the first real membership change
+        createNode(WORKER_PATH + "/default/192.168.1.3:1234");
+        assertEvent(MembershipEvent.Type.NODE_ADDED, ZKNodeType.WORKER, "default", "192.168.1.3:1234");
+        Assert.assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("192.168.1.2:1234", "192.168.1.3:1234")),
+                membershipCache.getWorkerGroupNodes("default"));
+    }
+
+    @Test
+    public void testRebuildAfterSessionExpired() throws Exception {
+        events.clear();
+        CountDownLatch reconnected = new CountDownLatch(1);
+        client.getConnectionStateListenable().addListener((c, newState) -> {
+            if (newState == ConnectionState.RECONNECTED) {
+                reconnected.countDown();
+            }
+        });
+
+        expireSession(client);
+        // the watches of the expired session are gone, only the rebuild sees this node
+        createNode(WORKER_PATH + "/default/192.168.1.3:1234");
+        Assert.assertTrue(reconnected.await(30, TimeUnit.SECONDS));
+        assertEvent(MembershipEvent.Type.NODE_ADDED, ZKNodeType.WORKER, "default", "192.168.1.3:1234");
+
+        // and the watches are set again
+        createNode(MASTER_PATH + "/192.168.1.5:5678");
+        assertEvent(MembershipEvent.Type.NODE_ADDED, ZKNodeType.MASTER, null, "192.168.1.5:5678");
+        Assert.assertEquals(new HashSet<>(Arrays.asList("192.168.1.1:5678", "192.168.1.5:5678")),
+                membershipCache.getMasterNodes());
+    }
+
+    private CuratorFramework newClient() {
+        CuratorFramework curatorFramework = CuratorFrameworkFactory.builder()
+                .connectString(server.getConnectString())
+                .retryPolicy(new RetryNTimes(10, 100))
+                .sessionTimeoutMs(30000)
+                .connectionTimeoutMs(5000)
+                .build();
+        curatorFramework.start();
+        return curatorFramework;
+    }
+
+    private void createNode(String path) throws Exception {
+        nodeClient.create().creatingParentsIfNeeded().forPath(path);
+    }
+
+    private void assertEvent(MembershipEvent.Type type, ZKNodeType nodeType, String group, String node) throws InterruptedException {
+        MembershipEvent event = events.poll(10, TimeUnit.SECONDS);
+        Assert.assertNotNull("no event, expected " + type + " of " + node, event);
+        Assert.assertEquals(type, event.getType());
+        Assert.assertEquals(nodeType, event.getNodeType());
+        Assert.assertEquals(group, event.getGroup());
+        Assert.assertEquals(node, event.getNode());
+    }
+
+    /**
+     * expire the session of the client by closing a second connection to the same session
+     */
+    private void expireSession(CuratorFramework curatorFramework) throws Exception {
+        ZooKeeper zooKeeper = curatorFramework.getZookeeperClient().getZooKeeper();
+        CountDownLatch connected = new CountDownLatch(1);
+        ZooKeeper duplicate = new ZooKeeper(server.getConnectString(), 30000, event -> {
+            if (event.getState() == Watcher.Event.KeeperState.SyncConnected) {
+                connected.countDown();
+            }
+        }, zooKeeper.getSessionId(), zooKeeper.getSessionPasswd());
+        Assert.assertTrue(connected.await(10, TimeUnit.SECONDS));
+        duplicate.close();
+    }
+}
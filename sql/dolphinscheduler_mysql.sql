@@ -469,6 +469,49 @@ CREATE TABLE `t_ds_process_instance` (
 -- Records of t_ds_process_instance
 -- ----------------------------
 
+-- ----------------------------
+-- Table structure for t_ds_process_instance_archive
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_process_instance_archive`;
+CREATE TABLE `t_ds_process_instance_archive` (
+  `id` int(11) NOT NULL COMMENT 'key',
+  `name` varchar(255) DEFAULT NULL COMMENT 'process instance name',
+  `process_definition_id` int(11) DEFAULT NULL COMMENT 'process definition id',
+  `state` tinyint(4) DEFAULT NULL COMMENT 'process instance Status: 0 commit succeeded, 1 running, 2 prepare to pause, 3 pause, 4 prepare to stop, 5 stop, 6 fail, 7 succeed, 8 need fault tolerance, 9 kill, 10 wait for thread, 11 wait for dependency to complete',
+  `recovery` tinyint(4) DEFAULT NULL COMMENT 'process instance failover flag：0:normal,1:failover instance',
+  `start_time` datetime DEFAULT NULL COMMENT 'process instance start time',
+  `end_time` datetime DEFAULT NULL COMMENT 'process instance end time',
+  `run_times` int(11) DEFAULT NULL COMMENT 'process instance run times',
+  `host` varchar(45) DEFAULT NULL COMMENT 'process instance host',
+  `command_type` tinyint(4) DEFAULT NULL COMMENT 'command type',
+  `command_param` text COMMENT 'json command parameters',
+  `task_depend_type` tinyint(4) DEFAULT NULL COMMENT 'task depend type. 0: only current node,1:before the node,2:later nodes',
+  `max_try_times` tinyint(4) DEFAULT '0' COMMENT 'max try times',
+  `failure_strategy` tinyint(4) DEFAULT '0' COMMENT 'failure strategy. 0:end the process when node failed,1:continue running the other nodes when node failed',
+  `warning_type` tinyint(4) DEFAULT '0' COMMENT 'warning type. 0:no warning,1:warning if process success,2:warning if process failed,3:warning if success',
+  `warning_group_id` int(11) DEFAULT NULL COMMENT 'warning group id',
+  `schedule_time` datetime DEFAULT NULL COMMENT 'schedule time',
+  `command_start_time` datetime DEFAULT NULL COMMENT 'command start time',
+  `global_params` text COMMENT 'global parameters',
+  `process_instance_json` longtext COMMENT 'process instance json(copy的process definition 的json)',
+  `flag` tinyint(4) DEFAULT '1' COMMENT 'flag',
+  `update_time` timestamp NULL DEFAULT NULL,
+  `is_sub_process` int(11) DEFAULT '0' COMMENT 'flag, whether the process is sub process',
+  `executor_id` int(11) NOT NULL COMMENT 'executor id',
+  `locations` text COMMENT 'Node location information',
+  `connects` text COMMENT 'Node connection information',
+  `history_cmd` text COMMENT 'history commands of process instance operation',
+  `dependence_schedule_times` text COMMENT 'depend schedule fire time',
+  `process_instance_priority` int(11) DEFAULT NULL COMMENT 'process instance priority. 0 Highest,1 High,2 Medium,3 Low,4 Lowest',
+  `worker_group` varchar(64) DEFAULT NULL COMMENT 'worker group id',
+  `timeout` int(11) DEFAULT '0' COMMENT 'time out',
+  `tenant_id` int(11) NOT NULL DEFAULT '-1' COMMENT 'tenant id',
+  PRIMARY KEY (`id`),
+  KEY `process_instance_index` (`process_definition_id`,`id`) USING BTREE,
+  KEY `start_time_index` (`start_time`) USING BTREE,
+  KEY `end_time_index` (`end_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='finished process instances moved out of t_ds_process_instance';
+
 -- ----------------------------
 -- Table structure for t_ds_project
 -- ----------------------------
@@ -707,6 +750,10 @@ CREATE TABLE `t_ds_task_instance` (
   `task_instance_priority` int(11) DEFAULT NULL COMMENT 'task instance priority:0 Highest,1 High,2 Medium,3 Low,4 Lowest',
   `worker_group` varchar(64) DEFAULT NULL COMMENT 'worker group id',
   `executor_id` int(11) DEFAULT NULL,
+  `peak_cpu_usage` double DEFAULT NULL COMMENT 'peak cpu usage of the task process tree, 100 is one core',
+  `avg_cpu_usage` double DEFAULT NULL COMMENT 'average cpu usage of the task process tree, 100 is one core',
+  `peak_memory` double DEFAULT NULL COMMENT 'peak resident memory of the task process tree in MB',
+  `avg_memory` double DEFAULT NULL COMMENT 'average resident memory of the task process tree in MB',
   PRIMARY KEY (`id`),
   KEY `process_instance_id` (`process_instance_id`) USING BTREE,
   KEY `task_instance_index` (`process_definition_id`,`process_instance_id`) USING BTREE,
@@ -717,6 +764,43 @@ CREATE TABLE `t_ds_task_instance` (
 -- Records of t_ds_task_instance
 -- ----------------------------
 
+-- ----------------------------
+-- Table structure for t_ds_task_instance_archive
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_task_instance_archive`;
+CREATE TABLE `t_ds_task_instance_archive` (
+  `id` int(11) NOT NULL COMMENT 'key',
+  `name` varchar(255) DEFAULT NULL COMMENT 'task name',
+  `task_type` varchar(64) DEFAULT NULL COMMENT 'task type',
+  `process_definition_id` int(11) DEFAULT NULL COMMENT 'process definition id',
+  `process_instance_id` int(11) DEFAULT NULL COMMENT 'process instance id',
+  `task_json` longtext COMMENT 'task content json',
+  `state` tinyint(4) DEFAULT NULL COMMENT 'Status: 0 commit succeeded, 1 running, 2 prepare to pause, 3 pause, 4 prepare to stop, 5 stop, 6 fail, 7 succeed, 8 need fault tolerance, 9 kill, 10 wait for thread, 11 wait for dependency to complete',
+  `submit_time` datetime DEFAULT NULL COMMENT 'task submit time',
+  `start_time` datetime DEFAULT NULL COMMENT 'task start time',
+  `end_time` datetime DEFAULT NULL COMMENT 'task end time',
+  `host` varchar(45) DEFAULT NULL COMMENT 'host of task running on',
+  `execute_path` varchar(200) DEFAULT NULL COMMENT 'task execute path in the host',
+  `log_path` varchar(200) DEFAULT NULL COMMENT 'task log path',
+  `alert_flag` tinyint(4) DEFAULT NULL COMMENT 'whether alert',
+  `retry_times` int(4) DEFAULT '0' COMMENT 'task retry times',
+  `pid` int(4) DEFAULT NULL COMMENT 'pid of task',
+  `app_link` varchar(255) DEFAULT NULL COMMENT 'yarn app id',
+  `flag` tinyint(4) DEFAULT '1' COMMENT '0 not available, 1 available',
+  `retry_interval` int(4) DEFAULT NULL COMMENT 'retry interval when task failed ',
+  `max_retry_times` int(2) DEFAULT NULL COMMENT 'max retry times',
+  `task_instance_priority` int(11) DEFAULT NULL COMMENT 'task instance priority:0 Highest,1 High,2 Medium,3 Low,4 Lowest',
+  `worker_group` varchar(64) DEFAULT NULL COMMENT 'worker group id',
+  `executor_id` int(11) DEFAULT NULL,
+  `peak_cpu_usage` double DEFAULT NULL COMMENT 'peak cpu usage of the task process tree, 100 is one core',
+  `avg_cpu_usage` double DEFAULT NULL COMMENT 'average cpu usage of the task process tree, 100 is one core',
+  `peak_memory` double DEFAULT NULL COMMENT 'peak resident memory of the task process tree in MB',
+  `avg_memory` double DEFAULT NULL COMMENT 'average resident memory of the task process tree in MB',
+  PRIMARY KEY (`id`),
+  KEY `process_instance_id` (`process_instance_id`) USING BTREE,
+  KEY `start_time_index` (`start_time`) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='task instances of the archived process instances';
+
 -- ----------------------------
 -- Table structure for t_ds_tenant
 -- ----------------------------
@@ -302,4 +302,124 @@ $$ LANGUAGE plpgsql;
 d//
 delimiter ;
 select ac_dolphin_T_t_ds_user_A_state();
-DROP FUNCTION ac_dolphin_T_t_ds_user_A_state();
\ No newline at end of file
+DROP FUNCTION ac_dolphin_T_t_ds_user_A_state();
+
+-- ac_dolphin_T_t_ds_task_instance_A_resource_usage
+delimiter ;
+DROP FUNCTION IF EXISTS ac_dolphin_T_t_ds_task_instance_A_resource_usage();
+delimiter d//
+CREATE FUNCTION ac_dolphin_T_t_ds_task_instance_A_resource_usage() RETURNS void AS $$
+BEGIN
+       IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+          WHERE TABLE_CATALOG=current_database()
+          AND TABLE_SCHEMA=current_schema()
+          AND TABLE_NAME='t_ds_task_instance'
+          AND COLUMN_NAME ='peak_cpu_usage')
+      THEN
+         ALTER TABLE t_ds_task_instance ADD COLUMN peak_cpu_usage float DEFAULT NULL;
+         ALTER TABLE t_ds_task_instance ADD COLUMN avg_cpu_usage float DEFAULT NULL;
+         ALTER TABLE t_ds_task_instance ADD COLUMN peak_memory float DEFAULT NULL;
+         ALTER TABLE t_ds_task_instance ADD COLUMN avg_memory float DEFAULT NULL;
+       END IF;
+END;
+$$ LANGUAGE plpgsql;
+d//
+delimiter ;
+select ac_dolphin_T_t_ds_task_instance_A_resource_usage();
+DROP FUNCTION ac_dolphin_T_t_ds_task_instance_A_resource_usage();
+
+-- ct_dolphin_T_t_ds_process_instance_archive
+delimiter ;
+DROP FUNCTION IF EXISTS ct_dolphin_T_t_ds_process_instance_archive();
+delimiter d//
+CREATE FUNCTION ct_dolphin_T_t_ds_process_instance_archive() RETURNS void AS $$
+BEGIN
+         CREATE TABLE IF NOT EXISTS t_ds_process_instance_archive (
+         id int NOT NULL  ,
+         name varchar(255) DEFAULT NULL ,
+         process_definition_id int DEFAULT NULL ,
+         state int DEFAULT NULL ,
+         recovery int DEFAULT NULL ,
+         start_time timestamp DEFAULT NULL ,
+         end_time timestamp DEFAULT NULL ,
+         run_times int DEFAULT NULL ,
+         host varchar(45) DEFAULT NULL ,
+         command_type int DEFAULT NULL ,
+         command_param text ,
+         task_depend_type int DEFAULT NULL ,
+         max_try_times int DEFAULT '0' ,
+         failure_strategy int DEFAULT '0' ,
+         warning_type int DEFAULT '0' ,
+         warning_group_id int DEFAULT NULL ,
+         schedule_time timestamp DEFAULT NULL ,
+         command_start_time timestamp DEFAULT NULL ,
+         global_params text ,
+         process_instance_json text ,
+         flag int DEFAULT '1' ,
+         update_time timestamp NULL ,
+         is_sub_process int DEFAULT '0' ,
+         executor_id int NOT NULL ,
+         locations text ,
+         connects text ,
+         history_cmd text ,
+         dependence_schedule_times text ,
+         process_instance_priority int DEFAULT NULL ,
+         worker_group varchar(64) ,
+         timeout int DEFAULT '0' ,
+         tenant_id int NOT NULL DEFAULT '-1' ,
+         PRIMARY KEY (id)
+         );
+         CREATE INDEX IF NOT EXISTS archive_process_instance_index on t_ds_process_instance_archive (process_definition_id,id);
+         CREATE INDEX IF NOT EXISTS archive_process_instance_start_time_index on t_ds_process_instance_archive (start_time);
+         CREATE INDEX IF NOT EXISTS archive_process_instance_end_time_index on t_ds_process_instance_archive (end_time);
+END;
+$$ LANGUAGE plpgsql;
+d//
+delimiter ;
+select ct_dolphin_T_t_ds_process_instance_archive();
+DROP FUNCTION ct_dolphin_T_t_ds_process_instance_archive();
+
+-- ct_dolphin_T_t_ds_task_instance_archive
+delimiter ;
+DROP FUNCTION IF EXISTS ct_dolphin_T_t_ds_task_instance_archive();
+delimiter d//
+CREATE FUNCTION ct_dolphin_T_t_ds_task_instance_archive() RETURNS void AS $$
+BEGIN
+         CREATE TABLE IF NOT EXISTS t_ds_task_instance_archive (
+         id int NOT NULL  ,
+         name varchar(255) DEFAULT NULL ,
+         task_type varchar(64) DEFAULT NULL ,
+         process_definition_id int DEFAULT NULL ,
+         process_instance_id int DEFAULT NULL ,
+         task_json text ,
+         state int DEFAULT NULL ,
+         submit_time timestamp DEFAULT NULL ,
+         start_time timestamp DEFAULT NULL ,
+         end_time timestamp DEFAULT NULL ,
+         host varchar(45) DEFAULT NULL ,
+         execute_path varchar(200) DEFAULT NULL ,
+         log_path varchar(200) DEFAULT NULL ,
+         alert_flag int DEFAULT NULL ,
+         retry_times int DEFAULT '0' ,
+         pid int DEFAULT NULL ,
+         app_link varchar(255) DEFAULT NULL ,
+         flag int DEFAULT '1' ,
+         retry_interval int DEFAULT NULL ,
+         max_retry_times int DEFAULT NULL ,
+         task_instance_priority int DEFAULT NULL ,
+         worker_group varchar(64),
+         executor_id int DEFAULT NULL ,
+         peak_cpu_usage float DEFAULT NULL ,
+         avg_cpu_usage float DEFAULT NULL ,
+         peak_memory float DEFAULT NULL ,
+         avg_memory float DEFAULT NULL ,
+         PRIMARY KEY (id)
+         );
+         CREATE INDEX IF NOT EXISTS archive_task_instance_process_instance_index on t_ds_task_instance_archive (process_instance_id);
+         CREATE INDEX IF NOT EXISTS archive_task_instance_start_time_index on t_ds_task_instance_archive (start_time);
+END;
+$$ LANGUAGE plpgsql;
+d//
+delimiter ;
+select ct_dolphin_T_t_ds_task_instance_archive();
+DROP FUNCTION ct_dolphin_T_t_ds_task_instance_archive();